@@ -55,7 +55,7 @@ public class DiffFieldPage extends DiffPage {
 
         if(diffPairBeginIdx > 0)
             ctx.put("previousDiffPairPageBeginIdx", diffPairBeginIdx - diffPairPageSize);
-        if((diffPairBeginIdx + diffPairPageSize) < fieldDiff.getNumDiffs())
+        if((diffPairBeginIdx + diffPairPageSize) < fieldDiff.getNumRetainedDiffs())
             ctx.put("nextDiffPairPageBeginIdx", diffPairBeginIdx + diffPairPageSize);
 
         ctx.put("breadcrumbs", getBreadcrumbs(typeDiff, fieldDiff));
@@ -64,7 +64,7 @@ public class DiffFieldPage extends DiffPage {
     private List<HollowObjectPairDiffScore> getObjectDiffScores(HollowTypeDiff typeDiff, HollowFieldDiff fieldDiff, int beginRecord, int pageSize) {
         List<HollowObjectPairDiffScore> list = new ArrayList<HollowObjectPairDiffScore>();
 
-        for(int i=0;i<fieldDiff.getNumDiffs();i++) {
+        for(int i=0;i<fieldDiff.getNumRetainedDiffs();i++) {
             int fromOrdinal = fieldDiff.getFromOrdinal(i);
             int toOrdinal = fieldDiff.getToOrdinal(i);
             String displayKey = typeDiff.getMatcher().getKeyDisplayString(typeDiff.getFromTypeState(), fieldDiff.getFromOrdinal(i));
@@ -142,7 +142,7 @@ public class DiffTypePage extends DiffPage {
         int diffPairCounts = 0;
 
         for(HollowFieldDiff fieldDiff : typeDiff.getFieldDiffs()) {
-            for(int i=0;i<fieldDiff.getNumDiffs();i++) {
+            for(int i=0;i<fieldDiff.getNumRetainedDiffs();i++) {
                 int fromOrdinal = fieldDiff.getFromOrdinal(i);
                 if(allDiffPairsIndexedByFromOrdinal[fromOrdinal] == null) {
                     String displayKey = typeDiff.getMatcher().getKeyDisplayString(typeDiff.getFromTypeState(), fromOrdinal);
@@ -17,7 +17,7 @@
 package com.netflix.hollow.diffview.effigy.pairer.exact;
 
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
-import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalLookup;
 import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.MatchIterator;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 
@@ -34,7 +34,7 @@ public class DiffExactRecordMatcher implements ExactRecordMatcher {
         if(fromType == null || toType == null)
             return false;
         
-        DiffEqualOrdinalMap typeMap = equalityMapping.getEqualOrdinalMap(fromType.getSchema().getName());
+        DiffEqualOrdinalLookup typeMap = equalityMapping.getEqualOrdinalLookup(fromType.getSchema().getName());
         if(typeMap != null) {
             MatchIterator matchingToOrdinals = typeMap.getEqualOrdinals(fromOrdinal);
             
@@ -29,12 +29,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 
 
 public abstract class AbstractHollowJsonAdaptorTask {
     public static boolean isDebug = false;
 
+    /**
+     * JsonFactory instances are thread-safe once configured, and are relatively expensive to create,
+     * so a single factory is shared by every parser created by these tasks.
+     */
+    protected static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     protected final int maxWorkQueue = 2048;
     protected final SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "json-adaptor");
 
@@ -84,6 +91,10 @@ public abstract class AbstractHollowJsonAdaptorTask {
         JsonArrayChunker chunker = new JsonArrayChunker(r, executor);
         chunker.initialize();
 
+        /// bounds the number of chunks read ahead of the parsing threads; the
+        /// reading thread blocks here rather than polling the executor's queue.
+        final Semaphore outstandingRecords = new Semaphore(maxWorkQueue);
+
         int counter = 0;
 
         Reader jsonObj = chunker.nextChunk();
@@ -91,25 +102,28 @@ public abstract class AbstractHollowJsonAdaptorTask {
 
             final Reader currentObject = jsonObj;
 
+            outstandingRecords.acquire();
+
             executor.execute(new Runnable() {
                 public void run() {
                     try {
-                        JsonFactory factory = new JsonFactory();
-                        JsonParser parser = factory.createParser(currentObject);
-                        processRecord(parser);
+                        JsonParser parser = JSON_FACTORY.createParser(currentObject);
+                        try {
+                            processRecord(parser);
+                        } finally {
+                            /// returns the parser's buffers to the factory's per-thread recycler
+                            parser.close();
+                        }
                     } catch(Exception e){
                         throw new RuntimeException(e);
+                    } finally {
+                        outstandingRecords.release();
                     }
                 }
             });
 
-            while(executor.getQueue().size() > maxWorkQueue) {
-                Thread.sleep(5);
-            }
-
             counter++;
 
-            jsonObj.close();
             jsonObj = chunker.nextChunk();
         }
 
@@ -16,7 +16,6 @@
  */
 package com.netflix.hollow.jsonadapter;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.netflix.hollow.core.schema.HollowCollectionSchema;
@@ -112,9 +111,24 @@ public class HollowJsonAdapter extends AbstractHollowJsonAdaptorTask {
     }
 
     public int processRecord(String singleRecord, FlatRecordWriter flatRecordWriter) throws IOException {
-        JsonFactory factory = new JsonFactory();
-        JsonParser parser = factory.createParser(new StringReader(singleRecord));
-        return processRecord(parser, flatRecordWriter);
+        return processRecord(new StringReader(singleRecord), flatRecordWriter);
+    }
+
+    public int processRecord(Reader singleRecord) throws IOException {
+        return processRecord(singleRecord, null);
+    }
+
+    /**
+     * Parse a single record directly from the supplied Reader, without first materializing it as a String.
+     * If a FlatRecordWriter is supplied, the record is written to it, otherwise it is added to the state engine.
+     */
+    public int processRecord(Reader singleRecord, FlatRecordWriter flatRecordWriter) throws IOException {
+        JsonParser parser = JSON_FACTORY.createParser(singleRecord);
+        try {
+            return processRecord(parser, flatRecordWriter);
+        } finally {
+            parser.close();
+        }
     }
 
     @Override
@@ -16,7 +16,6 @@
  */
 package com.netflix.hollow.jsonadapter;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
@@ -56,9 +55,9 @@ public class HollowJsonAdapterPrimaryKeyFinder {
     }
 
     public Object[] findKey(String json) throws IOException {
-        JsonFactory factory = new JsonFactory();
-        JsonParser parser = factory.createParser(new StringReader(json));
-        return Arrays.copyOf(findKey(parser), keyElementArray.length);
+        try(JsonParser parser = AbstractHollowJsonAdaptorTask.JSON_FACTORY.createParser(new StringReader(json))) {
+            return Arrays.copyOf(findKey(parser), keyElementArray.length);
+        }
     }
 
     public Object[] findKey(JsonParser parser) throws IOException {
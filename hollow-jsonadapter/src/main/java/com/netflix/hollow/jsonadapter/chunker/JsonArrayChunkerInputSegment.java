@@ -41,7 +41,7 @@ class JsonArrayChunkerInputSegment {
     }
 
     JsonArrayChunkerInputSegment findSpecialCharacterOffsets() {
-        for (int i = 0; i < data.length; i++) {
+        for (int i = 0; i < dataLength; i++) {
             switch (data[i]) {
                 case '{':
                     specialCharacterOffsets.add(i);
@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.jsonadapter;
+
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordWriter;
+import com.netflix.hollow.core.write.objectmapper.flatrecords.HollowSchemaIdentifierMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowJsonAdapterTest {
+
+    private static final String RECORD = "{ \"id\" : 1, \"name\" : \"one\", \"ignored\" : [ 1, 2 ] }";
+
+    private HollowWriteStateEngine stateEngine;
+
+    @Before
+    public void setUp() {
+        HollowObjectSchema schema = new HollowObjectSchema("TestType", 2);
+        schema.addField("id", FieldType.INT);
+        schema.addField("name", FieldType.STRING);
+
+        stateEngine = new HollowWriteStateEngine();
+        stateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+    @Test
+    public void processesRecordsFromAReader() throws IOException {
+        HollowJsonAdapter adapter = new HollowJsonAdapter(stateEngine, "TestType");
+
+        int ordinal = adapter.processRecord(new StringReader(RECORD));
+        adapter.processRecord(new StringReader("{ \"id\" : 2, \"name\" : \"two\" }"));
+
+        // the same record from a String is deduplicated against the one read from a Reader
+        Assert.assertEquals(ordinal, adapter.processRecord(RECORD));
+
+        HollowReadStateEngine readStateEngine = StateEngineRoundTripper.roundTripSnapshot(stateEngine);
+        GenericHollowObject record = new GenericHollowObject(readStateEngine, "TestType", ordinal);
+        Assert.assertEquals(1, record.getInt("id"));
+        Assert.assertEquals("one", record.getString("name"));
+        Assert.assertEquals(1, readStateEngine.getTypeState("TestType").maxOrdinal());
+    }
+
+    @Test
+    public void writesRecordsFromAReaderToAFlatRecordWriter() throws IOException {
+        HollowJsonAdapter adapter = new HollowJsonAdapter(stateEngine, "TestType");
+
+        FlatRecordWriter fromString = new FlatRecordWriter(stateEngine, new SchemaIdentifierMapper(stateEngine.getSchemas()));
+        adapter.processRecord(RECORD, fromString);
+
+        FlatRecordWriter fromReader = new FlatRecordWriter(stateEngine, new SchemaIdentifierMapper(stateEngine.getSchemas()));
+        adapter.processRecord(new StringReader(RECORD), fromReader);
+
+        Assert.assertArrayEquals(flatRecordBytes(fromString), flatRecordBytes(fromReader));
+        // nothing is added to the state engine when writing flat records
+        Assert.assertEquals(0, stateEngine.getTypeState("TestType").getPopulatedBitSet().cardinality());
+    }
+
+    private static byte[] flatRecordBytes(FlatRecordWriter writer) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.writeTo(baos);
+        return baos.toByteArray();
+    }
+
+    private static class SchemaIdentifierMapper implements HollowSchemaIdentifierMapper {
+        private final List<HollowSchema> schemas;
+
+        SchemaIdentifierMapper(List<HollowSchema> schemas) {
+            this.schemas = schemas;
+        }
+
+        @Override
+        public HollowSchema getSchema(int identifier) {
+            return schemas.get(identifier);
+        }
+
+        @Override
+        public FieldType[] getPrimaryKeyFieldTypes(int identifier) {
+            return null;
+        }
+
+        @Override
+        public int getSchemaId(HollowSchema schema) {
+            return schemas.indexOf(schema);
+        }
+    }
+
+}
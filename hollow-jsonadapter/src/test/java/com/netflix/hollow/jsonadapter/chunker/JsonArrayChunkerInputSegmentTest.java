@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.jsonadapter.chunker;
+
+import java.io.StringReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonArrayChunkerInputSegmentTest {
+
+    @Test
+    public void findsSpecialCharactersOnlyInTheCharactersRead() throws Exception {
+        JsonArrayChunkerInputSegment segment = new JsonArrayChunkerInputSegment(16);
+
+        // leaves special characters in the buffer beyond the characters read by the next fill
+        Assert.assertFalse(segment.fill(new StringReader("{}{}{}{}{}{}{}{}")));
+        Assert.assertTrue(segment.fill(new StringReader("{\"a\\\"")));
+        Assert.assertEquals(5, segment.length());
+
+        segment.findSpecialCharacterOffsets();
+
+        Assert.assertTrue(segment.nextSpecialCharacter());
+        Assert.assertEquals('{', segment.specialCharacter());
+        Assert.assertEquals(0, segment.specialCharacterIteratorPosition());
+        Assert.assertTrue(segment.nextSpecialCharacter());
+        Assert.assertEquals('\"', segment.specialCharacter());
+        Assert.assertEquals(1, segment.specialCharacterIteratorPosition());
+        Assert.assertTrue(segment.nextSpecialCharacter());
+        Assert.assertEquals('\\', segment.specialCharacter());
+        Assert.assertEquals(3, segment.specialCharacterIteratorPosition());
+        Assert.assertTrue(segment.nextSpecialCharacter());
+        Assert.assertEquals('\"', segment.specialCharacter());
+        Assert.assertEquals(4, segment.specialCharacterIteratorPosition());
+        Assert.assertFalse(segment.nextSpecialCharacter());
+    }
+
+}
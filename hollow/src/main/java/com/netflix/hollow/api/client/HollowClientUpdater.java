@@ -22,6 +22,7 @@ import com.netflix.hollow.api.metrics.HollowConsumerMetrics;
 import com.netflix.hollow.api.metrics.HollowMetricsCollector;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.RecyclingRecycler;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
@@ -53,6 +54,7 @@ public class HollowClientUpdater {
     private final HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
 
     private HollowFilterConfig filter;
+    private ArraySegmentRecycler memoryRecycler;
 
     public HollowClientUpdater(HollowConsumer.BlobRetriever transitionCreator,
                                List<HollowConsumer.RefreshListener> refreshListeners,
@@ -218,12 +220,13 @@ public class HollowClientUpdater {
 
     private HollowReadStateEngine newStateEngine() {
         HollowDataHolder hollowDataHolderLocal = hollowDataHolderVolatile;
+        ArraySegmentRecycler recycler;
         if (hollowDataHolderLocal != null) {
-            ArraySegmentRecycler existingRecycler =
-                    hollowDataHolderLocal.getStateEngine().getMemoryRecycler();
-            return new HollowReadStateEngine(hashCodeFinder, true, existingRecycler);
+            recycler = hollowDataHolderLocal.getStateEngine().getMemoryRecycler();
+        } else {
+            recycler = memoryRecycler != null ? memoryRecycler : new RecyclingRecycler();
         }
-        return new HollowReadStateEngine(hashCodeFinder);
+        return new HollowReadStateEngine(hashCodeFinder, true, recycler);
     }
 
     public StackTraceRecorder getStaleReferenceUsageStackTraceRecorder() {
@@ -244,6 +247,16 @@ public class HollowClientUpdater {
         this.filter = filter;
     }
 
+    /**
+     * Set the memory recycler used by the first state engine.  Subsequent state engines, created for
+     * double snapshots, share the recycler of the state engine they replace.
+     *
+     * @param memoryRecycler the memory recycler, or null for the default
+     */
+    public void setMemoryRecycler(ArraySegmentRecycler memoryRecycler) {
+        this.memoryRecycler = memoryRecycler;
+    }
+
     /**
      * @return the number of failed snapshot transitions stored in the {@link FailedTransitionTracker}.
      */
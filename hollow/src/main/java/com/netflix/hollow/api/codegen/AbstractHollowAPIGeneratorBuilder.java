@@ -132,6 +132,26 @@ public abstract class AbstractHollowAPIGeneratorBuilder<B extends AbstractHollow
         return getBuilder();
     }
 
+    /**
+     * Additionally generate a re-pointable {@code <Type>Flyweight} for each OBJECT type, which reads fields
+     * through the type API at a mutable ordinal so the data model can be walked without allocating records.
+     * @return this builder
+     */
+    public B withFlyweights() {
+        config.setUseFlyweights(true);
+        return getBuilder();
+    }
+
+    /**
+     * Generate type API accessors which hold each field position in its own final field and read directly from
+     * the {@code HollowObjectTypeReadState} when the API is not backed by a proxy data access.
+     * @return this builder
+     */
+    public B withBoundFieldAccessors() {
+        config.setUseBoundFieldAccessors(true);
+        return getBuilder();
+    }
+
     public B withDestination(String destinationPath) {
         return withDestination(Paths.get(destinationPath));
     }
@@ -27,6 +27,8 @@ public class CodeGeneratorConfig {
     private boolean useHollowPrimitiveTypes = false;
     private boolean restrictApiToFieldType = false;
     private boolean useVerboseToString = false;
+    private boolean useFlyweights = false;
+    private boolean useBoundFieldAccessors = false;
 
     public CodeGeneratorConfig() {}
 
@@ -121,6 +123,22 @@ public class CodeGeneratorConfig {
         this.useVerboseToString = useVerboseToString;
     }
 
+    public boolean isUseFlyweights() {
+        return useFlyweights;
+    }
+
+    public void setUseFlyweights(boolean useFlyweights) {
+        this.useFlyweights = useFlyweights;
+    }
+
+    public boolean isUseBoundFieldAccessors() {
+        return useBoundFieldAccessors;
+    }
+
+    public void setUseBoundFieldAccessors(boolean useBoundFieldAccessors) {
+        this.useBoundFieldAccessors = useBoundFieldAccessors;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -134,6 +152,8 @@ public class CodeGeneratorConfig {
         result = prime * result + (useHollowPrimitiveTypes ? 1231 : 1237);
         result = prime * result + (usePackageGrouping ? 1231 : 1237);
         result = prime * result + (useVerboseToString ? 1231 : 1237);
+        result = prime * result + (useFlyweights ? 1231 : 1237);
+        result = prime * result + (useBoundFieldAccessors ? 1231 : 1237);
         return result;
     }
 
@@ -170,6 +190,10 @@ public class CodeGeneratorConfig {
             return false;
         if (useVerboseToString != other.useVerboseToString)
             return false;
+        if (useFlyweights != other.useFlyweights)
+            return false;
+        if (useBoundFieldAccessors != other.useBoundFieldAccessors)
+            return false;
         return true;
     }
 
@@ -194,6 +218,10 @@ public class CodeGeneratorConfig {
         builder.append(restrictApiToFieldType);
         builder.append(", useVerboseToString=");
         builder.append(useVerboseToString);
+        builder.append(", useFlyweights=");
+        builder.append(useFlyweights);
+        builder.append(", useBoundFieldAccessors=");
+        builder.append(useBoundFieldAccessors);
         builder.append("]");
         return builder.toString();
     }
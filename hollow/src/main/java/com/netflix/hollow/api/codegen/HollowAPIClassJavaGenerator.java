@@ -24,6 +24,7 @@ import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.typeAPICl
 import com.netflix.hollow.api.consumer.HollowConsumerAPI;
 import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.api.objects.provider.HollowFactory;
+import com.netflix.hollow.api.objects.provider.HollowObjectBoundedCacheProvider;
 import com.netflix.hollow.api.objects.provider.HollowObjectCacheProvider;
 import com.netflix.hollow.api.objects.provider.HollowObjectFactoryProvider;
 import com.netflix.hollow.api.objects.provider.HollowObjectProvider;
@@ -92,6 +93,7 @@ public class HollowAPIClassJavaGenerator extends HollowConsumerJavaFileGenerator
         builder.append("import ").append(HollowFactory.class.getName()).append(";\n");
         builder.append("import ").append(HollowObjectProvider.class.getName()).append(";\n");
         builder.append("import ").append(HollowObjectCacheProvider.class.getName()).append(";\n");
+        builder.append("import ").append(HollowObjectBoundedCacheProvider.class.getName()).append(";\n");
         builder.append("import ").append(HollowObjectFactoryProvider.class.getName()).append(";\n");
         builder.append("import ").append(HollowObjectCreationSampler.class.getName()).append(";\n");
         builder.append("import ").append(HollowSamplingDirector.class.getName()).append(";\n");
@@ -140,6 +142,13 @@ public class HollowAPIClassJavaGenerator extends HollowConsumerJavaFileGenerator
         builder.append("    }\n\n");
 
         builder.append("    public ").append(className).append("(HollowDataAccess dataAccess, Set<String> cachedTypes, Map<String, HollowFactory<?>> factoryOverrides, ").append(className).append(" previousCycleAPI) {\n");
+        builder.append("        this(dataAccess, cachedTypes, Collections.<String, Integer>emptyMap(), factoryOverrides, previousCycleAPI);\n");
+        builder.append("    }\n\n");
+
+        builder.append("    /**\n");
+        builder.append("     * @param boundedCachedTypes the types whose most recently accessed objects are cached, mapped to the maximum number of objects to cache\n");
+        builder.append("     */\n");
+        builder.append("    public ").append(className).append("(HollowDataAccess dataAccess, Set<String> cachedTypes, Map<String, Integer> boundedCachedTypes, Map<String, HollowFactory<?>> factoryOverrides, ").append(className).append(" previousCycleAPI) {\n");
         builder.append("        super(dataAccess);\n");
         builder.append("        HollowTypeDataAccess typeDataAccess;\n");
         builder.append("        HollowFactory factory;\n\n");
@@ -167,6 +176,11 @@ public class HollowAPIClassJavaGenerator extends HollowConsumerJavaFileGenerator
             builder.append("            if(previousCycleAPI != null && (previousCycleAPI.").append(hollowObjectProviderName(schema.getName())).append(" instanceof HollowObjectCacheProvider))\n");
             builder.append("                previousCacheProvider = (HollowObjectCacheProvider) previousCycleAPI.").append(hollowObjectProviderName(schema.getName())).append(";\n");
             builder.append("            ").append(hollowObjectProviderName(schema.getName())).append(" = new HollowObjectCacheProvider(typeDataAccess, ").append(lowercase(typeAPIClassname(schema.getName()))).append(", factory, previousCacheProvider);\n");
+            builder.append("        } else if(boundedCachedTypes.containsKey(\"").append(schema.getName()).append("\")) {\n");
+            builder.append("            HollowObjectBoundedCacheProvider previousCacheProvider = null;\n");
+            builder.append("            if(previousCycleAPI != null && (previousCycleAPI.").append(hollowObjectProviderName(schema.getName())).append(" instanceof HollowObjectBoundedCacheProvider))\n");
+            builder.append("                previousCacheProvider = (HollowObjectBoundedCacheProvider) previousCycleAPI.").append(hollowObjectProviderName(schema.getName())).append(";\n");
+            builder.append("            ").append(hollowObjectProviderName(schema.getName())).append(" = new HollowObjectBoundedCacheProvider(typeDataAccess, ").append(lowercase(typeAPIClassname(schema.getName()))).append(", factory, boundedCachedTypes.get(\"").append(schema.getName()).append("\"), previousCacheProvider);\n");
             builder.append("        } else {\n");
             builder.append("            ").append(hollowObjectProviderName(schema.getName())).append(" = new HollowObjectFactoryProvider(typeDataAccess, ").append(lowercase(typeAPIClassname(schema.getName()))).append(", factory);\n");
             builder.append("        }\n\n");
@@ -179,6 +193,8 @@ public class HollowAPIClassJavaGenerator extends HollowConsumerJavaFileGenerator
         for(HollowSchema schema : schemaList) {
             builder.append("        if(").append(hollowObjectProviderName(schema.getName())).append(" instanceof HollowObjectCacheProvider)\n");
             builder.append("            ((HollowObjectCacheProvider)").append(hollowObjectProviderName(schema.getName())).append(").detach();\n");
+            builder.append("        else if(").append(hollowObjectProviderName(schema.getName())).append(" instanceof HollowObjectBoundedCacheProvider)\n");
+            builder.append("            ((HollowObjectBoundedCacheProvider)").append(hollowObjectProviderName(schema.getName())).append(").detach();\n");
         }
         builder.append("    }\n\n");
 
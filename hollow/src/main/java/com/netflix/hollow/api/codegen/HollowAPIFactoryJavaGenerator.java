@@ -22,6 +22,7 @@ import com.netflix.hollow.api.objects.provider.HollowFactory;
 import com.netflix.hollow.core.HollowDataset;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -52,25 +53,36 @@ public class HollowAPIFactoryJavaGenerator extends HollowConsumerJavaFileGenerat
         builder.append("import ").append(HollowFactory.class.getName()).append(";\n");
         builder.append("import ").append(HollowDataAccess.class.getName()).append(";\n");
         builder.append("import ").append(Collections.class.getName()).append(";\n");
+        builder.append("import ").append(Map.class.getName()).append(";\n");
         builder.append("import ").append(Set.class.getName()).append(";\n");
 
 
         builder.append("\n@SuppressWarnings(\"all\")\n");
         builder.append("public class ").append(className).append(" implements HollowAPIFactory {\n\n");
 
-        builder.append("    private final Set<String> cachedTypes;\n\n");
+        builder.append("    private final Set<String> cachedTypes;\n");
+        builder.append("    private final Map<String, Integer> boundedCachedTypes;\n\n");
 
         builder.append("    public ").append(className).append("() {\n");
         builder.append("        this(Collections.<String>emptySet());\n");
         builder.append("    }\n\n");
 
         builder.append("    public ").append(className).append("(Set<String> cachedTypes) {\n");
+        builder.append("        this(cachedTypes, Collections.<String, Integer>emptyMap());\n");
+        builder.append("    }\n\n");
+
+        builder.append("    /**\n");
+        builder.append("     * @param cachedTypes the types whose objects are all cached\n");
+        builder.append("     * @param boundedCachedTypes the types whose most recently accessed objects are cached, mapped to the maximum number of objects to cache\n");
+        builder.append("     */\n");
+        builder.append("    public ").append(className).append("(Set<String> cachedTypes, Map<String, Integer> boundedCachedTypes) {\n");
         builder.append("        this.cachedTypes = cachedTypes;\n");
+        builder.append("        this.boundedCachedTypes = boundedCachedTypes;\n");
         builder.append("    }\n\n");
 
         builder.append("    @Override\n");
         builder.append("    public HollowAPI createAPI(HollowDataAccess dataAccess) {\n");
-        builder.append("        return new ").append(apiClassname).append("(dataAccess, cachedTypes);\n");
+        builder.append("        return new ").append(apiClassname).append("(dataAccess, cachedTypes, boundedCachedTypes, Collections.<String, HollowFactory<?>>emptyMap(), null);\n");
         builder.append("    }\n\n");
 
         builder.append("    @Override\n");
@@ -78,7 +90,7 @@ public class HollowAPIFactoryJavaGenerator extends HollowConsumerJavaFileGenerat
         builder.append("        if (!(previousCycleAPI instanceof ").append(apiClassname).append(")) {\n");
         builder.append("            throw new ClassCastException(previousCycleAPI.getClass() + \" not instance of ").append(apiClassname).append("\");");
         builder.append("        }\n");
-        builder.append("        return new ").append(apiClassname).append("(dataAccess, cachedTypes, Collections.<String, HollowFactory<?>>emptyMap(), (").append(apiClassname).append(") previousCycleAPI);\n");
+        builder.append("        return new ").append(apiClassname).append("(dataAccess, cachedTypes, boundedCachedTypes, Collections.<String, HollowFactory<?>>emptyMap(), (").append(apiClassname).append(") previousCycleAPI);\n");
         builder.append("    }\n\n");
 
         builder.append("}");
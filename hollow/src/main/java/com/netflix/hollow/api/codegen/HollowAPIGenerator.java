@@ -31,6 +31,7 @@ import com.netflix.hollow.api.codegen.indexes.LegacyHollowPrimaryKeyIndexGenerat
 import com.netflix.hollow.api.codegen.objects.HollowFactoryJavaGenerator;
 import com.netflix.hollow.api.codegen.objects.HollowListJavaGenerator;
 import com.netflix.hollow.api.codegen.objects.HollowMapJavaGenerator;
+import com.netflix.hollow.api.codegen.objects.HollowObjectFlyweightJavaGenerator;
 import com.netflix.hollow.api.codegen.objects.HollowObjectJavaGenerator;
 import com.netflix.hollow.api.codegen.objects.HollowSetJavaGenerator;
 import com.netflix.hollow.api.custom.HollowAPI;
@@ -386,6 +387,29 @@ public class HollowAPIGenerator {
         config.setRestrictApiToFieldType(restrictApiToFieldType);
     }
 
+    /**
+     * Use this method to additionally generate a re-pointable flyweight for each OBJECT type
+     *
+     * Defaults to false
+     *
+     * @param useFlyweights true if applied.
+     */
+    public void setUseFlyweights(boolean useFlyweights) {
+        config.setUseFlyweights(useFlyweights);
+    }
+
+    /**
+     * Use this method to generate type API accessors bound to field positions resolved once at construction,
+     * which read directly from the type's read state when it is not accessed through a proxy
+     *
+     * Defaults to false
+     *
+     * @param useBoundFieldAccessors true if applied.
+     */
+    public void setUseBoundFieldAccessors(boolean useBoundFieldAccessors) {
+        config.setUseBoundFieldAccessors(useBoundFieldAccessors);
+    }
+
     /**
      * Generate all files under {@code destinationPath}
      *
@@ -481,6 +505,11 @@ public class HollowAPIGenerator {
                     generateFile(directory, new HollowUniqueKeyIndexGenerator(packageName, apiClassname, objSchema,
                             dataset, config));
                 }
+
+                if (config.isUseFlyweights()) {
+                    generateFile(directory, new HollowObjectFlyweightJavaGenerator(packageName, apiClassname,
+                            objSchema, dataset, config));
+                }
             }
         }
     }
@@ -164,6 +164,10 @@ public class HollowCodeGenerationUtils {
         return uppercase(typeName) + "TypeAPI";
     }
 
+    public static String flyweightClassname(String typeName) {
+        return uppercase(typeName) + "Flyweight";
+    }
+
     public static String hollowFactoryClassname(String typeName) {
         return substituteInvalidChars(uppercase(typeName)) + "HollowFactory";
     }
@@ -27,6 +27,7 @@ import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.api.custom.HollowObjectTypeAPI;
 import com.netflix.hollow.core.HollowDataset;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import java.util.Comparator;
@@ -59,6 +60,8 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         this.importClasses.add(HollowObjectTypeAPI.class);
         this.importClasses.add(HollowObjectTypeDataAccess.class);
+        if(config.isUseBoundFieldAccessors())
+            this.importClasses.add(HollowObjectTypeReadState.class);
     }
 
     @Override
@@ -68,7 +71,13 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         classBodyBuilder.append("@SuppressWarnings(\"all\")\n");
         classBodyBuilder.append("public class " + className + " extends HollowObjectTypeAPI {\n\n");
 
-        classBodyBuilder.append("    private final ").append(delegateLookupClassname(objectSchema)).append(" delegateLookupImpl;\n\n");
+        classBodyBuilder.append("    private final ").append(delegateLookupClassname(objectSchema)).append(" delegateLookupImpl;\n");
+        if(config.isUseBoundFieldAccessors()) {
+            classBodyBuilder.append("    private final HollowObjectTypeReadState boundReadState;\n");
+            for(int i=0;i<objectSchema.numFields();i++)
+                classBodyBuilder.append("    private final int ").append(fieldIndex(i)).append(";\n");
+        }
+        classBodyBuilder.append("\n");
 
         classBodyBuilder.append(generateConstructor());
         classBodyBuilder.append("\n\n");
@@ -145,21 +154,44 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
 
         builder.append("        });\n");
         builder.append("        this.delegateLookupImpl = new ").append(delegateLookupClassname(objectSchema)).append("(this);\n");
+        if(config.isUseBoundFieldAccessors()) {
+            builder.append("        this.boundReadState = typeDataAccess instanceof HollowObjectTypeReadState ? (HollowObjectTypeReadState) typeDataAccess : null;\n");
+            for(int i=0;i<objectSchema.numFields();i++)
+                builder.append("        this.").append(fieldIndex(i)).append(" = fieldIndex[").append(i).append("];\n");
+        }
         builder.append("    }");
 
         return builder.toString();
     }
 
+    /**
+     * When accessors are bound, each field position is copied into its own final int and reads go directly to
+     * the {@link HollowObjectTypeReadState} whenever the type API is not backed by a proxy or other data access,
+     * so that the call site stays monomorphic.
+     */
+    private String fieldIndex(int fieldNum) {
+        if(config.isUseBoundFieldAccessors())
+            return substituteInvalidChars(objectSchema.getFieldName(fieldNum)) + "FieldIndex";
+        return "fieldIndex[" + fieldNum + "]";
+    }
+
+    private String readCall(String method, int fieldNum, String additionalArgs) {
+        String call = method + "(ordinal, " + fieldIndex(fieldNum) + additionalArgs + ")";
+        if(config.isUseBoundFieldAccessors())
+            return "(boundReadState != null ? boundReadState." + call + " : getTypeDataAccess()." + call + ")";
+        return "getTypeDataAccess()." + call;
+    }
+
     private String generateByteArrayFieldAccessor(int fieldNum) {
         StringBuilder builder = new StringBuilder();
 
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public byte[] get" + uppercase(fieldName) + "(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleBytes(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
-        builder.append("        return getTypeDataAccess().readBytes(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        boxedFieldAccessSampler.recordFieldAccess(" + fieldIndex(fieldNum) + ");\n");
+        builder.append("        return " + readCall("readBytes", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         return builder.toString();
@@ -171,16 +203,16 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public String get" + uppercase(fieldName) + "(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleString(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
-        builder.append("        return getTypeDataAccess().readString(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        boxedFieldAccessSampler.recordFieldAccess(" + fieldIndex(fieldNum) + ");\n");
+        builder.append("        return " + readCall("readString", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         builder.append("    public boolean is" + uppercase(fieldName) + "Equal(int ordinal, String testValue) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleStringEquals(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\", testValue);\n");
-        builder.append("        return getTypeDataAccess().isStringFieldEqual(ordinal, fieldIndex[" + fieldNum + "], testValue);\n");
+        builder.append("        return " + readCall("isStringFieldEqual", fieldNum, ", testValue") + ";\n");
         builder.append("    }");
 
         return builder.toString();
@@ -193,9 +225,9 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String referencedType = substituteInvalidChars(objectSchema.getReferencedType(fieldNum));
 
         builder.append("    public int get"+ uppercase(fieldName) + "Ordinal(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleReferencedOrdinal(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        return getTypeDataAccess().readOrdinal(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        return " + readCall("readOrdinal", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         builder.append("    public " + typeAPIClassname(referencedType) + " get" + uppercase(fieldName) + "TypeAPI() {\n");
@@ -211,18 +243,18 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public double get").append(uppercase(fieldName)).append("(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleDouble(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        return getTypeDataAccess().readDouble(ordinal, fieldIndex["+fieldNum+"]);\n");
+        builder.append("        return " + readCall("readDouble", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         builder.append("    public Double get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        double d;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1) {\n");
         builder.append("            d = missingDataHandler().handleDouble(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
-        builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
-        builder.append("            d = getTypeDataAccess().readDouble(ordinal, fieldIndex["+fieldNum+"]);\n");
+        builder.append("            boxedFieldAccessSampler.recordFieldAccess(" + fieldIndex(fieldNum) + ");\n");
+        builder.append("            d = " + readCall("readDouble", fieldNum, "") + ";\n");
         builder.append("        }\n");
         builder.append("        return Double.isNaN(d) ? null : Double.valueOf(d);\n");
         builder.append("    }\n\n");
@@ -238,18 +270,18 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public float get").append(uppercase(fieldName)).append("(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleFloat(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        return getTypeDataAccess().readFloat(ordinal, fieldIndex["+fieldNum+"]);\n");
+        builder.append("        return " + readCall("readFloat", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         builder.append("    public Float get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        float f;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1) {\n");
         builder.append("            f = missingDataHandler().handleFloat(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
-        builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
-        builder.append("            f = getTypeDataAccess().readFloat(ordinal, fieldIndex["+fieldNum+"]);\n");
+        builder.append("            boxedFieldAccessSampler.recordFieldAccess(" + fieldIndex(fieldNum) + ");\n");
+        builder.append("            f = " + readCall("readFloat", fieldNum, "") + ";\n");
         builder.append("        }");
         builder.append("        return Float.isNaN(f) ? null : Float.valueOf(f);\n");
         builder.append("    }\n\n");
@@ -265,18 +297,18 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public long get").append(uppercase(fieldName)).append("(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleLong(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        return getTypeDataAccess().readLong(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        return " + readCall("readLong", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         builder.append("    public Long get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        long l;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1) {\n");
         builder.append("            l = missingDataHandler().handleLong(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
-        builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
-        builder.append("            l = getTypeDataAccess().readLong(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("            boxedFieldAccessSampler.recordFieldAccess(" + fieldIndex(fieldNum) + ");\n");
+        builder.append("            l = " + readCall("readLong", fieldNum, "") + ";\n");
         builder.append("        }\n");
         builder.append("        if(l == Long.MIN_VALUE)\n");
         builder.append("            return null;\n");
@@ -292,18 +324,18 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public int get").append(uppercase(fieldName)).append("(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleInt(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        return getTypeDataAccess().readInt(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        return " + readCall("readInt", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         builder.append("    public Integer get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
         builder.append("        int i;\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1) {\n");
         builder.append("            i = missingDataHandler().handleInt(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
         builder.append("        } else {\n");
-        builder.append("            boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
-        builder.append("            i = getTypeDataAccess().readInt(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("            boxedFieldAccessSampler.recordFieldAccess(" + fieldIndex(fieldNum) + ");\n");
+        builder.append("            i = " + readCall("readInt", fieldNum, "") + ";\n");
         builder.append("        }\n");
         builder.append("        if(i == Integer.MIN_VALUE)\n");
         builder.append("            return null;\n");
@@ -319,15 +351,15 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         String fieldName = substituteInvalidChars(objectSchema.getFieldName(fieldNum));
 
         builder.append("    public boolean get").append(uppercase(fieldName)).append("(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return Boolean.TRUE.equals(missingDataHandler().handleBoolean(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\"));\n");
-        builder.append("        return Boolean.TRUE.equals(getTypeDataAccess().readBoolean(ordinal, fieldIndex[" + fieldNum + "]));\n");
+        builder.append("        return Boolean.TRUE.equals(" + readCall("readBoolean", fieldNum, "") + ");\n");
         builder.append("    }\n\n");
 
         builder.append("    public Boolean get").append(uppercase(fieldName)).append("Boxed(int ordinal) {\n");
-        builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
+        builder.append("        if(" + fieldIndex(fieldNum) + " == -1)\n");
         builder.append("            return missingDataHandler().handleBoolean(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
-        builder.append("        return getTypeDataAccess().readBoolean(ordinal, fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        return " + readCall("readBoolean", fieldNum, "") + ";\n");
         builder.append("    }\n\n");
 
         return builder.toString();
@@ -79,13 +79,45 @@ public class HollowPrimaryKeyIndexGenerator extends HollowUniqueKeyIndexGenerato
         }
 
         builder.append("    public " + hollowImplClassname(schema.getName()) + " findMatch(" + paramsAsStr + ") {\n");
-        builder.append("        int ordinal = idx.getMatchingOrdinal(" + fieldNamesAsStr + ");\n");
+        builder.append("        int ordinal = idx." + getMatchingOrdinalMethod() + "(" + fieldNamesAsStr + ");\n");
         builder.append("        if(ordinal == -1)\n");
         builder.append("            return null;\n");
         builder.append("        return api.get" + hollowImplClassname(schema.getName()) + "(ordinal);\n");
         builder.append("    }\n\n");
     }
 
+    /*
+     * Keys of one or two INT, LONG or STRING fields are looked up with the typed methods of the index, which
+     * avoid boxing the key fields; any other key goes through the Object varargs lookup.
+     */
+    private String getMatchingOrdinalMethod() {
+        if (pk.numFields() == 1) {
+            if (isLongKeyField(0))
+                return "getMatchingOrdinalForLong";
+            if (isStringKeyField(0))
+                return "getMatchingOrdinalForString";
+        } else if (pk.numFields() == 2) {
+            if (isLongKeyField(0) && isLongKeyField(1))
+                return "getMatchingOrdinalForLongs";
+            if (isLongKeyField(0) && isStringKeyField(1))
+                return "getMatchingOrdinalForLongAndString";
+            if (isStringKeyField(0) && isLongKeyField(1))
+                return "getMatchingOrdinalForStringAndLong";
+            if (isStringKeyField(0) && isStringKeyField(1))
+                return "getMatchingOrdinalForStrings";
+        }
+        return "getMatchingOrdinal";
+    }
+
+    private boolean isLongKeyField(int i) {
+        FieldType ft = pk.getFieldType(dataset, i);
+        return FieldType.INT.equals(ft) || FieldType.LONG.equals(ft);
+    }
+
+    private boolean isStringKeyField(int i) {
+        return FieldType.STRING.equals(pk.getFieldType(dataset, i));
+    }
+
     @Override
     protected void genDeprecatedJavaDoc(StringBuilder builder) {
         String typeName = hollowImplClassname(type);
@@ -127,6 +127,21 @@ public class HollowUniqueKeyIndexGenerator extends HollowIndexGenerator {
         builder.append("            return null;\n");
         builder.append("        return api.get" + hollowImplClassname(type) + "(ordinal);\n");
         builder.append("    }\n\n");
+
+        genTypedFindMatchAPI(builder, "long", "getMatchingOrdinalForLong");
+        genTypedFindMatchAPI(builder, "String", "getMatchingOrdinalForString");
+    }
+
+    /*
+     * Single key lookups which avoid boxing the key into a varargs array.
+     */
+    private void genTypedFindMatchAPI(StringBuilder builder, String keyType, String indexMethod) {
+        builder.append("    public " + hollowImplClassname(type) + " findMatch(" + keyType + " key) {\n");
+        builder.append("        int ordinal = idx." + indexMethod + "(key);\n");
+        builder.append("        if(ordinal == -1)\n");
+        builder.append("            return null;\n");
+        builder.append("        return api.get" + hollowImplClassname(type) + "(ordinal);\n");
+        builder.append("    }\n\n");
     }
 
     protected void genDeprecatedJavaDoc(StringBuilder builder) {
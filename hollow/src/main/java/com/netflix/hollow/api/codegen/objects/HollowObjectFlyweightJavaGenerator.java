@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.objects;
+
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.flyweightClassname;
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.isPrimitiveType;
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.substituteInvalidChars;
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.typeAPIClassname;
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.uppercase;
+
+import com.netflix.hollow.api.codegen.CodeGeneratorConfig;
+import com.netflix.hollow.api.codegen.HollowAPIGenerator;
+import com.netflix.hollow.api.codegen.HollowCodeGenerationUtils;
+import com.netflix.hollow.api.codegen.HollowConsumerJavaFileGenerator;
+import com.netflix.hollow.api.codegen.api.HollowTypeAPIGenerator;
+import com.netflix.hollow.core.HollowDataset;
+import com.netflix.hollow.core.schema.HollowListSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSchema.SchemaType;
+
+/**
+ * This class contains template logic for generating a re-pointable flyweight over a single OBJECT type.
+ * Not intended for external consumption.
+ * <p>
+ * A generated flyweight holds a mutable ordinal and reads every field through the type's generated
+ * type API, so a caller can walk the data model by moving a handful of flyweights between ordinals
+ * instead of allocating a {@code HollowObject} per record visited.
+ *
+ * @see HollowAPIGenerator
+ */
+public class HollowObjectFlyweightJavaGenerator extends HollowConsumerJavaFileGenerator {
+    public static final String SUB_PACKAGE_NAME = HollowTypeAPIGenerator.SUB_PACKAGE_NAME;
+
+    private final HollowObjectSchema schema;
+    private final String apiClassname;
+    private final String typeAPIClassname;
+
+    public HollowObjectFlyweightJavaGenerator(String packageName, String apiClassname, HollowObjectSchema schema,
+            HollowDataset dataset, CodeGeneratorConfig config) {
+        super(packageName, SUB_PACKAGE_NAME, dataset, config);
+
+        this.apiClassname = apiClassname;
+        this.schema = schema;
+        this.className = flyweightClassname(schema.getName());
+        this.typeAPIClassname = typeAPIClassname(schema.getName());
+    }
+
+    /**
+     * @param dataset the data model
+     * @param typeName the name of a type in the data model
+     * @param config the code generator configuration
+     * @return true if a flyweight is generated for the type
+     */
+    public static boolean hasFlyweight(HollowDataset dataset, String typeName, CodeGeneratorConfig config) {
+        HollowSchema schema = dataset.getSchema(typeName);
+        if(schema == null || schema.getSchemaType() != SchemaType.OBJECT)
+            return false;
+        return !(config.isUseHollowPrimitiveTypes() && isPrimitiveType(typeName));
+    }
+
+    @Override
+    public String generate() {
+        StringBuilder classBuilder = new StringBuilder();
+        appendPackageAndCommonImports(classBuilder, apiClassname);
+
+        classBuilder.append("@SuppressWarnings(\"all\")\n");
+        classBuilder.append("public class " + className + " {\n\n");
+
+        classBuilder.append("    private final " + typeAPIClassname + " typeAPI;\n");
+        classBuilder.append("    private int ordinal = -1;\n\n");
+
+        classBuilder.append("    public " + className + "(" + apiClassname + " api) {\n");
+        classBuilder.append("        this(api.get" + uppercase(substituteInvalidChars(schema.getName())) + "TypeAPI());\n");
+        classBuilder.append("    }\n\n");
+
+        classBuilder.append("    public " + className + "(" + typeAPIClassname + " typeAPI) {\n");
+        classBuilder.append("        this.typeAPI = typeAPI;\n");
+        classBuilder.append("    }\n\n");
+
+        classBuilder.append("    public " + className + " moveTo(int ordinal) {\n");
+        classBuilder.append("        this.ordinal = ordinal;\n");
+        classBuilder.append("        return this;\n");
+        classBuilder.append("    }\n\n");
+
+        classBuilder.append("    public int getOrdinal() {\n");
+        classBuilder.append("        return ordinal;\n");
+        classBuilder.append("    }\n\n");
+
+        for(int i=0;i<schema.numFields();i++)
+            appendAccessors(classBuilder, i);
+
+        classBuilder.append("    public " + typeAPIClassname + " typeApi() {\n");
+        classBuilder.append("        return typeAPI;\n");
+        classBuilder.append("    }\n\n");
+
+        classBuilder.append("}");
+
+        return classBuilder.toString();
+    }
+
+    private void appendAccessors(StringBuilder classBuilder, int fieldNum) {
+        String fieldName = uppercase(substituteInvalidChars(schema.getFieldName(fieldNum)));
+
+        switch(schema.getFieldType(fieldNum)) {
+            case REFERENCE:
+                appendReferenceAccessors(classBuilder, fieldNum, fieldName);
+                return;
+            case STRING:
+                classBuilder.append("    public String get" + fieldName + "() {\n");
+                classBuilder.append("        return typeAPI.get" + fieldName + "(ordinal);\n");
+                classBuilder.append("    }\n\n");
+
+                classBuilder.append("    public boolean is" + fieldName + "Equal(String testValue) {\n");
+                classBuilder.append("        return typeAPI.is" + fieldName + "Equal(ordinal, testValue);\n");
+                classBuilder.append("    }\n\n");
+                return;
+            default:
+                String javaType = HollowCodeGenerationUtils.getJavaScalarType(schema.getFieldType(fieldNum));
+                classBuilder.append("    public " + javaType + " get" + fieldName + "() {\n");
+                classBuilder.append("        return typeAPI.get" + fieldName + "(ordinal);\n");
+                classBuilder.append("    }\n\n");
+        }
+    }
+
+    private void appendReferenceAccessors(StringBuilder classBuilder, int fieldNum, String fieldName) {
+        String referencedType = schema.getReferencedType(fieldNum);
+
+        classBuilder.append("    public int get" + fieldName + "Ordinal() {\n");
+        classBuilder.append("        return typeAPI.get" + fieldName + "Ordinal(ordinal);\n");
+        classBuilder.append("    }\n\n");
+
+        if(hasFlyweight(dataset, referencedType, config)) {
+            String referencedFlyweight = flyweightClassname(referencedType);
+
+            classBuilder.append("    public " + referencedFlyweight + " get" + fieldName + "(" + referencedFlyweight + " flyweight) {\n");
+            classBuilder.append("        int refOrdinal = typeAPI.get" + fieldName + "Ordinal(ordinal);\n");
+            classBuilder.append("        if(refOrdinal == -1)\n");
+            classBuilder.append("            return null;\n");
+            classBuilder.append("        return flyweight.moveTo(refOrdinal);\n");
+            classBuilder.append("    }\n\n");
+            return;
+        }
+
+        HollowSchema referencedSchema = dataset.getSchema(referencedType);
+        if(referencedSchema instanceof HollowListSchema) {
+            String elementType = ((HollowListSchema) referencedSchema).getElementType();
+
+            classBuilder.append("    public int get" + fieldName + "Size() {\n");
+            classBuilder.append("        int refOrdinal = typeAPI.get" + fieldName + "Ordinal(ordinal);\n");
+            classBuilder.append("        if(refOrdinal == -1)\n");
+            classBuilder.append("            return 0;\n");
+            classBuilder.append("        return typeAPI.get" + fieldName + "TypeAPI().size(refOrdinal);\n");
+            classBuilder.append("    }\n\n");
+
+            if(hasFlyweight(dataset, elementType, config)) {
+                String elementFlyweight = flyweightClassname(elementType);
+
+                classBuilder.append("    public " + elementFlyweight + " get" + fieldName + "(int idx, " + elementFlyweight + " flyweight) {\n");
+                classBuilder.append("        int refOrdinal = typeAPI.get" + fieldName + "Ordinal(ordinal);\n");
+                classBuilder.append("        if(refOrdinal == -1)\n");
+                classBuilder.append("            return null;\n");
+                classBuilder.append("        return flyweight.moveTo(typeAPI.get" + fieldName + "TypeAPI().getElementOrdinal(refOrdinal, idx));\n");
+                classBuilder.append("    }\n\n");
+            }
+        }
+    }
+}
@@ -25,10 +25,12 @@ import com.netflix.hollow.api.client.HollowClientUpdater;
 import com.netflix.hollow.api.client.StaleHollowReferenceDetector;
 import com.netflix.hollow.api.codegen.HollowAPIClassJavaGenerator;
 import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
+import com.netflix.hollow.api.consumer.index.HollowConsumerIndexRegistry;
 import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.api.metrics.HollowConsumerMetrics;
 import com.netflix.hollow.api.metrics.HollowMetricsCollector;
 import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.util.DefaultHashCodeFinder;
@@ -119,6 +121,9 @@ public class HollowConsumer {
 
     private final Executor refreshExecutor;
 
+    private final BlobRetriever blobRetriever;
+    private volatile HollowConsumerIndexRegistry indexRegistry;
+
     protected HollowConsumer(BlobRetriever blobRetriever,
                              AnnouncementWatcher announcementWatcher,
                              List<RefreshListener> refreshListeners,
@@ -147,6 +152,7 @@ public class HollowConsumer {
                              HollowMetricsCollector<HollowConsumerMetrics> metricsCollector) {
 
         this.metrics = new HollowConsumerMetrics();
+        this.blobRetriever = blobRetriever;
         this.updater = new HollowClientUpdater(blobRetriever,
                 refreshListeners,
                 apiFactory,
@@ -164,6 +170,33 @@ public class HollowConsumer {
             announcementWatcher.subscribeToUpdates(this);
     }
 
+    /**
+     * Create a consumer configured by a builder, including any options which are only available through the builder.
+     * The builder's arguments must already have been {@link Builder#checkArguments() checked}.
+     *
+     * @param builder the builder
+     */
+    protected HollowConsumer(Builder<?> builder) {
+        this.metrics = new HollowConsumerMetrics();
+        this.blobRetriever = builder.blobRetriever;
+        this.updater = new HollowClientUpdater(builder.blobRetriever,
+                builder.refreshListeners,
+                builder.apiFactory,
+                builder.doubleSnapshotConfig,
+                builder.hashCodeFinder,
+                builder.objectLongevityConfig,
+                builder.objectLongevityDetector,
+                metrics,
+                builder.metricsCollector);
+        updater.setFilter(builder.filterConfig);
+        updater.setMemoryRecycler(builder.memoryRecycler);
+        this.announcementWatcher = builder.announcementWatcher;
+        this.refreshExecutor = builder.refreshExecutor;
+        this.refreshLock = new ReentrantReadWriteLock();
+        if (announcementWatcher != null)
+            announcementWatcher.subscribeToUpdates(this);
+    }
+
     /**
      * Triggers a refresh to the latest version specified by the {@link HollowConsumer.AnnouncementWatcher}.
      * If already on the latest version, this operation is a no-op.
@@ -383,6 +416,27 @@ public class HollowConsumer {
         updater.removeRefreshListener(listener, this);
     }
 
+    /**
+     * Returns the registry of indexes shared by all users of this consumer.  The registry is created, and starts
+     * listening for refreshes, the first time this method is called.
+     *
+     * @return the index registry
+     */
+    public HollowConsumerIndexRegistry getIndexRegistry() {
+        HollowConsumerIndexRegistry registry = indexRegistry;
+        if (registry == null) {
+            synchronized (this) {
+                registry = indexRegistry;
+                if (registry == null) {
+                    registry = new HollowConsumerIndexRegistry(this, blobRetriever);
+                    addRefreshListener(registry);
+                    indexRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
     /**
      * @return the metrics for this consumer
      */
@@ -417,6 +471,19 @@ public class HollowConsumer {
          * @return the blob of the reverse delta
          */
         HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion);
+
+        /**
+         * Returns the index blob published for the specified version, if the producer publishes indexes.
+         * <p>
+         * An index blob holds indexes prebuilt by the producer, which the {@link HollowConsumerIndexRegistry}
+         * loads rather than building its indexes.  The returned blob's "to" version is the version of the indexed data.
+         *
+         * @param version the version of the indexed data
+         * @return the blob of the indexes, or null if no indexes were published for the version
+         */
+        default HollowConsumer.Blob retrieveIndexBlob(long version) {
+            return null;
+        }
     }
 
     /**
@@ -908,6 +975,7 @@ public class HollowConsumer {
         protected File localBlobStoreDir = null;
         protected Executor refreshExecutor = null;
         protected HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
+        protected ArraySegmentRecycler memoryRecycler = null;
 
         public B withBlobRetriever(HollowConsumer.BlobRetriever blobRetriever) {
             this.blobRetriever = blobRetriever;
@@ -981,6 +1049,20 @@ public class HollowConsumer {
             return (B)this;
         }
 
+        /**
+         * Provide the memory recycler which the consumer's state engine allocates its data from.  For example,
+         * an {@link com.netflix.hollow.core.memory.pool.OffHeapRecycler} keeps fixed length data outside of
+         * the heap, and an {@link com.netflix.hollow.core.memory.pool.EpochReclaimingRecycler} lets reads made
+         * inside read epochs skip the per-access check for concurrent updates.
+         *
+         * @param memoryRecycler the memory recycler
+         * @return this builder
+         */
+        public B withMemoryRecycler(ArraySegmentRecycler memoryRecycler) {
+            this.memoryRecycler = memoryRecycler;
+            return (B)this;
+        }
+
         @Deprecated
         public B withHashCodeFinder(HollowObjectHashCodeFinder hashCodeFinder) {
             this.hashCodeFinder = hashCodeFinder;
@@ -1003,17 +1085,7 @@ public class HollowConsumer {
 
         public HollowConsumer build() {
             checkArguments();
-            return new HollowConsumer(blobRetriever,
-                    announcementWatcher,
-                    refreshListeners,
-                    apiFactory,
-                    filterConfig,
-                    objectLongevityConfig,
-                    objectLongevityDetector,
-                    doubleSnapshotConfig,
-                    hashCodeFinder,
-                    refreshExecutor,
-                    metricsCollector);
+            return new HollowConsumer(this);
         }
     }
 
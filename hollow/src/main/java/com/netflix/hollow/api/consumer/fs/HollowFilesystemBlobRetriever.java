@@ -150,6 +150,22 @@ public class HollowFilesystemBlobRetriever implements HollowConsumer.BlobRetriev
         return null;
     }
     
+    @Override
+    public HollowConsumer.Blob retrieveIndexBlob(long version) {
+        Path exactPath = blobStorePath.resolve("index-" + version);
+
+        if(Files.exists(exactPath))
+            return new FilesystemBlob(exactPath, version);
+
+        if(fallbackBlobRetriever != null) {
+            HollowConsumer.Blob remoteBlob = fallbackBlobRetriever.retrieveIndexBlob(version);
+            if(remoteBlob != null)
+                return new BlobForBackupToFilesystem(remoteBlob, exactPath);
+        }
+
+        return null;
+    }
+
     private static class FilesystemBlob extends HollowConsumer.Blob {
 
         private final Path path;
@@ -0,0 +1,695 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.index;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowHashIndex;
+import com.netflix.hollow.core.index.HollowIndexBlobReader;
+import com.netflix.hollow.core.index.HollowPrefixIndex;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A registry of the {@link HollowPrimaryKeyIndex}, {@link HollowHashIndex} and {@link HollowPrefixIndex} instances built
+ * on a {@link HollowConsumer}'s data, obtained via {@link HollowConsumer#getIndexRegistry()}.
+ * <p>
+ * Indexes are deduplicated by type and field paths, so that all callers asking for the same index share a single copy.
+ * An index is built on first use, and is then kept up to date as deltas are applied.  When a snapshot is applied,
+ * the registered indexes are discarded and either rebuilt on first use again, or, if a background executor is
+ * {@link #setBackgroundBuildExecutor(Executor) configured}, rebuilt in the background as soon as the snapshot is applied.
+ * <p>
+ * Index instances are replaced when a snapshot is applied, so callers should obtain an index from the registry
+ * each time it is used rather than holding on to it.
+ * <p>
+ * If a {@link #setPersistenceDirectory(File) persistence directory} is configured, each index is written to it when
+ * it is built, tagged with the consumer's version and the data's randomized tag.  A consumer restarting at the same
+ * version then reads its indexes back rather than rebuilding them.  Index files which do not match the consumer's
+ * current data are ignored and overwritten.  Indexes updated by deltas are rewritten only by the background executor,
+ * at most once per {@link #setPersistenceInterval(long, TimeUnit) persistence interval}, or by an explicit call to
+ * {@link #persist()}; they are never written on the refresh thread.
+ * <p>
+ * If the producer publishes indexes (see {@link com.netflix.hollow.api.producer.HollowProducer.Builder#withPublishedPrimaryKeyIndexes()}),
+ * and the consumer's {@link HollowConsumer.BlobRetriever} {@link HollowConsumer.BlobRetriever#retrieveIndexBlob(long) retrieves}
+ * the index blob for the consumer's current version, indexes in that blob are loaded from it rather than built.
+ * Loaded indexes are kept up to date as deltas are applied in the same way as built indexes.
+ */
+public class HollowConsumerIndexRegistry extends HollowConsumer.AbstractRefreshListener {
+    private static final Logger LOG = Logger.getLogger(HollowConsumerIndexRegistry.class.getName());
+
+    private static final int PERSISTED_INDEX_MAGIC = 0x484F4958;
+    private static final int PERSISTED_INDEX_FORMAT_VERSION = 1;
+    private static final int DEFAULT_ESTIMATED_MAX_STRING_DUPLICATES = 4;
+    private static final long DEFAULT_PERSISTENCE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final HollowConsumer consumer;
+    private final HollowConsumer.BlobRetriever blobRetriever;
+    private final ConcurrentHashMap<IndexKey, IndexEntry<?>> indexes;
+
+    private volatile Executor backgroundBuildExecutor;
+    private volatile File persistenceDirectory;
+    private volatile long persistenceIntervalMillis = DEFAULT_PERSISTENCE_INTERVAL_MILLIS;
+    private final AtomicLong lastPersistTimeMillis = new AtomicLong();
+
+    private long publishedIndexesVersion = HollowConstants.VERSION_NONE;
+    private Map<IndexKey, HollowIndexBlobReader.Entry> publishedIndexes = Collections.emptyMap();
+
+    public HollowConsumerIndexRegistry(HollowConsumer consumer) {
+        this(consumer, null);
+    }
+
+    /**
+     * @param consumer the consumer whose data is indexed
+     * @param blobRetriever the retriever of published index blobs, or null to always build indexes
+     */
+    public HollowConsumerIndexRegistry(HollowConsumer consumer, HollowConsumer.BlobRetriever blobRetriever) {
+        this.consumer = consumer;
+        this.blobRetriever = blobRetriever;
+        this.indexes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Rebuild registered indexes using the provided executor as soon as a snapshot is applied, rather than
+     * on first use after the snapshot.
+     *
+     * @param executor the executor which builds indexes, or null to build indexes on first use
+     */
+    public void setBackgroundBuildExecutor(Executor executor) {
+        this.backgroundBuildExecutor = executor;
+    }
+
+    /**
+     * Persist indexes to the provided directory as they are built, and read indexes from it rather than building
+     * them when the persisted index matches the consumer's current data.
+     *
+     * @param directory the directory in which to persist indexes, or null to disable persistence
+     */
+    public void setPersistenceDirectory(File directory) {
+        if(directory != null && !directory.isDirectory() && !directory.mkdirs())
+            throw new IllegalArgumentException("Cannot create index persistence directory " + directory);
+        this.persistenceDirectory = directory;
+    }
+
+    /**
+     * Set the minimum interval between rewrites of the persisted indexes after deltas are applied.  Rewrites are
+     * only done when a {@link #setBackgroundBuildExecutor(Executor) background executor} is configured.  Defaults
+     * to five minutes.
+     *
+     * @param interval the minimum interval, or 0 to rewrite after every delta
+     * @param unit the unit of the interval
+     */
+    public void setPersistenceInterval(long interval, TimeUnit unit) {
+        if(interval < 0)
+            throw new IllegalArgumentException("interval must not be negative");
+        this.persistenceIntervalMillis = unit.toMillis(interval);
+    }
+
+    /**
+     * Obtain the shared primary key index for the specified type and field paths, building it if necessary.
+     *
+     * @param type the type to index
+     * @param fieldPaths the key field paths
+     * @return the primary key index
+     * @throws IllegalArgumentException if the type is not present in the consumer's data
+     * @throws IllegalStateException if the consumer has not yet loaded any data
+     */
+    public HollowPrimaryKeyIndex getPrimaryKeyIndex(String type, String... fieldPaths) {
+        IndexKey key = new IndexKey(IndexKind.PRIMARY_KEY, type, "", fieldPaths);
+        IndexEntry<?> entry = indexes.computeIfAbsent(key, k -> new IndexEntry<>(k, PRIMARY_KEY_INDEX_SUPPORT));
+        return (HollowPrimaryKeyIndex) entry.get();
+    }
+
+    /**
+     * Obtain the shared hash index for the specified type, select field and match fields, building it if necessary.
+     *
+     * @param type the type to index
+     * @param selectField the select field
+     * @param matchFields the match field paths
+     * @return the hash index
+     * @throws IllegalArgumentException if the type is not present in the consumer's data
+     * @throws IllegalStateException if the consumer has not yet loaded any data
+     */
+    public HollowHashIndex getHashIndex(String type, String selectField, String... matchFields) {
+        IndexKey key = new IndexKey(IndexKind.HASH, type, selectField, matchFields);
+        IndexEntry<?> entry = indexes.computeIfAbsent(key, k -> new IndexEntry<>(k, HASH_INDEX_SUPPORT));
+        return (HollowHashIndex) entry.get();
+    }
+
+    /**
+     * Obtain the shared prefix index for the specified type and field path, building it if necessary.
+     *
+     * @param type the type to index
+     * @param fieldPath the field path, which should lead to a string field
+     * @return the prefix index
+     * @throws IllegalArgumentException if the type is not present in the consumer's data
+     * @throws IllegalStateException if the consumer has not yet loaded any data
+     */
+    public HollowPrefixIndex getPrefixIndex(String type, String fieldPath) {
+        IndexKey key = new IndexKey(IndexKind.PREFIX, type, "", new String[] { fieldPath });
+        IndexEntry<?> entry = indexes.computeIfAbsent(key, k -> new IndexEntry<>(k, PREFIX_INDEX_SUPPORT));
+        return (HollowPrefixIndex) entry.get();
+    }
+
+    /**
+     * @return the statistics of each registered index
+     */
+    public List<IndexStats> getIndexStats() {
+        List<IndexStats> stats = new ArrayList<>(indexes.size());
+        for(IndexEntry<?> entry : indexes.values())
+            stats.add(entry.stats());
+        return stats;
+    }
+
+    /**
+     * Discard all registered indexes.
+     */
+    public void clear() {
+        for(IndexEntry<?> entry : indexes.values())
+            entry.invalidate();
+        indexes.clear();
+    }
+
+    /**
+     * Write each built index to the {@link #setPersistenceDirectory(File) persistence directory}.  This is done
+     * automatically in the background, at most once per persistence interval, if a background executor is configured.
+     *
+     * @throws IllegalStateException if no persistence directory is configured
+     */
+    public void persist() {
+        File directory = persistenceDirectory;
+        if(directory == null)
+            throw new IllegalStateException("No index persistence directory is configured");
+
+        /// hold the refresh lock, so that the written indexes and version are consistent with each other
+        Lock refreshLock = consumer.getRefreshLock();
+        refreshLock.lock();
+        try {
+            for(IndexEntry<?> entry : indexes.values())
+                entry.persist(directory);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /*
+     * Indexes are written when they are built, which covers snapshot transitions.  Rewriting every index after
+     * each delta holds the refresh lock for as long as the writes take, so it is only done in the background and
+     * is rate limited.
+     */
+    @Override
+    public void refreshSuccessful(long beforeVersion, long afterVersion, long requestedVersion) {
+        Executor executor = backgroundBuildExecutor;
+        if(executor == null || persistenceDirectory == null || indexes.isEmpty() || beforeVersion == afterVersion)
+            return;
+
+        long lastPersistTime = lastPersistTimeMillis.get();
+        long now = System.currentTimeMillis();
+        if(now - lastPersistTime < persistenceIntervalMillis || !lastPersistTimeMillis.compareAndSet(lastPersistTime, now))
+            return;
+        executor.execute(this::persistQuietly);
+    }
+
+    private void persistQuietly() {
+        try {
+            persist();
+        } catch(RuntimeException e) {
+            LOG.log(Level.WARNING, "Failed to persist indexes", e);
+        }
+    }
+
+    @Override
+    public void snapshotUpdateOccurred(HollowAPI api, HollowReadStateEngine stateEngine, long version) {
+        Executor executor = backgroundBuildExecutor;
+        for(IndexEntry<?> entry : indexes.values()) {
+            entry.invalidate();
+            if(executor != null) {
+                executor.execute(() -> {
+                    try {
+                        entry.get();
+                    } catch(RuntimeException e) {
+                        LOG.log(Level.WARNING, "Failed to build index in the background: " + entry.key, e);
+                    }
+                });
+            }
+        }
+    }
+
+    /*
+     * The published index blob is retrieved once per version, on the first request for an index which has not
+     * been built, and its serialized indexes are kept until the consumer moves to another version.
+     */
+    private synchronized HollowIndexBlobReader.Entry publishedIndex(IndexKey key, HollowReadStateEngine stateEngine) {
+        if(blobRetriever == null)
+            return null;
+
+        long version = consumer.getCurrentVersionId();
+        if(publishedIndexesVersion != version) {
+            publishedIndexes = retrievePublishedIndexes(version, stateEngine);
+            publishedIndexesVersion = version;
+        }
+        return publishedIndexes.get(key);
+    }
+
+    private Map<IndexKey, HollowIndexBlobReader.Entry> retrievePublishedIndexes(long version, HollowReadStateEngine stateEngine) {
+        Map<IndexKey, HollowIndexBlobReader.Entry> published = new HashMap<>();
+        try {
+            HollowConsumer.Blob blob = blobRetriever.retrieveIndexBlob(version);
+            if(blob != null) {
+                try(InputStream is = blob.getInputStream()) {
+                    for(HollowIndexBlobReader.Entry entry : new HollowIndexBlobReader(stateEngine).readIndexes(is)) {
+                        IndexKind kind = entry.isHashIndex() ? IndexKind.HASH : IndexKind.PRIMARY_KEY;
+                        published.put(new IndexKey(kind, entry.getType(), entry.getSelectField(), entry.getFieldPaths()), entry);
+                    }
+                }
+            }
+        } catch(IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Ignoring unreadable index blob for version " + version, e);
+        }
+        return published;
+    }
+
+    private HollowReadStateEngine stateEngine() {
+        return consumer.getStateEngine();
+    }
+
+    private enum IndexKind {
+        PRIMARY_KEY, HASH, PREFIX
+    }
+
+    private static class IndexKey {
+        private final IndexKind kind;
+        private final String type;
+        private final String selectField;
+        private final String[] fieldPaths;
+
+        IndexKey(IndexKind kind, String type, String selectField, String[] fieldPaths) {
+            this.kind = kind;
+            this.type = type;
+            this.selectField = selectField;
+            this.fieldPaths = fieldPaths.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            int result = kind.hashCode();
+            result = 31 * result + type.hashCode();
+            result = 31 * result + selectField.hashCode();
+            result = 31 * result + Arrays.hashCode(fieldPaths);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj)
+                return true;
+            if(!(obj instanceof IndexKey))
+                return false;
+            IndexKey other = (IndexKey) obj;
+            return kind == other.kind
+                    && type.equals(other.type)
+                    && selectField.equals(other.selectField)
+                    && Arrays.equals(fieldPaths, other.fieldPaths);
+        }
+
+        @Override
+        public String toString() {
+            if(kind == IndexKind.HASH)
+                return "HashIndex(" + type + ", select=\"" + selectField + "\", match=" + Arrays.toString(fieldPaths) + ")";
+            if(kind == IndexKind.PREFIX)
+                return "PrefixIndex(" + type + ", " + fieldPaths[0] + ")";
+            return "PrimaryKeyIndex(" + type + ", " + Arrays.toString(fieldPaths) + ")";
+        }
+
+        String fileName() {
+            return "index-" + type + "-" + Integer.toHexString(hashCode()) + ".bin";
+        }
+    }
+
+    /**
+     * The operations the registry performs on each kind of index.
+     */
+    private static abstract class IndexSupport<T> {
+        abstract T build(HollowReadStateEngine stateEngine, IndexKey key);
+
+        abstract T readFrom(HollowReadStateEngine stateEngine, IndexKey key, DataInputStream dis) throws IOException;
+
+        abstract void writeTo(T index, DataOutputStream dos) throws IOException;
+
+        abstract void listenForDeltaUpdates(T index);
+
+        abstract void detachFromDeltaUpdates(T index);
+
+        abstract long getApproximateHeapFootprintInBytes(T index);
+    }
+
+    private static final IndexSupport<HollowPrimaryKeyIndex> PRIMARY_KEY_INDEX_SUPPORT = new IndexSupport<HollowPrimaryKeyIndex>() {
+        @Override
+        HollowPrimaryKeyIndex build(HollowReadStateEngine stateEngine, IndexKey key) {
+            return new HollowPrimaryKeyIndex(stateEngine, key.type, key.fieldPaths);
+        }
+
+        @Override
+        HollowPrimaryKeyIndex readFrom(HollowReadStateEngine stateEngine, IndexKey key, DataInputStream dis) throws IOException {
+            return HollowPrimaryKeyIndex.readFrom(stateEngine, new PrimaryKey(key.type, key.fieldPaths), stateEngine.getMemoryRecycler(), dis);
+        }
+
+        @Override
+        void writeTo(HollowPrimaryKeyIndex index, DataOutputStream dos) throws IOException {
+            index.writeTo(dos);
+        }
+
+        @Override
+        void listenForDeltaUpdates(HollowPrimaryKeyIndex index) {
+            index.listenForDeltaUpdates();
+        }
+
+        @Override
+        void detachFromDeltaUpdates(HollowPrimaryKeyIndex index) {
+            index.detachFromDeltaUpdates();
+        }
+
+        @Override
+        long getApproximateHeapFootprintInBytes(HollowPrimaryKeyIndex index) {
+            return index.getApproximateHeapFootprintInBytes();
+        }
+    };
+
+    private static final IndexSupport<HollowHashIndex> HASH_INDEX_SUPPORT = new IndexSupport<HollowHashIndex>() {
+        @Override
+        HollowHashIndex build(HollowReadStateEngine stateEngine, IndexKey key) {
+            return new HollowHashIndex(stateEngine, key.type, key.selectField, key.fieldPaths);
+        }
+
+        @Override
+        HollowHashIndex readFrom(HollowReadStateEngine stateEngine, IndexKey key, DataInputStream dis) throws IOException {
+            return HollowHashIndex.readFrom(stateEngine, key.type, key.selectField, key.fieldPaths, dis);
+        }
+
+        @Override
+        void writeTo(HollowHashIndex index, DataOutputStream dos) throws IOException {
+            index.writeTo(dos);
+        }
+
+        @Override
+        void listenForDeltaUpdates(HollowHashIndex index) {
+            index.listenForDeltaUpdates();
+        }
+
+        @Override
+        void detachFromDeltaUpdates(HollowHashIndex index) {
+            index.detachFromDeltaUpdates();
+        }
+
+        @Override
+        long getApproximateHeapFootprintInBytes(HollowHashIndex index) {
+            return index.getApproximateHeapFootprintInBytes();
+        }
+    };
+
+    private static final IndexSupport<HollowPrefixIndex> PREFIX_INDEX_SUPPORT = new IndexSupport<HollowPrefixIndex>() {
+        @Override
+        HollowPrefixIndex build(HollowReadStateEngine stateEngine, IndexKey key) {
+            return new HollowPrefixIndex(stateEngine, key.type, key.fieldPaths[0], DEFAULT_ESTIMATED_MAX_STRING_DUPLICATES);
+        }
+
+        @Override
+        HollowPrefixIndex readFrom(HollowReadStateEngine stateEngine, IndexKey key, DataInputStream dis) throws IOException {
+            return HollowPrefixIndex.readFrom(stateEngine, key.type, key.fieldPaths[0], DEFAULT_ESTIMATED_MAX_STRING_DUPLICATES, dis);
+        }
+
+        @Override
+        void writeTo(HollowPrefixIndex index, DataOutputStream dos) throws IOException {
+            index.writeTo(dos);
+        }
+
+        @Override
+        void listenForDeltaUpdates(HollowPrefixIndex index) {
+            index.listenForDeltaUpdates();
+        }
+
+        @Override
+        void detachFromDeltaUpdates(HollowPrefixIndex index) {
+            index.detachFromDeltaUpdates();
+        }
+
+        @Override
+        long getApproximateHeapFootprintInBytes(HollowPrefixIndex index) {
+            return index.getApproximateHeapFootprintInBytes();
+        }
+    };
+
+    private class IndexEntry<T> {
+        private final IndexKey key;
+        private final IndexSupport<T> support;
+
+        private volatile T index;
+        private int buildCount;
+        private int loadCount;
+        private long lastBuildTimeMillis;
+        private long totalBuildTimeMillis;
+
+        IndexEntry(IndexKey key, IndexSupport<T> support) {
+            this.key = key;
+            this.support = support;
+        }
+
+        T get() {
+            T index = this.index;
+            if(index != null)
+                return index;
+
+            /// build while holding the refresh lock, so that no delta can be applied between reading the data and
+            /// the index starting to listen for delta updates
+            Lock refreshLock = consumer.getRefreshLock();
+            refreshLock.lock();
+            try {
+                synchronized(this) {
+                    index = this.index;
+                    if(index == null) {
+                        HollowReadStateEngine stateEngine = stateEngine();
+                        if(stateEngine == null)
+                            throw new IllegalStateException("The consumer has not yet loaded any data; cannot build " + key);
+                        if(stateEngine.getTypeState(key.type) == null)
+                            throw new IllegalArgumentException("Type " + key.type + " is not present in the consumer's data; cannot build " + key);
+
+                        File directory = persistenceDirectory;
+                        if(directory != null)
+                            index = load(directory, stateEngine);
+
+                        if(index == null) {
+                            index = loadPublished(stateEngine);
+                            if(index == null) {
+                                long startTime = System.currentTimeMillis();
+                                index = support.build(stateEngine, key);
+                                lastBuildTimeMillis = System.currentTimeMillis() - startTime;
+                                totalBuildTimeMillis += lastBuildTimeMillis;
+                                buildCount++;
+                            } else {
+                                loadCount++;
+                            }
+                            if(directory != null)
+                                write(directory, index);
+                        } else {
+                            loadCount++;
+                        }
+                        support.listenForDeltaUpdates(index);
+                        this.index = index;
+                    }
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+            return index;
+        }
+
+        synchronized void invalidate() {
+            T index = this.index;
+            if(index != null) {
+                support.detachFromDeltaUpdates(index);
+                this.index = null;
+            }
+        }
+
+        synchronized void persist(File directory) {
+            T index = this.index;
+            if(index != null)
+                write(directory, index);
+        }
+
+        private T loadPublished(HollowReadStateEngine stateEngine) {
+            HollowIndexBlobReader.Entry published = publishedIndex(key, stateEngine);
+            if(published == null)
+                return null;
+
+            try {
+                return support.readFrom(stateEngine, key, published.newDataInputStream());
+            } catch(IOException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Ignoring unreadable published index " + key, e);
+                return null;
+            }
+        }
+
+        private T load(File directory, HollowReadStateEngine stateEngine) {
+            File file = new File(directory, key.fileName());
+            if(!file.exists())
+                return null;
+
+            try(DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if(dis.readInt() != PERSISTED_INDEX_MAGIC
+                        || dis.readInt() != PERSISTED_INDEX_FORMAT_VERSION
+                        || dis.readLong() != consumer.getCurrentVersionId()
+                        || dis.readLong() != stateEngine.getCurrentRandomizedTag()
+                        || !dis.readUTF().equals(key.toString()))
+                    return null;
+                return support.readFrom(stateEngine, key, dis);
+            } catch(IOException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Ignoring unreadable persisted index " + file, e);
+                return null;
+            }
+        }
+
+        private void write(File directory, T index) {
+            File file = new File(directory, key.fileName());
+            File tmpFile = new File(directory, key.fileName() + ".tmp");
+            try {
+                try(DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                    dos.writeInt(PERSISTED_INDEX_MAGIC);
+                    dos.writeInt(PERSISTED_INDEX_FORMAT_VERSION);
+                    dos.writeLong(consumer.getCurrentVersionId());
+                    dos.writeLong(stateEngine().getCurrentRandomizedTag());
+                    dos.writeUTF(key.toString());
+                    support.writeTo(index, dos);
+                }
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch(IOException e) {
+                LOG.log(Level.WARNING, "Failed to persist index " + file, e);
+                tmpFile.delete();
+            }
+        }
+
+        synchronized IndexStats stats() {
+            T index = this.index;
+            return new IndexStats(key.toString(), index != null, buildCount, loadCount, lastBuildTimeMillis, totalBuildTimeMillis,
+                    index == null ? 0 : support.getApproximateHeapFootprintInBytes(index));
+        }
+    }
+
+    /**
+     * The statistics of an index held by a {@link HollowConsumerIndexRegistry}.
+     */
+    public static class IndexStats {
+        private final String description;
+        private final boolean built;
+        private final int buildCount;
+        private final int loadCount;
+        private final long lastBuildTimeMillis;
+        private final long totalBuildTimeMillis;
+        private final long approximateHeapFootprintInBytes;
+
+        IndexStats(String description, boolean built, int buildCount, int loadCount, long lastBuildTimeMillis, long totalBuildTimeMillis, long approximateHeapFootprintInBytes) {
+            this.description = description;
+            this.built = built;
+            this.buildCount = buildCount;
+            this.loadCount = loadCount;
+            this.lastBuildTimeMillis = lastBuildTimeMillis;
+            this.totalBuildTimeMillis = totalBuildTimeMillis;
+            this.approximateHeapFootprintInBytes = approximateHeapFootprintInBytes;
+        }
+
+        /**
+         * @return a description of the index, naming its type and field paths
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return whether the index is currently built for the consumer's data
+         */
+        public boolean isBuilt() {
+            return built;
+        }
+
+        /**
+         * @return the number of times the index has been built
+         */
+        public int getBuildCount() {
+            return buildCount;
+        }
+
+        /**
+         * @return the number of times the index has been read from the persistence directory or a published
+         * index blob rather than built
+         */
+        public int getLoadCount() {
+            return loadCount;
+        }
+
+        /**
+         * @return the time taken by the most recent build of the index
+         */
+        public long getLastBuildTimeMillis() {
+            return lastBuildTimeMillis;
+        }
+
+        /**
+         * @return the total time spent building the index
+         */
+        public long getTotalBuildTimeMillis() {
+            return totalBuildTimeMillis;
+        }
+
+        /**
+         * @return the approximate number of bytes held by the index, or 0 if it is not built
+         */
+        public long getApproximateHeapFootprintInBytes() {
+            return approximateHeapFootprintInBytes;
+        }
+
+        @Override
+        public String toString() {
+            return description + ": built=" + built + ", buildCount=" + buildCount + ", loadCount=" + loadCount
+                    + ", lastBuildTimeMillis=" + lastBuildTimeMillis + ", bytes=" + approximateHeapFootprintInBytes;
+        }
+    }
+}
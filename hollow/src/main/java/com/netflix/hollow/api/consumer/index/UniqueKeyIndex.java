@@ -27,6 +27,8 @@ import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -155,9 +157,97 @@ public class UniqueKeyIndex<T extends HollowObject, Q>
      * @return the unique object
      */
     public T findMatch(Q key) {
-        Object[] keyArray = matchFields.stream().map(mf -> mf.extract(key)).toArray();
+        int ordinal;
+        if (matchFields.size() == 1) {
+            ordinal = hpki.getMatchingOrdinal(matchFields.get(0).extract(key));
+        } else {
+            Object[] keyArray = new Object[matchFields.size()];
+            for (int i = 0; i < keyArray.length; i++) {
+                keyArray[i] = matchFields.get(i).extract(key);
+            }
+            ordinal = hpki.getMatchingOrdinal(keyArray);
+        }
+
+        return toMatch(ordinal);
+    }
+
+    /**
+     * Finds the unique object, an instance of the unique type, for a single INT, LONG or REFERENCE key field
+     * without boxing the key.
+     *
+     * @param key the key
+     * @return the unique object, otherwise null if there is no match or the index has more than one key field
+     */
+    public T findMatchForLong(long key) {
+        return toMatch(hpki.getMatchingOrdinalForLong(key));
+    }
+
+    /**
+     * Finds the unique object, an instance of the unique type, for a single STRING key field
+     * without creating a {@code String} from the key.
+     *
+     * @param key the key
+     * @return the unique object, otherwise null if there is no match or the index has more than one key field
+     */
+    public T findMatchForString(CharSequence key) {
+        return toMatch(hpki.getMatchingOrdinalForString(key));
+    }
+
+    /**
+     * Finds the unique objects, instances of the unique type, for many keys at once.
+     * <p>
+     * The keys are resolved together against a single, consistent snapshot of the index.
+     *
+     * @param keys the keys
+     * @return the unique objects, in the iteration order of the keys, with a null element for each key that
+     * has no match
+     */
+    public List<T> findMatches(Collection<? extends Q> keys) {
+        int[] ordinals = new int[keys.size()];
+        if (matchFields.size() == 1) {
+            MatchFieldPathArgumentExtractor<Q> extractor = matchFields.get(0);
+            Object[] keyArray = new Object[ordinals.length];
+            int i = 0;
+            for (Q key : keys) {
+                keyArray[i++] = extractor.extract(key);
+            }
+            hpki.getMatchingOrdinals(keyArray, ordinals);
+        } else {
+            Object[][] keyArrays = new Object[ordinals.length][];
+            int i = 0;
+            for (Q key : keys) {
+                Object[] keyArray = new Object[matchFields.size()];
+                for (int j = 0; j < keyArray.length; j++) {
+                    keyArray[j] = matchFields.get(j).extract(key);
+                }
+                keyArrays[i++] = keyArray;
+            }
+            hpki.getMatchingOrdinals(keyArrays, ordinals);
+        }
+
+        List<T> matches = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            matches.add(toMatch(ordinal));
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the unique objects, instances of the unique type, for a stream of keys.
+     * <p>
+     * The stream is consumed in full before any key is resolved, so that the keys are resolved together against a
+     * single, consistent snapshot of the index.
+     *
+     * @param keys the keys
+     * @return the unique objects, in the encounter order of the keys, with a null element for each key that
+     * has no match
+     * @see #findMatches(Collection)
+     */
+    public List<T> findMatches(Stream<? extends Q> keys) {
+        return findMatches(keys.collect(toList()));
+    }
 
-        int ordinal = hpki.getMatchingOrdinal(keyArray);
+    private T toMatch(int ordinal) {
         if (ordinal == -1) {
             return null;
         }
@@ -20,6 +20,9 @@ import com.netflix.hollow.api.producer.HollowProducer;
 import com.netflix.hollow.api.producer.HollowProducerListener;
 import com.netflix.hollow.api.producer.Status;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowTypeSizeEstimate;
+import com.netflix.hollow.core.write.HollowWriteStateSizeEstimate;
+import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class HollowProducerMetrics extends HollowMetrics {
@@ -34,6 +37,11 @@ public class HollowProducerMetrics extends HollowMetrics {
     private int deltasFailed = 0;
     private int reverseDeltasCompleted = 0;
     private int reverseDeltasFailed = 0;
+    private int indexesCompleted = 0;
+    private int indexesFailed = 0;
+    private volatile boolean sizeEstimatesRequested;
+    private HollowWriteStateSizeEstimate sizeEstimate;
+    private HashMap<String, Long> typeEstimatedHeapFootprint = new HashMap<>();
 
     /**
      * Updates the producer metrics:
@@ -100,9 +108,65 @@ public class HollowProducerMetrics extends HollowMetrics {
                 else
                     reverseDeltasFailed++;
                 break;
+            case INDEX:
+                if(status.getType() == Status.StatusType.SUCCESS)
+                    indexesCompleted++;
+                else
+                    indexesFailed++;
+                break;
         }
     }
 
+    /**
+     * Requests that the producer estimates the sizes of the state produced by each cycle.  Estimating sizes is not
+     * free, so the producer skips it, and the size estimate metrics remain unset, unless it has been requested.
+     */
+    public void requestSizeEstimates() {
+        sizeEstimatesRequested = true;
+    }
+
+    public boolean isSizeEstimatesRequested() {
+        return sizeEstimatesRequested;
+    }
+
+    /**
+     * Updates the projected sizes of the state being produced by the current cycle, as estimated from the write
+     * state before any blobs are written.
+     * @param sizeEstimate the size estimate
+     */
+    public void updateSizeEstimateMetrics(HollowWriteStateSizeEstimate sizeEstimate) {
+        this.sizeEstimate = sizeEstimate;
+
+        HashMap<String, Long> typeEstimatedHeapFootprint = new HashMap<>();
+        for(HollowTypeSizeEstimate typeEstimate : sizeEstimate.getTypeEstimates().values())
+            typeEstimatedHeapFootprint.put(typeEstimate.getTypeName(), typeEstimate.getConsumerHeapFootprintInBytes());
+        this.typeEstimatedHeapFootprint = typeEstimatedHeapFootprint;
+    }
+
+    /**
+     * @return the size estimate for the most recent cycle which produced a new state, or null if there is none or
+     * size estimates have not been {@link #requestSizeEstimates() requested}
+     */
+    public HollowWriteStateSizeEstimate getSizeEstimate() {
+        return sizeEstimate;
+    }
+
+    public HashMap<String, Long> getTypeEstimatedHeapFootprint() {
+        return typeEstimatedHeapFootprint;
+    }
+
+    public long getEstimatedHeapFootprint() {
+        return sizeEstimate == null ? 0L : sizeEstimate.getConsumerHeapFootprintInBytes();
+    }
+
+    public long getEstimatedSnapshotSize() {
+        return sizeEstimate == null ? 0L : sizeEstimate.getSnapshotSizeInBytes();
+    }
+
+    public long getEstimatedDeltaSize() {
+        return sizeEstimate == null ? 0L : sizeEstimate.getDeltaSizeInBytes();
+    }
+
     public int getCyclesCompleted() {
         return this.cyclesCompleted;
     }
@@ -138,4 +202,12 @@ public class HollowProducerMetrics extends HollowMetrics {
     public int getReverseDeltasFailed() {
         return reverseDeltasFailed;
     }
+
+    public int getIndexesCompleted() {
+        return indexesCompleted;
+    }
+
+    public int getIndexesFailed() {
+        return indexesFailed;
+    }
 }
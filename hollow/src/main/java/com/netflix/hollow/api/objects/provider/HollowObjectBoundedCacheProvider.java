@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.objects.provider;
+
+import com.netflix.hollow.api.custom.HollowTypeAPI;
+import com.netflix.hollow.api.objects.HollowRecord;
+import com.netflix.hollow.api.objects.delegate.HollowCachedDelegate;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A HollowObjectBoundedCacheProvider caches the Object representations (presumably {@link HollowRecord}s) of
+ * the most recently accessed records of a specific type, holding at most a configured number of objects.
+ * <p>
+ * Unlike a {@link HollowObjectCacheProvider}, which creates an object for every record of the type up front, objects
+ * are created on first access.  The cache is direct-mapped: each ordinal maps to a single slot, and caching a record
+ * evicts the record previously cached in its slot.  Cached records are invalidated as deltas remove or add their
+ * ordinals, and cached records which survive an update are carried over to the provider of the next cycle's API.
+ * <p>
+ * Reads of cached records do not lock.  Two threads which concurrently miss on the same record may each create
+ * an object for it.  An object is only cached if its slot is unchanged since the miss, so an object created while
+ * its ordinal is invalidated is returned but not cached.
+ */
+public class HollowObjectBoundedCacheProvider<T> extends HollowObjectProvider<T> implements HollowTypeStateListener {
+    private static final Logger log = Logger.getLogger(HollowObjectBoundedCacheProvider.class.getName());
+
+    private static final int MAX_SLOTS = 1 << 30;
+    private static final int NO_ORDINAL = -1;
+
+    private final HollowTypeDataAccess typeDataAccess;
+    private final HollowTypeAPI typeAPI;
+    private final HollowFactory<T> factory;
+    private final AtomicReferenceArray<CachedObject<T>> slots;
+    private final int slotMask;
+
+    private HollowTypeReadState typeReadState;
+    private volatile boolean detached;
+
+    public HollowObjectBoundedCacheProvider(HollowTypeDataAccess typeDataAccess, HollowTypeAPI typeAPI, HollowFactory<T> factory, int maxCachedObjects) {
+        this(typeDataAccess, typeAPI, factory, maxCachedObjects, null);
+    }
+
+    /**
+     * @param typeDataAccess the type data access
+     * @param typeAPI the type API
+     * @param factory the factory creating the cached objects
+     * @param maxCachedObjects the maximum number of objects to cache, which is rounded up to a power of two
+     * @param previous the provider of the previous cycle's API, whose cached objects are carried over if they are
+     *                 still valid, or null
+     */
+    public HollowObjectBoundedCacheProvider(HollowTypeDataAccess typeDataAccess, HollowTypeAPI typeAPI, HollowFactory<T> factory, int maxCachedObjects, HollowObjectBoundedCacheProvider<T> previous) {
+        if(maxCachedObjects <= 0)
+            throw new IllegalArgumentException("maxCachedObjects must be positive; maxCachedObjects=" + maxCachedObjects);
+
+        int numSlots = maxCachedObjects >= MAX_SLOTS ? MAX_SLOTS : Integer.highestOneBit(maxCachedObjects - 1) << 1;
+        if(numSlots == 0)
+            numSlots = 1;
+
+        this.typeDataAccess = typeDataAccess;
+        this.typeAPI = typeAPI;
+        this.factory = factory;
+        this.slots = new AtomicReferenceArray<>(numSlots);
+        this.slotMask = numSlots - 1;
+
+        if(previous != null && typeDataAccess != null)
+            carryOver(previous, typeDataAccess.getTypeState().getListener(PopulatedOrdinalListener.class));
+
+        if(typeDataAccess instanceof HollowTypeReadState) {
+            this.typeReadState = (HollowTypeReadState)typeDataAccess;
+            this.typeReadState.addListener(this);
+        }
+    }
+
+    private void carryOver(HollowObjectBoundedCacheProvider<T> previous, PopulatedOrdinalListener listener) {
+        if(listener == null)
+            return;
+
+        BitSet populatedOrdinals = listener.getPopulatedOrdinals();
+        BitSet previousOrdinals = listener.getPreviousOrdinals();
+
+        for(int i=0;i<previous.slots.length();i++) {
+            CachedObject<T> cached = previous.slots.get(i);
+            if(cached != null && cached.ordinal != NO_ORDINAL
+                    && previousOrdinals.get(cached.ordinal) && populatedOrdinals.get(cached.ordinal)) {
+                if(cached.object instanceof HollowRecord)
+                    ((HollowCachedDelegate)((HollowRecord)cached.object).getDelegate()).updateTypeAPI(typeAPI);
+                slots.set(slot(cached.ordinal), cached);
+            }
+        }
+    }
+
+    @Override
+    public T getHollowObject(int ordinal) {
+        int slot = slot(ordinal);
+        CachedObject<T> cached = slots.get(slot);
+        if(cached != null && cached.ordinal == ordinal)
+            return cached.object;
+
+        T object = instantiateCachedObject(ordinal);
+        if(object != null && !detached)
+            slots.compareAndSet(slot, cached, new CachedObject<>(ordinal, object));
+        return object;
+    }
+
+    /**
+     * @return the maximum number of objects held by this cache
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    public void detach() {
+        detached = true;
+        for(int i=0;i<slots.length();i++)
+            slots.set(i, null);
+        if(typeReadState != null) {
+            typeReadState.removeListener(this);
+            typeReadState = null;
+        }
+    }
+
+    @Override
+    public void addedOrdinal(int ordinal) {
+        /// an added ordinal may have previously held a removed record
+        invalidate(ordinal);
+    }
+
+    @Override
+    public void removedOrdinal(int ordinal) {
+        invalidate(ordinal);
+    }
+
+    /*
+     * The slot is replaced even when it does not hold the ordinal, so that a miss on the ordinal which observed the
+     * slot before the invalidation fails to cache its object.
+     */
+    private void invalidate(int ordinal) {
+        int slot = slot(ordinal);
+        CachedObject<T> cached;
+        CachedObject<T> replacement;
+        do {
+            cached = slots.get(slot);
+            if(cached != null && cached.ordinal != ordinal)
+                replacement = new CachedObject<>(cached.ordinal, cached.object);
+            else
+                replacement = new CachedObject<>(NO_ORDINAL, null);
+        } while(!slots.compareAndSet(slot, cached, replacement));
+    }
+
+    private int slot(int ordinal) {
+        return HashCodes.hashInt(ordinal) & slotMask;
+    }
+
+    private T instantiateCachedObject(int ordinal) {
+        try {
+            return factory.newCachedHollowObject(typeDataAccess, typeAPI, ordinal);
+        } catch(Throwable th) {
+            log.log(Level.SEVERE, "Cached object instantiation failed", th);
+            return null;
+        }
+    }
+
+    @Override public void beginUpdate() { }
+    @Override public void endUpdate() { }
+
+    private static class CachedObject<T> {
+        private final int ordinal;
+        private final T object;
+
+        CachedObject(int ordinal, T object) {
+            this.ordinal = ordinal;
+            this.object = object;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import com.netflix.hollow.api.producer.validation.ValidationStatus;
 import com.netflix.hollow.api.producer.validation.ValidationStatusException;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
 import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowIndexBlobWriter;
 import com.netflix.hollow.core.read.engine.HollowBlobHeaderReader;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
@@ -45,6 +46,7 @@ import com.netflix.hollow.core.write.objectmapper.RecordPrimaryKey;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -54,6 +56,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -78,6 +81,7 @@ abstract class AbstractHollowProducer {
     final SingleProducerEnforcer singleProducerEnforcer;
     long lastSuccessfulCycle = 0;
     final HollowObjectHashCodeFinder hashCodeFinder;
+    List<Consumer<HollowIndexBlobWriter>> publishedIndexes = Collections.emptyList();
 
     boolean isInitialized;
 
@@ -103,6 +107,7 @@ abstract class AbstractHollowProducer {
                 b.numStatesBetweenSnapshots, b.targetMaxTypeShardSize,
                 b.metricsCollector, b.blobStorageCleaner, b.singleProducerEnforcer,
                 b.hashCodeFinder);
+        this.publishedIndexes = new ArrayList<>(b.publishedIndexes);
     }
 
     private AbstractHollowProducer(
@@ -363,7 +368,12 @@ abstract class AbstractHollowProducer {
 
             // 3. Produce a new state if there's work to do
             if (writeEngine.hasChangedSinceLastCycle()) {
-                // 3a. Publish, run checks & validation, then announce new state consumers
+                // 3a. Project blob sizes and consumer heap footprint before writing anything, if requested
+                if (metrics.isSizeEstimatesRequested()) {
+                    metrics.updateSizeEstimateMetrics(writeEngine.estimateSize());
+                }
+
+                // 3b. Publish, run checks & validation, then announce new state consumers
                 publish(listeners, toVersion, artifacts);
 
                 ReadStateHelper candidate = readStates.roundtrip(toVersion);
@@ -373,6 +383,10 @@ abstract class AbstractHollowProducer {
                 try {
                     validate(listeners, candidate.pending());
 
+                    if (!publishedIndexes.isEmpty()) {
+                        publishIndexes(listeners, candidate.pending(), artifacts);
+                    }
+
                     announce(listeners, candidate.pending());
 
                     readStates = candidate.commit();
@@ -386,7 +400,7 @@ abstract class AbstractHollowProducer {
                 }
                 lastSuccessfulCycle = toVersion;
             } else {
-                // 3b. Nothing to do; reset the effects of Step 2
+                // 3c. Nothing to do; reset the effects of Step 2
                 // Return the lastSucessfulCycle to the caller thereby
                 // the callee can track that version against consumers
                 // without having to listen to events.
@@ -585,6 +599,46 @@ abstract class AbstractHollowProducer {
         }
     }
 
+    /*
+     * Build the published indexes on the validated state, and publish them in an index blob.  Consumers which
+     * cannot retrieve an index blob build their own indexes, so a failure here does not fail the cycle.
+     *
+     * This runs on the cycle thread before the announcement: the pending read state becomes the current state on
+     * commit and is updated in place by the next cycle, so the indexes cannot be built from it once this cycle has
+     * moved on.  The builder documents the resulting cost.
+     */
+    private void publishIndexes(
+            ListenerSupport.Listeners listeners, HollowProducer.ReadState readState, Artifacts artifacts) {
+        HollowIndexBlobWriter writer = new HollowIndexBlobWriter(readState.getStateEngine());
+        for (Consumer<HollowIndexBlobWriter> publishedIndex : publishedIndexes) {
+            publishedIndex.accept(writer);
+        }
+
+        try {
+            artifacts.index = stageIndexBlob(listeners, blobStager.openIndex(readState.getVersion()), writer);
+            publishBlob(listeners, artifacts.index);
+        } catch (Throwable th) {
+            log.log(Level.WARNING, "Failed to publish the index blob for version " + readState.getVersion(), th);
+        }
+    }
+
+    private HollowProducer.Blob stageIndexBlob(
+            ListenerSupport.Listeners listeners, HollowProducer.Blob blob, HollowIndexBlobWriter writer)
+            throws IOException {
+        Status.PublishBuilder builder = new Status.PublishBuilder();
+        try {
+            builder.blob(blob);
+            blob.write(writer);
+            builder.success();
+            return blob;
+        } catch (Throwable t) {
+            builder.fail(t);
+            throw t;
+        } finally {
+            listeners.fireBlobStage(builder);
+        }
+    }
+
     private void publishBlob(ListenerSupport.Listeners listeners, HollowProducer.Blob blob) {
         Status.PublishBuilder builder = new Status.PublishBuilder();
         try {
@@ -773,6 +827,7 @@ abstract class AbstractHollowProducer {
         HollowProducer.Blob snapshot = null;
         HollowProducer.Blob delta = null;
         HollowProducer.Blob reverseDelta = null;
+        HollowProducer.Blob index = null;
 
         boolean cleanupCalled;
         boolean snapshotPublishComplete;
@@ -790,6 +845,10 @@ abstract class AbstractHollowProducer {
                 reverseDelta.cleanup();
                 reverseDelta = null;
             }
+            if (index != null) {
+                index.cleanup();
+                index = null;
+            }
         }
 
         synchronized void markSnapshotPublishComplete() {
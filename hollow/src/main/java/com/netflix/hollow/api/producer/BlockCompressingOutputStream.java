@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the block format read by {@link BlockDecompressingInputStream}:
+ * <pre>
+ *     int magic, byte version, then for each block:
+ *         byte blockType, int uncompressedLength, int storedLength, byte[storedLength]
+ *     terminated by a block of type END_OF_STREAM with no lengths.
+ * </pre>
+ */
+class BlockCompressingOutputStream extends OutputStream {
+
+    static final int MAGIC = 0x48424C4B;
+    static final byte VERSION = 1;
+
+    static final byte BLOCK_TYPE_END_OF_STREAM = 0;
+    static final byte BLOCK_TYPE_DEFLATED = 1;
+    static final byte BLOCK_TYPE_STORED = 2;
+
+    private final DataOutputStream out;
+    private final ExecutorService executor;
+    private final int compressionLevel;
+    private final int maxBlocksInFlight;
+    private final ArrayDeque<Future<CompressedBlock>> pendingBlocks;
+
+    private byte[] block;
+    private int blockLength;
+    private boolean headerWritten;
+    private boolean closed;
+
+    BlockCompressingOutputStream(OutputStream out, ExecutorService executor, int maxBlockSizeBytes, int compressionLevel, int maxBlocksInFlight) {
+        this.out = new DataOutputStream(out);
+        this.executor = executor;
+        this.compressionLevel = compressionLevel;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.pendingBlocks = new ArrayDeque<>();
+        this.block = new byte[maxBlockSizeBytes];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if(blockLength == block.length)
+            endBlock();
+        block[blockLength++] = (byte)b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while(len > 0) {
+            if(blockLength == block.length)
+                endBlock();
+            int bytesToCopy = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, bytesToCopy);
+            blockLength += bytesToCopy;
+            off += bytesToCopy;
+            len -= bytesToCopy;
+        }
+    }
+
+    /**
+     * Ends the current block and writes all pending blocks through to the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        endBlock();
+        while(!pendingBlocks.isEmpty())
+            writeNextPendingBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+
+        try {
+            flush();
+            writeHeaderIfNecessary();
+            out.writeByte(BLOCK_TYPE_END_OF_STREAM);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void endBlock() throws IOException {
+        if(blockLength == 0)
+            return;
+
+        writeHeaderIfNecessary();
+
+        final byte[] uncompressed = block;
+        final int uncompressedLength = blockLength;
+        pendingBlocks.addLast(executor.submit(() -> compressBlock(uncompressed, uncompressedLength)));
+
+        block = new byte[block.length];
+        blockLength = 0;
+
+        while(pendingBlocks.size() >= maxBlocksInFlight)
+            writeNextPendingBlock();
+    }
+
+    private void writeHeaderIfNecessary() throws IOException {
+        if(!headerWritten) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            headerWritten = true;
+        }
+    }
+
+    private CompressedBlock compressBlock(byte[] uncompressed, int uncompressedLength) {
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(uncompressed, 0, uncompressedLength);
+            deflater.finish();
+
+            /// a block which does not shrink is stored rather than deflated
+            byte[] compressed = new byte[uncompressedLength];
+            int compressedLength = 0;
+            while(!deflater.finished() && compressedLength < compressed.length)
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+
+            if(!deflater.finished())
+                return new CompressedBlock(BLOCK_TYPE_STORED, uncompressedLength, uncompressed, uncompressedLength);
+            return new CompressedBlock(BLOCK_TYPE_DEFLATED, uncompressedLength, compressed, compressedLength);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeNextPendingBlock() throws IOException {
+        CompressedBlock compressedBlock;
+        try {
+            compressedBlock = pendingBlocks.removeFirst().get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch(ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        out.writeByte(compressedBlock.blockType);
+        out.writeInt(compressedBlock.uncompressedLength);
+        out.writeInt(compressedBlock.storedLength);
+        out.write(compressedBlock.data, 0, compressedBlock.storedLength);
+    }
+
+    private static class CompressedBlock {
+        private final byte blockType;
+        private final int uncompressedLength;
+        private final byte[] data;
+        private final int storedLength;
+
+        CompressedBlock(byte blockType, int uncompressedLength, byte[] data, int storedLength) {
+            this.blockType = blockType;
+            this.uncompressedLength = uncompressedLength;
+            this.data = data;
+            this.storedLength = storedLength;
+        }
+    }
+
+}
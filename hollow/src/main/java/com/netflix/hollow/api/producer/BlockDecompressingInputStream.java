@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import static com.netflix.hollow.api.producer.BlockCompressingOutputStream.BLOCK_TYPE_DEFLATED;
+import static com.netflix.hollow.api.producer.BlockCompressingOutputStream.BLOCK_TYPE_END_OF_STREAM;
+import static com.netflix.hollow.api.producer.BlockCompressingOutputStream.BLOCK_TYPE_STORED;
+import static com.netflix.hollow.api.producer.BlockCompressingOutputStream.MAGIC;
+import static com.netflix.hollow.api.producer.BlockCompressingOutputStream.VERSION;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the block format written by {@link BlockCompressingOutputStream}.  Compressed blocks are read sequentially
+ * from the underlying stream, and up to {@code maxBlocksInFlight} of them are inflated ahead of the reader in parallel.
+ */
+class BlockDecompressingInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final DataInputStream in;
+    private final ExecutorService executor;
+    private final int maxBlocksInFlight;
+    private final ArrayDeque<Future<byte[]>> pendingBlocks;
+
+    private boolean headerRead;
+    private boolean endOfStreamReached;
+
+    private byte[] block = EMPTY;
+    private int blockCursor;
+
+    BlockDecompressingInputStream(InputStream in, ExecutorService executor, int maxBlocksInFlight) {
+        this.in = new DataInputStream(in);
+        this.executor = executor;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.pendingBlocks = new ArrayDeque<>();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if(blockCursor == block.length && !nextBlock())
+            return -1;
+        return block[blockCursor++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if(len == 0)
+            return 0;
+        if(blockCursor == block.length && !nextBlock())
+            return -1;
+
+        int bytesToCopy = Math.min(len, block.length - blockCursor);
+        System.arraycopy(block, blockCursor, b, off, bytesToCopy);
+        blockCursor += bytesToCopy;
+        return bytesToCopy;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while(skipped < n) {
+            if(blockCursor == block.length && !nextBlock())
+                break;
+            int bytesToSkip = (int)Math.min(n - skipped, block.length - blockCursor);
+            blockCursor += bytesToSkip;
+            skipped += bytesToSkip;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return block.length - blockCursor;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for(Future<byte[]> pending : pendingBlocks)
+            pending.cancel(false);
+        pendingBlocks.clear();
+        in.close();
+    }
+
+    private boolean nextBlock() throws IOException {
+        while(!endOfStreamReached && pendingBlocks.size() < maxBlocksInFlight)
+            readNextCompressedBlock();
+
+        if(pendingBlocks.isEmpty())
+            return false;
+
+        try {
+            block = pendingBlocks.removeFirst().get();
+            blockCursor = 0;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch(ExecutionException e) {
+            throw new IOException("Unable to decompress block", e.getCause());
+        }
+
+        return true;
+    }
+
+    private void readNextCompressedBlock() throws IOException {
+        if(!headerRead) {
+            if(in.readInt() != MAGIC)
+                throw new IOException("Stream was not compressed by a HollowBlockCompressor");
+            byte version = in.readByte();
+            if(version != VERSION)
+                throw new IOException("Unsupported block compression version " + version);
+            headerRead = true;
+        }
+
+        byte blockType = in.readByte();
+        if(blockType == BLOCK_TYPE_END_OF_STREAM) {
+            endOfStreamReached = true;
+            return;
+        }
+
+        final int uncompressedLength = in.readInt();
+        final int storedLength = in.readInt();
+        final byte[] stored = new byte[storedLength];
+        try {
+            in.readFully(stored);
+        } catch(EOFException e) {
+            throw new EOFException("Compressed blob ended in the middle of a block");
+        }
+
+        if(blockType == BLOCK_TYPE_STORED)
+            pendingBlocks.addLast(CompletableFuture.completedFuture(stored));
+        else if(blockType == BLOCK_TYPE_DEFLATED)
+            pendingBlocks.addLast(executor.submit(() -> inflate(stored, uncompressedLength)));
+        else
+            throw new IOException("Unknown block type " + blockType);
+    }
+
+    private static byte[] inflate(byte[] compressed, int uncompressedLength) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] uncompressed = new byte[uncompressedLength];
+            int inflatedLength = 0;
+            while(inflatedLength < uncompressedLength && !inflater.finished()) {
+                int n = inflater.inflate(uncompressed, inflatedLength, uncompressedLength - inflatedLength);
+                if(n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                inflatedLength += n;
+            }
+            if(inflatedLength != uncompressedLength)
+                throw new DataFormatException("Expected " + uncompressedLength + " bytes but inflated " + inflatedLength);
+            return uncompressed;
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.core.util.Threads;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * A {@link HollowProducer.BlobCompressor} which splits blobs into independently deflated blocks so that both
+ * compression and decompression can be spread across cores.
+ * <p>
+ * A block ends whenever the producer flushes the blob stream (the {@link com.netflix.hollow.core.write.HollowBlobWriter}
+ * flushes after each type, see {@link #requiresFlushAtTypeBoundaries()}), or when the block reaches the configured
+ * maximum size, so that each type's data, and each portion of a large type, is compressed independently of the others.  A block which does not shrink when deflated is
+ * stored as-is, which avoids paying to inflate incompressible bit-packed data.
+ * <p>
+ * On the consumer side, wrap the {@link HollowConsumer.BlobRetriever} with {@link #decompressingRetriever} (or wrap blob
+ * input streams with {@link #decompress(InputStream)}).  Blocks are inflated ahead of the
+ * {@link com.netflix.hollow.core.read.engine.HollowBlobReader} on a shared pool of daemon threads, so decompression
+ * overlaps with the loading of the data.
+ */
+public class HollowBlockCompressor implements HollowProducer.BlobCompressor {
+
+    public static final int DEFAULT_MAX_BLOCK_SIZE_BYTES = 1 << 22;
+
+    private final int maxBlockSizeBytes;
+    private final int compressionLevel;
+    private final int maxBlocksInFlight;
+    private final ExecutorService executor;
+
+    public HollowBlockCompressor() {
+        this(DEFAULT_MAX_BLOCK_SIZE_BYTES, Deflater.BEST_SPEED, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param maxBlockSizeBytes the maximum number of uncompressed bytes in a single block
+     * @param compressionLevel the {@link Deflater} compression level
+     * @param parallelism the number of threads used to compress or decompress blocks; at most twice this many blocks
+     * are held in memory by any single stream
+     */
+    public HollowBlockCompressor(int maxBlockSizeBytes, int compressionLevel, int parallelism) {
+        if(maxBlockSizeBytes <= 0)
+            throw new IllegalArgumentException("maxBlockSizeBytes must be positive");
+        if(parallelism <= 0)
+            throw new IllegalArgumentException("parallelism must be positive");
+
+        this.maxBlockSizeBytes = maxBlockSizeBytes;
+        this.compressionLevel = compressionLevel;
+        this.maxBlocksInFlight = parallelism * 2;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> Threads.daemonThread(r, HollowBlockCompressor.class, "block-codec"));
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) {
+        return new BlockCompressingOutputStream(os, executor, maxBlockSizeBytes, compressionLevel, maxBlocksInFlight);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) {
+        return new BlockDecompressingInputStream(is, executor, maxBlocksInFlight);
+    }
+
+    @Override
+    public boolean requiresFlushAtTypeBoundaries() {
+        return true;
+    }
+
+    /**
+     * Wraps a {@link HollowConsumer.BlobRetriever} so that the blobs it retrieves, which are expected to have been
+     * compressed by a {@code HollowBlockCompressor}, are decompressed as they are read.
+     *
+     * @param retriever the retriever of compressed blobs
+     * @return a retriever of decompressed blobs
+     */
+    public HollowConsumer.BlobRetriever decompressingRetriever(final HollowConsumer.BlobRetriever retriever) {
+        return new HollowConsumer.BlobRetriever() {
+            @Override
+            public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+                return decompressingBlob(retriever.retrieveSnapshotBlob(desiredVersion));
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+                return decompressingBlob(retriever.retrieveDeltaBlob(currentVersion));
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+                return decompressingBlob(retriever.retrieveReverseDeltaBlob(currentVersion));
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveIndexBlob(long version) {
+                return decompressingBlob(retriever.retrieveIndexBlob(version));
+            }
+        };
+    }
+
+    private HollowConsumer.Blob decompressingBlob(final HollowConsumer.Blob blob) {
+        if(blob == null)
+            return null;
+
+        return new HollowConsumer.Blob(blob.getFromVersion(), blob.getToVersion()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return decompress(blob.getInputStream());
+            }
+        };
+    }
+
+}
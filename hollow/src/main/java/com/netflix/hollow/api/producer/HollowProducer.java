@@ -26,6 +26,8 @@ import com.netflix.hollow.api.producer.enforcer.SingleProducerEnforcer;
 import com.netflix.hollow.api.producer.fs.HollowFilesystemBlobStager;
 import com.netflix.hollow.api.producer.listener.HollowProducerEventListener;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
+import com.netflix.hollow.core.index.HollowIndexBlobWriter;
+import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
@@ -42,6 +44,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * A HollowProducer is the top-level class used by producers of Hollow data to populate, publish, and announce data states.
@@ -523,6 +526,30 @@ public class HollowProducer extends AbstractHollowProducer {
          * @return a {@link HollowProducer.Blob} representing a snapshot for the {@code version}
          */
         HollowProducer.Blob openReverseDelta(long fromVersion, long toVersion);
+
+        /**
+         * Returns a blob with which a {@code HollowProducer} will write the indexes built on the specified version,
+         * when the producer is configured to {@link Builder#withPublishedPrimaryKeyIndexes() publish indexes}.
+         * <p>
+         * The producer will pass the returned blob back to this publisher when calling {@link Publisher#publish(HollowProducer.Blob)}.
+         *
+         * @param version the version of the indexed data
+         * @return a {@link HollowProducer.Blob} representing the indexes for the {@code version}
+         * @throws UnsupportedOperationException if this stager does not {@link #supportsIndexBlobs() stage index blobs}
+         */
+        default HollowProducer.Blob openIndex(long version) {
+            throw new UnsupportedOperationException(getClass().getName() + " does not stage index blobs");
+        }
+
+        /**
+         * Stagers which override {@link #openIndex(long)} must also override this method to return true.  A
+         * producer which publishes indexes cannot be built with a stager which does not support index blobs.
+         *
+         * @return whether this stager stages index blobs
+         */
+        default boolean supportsIndexBlobs() {
+            return false;
+        }
     }
 
     public interface BlobCompressor {
@@ -553,6 +580,15 @@ public class HollowProducer extends AbstractHollowProducer {
          * @return the uncompressed input stream
          */
         InputStream decompress(InputStream is);
+
+        /**
+         * @return whether the compressed output stream should be flushed after each type is written to it, for a
+         * compressor which compresses the data between flushes independently
+         * @see com.netflix.hollow.core.write.HollowBlobWriter#setFlushAtTypeBoundaries(boolean)
+         */
+        default boolean requiresFlushAtTypeBoundaries() {
+            return false;
+        }
     }
 
 
@@ -585,6 +621,17 @@ public class HollowProducer extends AbstractHollowProducer {
 
         protected abstract void write(HollowBlobWriter writer) throws IOException;
 
+        /**
+         * Write an {@link Type#INDEX index} blob.  The blobs of stagers which
+         * {@link BlobStager#supportsIndexBlobs() support index blobs} must override this method.
+         *
+         * @param writer the index blob writer
+         * @throws IOException if the blob could not be written
+         */
+        protected void write(HollowIndexBlobWriter writer) throws IOException {
+            throw new UnsupportedOperationException(getClass().getName() + " does not support index blobs");
+        }
+
         public abstract InputStream newInputStream() throws IOException;
 
         public abstract void cleanup();
@@ -611,12 +658,16 @@ public class HollowProducer extends AbstractHollowProducer {
         }
 
         /**
-         * Hollow blob types are {@code SNAPSHOT}, {@code DELTA} and {@code REVERSE_DELTA}.
+         * Hollow blob types are {@code SNAPSHOT}, {@code DELTA}, {@code REVERSE_DELTA} and {@code INDEX}.
+         * <p>
+         * An {@code INDEX} blob holds indexes built on the data state of its "to" version, and is only
+         * published when the producer is configured to {@link Builder#withPublishedPrimaryKeyIndexes() publish indexes}.
          */
         public enum Type {
             SNAPSHOT("snapshot"),
             DELTA("delta"),
-            REVERSE_DELTA("reversedelta");
+            REVERSE_DELTA("reversedelta"),
+            INDEX("index");
 
             public final String prefix;
 
@@ -651,6 +702,7 @@ public class HollowProducer extends AbstractHollowProducer {
         BlobStorageCleaner blobStorageCleaner = new DummyBlobStorageCleaner();
         SingleProducerEnforcer singleProducerEnforcer = new BasicSingleProducerEnforcer();
         HollowObjectHashCodeFinder hashCodeFinder = null;
+        List<Consumer<HollowIndexBlobWriter>> publishedIndexes = new ArrayList<>();
 
         public B withBlobStager(HollowProducer.BlobStager stager) {
             this.stager = stager;
@@ -795,6 +847,50 @@ public class HollowProducer extends AbstractHollowProducer {
             return (B) this;
         }
 
+        /**
+         * Build a primary key index for each type with a primary key declared in its schema, and publish these
+         * indexes in an {@link Blob.Type#INDEX index} blob after each cycle, so that consumers can load them
+         * with {@link com.netflix.hollow.api.consumer.index.HollowConsumerIndexRegistry} rather than building them.
+         * <p>
+         * The published indexes are built from scratch on the validated state of every cycle which produces a new
+         * version, on the cycle thread, before the version is announced.  This adds the full build time of every
+         * published index to each cycle, so only publish indexes which are expensive for consumers to build.
+         * <p>
+         * The {@link #withBlobStager(BlobStager) blob stager} must {@link BlobStager#supportsIndexBlobs() support
+         * index blobs}; the default filesystem stager does.
+         *
+         * @return this builder
+         */
+        public B withPublishedPrimaryKeyIndexes() {
+            this.publishedIndexes.add(HollowIndexBlobWriter::addDeclaredPrimaryKeyIndexes);
+            return (B) this;
+        }
+
+        /**
+         * Build the specified primary key index, and publish it in an {@link Blob.Type#INDEX index} blob after
+         * each cycle.
+         *
+         * @param primaryKey the primary key
+         * @return this builder
+         */
+        public B withPublishedPrimaryKeyIndex(PrimaryKey primaryKey) {
+            this.publishedIndexes.add(writer -> writer.addPrimaryKeyIndex(primaryKey));
+            return (B) this;
+        }
+
+        /**
+         * Build the specified hash index, and publish it in an {@link Blob.Type#INDEX index} blob after each cycle.
+         *
+         * @param type the type to index
+         * @param selectField the select field
+         * @param matchFields the match field paths
+         * @return this builder
+         */
+        public B withPublishedHashIndex(String type, String selectField, String... matchFields) {
+            this.publishedIndexes.add(writer -> writer.addHashIndex(type, selectField, matchFields));
+            return (B) this;
+        }
+
         protected void checkArguments() {
             if (stager != null && compressor != null) {
                 throw new IllegalArgumentException(
@@ -804,6 +900,10 @@ public class HollowProducer extends AbstractHollowProducer {
                 throw new IllegalArgumentException(
                         "Both a custom BlobStager and a staging directory were specified -- please specify only one of these.");
             }
+            if (stager != null && !publishedIndexes.isEmpty() && !stager.supportsIndexBlobs()) {
+                throw new IllegalArgumentException(
+                        "Published indexes were specified, but the custom BlobStager does not support index blobs.");
+            }
 
             if (this.stager == null) {
                 BlobCompressor compressor = this.compressor != null ? this.compressor : BlobCompressor.NO_COMPRESSION;
@@ -851,6 +951,9 @@ public class HollowProducer extends AbstractHollowProducer {
                 case REVERSE_DELTA:
                     cleanReverseDeltas();
                     break;
+                case INDEX:
+                    cleanIndexes();
+                    break;
             }
         }
 
@@ -868,6 +971,12 @@ public class HollowProducer extends AbstractHollowProducer {
          * This method provides an opportunity to remove old reverse deltas.
          */
         public abstract void cleanReverseDeltas();
+
+        /**
+         * This method provides an opportunity to remove old index blobs.  By default index blobs are retained.
+         */
+        public void cleanIndexes() {
+        }
     }
 
     /**
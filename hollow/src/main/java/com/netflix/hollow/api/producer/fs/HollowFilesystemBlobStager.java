@@ -17,6 +17,7 @@
 package com.netflix.hollow.api.producer.fs;
 
 import static com.netflix.hollow.api.producer.HollowProducer.Blob.Type.DELTA;
+import static com.netflix.hollow.api.producer.HollowProducer.Blob.Type.INDEX;
 import static com.netflix.hollow.api.producer.HollowProducer.Blob.Type.REVERSE_DELTA;
 import static com.netflix.hollow.api.producer.HollowProducer.Blob.Type.SNAPSHOT;
 
@@ -25,6 +26,7 @@ import com.netflix.hollow.api.producer.HollowProducer.Blob;
 import com.netflix.hollow.api.producer.HollowProducer.BlobCompressor;
 import com.netflix.hollow.api.producer.HollowProducer.BlobStager;
 import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowIndexBlobWriter;
 import com.netflix.hollow.core.write.HollowBlobWriter;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -97,6 +99,16 @@ public class HollowFilesystemBlobStager implements BlobStager {
         return new FilesystemBlob(fromVersion, toVersion, REVERSE_DELTA, stagingPath, compressor);
     }
 
+    @Override
+    public HollowProducer.Blob openIndex(long version) {
+        return new FilesystemBlob(HollowConstants.VERSION_NONE, version, INDEX, stagingPath, compressor);
+    }
+
+    @Override
+    public boolean supportsIndexBlobs() {
+        return true;
+    }
+
     public static class FilesystemBlob extends Blob {
 
         protected final Path path;
@@ -117,6 +129,9 @@ public class HollowFilesystemBlobStager implements BlobStager {
                 case REVERSE_DELTA:
                     this.path = dirPath.resolve(String.format("%s-%d-%d.%s", type.prefix, fromVersion, toVersion, Integer.toHexString(randomExtension)));
                     break;
+                case INDEX:
+                    this.path = dirPath.resolve(String.format("%s-%d.%s", type.prefix, toVersion, Integer.toHexString(randomExtension)));
+                    break;
                 default:
                     throw new IllegalStateException("unknown blob type, type=" + type);
             }
@@ -132,15 +147,8 @@ public class HollowFilesystemBlobStager implements BlobStager {
 
         @Override
         protected void write(HollowBlobWriter writer) throws IOException {
-            Path parent = this.path.getParent();
-            if(!Files.exists(parent))
-                Files.createDirectories(parent);
-
-            if(!Files.exists(path))
-                Files.createFile(path);
-
-
-            try (OutputStream os = new BufferedOutputStream(compressor.compress(Files.newOutputStream(path)))) {
+            writer.setFlushAtTypeBoundaries(compressor.requiresFlushAtTypeBoundaries());
+            try (OutputStream os = newOutputStream()) {
                 switch (type) {
                     case SNAPSHOT:
                         writer.writeSnapshot(os);
@@ -151,12 +159,35 @@ public class HollowFilesystemBlobStager implements BlobStager {
                     case REVERSE_DELTA:
                         writer.writeReverseDelta(os);
                         break;
+                    case INDEX:
+                        throw new IllegalStateException("index blobs are written with a HollowIndexBlobWriter");
                     default:
                         throw new IllegalStateException("unknown type, type=" + type);
                 }
             }
         }
 
+        @Override
+        protected void write(HollowIndexBlobWriter writer) throws IOException {
+            if (type != INDEX)
+                throw new IllegalStateException("only index blobs are written with a HollowIndexBlobWriter, type=" + type);
+
+            try (OutputStream os = newOutputStream()) {
+                writer.writeIndexes(os);
+            }
+        }
+
+        private OutputStream newOutputStream() throws IOException {
+            Path parent = this.path.getParent();
+            if(!Files.exists(parent))
+                Files.createDirectories(parent);
+
+            if(!Files.exists(path))
+                Files.createFile(path);
+
+            return new BufferedOutputStream(compressor.compress(Files.newOutputStream(path)));
+        }
+
         @Override
         public InputStream newInputStream() throws IOException {
             return new BufferedInputStream(compressor.decompress(Files.newInputStream(this.path)));
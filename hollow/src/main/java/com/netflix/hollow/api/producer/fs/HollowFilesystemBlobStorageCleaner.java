@@ -45,7 +45,26 @@ public class HollowFilesystemBlobStorageCleaner extends HollowProducer.BlobStora
      */
     @Override
     public void cleanSnapshots() {
-        File[] files = getFilesByType(HollowProducer.Blob.Type.SNAPSHOT.prefix);
+        cleanBlobs(HollowProducer.Blob.Type.SNAPSHOT);
+    }
+
+
+    @Override
+    public void cleanDeltas() { }
+
+    @Override
+    public void cleanReverseDeltas() { }
+
+    /**
+     * Cleans index blobs to keep as many as the snapshots kept.
+     */
+    @Override
+    public void cleanIndexes() {
+        cleanBlobs(HollowProducer.Blob.Type.INDEX);
+    }
+
+    private void cleanBlobs(HollowProducer.Blob.Type type) {
+        File[] files = getFilesByType(type.prefix);
 
         if(files == null || files.length <= numOfSnapshotsToKeep) {
             return;
@@ -57,18 +76,11 @@ public class HollowFilesystemBlobStorageCleaner extends HollowProducer.BlobStora
             File file = files[i];
             boolean deleted = file.delete();
             if(!deleted) {
-                log.warning("Could not delete snapshot " + file.getPath());
+                log.warning("Could not delete " + type.prefix + " " + file.getPath());
             }
         }
     }
 
-
-    @Override
-    public void cleanDeltas() { }
-
-    @Override
-    public void cleanReverseDeltas() { }
-
     private void sortByLastModified(File[] files) {
         Arrays.sort(files, new Comparator<File>() {
             public int compare(File f1, File f2) {
@@ -54,6 +54,12 @@ public class HollowFilesystemPublisher implements HollowProducer.Publisher {
         case REVERSE_DELTA:
             destination = blobStorePath.resolve(String.format("%s-%d-%d", blob.getType().prefix, blob.getFromVersion(), blob.getToVersion()));
             break;
+        case INDEX:
+            /// an index blob describes a single state, so like a snapshot it is named by its "to" version only
+            destination = blobStorePath.resolve(String.format("%s-%d", blob.getType().prefix, blob.getToVersion()));
+            break;
+        default:
+            throw new IllegalStateException("unknown blob type, type=" + blob.getType());
         }
             
         try(
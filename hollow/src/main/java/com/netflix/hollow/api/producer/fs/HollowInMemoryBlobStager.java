@@ -19,6 +19,7 @@ package com.netflix.hollow.api.producer.fs;
 import com.netflix.hollow.api.producer.HollowProducer;
 import com.netflix.hollow.api.producer.HollowProducer.Blob;
 import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowIndexBlobWriter;
 import com.netflix.hollow.core.write.HollowBlobWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -41,6 +42,16 @@ public class HollowInMemoryBlobStager implements HollowProducer.BlobStager {
     public Blob openReverseDelta(long fromVersion, long toVersion) {
         return new InMemoryBlob(fromVersion, toVersion, Blob.Type.REVERSE_DELTA);
     }
+
+    @Override
+    public Blob openIndex(long version) {
+        return new InMemoryBlob(HollowConstants.VERSION_NONE, version, Blob.Type.INDEX);
+    }
+
+    @Override
+    public boolean supportsIndexBlobs() {
+        return true;
+    }
     
     public static class InMemoryBlob extends Blob {
 
@@ -68,6 +79,13 @@ public class HollowInMemoryBlobStager implements HollowProducer.BlobStager {
             data = baos.toByteArray();
         }
 
+        @Override
+        protected void write(HollowIndexBlobWriter writer) throws IOException {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            writer.writeIndexes(baos);
+            data = baos.toByteArray();
+        }
+
         @Override
         public InputStream newInputStream() throws IOException {
             return new ByteArrayInputStream(data);
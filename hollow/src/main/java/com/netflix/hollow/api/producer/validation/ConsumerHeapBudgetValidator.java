@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer.validation;
+
+import com.netflix.hollow.api.metrics.HollowProducerMetrics;
+import com.netflix.hollow.api.producer.HollowProducer.ReadState;
+import com.netflix.hollow.core.write.HollowTypeSizeEstimate;
+import com.netflix.hollow.core.write.HollowWriteStateSizeEstimate;
+
+/**
+ * A validator that fails a cycle if the projected consumer heap footprint of the state it produced exceeds a budget,
+ * so that a state which would not fit in consumers' heaps is never announced.
+ * <p>
+ * The projection is the {@link HollowWriteStateSizeEstimate size estimate} made from the write state at the start
+ * of the cycle's publish stage, as recorded in the producer's metrics:
+ * <pre>{@code
+ *     HollowProducer producer = ...;
+ *     producer.addListener(new ConsumerHeapBudgetValidator(producer.getMetrics(), maxHeapBytes));
+ * }</pre>
+ * Creating the validator {@link HollowProducerMetrics#requestSizeEstimates() requests} that the producer makes
+ * this estimate each cycle.  Optionally, a budget may also be applied to a single type.
+ */
+public class ConsumerHeapBudgetValidator implements ValidatorListener {
+    private static final String FAILED_BUDGET_VALIDATION =
+            "Projected consumer heap footprint %d bytes%s exceeds the budget of %d bytes.";
+
+    private static final String DATA_TYPE_NAME = "Typename";
+    private static final String BUDGET_NAME = "HeapBudgetInBytes";
+    private static final String ESTIMATED_HEAP_FOOTPRINT_NAME = "EstimatedHeapFootprintInBytes";
+    private static final String ESTIMATED_SNAPSHOT_SIZE_NAME = "EstimatedSnapshotSizeInBytes";
+    private static final String ESTIMATED_DELTA_SIZE_NAME = "EstimatedDeltaSizeInBytes";
+
+    private static final String NAME = ConsumerHeapBudgetValidator.class.getName();
+
+    private final HollowProducerMetrics metrics;
+    private final String typeName;
+    private final long maxHeapFootprintInBytes;
+
+    /**
+     * @param metrics the metrics of the producer whose cycles should be validated
+     * @param maxHeapFootprintInBytes the budget for the projected heap footprint of the entire state
+     */
+    public ConsumerHeapBudgetValidator(HollowProducerMetrics metrics, long maxHeapFootprintInBytes) {
+        this(metrics, null, maxHeapFootprintInBytes);
+    }
+
+    /**
+     * @param metrics the metrics of the producer whose cycles should be validated
+     * @param typeName the type to which the budget applies
+     * @param maxHeapFootprintInBytes the budget for the projected heap footprint of the type
+     */
+    public ConsumerHeapBudgetValidator(HollowProducerMetrics metrics, String typeName, long maxHeapFootprintInBytes) {
+        if (maxHeapFootprintInBytes < 0) {
+            throw new IllegalArgumentException("ConsumerHeapBudgetValidator: cannot have a maxHeapFootprintInBytes "
+                    + "less than 0. Value provided: " + maxHeapFootprintInBytes);
+        }
+        this.metrics = metrics;
+        this.typeName = typeName;
+        this.maxHeapFootprintInBytes = maxHeapFootprintInBytes;
+        metrics.requestSizeEstimates();
+    }
+
+    @Override
+    public String getName() {
+        return typeName == null ? NAME : NAME + "_" + typeName;
+    }
+
+    @Override
+    public ValidationResult onValidate(ReadState readState) {
+        ValidationResult.ValidationResultBuilder vrb = ValidationResult.from(this);
+        vrb.detail(BUDGET_NAME, maxHeapFootprintInBytes);
+
+        HollowWriteStateSizeEstimate sizeEstimate = metrics.getSizeEstimate();
+        if (sizeEstimate == null) {
+            return vrb.detail("skipped", Boolean.TRUE).passed("No size estimate is available for this cycle.");
+        }
+
+        long estimatedHeapFootprint;
+        if (typeName == null) {
+            estimatedHeapFootprint = sizeEstimate.getConsumerHeapFootprintInBytes();
+            vrb.detail(ESTIMATED_SNAPSHOT_SIZE_NAME, sizeEstimate.getSnapshotSizeInBytes())
+                    .detail(ESTIMATED_DELTA_SIZE_NAME, sizeEstimate.getDeltaSizeInBytes());
+        } else {
+            vrb.detail(DATA_TYPE_NAME, typeName);
+            HollowTypeSizeEstimate typeEstimate = sizeEstimate.getTypeEstimate(typeName);
+            if (typeEstimate == null) {
+                return vrb.detail("skipped", Boolean.TRUE).passed("Type " + typeName + " is not present.");
+            }
+            estimatedHeapFootprint = typeEstimate.getConsumerHeapFootprintInBytes();
+            vrb.detail(ESTIMATED_SNAPSHOT_SIZE_NAME, typeEstimate.getSnapshotSizeInBytes())
+                    .detail(ESTIMATED_DELTA_SIZE_NAME, typeEstimate.getDeltaSizeInBytes());
+        }
+        vrb.detail(ESTIMATED_HEAP_FOOTPRINT_NAME, estimatedHeapFootprint);
+
+        if (estimatedHeapFootprint > maxHeapFootprintInBytes) {
+            String message = String.format(FAILED_BUDGET_VALIDATION, estimatedHeapFootprint,
+                    typeName == null ? "" : " for type " + typeName, maxHeapFootprintInBytes);
+            return vrb.failed(message);
+        }
+
+        return vrb.passed();
+    }
+}
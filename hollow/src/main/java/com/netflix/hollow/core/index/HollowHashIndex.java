@@ -18,11 +18,17 @@ package com.netflix.hollow.core.index;
 
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * A HollowHashIndex is used for indexing non-primary-key data.  This type of index can map multiple keys to a single matching record, and/or
@@ -52,13 +58,77 @@ public class HollowHashIndex implements HollowTypeStateListener {
      * @param matchFields The query will match on the specified match fields.  The match fields may span collection elements and/or map keys or values.
      */
     public HollowHashIndex(HollowReadStateEngine stateEngine, String type, String selectField, String... matchFields) {
+        this(stateEngine, type, selectField, matchFields, null);
+    }
+
+    private HollowHashIndex(HollowReadStateEngine stateEngine, String type, String selectField, String[] matchFields, HollowHashIndexState restoredHashState) {
         this.stateEngine = stateEngine;
         this.type = type;
         this.typeState = (HollowObjectTypeReadState) stateEngine.getTypeState(type);
         this.selectField = selectField;
         this.matchFields = matchFields;
-        
-        reindexHashIndex();
+
+        if(restoredHashState != null)
+            this.hashStateVolatile = restoredHashState;
+        else
+            reindexHashIndex();
+    }
+
+    /**
+     * Write this index's hash tables, so that the index may be recreated with {@link #readFrom} instead of being
+     * rebuilt, provided the indexed data has not changed in the meantime.
+     *
+     * @param dos the stream to write to
+     * @throws IOException if the stream could not be written to
+     */
+    public void writeTo(DataOutputStream dos) throws IOException {
+        HollowHashIndexState hashState = hashStateVolatile;
+        VarInt.writeVInt(dos, hashState.bitsPerTraverserField.length);
+        for(int i=0;i<hashState.bitsPerTraverserField.length;i++)
+            VarInt.writeVInt(dos, hashState.bitsPerTraverserField[i]);
+        VarInt.writeVInt(dos, hashState.matchHashMask);
+        VarInt.writeVInt(dos, hashState.bitsPerMatchHashEntry);
+        VarInt.writeVInt(dos, hashState.bitsPerSelectTableSize);
+        VarInt.writeVInt(dos, hashState.bitsPerSelectTablePointer);
+        VarInt.writeVLong(dos, hashState.numSelectBuckets);
+        hashState.matchHashTable.writeTo(dos, FixedLengthElementArray.longsRequiredToRepresentBits(((long)hashState.matchHashMask + 1) * hashState.bitsPerMatchHashEntry));
+        hashState.selectHashArray.writeTo(dos, FixedLengthElementArray.longsRequiredToRepresentBits(hashState.numSelectBuckets * hashState.bitsPerSelectHashEntry));
+    }
+
+    /**
+     * Recreate an index written by {@link #writeTo}.  The caller is responsible for ensuring that the state engine holds
+     * exactly the data which was indexed when the index was written, for example by comparing the state's version
+     * and randomized tag.
+     *
+     * @param stateEngine the state engine to index
+     * @param type the type of the written index
+     * @param selectField the select field of the written index
+     * @param matchFields the match fields of the written index
+     * @param dis the stream to read from
+     * @return the index
+     * @throws IOException if the stream could not be read from, or does not hold an index of the state engine's data
+     */
+    public static HollowHashIndex readFrom(HollowReadStateEngine stateEngine, String type, String selectField, String[] matchFields, DataInputStream dis) throws IOException {
+        /// the builder derives the field layout from the schemas without indexing any records
+        HollowHashIndexBuilder builder = new HollowHashIndexBuilder(stateEngine, type, selectField, matchFields);
+
+        int[] bitsPerTraverserField = new int[VarInt.readVInt(dis)];
+        for(int i=0;i<bitsPerTraverserField.length;i++)
+            bitsPerTraverserField[i] = VarInt.readVInt(dis);
+        if(!Arrays.equals(bitsPerTraverserField, builder.getBitsPerTraverserField()))
+            throw new IOException("Persisted hash index does not match the data of type " + type);
+
+        int matchHashMask = VarInt.readVInt(dis);
+        int bitsPerMatchHashEntry = VarInt.readVInt(dis);
+        int bitsPerSelectTableSize = VarInt.readVInt(dis);
+        int bitsPerSelectTablePointer = VarInt.readVInt(dis);
+        long numSelectBuckets = VarInt.readVLong(dis);
+        FixedLengthElementArray matchHashTable = FixedLengthElementArray.deserializeFrom(dis, WastefulRecycler.DEFAULT_INSTANCE);
+        FixedLengthElementArray selectHashArray = FixedLengthElementArray.deserializeFrom(dis, WastefulRecycler.DEFAULT_INSTANCE);
+
+        HollowHashIndexState hashState = new HollowHashIndexState(builder, matchHashTable, selectHashArray, matchHashMask,
+                bitsPerMatchHashEntry, bitsPerSelectTableSize, bitsPerSelectTablePointer, numSelectBuckets);
+        return new HollowHashIndex(stateEngine, type, selectField, matchFields, hashState);
     }
 
     /**
@@ -86,38 +156,81 @@ public class HollowHashIndex implements HollowTypeStateListener {
         for(int i=0;i<query.length;i++) {
             if(query[i] == null)
                 throw new IllegalArgumentException("querying by null unsupported; i=" + i);
-            hashCode ^= HashCodes.hashInt(keyHashCode(query[i], i));
+            hashCode ^= HashCodes.hashInt(keyHashCode(hashStateVolatile, query[i], i));
         }
 
         HollowHashIndexResult result;
         HollowHashIndexState hashState;
         do {
-            result = null;
             hashState = hashStateVolatile;
-            long bucket = hashCode & hashState.getMatchHashMask();
-            long hashBucketBit = bucket * hashState.getBitsPerMatchHashEntry();
-            boolean bucketIsEmpty = hashState.getMatchHashTable().getElementValue(hashBucketBit, hashState.getBitsPerTraverserField()[0]) == 0;
+            result = findMatches(hashState, hashCode & hashState.getMatchHashMask(), query);
+        } while (hashState != hashStateVolatile);
 
-            while (!bucketIsEmpty) {
-                if (matchIsEqual(hashState.getMatchHashTable(), hashBucketBit, query)) {
-                    int selectSize = (int) hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey(), hashState.getBitsPerSelectTableSize());
-                    long selectBucketPointer = hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey() + hashState.getBitsPerSelectTableSize(), hashState.getBitsPerSelectTablePointer());
+        return result;
+    }
 
-                    result = new HollowHashIndexResult(hashState, selectBucketPointer, selectSize);
-                    break;
-                }
+    /**
+     * Query the index for many queries at once.  The result for {@code queries[i]} is written to {@code results[i]},
+     * or {@code null} if no matches were found.
+     * <p>
+     * All queries are hashed up front and probed against a single, consistent snapshot of the index, in bucket order
+     * rather than query order, so that probes for queries hashing close together touch the same region of the table.
+     *
+     * @param queries the queries, each holding one value per match field
+     * @param results the array to fill with the hash index results, at least as long as {@code queries}
+     * @throws IllegalArgumentException if a query contains a null value or {@code results} is shorter than {@code queries}
+     */
+    public void findMatches(Object[][] queries, HollowHashIndexResult[] results) {
+        if(results.length < queries.length)
+            throw new IllegalArgumentException("results array is too small; numQueries=" + queries.length + ", results.length=" + results.length);
 
-                bucket = (bucket + 1) & hashState.getMatchHashMask();
-                hashBucketBit = bucket * hashState.getBitsPerMatchHashEntry();
-                bucketIsEmpty = hashState.getMatchHashTable().getElementValue(hashBucketBit, hashState.getBitsPerTraverserField()[0]) == 0;
+        HollowHashIndexState hashState = hashStateVolatile;
+        int[] hashCodes = new int[queries.length];
+        for(int i=0;i<queries.length;i++) {
+            for(int j=0;j<queries[i].length;j++) {
+                if(queries[i][j] == null)
+                    throw new IllegalArgumentException("querying by null unsupported; query=" + i + ", i=" + j);
+                hashCodes[i] ^= HashCodes.hashInt(keyHashCode(hashState, queries[i][j], j));
+            }
+        }
+
+        long[] probes = new long[queries.length];
+        do {
+            hashState = hashStateVolatile;
+
+            /// sort the probes by bucket, keeping the query index in the low bits
+            for(int i=0;i<queries.length;i++)
+                probes[i] = ((long)(hashCodes[i] & hashState.getMatchHashMask()) << 32) | i;
+            Arrays.sort(probes);
+
+            for(int i=0;i<queries.length;i++) {
+                int queryIdx = (int)probes[i];
+                results[queryIdx] = findMatches(hashState, probes[i] >>> 32, queries[queryIdx]);
             }
         } while (hashState != hashStateVolatile);
+    }
 
-        return result;
+    private HollowHashIndexResult findMatches(HollowHashIndexState hashState, long bucket, Object[] query) {
+        long hashBucketBit = bucket * hashState.getBitsPerMatchHashEntry();
+        boolean bucketIsEmpty = hashState.getMatchHashTable().getElementValue(hashBucketBit, hashState.getBitsPerTraverserField()[0]) == 0;
+
+        while (!bucketIsEmpty) {
+            if (matchIsEqual(hashState, hashBucketBit, query)) {
+                int selectSize = (int) hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey(), hashState.getBitsPerSelectTableSize());
+                long selectBucketPointer = hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey() + hashState.getBitsPerSelectTableSize(), hashState.getBitsPerSelectTablePointer());
+
+                return new HollowHashIndexResult(hashState, selectBucketPointer, selectSize);
+            }
+
+            bucket = (bucket + 1) & hashState.getMatchHashMask();
+            hashBucketBit = bucket * hashState.getBitsPerMatchHashEntry();
+            bucketIsEmpty = hashState.getMatchHashTable().getElementValue(hashBucketBit, hashState.getBitsPerTraverserField()[0]) == 0;
+        }
+
+        return null;
     }
 
-    private int keyHashCode(Object key, int fieldIdx) {
-        HollowHashIndexState hashState = hashStateVolatile;
+    private int keyHashCode(HollowHashIndexState hashState, Object key, int fieldIdx) {
         switch(hashState.getMatchFields()[fieldIdx].getFieldType()) {
         case BOOLEAN:
             return HollowReadFieldUtils.booleanHashCode((Boolean)key);
@@ -140,8 +253,8 @@ public class HollowHashIndex implements HollowTypeStateListener {
         throw new IllegalArgumentException("I don't know how to hash a " + hashState.getMatchFields()[fieldIdx].getFieldType());
     }
 
-    private boolean matchIsEqual(FixedLengthElementArray matchHashTable, long hashBucketBit, Object[] query) {
-        HollowHashIndexState hashState = hashStateVolatile;
+    private boolean matchIsEqual(HollowHashIndexState hashState, long hashBucketBit, Object[] query) {
+        FixedLengthElementArray matchHashTable = hashState.getMatchHashTable();
         for(int i = 0; i< hashState.getMatchFields().length; i++) {
             HollowHashIndexField field = hashState.getMatchFields()[i];
             int hashOrdinal = (int)matchHashTable.getElementValue(hashBucketBit + hashState.getOffsetPerTraverserField()[field.getBaseIteratorFieldIdx()], hashState.getBitsPerTraverserField()[field.getBaseIteratorFieldIdx()]) - 1;
@@ -205,6 +318,15 @@ public class HollowHashIndex implements HollowTypeStateListener {
        reindexHashIndex();
     }
 
+    /**
+     * @return the approximate number of bytes allocated to this index's match and select hash tables
+     */
+    public long getApproximateHeapFootprintInBytes() {
+        HollowHashIndexState hashState = hashStateVolatile;
+        return hashState.getMatchHashTable().getApproximateFootprintInBytes()
+                + hashState.getSelectHashArray().getApproximateFootprintInBytes();
+    }
+
     public HollowReadStateEngine getStateEngine() {
         return stateEngine;
     }
@@ -234,6 +356,7 @@ public class HollowHashIndex implements HollowTypeStateListener {
         private final int[] offsetPerTraverserField;
         private final int bitsPerSelectTableSize;
         private final int bitsPerSelectTablePointer;
+        private final long numSelectBuckets;
 
         public HollowHashIndexState(HollowHashIndexBuilder builder) {
             matchHashTable = builder.getFinalMatchHashTable();
@@ -247,6 +370,23 @@ public class HollowHashIndex implements HollowTypeStateListener {
             bitsPerSelectTableSize = builder.getFinalBitsPerSelectTableSize();
             bitsPerSelectTablePointer = builder.getFinalBitsPerSelectTablePointer();
             bitsPerSelectHashEntry = builder.getBitsPerSelectHashEntry();
+            numSelectBuckets = builder.getFinalNumSelectBuckets();
+        }
+
+        HollowHashIndexState(HollowHashIndexBuilder builder, FixedLengthElementArray matchHashTable, FixedLengthElementArray selectHashArray,
+                int matchHashMask, int bitsPerMatchHashEntry, int bitsPerSelectTableSize, int bitsPerSelectTablePointer, long numSelectBuckets) {
+            this.matchHashTable = matchHashTable;
+            this.selectHashArray = selectHashArray;
+            this.matchFields = builder.getMatchFields();
+            this.matchHashMask = matchHashMask;
+            this.bitsPerMatchHashKey = builder.getBitsPerMatchHashKey();
+            this.bitsPerMatchHashEntry = bitsPerMatchHashEntry;
+            this.bitsPerTraverserField = builder.getBitsPerTraverserField();
+            this.offsetPerTraverserField = builder.getOffsetPerTraverserField();
+            this.bitsPerSelectTableSize = bitsPerSelectTableSize;
+            this.bitsPerSelectTablePointer = bitsPerSelectTablePointer;
+            this.bitsPerSelectHashEntry = builder.getBitsPerSelectHashEntry();
+            this.numSelectBuckets = numSelectBuckets;
         }
 
         public FixedLengthElementArray getSelectHashArray() {
@@ -49,6 +49,7 @@ public class HollowHashIndexBuilder {
     private int finalBitsPerMatchHashEntry;
     private int finalBitsPerSelectTableSize;
     private int finalBitsPerSelectTablePointer;
+    private long finalNumSelectBuckets;
 
     private GrowingSegmentedLongArray matchIndexHashAndSizeArray;
     private FixedLengthElementArray intermediateMatchHashTable;
@@ -234,6 +235,7 @@ public class HollowHashIndexBuilder {
 
         this.finalMatchHashTable = finalMatchArray;
         this.finalSelectHashArray = finalSelectArray;
+        this.finalNumSelectBuckets = totalNumberOfSelectBuckets;
         this.finalBitsPerMatchHashEntry = finalBitsPerMatchHashEntry;
         this.finalBitsPerSelectTablePointer = bitsPerFinalSelectBucketPointer;
         this.finalBitsPerSelectTableSize = bitsPerSelectTableSize;
@@ -426,6 +428,10 @@ public class HollowHashIndexBuilder {
         return finalBitsPerSelectTablePointer;
     }
 
+    public long getFinalNumSelectBuckets() {
+        return finalNumSelectBuckets;
+    }
+
     public FixedLengthElementArray getFinalSelectHashArray() {
         return finalSelectHashArray;
     }
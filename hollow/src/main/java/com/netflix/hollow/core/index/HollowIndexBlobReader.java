@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A HollowIndexBlobReader reads the index blobs written by a {@link HollowIndexBlobWriter}.
+ * <p>
+ * The indexes in the blob are returned in their serialized form, and are only recreated on request, so that
+ * a consumer pays only for the indexes it uses.
+ */
+public class HollowIndexBlobReader {
+
+    private final HollowReadStateEngine stateEngine;
+
+    public HollowIndexBlobReader(HollowReadStateEngine stateEngine) {
+        this.stateEngine = stateEngine;
+    }
+
+    /**
+     * Read the indexes in an index blob.
+     *
+     * @param is the InputStream to read the index blob from
+     * @return the indexes in the blob
+     * @throws IOException if the index blob could not be read, or was not written for the state engine's data
+     */
+    public List<Entry> readIndexes(InputStream is) throws IOException {
+        DataInputStream dis = new DataInputStream(is);
+        if(dis.readInt() != HollowIndexBlobWriter.INDEX_BLOB_MAGIC)
+            throw new IOException("Not an index blob");
+        int formatVersion = dis.readInt();
+        if(formatVersion != HollowIndexBlobWriter.INDEX_BLOB_FORMAT_VERSION)
+            throw new IOException("Unsupported index blob format version " + formatVersion);
+        if(dis.readLong() != stateEngine.getCurrentRandomizedTag())
+            throw new IOException("The index blob was not written for the state engine's data");
+
+        int numIndexes = VarInt.readVInt(dis);
+        List<Entry> entries = new ArrayList<>(numIndexes);
+        for(int i=0;i<numIndexes;i++) {
+            int kind = dis.readByte();
+            String type = dis.readUTF();
+            String selectField = dis.readUTF();
+            String[] fieldPaths = new String[VarInt.readVInt(dis)];
+            for(int j=0;j<fieldPaths.length;j++)
+                fieldPaths[j] = dis.readUTF();
+            byte[] data = new byte[VarInt.readVInt(dis)];
+            dis.readFully(data);
+
+            if(kind == HollowIndexBlobWriter.KIND_PRIMARY_KEY || kind == HollowIndexBlobWriter.KIND_HASH)
+                entries.add(new Entry(kind == HollowIndexBlobWriter.KIND_HASH, type, selectField, fieldPaths, data));
+        }
+        return entries;
+    }
+
+    /**
+     * A serialized index read from an index blob.
+     */
+    public static class Entry {
+        private final boolean hashIndex;
+        private final String type;
+        private final String selectField;
+        private final String[] fieldPaths;
+        private final byte[] data;
+
+        Entry(boolean hashIndex, String type, String selectField, String[] fieldPaths, byte[] data) {
+            this.hashIndex = hashIndex;
+            this.type = type;
+            this.selectField = selectField;
+            this.fieldPaths = fieldPaths;
+            this.data = data;
+        }
+
+        /**
+         * @return true if this is a {@link HollowHashIndex}, false if this is a {@link HollowPrimaryKeyIndex}
+         */
+        public boolean isHashIndex() {
+            return hashIndex;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return the select field of a hash index, or the empty string for a primary key index
+         */
+        public String getSelectField() {
+            return selectField;
+        }
+
+        /**
+         * @return the key field paths of a primary key index, or the match fields of a hash index
+         */
+        public String[] getFieldPaths() {
+            return fieldPaths.clone();
+        }
+
+        /**
+         * @return a stream over the serialized index, to be passed to {@link HollowPrimaryKeyIndex#readFrom} or
+         * {@link HollowHashIndex#readFrom}
+         */
+        public DataInputStream newDataInputStream() {
+            return new DataInputStream(new ByteArrayInputStream(data));
+        }
+    }
+}
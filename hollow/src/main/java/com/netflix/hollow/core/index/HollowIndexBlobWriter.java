@@ -0,0 +1,139 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowSchema;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A HollowIndexBlobWriter builds {@link HollowPrimaryKeyIndex} and {@link HollowHashIndex} instances on a state and
+ * writes them to an index blob, which consumers of the same state may read with a {@link HollowIndexBlobReader}
+ * rather than building the indexes themselves.
+ */
+public class HollowIndexBlobWriter {
+
+    static final int INDEX_BLOB_MAGIC = 0x484F4942;
+    static final int INDEX_BLOB_FORMAT_VERSION = 1;
+
+    static final int KIND_PRIMARY_KEY = 0;
+    static final int KIND_HASH = 1;
+
+    private final HollowReadStateEngine stateEngine;
+    private final List<PrimaryKey> primaryKeys;
+    private final List<HashIndexDeclaration> hashIndexes;
+
+    public HollowIndexBlobWriter(HollowReadStateEngine stateEngine) {
+        this.stateEngine = stateEngine;
+        this.primaryKeys = new ArrayList<>();
+        this.hashIndexes = new ArrayList<>();
+    }
+
+    /**
+     * Include a primary key index for each type in the state which declares a primary key in its schema.
+     */
+    public void addDeclaredPrimaryKeyIndexes() {
+        for(HollowSchema schema : stateEngine.getSchemas()) {
+            if(schema instanceof HollowObjectSchema && ((HollowObjectSchema) schema).getPrimaryKey() != null)
+                addPrimaryKeyIndex(((HollowObjectSchema) schema).getPrimaryKey());
+        }
+    }
+
+    public void addPrimaryKeyIndex(PrimaryKey primaryKey) {
+        primaryKeys.add(primaryKey);
+    }
+
+    public void addHashIndex(String type, String selectField, String... matchFields) {
+        hashIndexes.add(new HashIndexDeclaration(type, selectField, matchFields));
+    }
+
+    /**
+     * Build each included index, and write them to the OutputStream.  Indexes of types which are not present
+     * in the state are omitted.
+     *
+     * @param os the OutputStream to write the index blob to.
+     * @throws IOException if the index blob could not be written
+     */
+    public void writeIndexes(OutputStream os) throws IOException {
+        List<PrimaryKey> primaryKeys = new ArrayList<>();
+        for(PrimaryKey primaryKey : this.primaryKeys) {
+            if(stateEngine.getTypeState(primaryKey.getType()) != null)
+                primaryKeys.add(primaryKey);
+        }
+        List<HashIndexDeclaration> hashIndexes = new ArrayList<>();
+        for(HashIndexDeclaration hashIndex : this.hashIndexes) {
+            if(stateEngine.getTypeState(hashIndex.type) != null)
+                hashIndexes.add(hashIndex);
+        }
+
+        DataOutputStream dos = new DataOutputStream(os);
+        dos.writeInt(INDEX_BLOB_MAGIC);
+        dos.writeInt(INDEX_BLOB_FORMAT_VERSION);
+        dos.writeLong(stateEngine.getCurrentRandomizedTag());
+        VarInt.writeVInt(dos, primaryKeys.size() + hashIndexes.size());
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream indexDos = new DataOutputStream(indexBytes);
+
+        for(PrimaryKey primaryKey : primaryKeys) {
+            indexBytes.reset();
+            new HollowPrimaryKeyIndex(stateEngine, primaryKey).writeTo(indexDos);
+            indexDos.flush();
+            writeIndex(dos, KIND_PRIMARY_KEY, primaryKey.getType(), "", primaryKey.getFieldPaths(), indexBytes);
+        }
+
+        for(HashIndexDeclaration hashIndex : hashIndexes) {
+            indexBytes.reset();
+            new HollowHashIndex(stateEngine, hashIndex.type, hashIndex.selectField, hashIndex.matchFields).writeTo(indexDos);
+            indexDos.flush();
+            writeIndex(dos, KIND_HASH, hashIndex.type, hashIndex.selectField, hashIndex.matchFields, indexBytes);
+        }
+
+        dos.flush();
+    }
+
+    private void writeIndex(DataOutputStream dos, int kind, String type, String selectField, String[] fieldPaths, ByteArrayOutputStream indexBytes) throws IOException {
+        dos.writeByte(kind);
+        dos.writeUTF(type);
+        dos.writeUTF(selectField);
+        VarInt.writeVInt(dos, fieldPaths.length);
+        for(String fieldPath : fieldPaths)
+            dos.writeUTF(fieldPath);
+        VarInt.writeVInt(dos, indexBytes.size());
+        indexBytes.writeTo(dos);
+    }
+
+    private static class HashIndexDeclaration {
+        private final String type;
+        private final String selectField;
+        private final String[] matchFields;
+
+        HashIndexDeclaration(String type, String selectField, String[] matchFields) {
+            this.type = type;
+            this.selectField = selectField;
+            this.matchFields = matchFields.clone();
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.netflix.hollow.core.index;
 
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.FixedLengthMultipleOccurrenceElementArray;
+import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
@@ -25,6 +26,9 @@ import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.BitSet;
 import java.util.HashSet;
@@ -85,6 +89,11 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
     @SuppressWarnings("WeakerAccess")
     public HollowPrefixIndex(HollowReadStateEngine readStateEngine, String type, String fieldPath,
             int estimatedMaxStringDuplicates) {
+        this(readStateEngine, type, fieldPath, estimatedMaxStringDuplicates, null);
+    }
+
+    private HollowPrefixIndex(HollowReadStateEngine readStateEngine, String type, String fieldPath,
+            int estimatedMaxStringDuplicates, TST restoredTree) {
 
         if (readStateEngine == null) throw new IllegalArgumentException("Read state engine cannot be null");
         if (type == null) throw new IllegalArgumentException("type cannot be null");
@@ -103,8 +112,46 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
 
         // create memory recycle for using shared memory pools.
         memoryRecycle = WastefulRecycler.DEFAULT_INSTANCE;
-        buildIndexOnUpdate = true;
-        initialize();
+        if (restoredTree != null) {
+            maxOrdinalOfType = readStateEngine.getTypeState(type).maxOrdinal();
+            prefixIndexVolatile = restoredTree;
+        } else {
+            buildIndexOnUpdate = true;
+            initialize();
+        }
+    }
+
+    /**
+     * Write this index's tree, so that the index may be recreated with {@link #readFrom} instead of being rebuilt,
+     * provided the indexed data has not changed in the meantime.
+     *
+     * @param dos the stream to write to
+     * @throws IOException if the stream could not be written to
+     */
+    public void writeTo(DataOutputStream dos) throws IOException {
+        prefixIndexVolatile.writeTo(dos);
+    }
+
+    /**
+     * Recreate an index written by {@link #writeTo}.  The caller is responsible for ensuring that the state engine
+     * holds exactly the data which was indexed when the index was written, for example by comparing the state's
+     * version and randomized tag.
+     *
+     * @param readStateEngine state engine to read data from
+     * @param type type of the written index
+     * @param fieldPath field path of the written index
+     * @param estimatedMaxStringDuplicates the estimate used when the index is rebuilt after a delta update
+     * @param dis the stream to read from
+     * @return the index
+     * @throws IOException if the stream could not be read from, or does not hold an index of the state engine's data
+     */
+    public static HollowPrefixIndex readFrom(HollowReadStateEngine readStateEngine, String type, String fieldPath,
+            int estimatedMaxStringDuplicates, DataInputStream dis) throws IOException {
+        int maxOrdinalOfType = readStateEngine.getTypeState(type).maxOrdinal();
+        TST tree = TST.readFrom(dis, WastefulRecycler.DEFAULT_INSTANCE);
+        if (tree.bitsPerOrdinal != TST.bitsPerOrdinal(maxOrdinalOfType))
+            throw new IOException("Persisted prefix index does not match the data of type " + type);
+        return new HollowPrefixIndex(readStateEngine, type, fieldPath, estimatedMaxStringDuplicates, tree);
     }
 
     // initialize field positions and field paths.
@@ -135,11 +182,6 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
     private void build() {
 
         if (!buildIndexOnUpdate) return;
-        // tell memory recycler to use current tst's long arrays next time when long array is requested.
-        // note reuse only happens once swap is called and bits are reset
-        TST current = prefixIndexVolatile;
-        if (current != null) current.recycleMemory(memoryRecycle);
-
         long estimatedNumberOfNodes = estimateNumNodes(totalWords, averageWordLen);
         TST tst = new TST(estimatedNumberOfNodes, estimatedMaxStringDuplicates, maxOrdinalOfType,
                 memoryRecycle);
@@ -152,8 +194,11 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
             ordinal = ordinals.nextSetBit(ordinal + 1);
         }
 
+        TST current = prefixIndexVolatile;
         prefixIndexVolatile = tst;
-        // safe to return previous long arrays on next request for long array.
+        // tell memory recycler to use the replaced tst's long arrays next time when long array is requested.
+        // the pool is shared, so this happens only once the new tst has been published.
+        if (current != null) current.recycleMemory(memoryRecycle);
         memoryRecycle.swap();
         buildIndexOnUpdate = false;
     }
@@ -234,6 +279,14 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
         return result;
     }
 
+    /**
+     * @return the approximate number of bytes held by this index
+     */
+    public long getApproximateHeapFootprintInBytes() {
+        TST prefixIndex = prefixIndexVolatile;
+        return prefixIndex.nodes.getApproximateFootprintInBytes() + prefixIndex.ordinalSet.getApproximateHeapFootprintInBytes();
+    }
+
     /**
      * Use this method to keep the index updated with delta changes on the read state engine.
      * Remember to call detachFromDeltaUpdates to stop the delta changes.
@@ -308,22 +361,26 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
         private TST(long estimatedNumNodes, int estimatedMaxStringDuplicates, int maxOrdinalValue,
                 ArraySegmentRecycler memoryRecycler) {
 
+            this(estimatedNumNodes, bitsPerOrdinal(maxOrdinalValue));
+
+            nodes = new FixedLengthElementArray(memoryRecycler, bitsPerNode * maxNodes);
+            ordinalSet = new FixedLengthMultipleOccurrenceElementArray(memoryRecycler,
+                    maxNodes, bitsPerOrdinal, estimatedMaxStringDuplicates);
+            indexTracker = 0;
+        }
+
+        private TST(long maxNodes, int bitsPerOrdinal) {
             // best guess
-            maxNodes = estimatedNumNodes;
+            this.maxNodes = maxNodes;
 
             // bits for pointers in a single node:
             bitsPerKey = 16;// key
             bitsForChildPointer = 64 - Long.numberOfLeadingZeros(maxNodes);// a child pointer
-            bitsPerOrdinal = maxOrdinalValue == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(maxOrdinalValue);
+            this.bitsPerOrdinal = bitsPerOrdinal;
 
             // bits to represent one node
             bitsPerNode = bitsPerKey + (3 * bitsForChildPointer) + 1;
 
-            nodes = new FixedLengthElementArray(memoryRecycler, bitsPerNode * maxNodes);
-            ordinalSet = new FixedLengthMultipleOccurrenceElementArray(memoryRecycler,
-                    maxNodes, bitsPerOrdinal, estimatedMaxStringDuplicates);
-            indexTracker = 0;
-
             // initialize offsets
             leftChildOffset = bitsPerKey;// after first 16 bits in node is first left child offset.
             middleChildOffset = leftChildOffset + bitsForChildPointer;
@@ -331,6 +388,26 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
             isLeafNodeFlagOffset = rightChildOffset + bitsForChildPointer;
         }
 
+        private static int bitsPerOrdinal(int maxOrdinalValue) {
+            return maxOrdinalValue == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(maxOrdinalValue);
+        }
+
+        private void writeTo(DataOutputStream dos) throws IOException {
+            VarInt.writeVLong(dos, maxNodes);
+            VarInt.writeVInt(dos, bitsPerOrdinal);
+            VarInt.writeVLong(dos, indexTracker);
+            nodes.writeTo(dos, FixedLengthElementArray.longsRequiredToRepresentBits(bitsPerNode * maxNodes));
+            ordinalSet.writeTo(dos);
+        }
+
+        private static TST readFrom(DataInputStream dis, ArraySegmentRecycler memoryRecycler) throws IOException {
+            TST tst = new TST(VarInt.readVLong(dis), VarInt.readVInt(dis));
+            tst.indexTracker = VarInt.readVLong(dis);
+            tst.nodes = FixedLengthElementArray.deserializeFrom(dis, memoryRecycler);
+            tst.ordinalSet = FixedLengthMultipleOccurrenceElementArray.deserializeFrom(dis, memoryRecycler);
+            return tst;
+        }
+
         // tell memory recycler to use these long array on next long array request from memory ONLY AFTER swap is called on memory recycler
         private void recycleMemory(ArraySegmentRecycler memoryRecycler) {
             nodes.destroy(memoryRecycler);
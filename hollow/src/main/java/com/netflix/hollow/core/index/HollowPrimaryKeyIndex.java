@@ -22,6 +22,7 @@ import com.netflix.hollow.core.index.key.HollowPrimaryKeyValueDeriver;
 import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.HollowReadFieldUtils;
@@ -32,6 +33,9 @@ import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSchema;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -47,6 +51,8 @@ import java.util.List;
  */
 public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
 
+    public static final int MAX_BITS_PER_FINGERPRINT = 16;
+
     private final HollowObjectTypeReadState typeState;
     private final int[][] fieldPathIndexes;
     private final FieldType[] fieldTypes;
@@ -56,6 +62,7 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
     private final ArraySegmentRecycler memoryRecycler;
 
     private final BitSet specificOrdinalsToIndex;
+    private final int bitsPerFingerprint;
 
     private volatile PrimaryKeyIndexHashTable hashTableVolatile;
 
@@ -84,7 +91,32 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
      * @param specificOrdinalsToIndex the bit set
      */
     public HollowPrimaryKeyIndex(HollowReadStateEngine stateEngine, PrimaryKey primaryKey, ArraySegmentRecycler memoryRecycler, BitSet specificOrdinalsToIndex) {
+        this(stateEngine, primaryKey, memoryRecycler, specificOrdinalsToIndex, 0);
+    }
+
+    /**
+     * This initializer can be used to create a HollowPrimaryKeyIndex which stores a fingerprint of each record's key hash
+     * alongside its ordinal in the hash table.
+     * <p>
+     * While probing, a bucket whose fingerprint differs from that of the queried key is skipped without reading the key
+     * back out of the record, which avoids the random reads into the type state (and, for STRING keys, into var-length
+     * data) that would otherwise be spent rejecting collisions.  Each fingerprint bit adds one bit to every bucket
+     * of the hash table and halves the number of collisions which must be resolved against the record data.
+     *
+     * @param stateEngine the read state engine
+     * @param primaryKey the primary key
+     * @param memoryRecycler the memory recycler
+     * @param specificOrdinalsToIndex the bit set, or null to index all populated ordinals
+     * @param bitsPerFingerprint the number of hash bits to store per bucket, from 0 (no fingerprints) to {@value #MAX_BITS_PER_FINGERPRINT}
+     */
+    public HollowPrimaryKeyIndex(HollowReadStateEngine stateEngine, PrimaryKey primaryKey, ArraySegmentRecycler memoryRecycler, BitSet specificOrdinalsToIndex, int bitsPerFingerprint) {
+        this(stateEngine, primaryKey, memoryRecycler, specificOrdinalsToIndex, bitsPerFingerprint, null);
+    }
+
+    private HollowPrimaryKeyIndex(HollowReadStateEngine stateEngine, PrimaryKey primaryKey, ArraySegmentRecycler memoryRecycler, BitSet specificOrdinalsToIndex, int bitsPerFingerprint, PrimaryKeyIndexHashTable restoredHashTable) {
         if (primaryKey==null) throw new IllegalArgumentException("primaryKey can't not be null");
+        if (bitsPerFingerprint < 0 || bitsPerFingerprint > MAX_BITS_PER_FINGERPRINT)
+            throw new IllegalArgumentException("bitsPerFingerprint must be between 0 and " + MAX_BITS_PER_FINGERPRINT + "; bitsPerFingerprint=" + bitsPerFingerprint);
 
         this.primaryKey = primaryKey;
         this.typeState = (HollowObjectTypeReadState) stateEngine.getTypeState(primaryKey.getType());
@@ -100,8 +132,55 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
 
         this.keyDeriver = new HollowPrimaryKeyValueDeriver(typeState, fieldPathIndexes, fieldTypes);
         this.specificOrdinalsToIndex = specificOrdinalsToIndex;
+        this.bitsPerFingerprint = bitsPerFingerprint;
+
+        if(restoredHashTable != null)
+            setHashTable(restoredHashTable);
+        else
+            reindex();
+    }
 
-        reindex();
+    /**
+     * Write this index's hash table, so that the index may be recreated with {@link #readFrom} instead of being
+     * rebuilt, provided the indexed data has not changed in the meantime.
+     *
+     * @param dos the stream to write to
+     * @throws IOException if the stream could not be written to
+     */
+    public synchronized void writeTo(DataOutputStream dos) throws IOException {
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        VarInt.writeVInt(dos, hashTable.hashTableSize);
+        VarInt.writeVInt(dos, hashTable.bitsPerOrdinal);
+        VarInt.writeVInt(dos, hashTable.bitsPerFingerprint);
+        hashTable.hashTable.writeTo(dos, FixedLengthElementArray.longsRequiredToRepresentBits((long)hashTable.hashTableSize * hashTable.bitsPerElement));
+    }
+
+    /**
+     * Recreate an index written by {@link #writeTo}.  The caller is responsible for ensuring that the state engine holds
+     * exactly the data which was indexed when the index was written, for example by comparing the state's version
+     * and randomized tag.
+     *
+     * @param stateEngine the read state engine
+     * @param primaryKey the primary key, which must be the same as that of the written index
+     * @param memoryRecycler the memory recycler
+     * @param dis the stream to read from
+     * @return the index
+     * @throws IOException if the stream could not be read from, or does not hold an index of the state engine's data
+     */
+    public static HollowPrimaryKeyIndex readFrom(HollowReadStateEngine stateEngine, PrimaryKey primaryKey, ArraySegmentRecycler memoryRecycler, DataInputStream dis) throws IOException {
+        int hashTableSize = VarInt.readVInt(dis);
+        int bitsPerOrdinal = VarInt.readVInt(dis);
+        int bitsPerFingerprint = VarInt.readVInt(dis);
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) stateEngine.getTypeState(primaryKey.getType());
+        if(typeState == null || bitsPerOrdinal != (32 - Integer.numberOfLeadingZeros(typeState.maxOrdinal() + 1)))
+            throw new IOException("Persisted primary key index does not match the data of type " + primaryKey.getType());
+        if(Integer.bitCount(hashTableSize) != 1 || bitsPerFingerprint > MAX_BITS_PER_FINGERPRINT)
+            throw new IOException("Persisted primary key index is corrupt; hashTableSize=" + hashTableSize + ", bitsPerFingerprint=" + bitsPerFingerprint);
+
+        FixedLengthElementArray hashedArray = FixedLengthElementArray.deserializeFrom(dis, memoryRecycler);
+        PrimaryKeyIndexHashTable hashTable = new PrimaryKeyIndexHashTable(hashedArray, hashTableSize, hashTableSize - 1, bitsPerOrdinal, bitsPerFingerprint);
+        return new HollowPrimaryKeyIndex(stateEngine, primaryKey, memoryRecycler, null, bitsPerFingerprint, hashTable);
     }
 
     private static PrimaryKey createPrimaryKey(HollowReadStateEngine stateEngine, String type, String... fieldPaths) {
@@ -174,7 +253,7 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
             int bucket = hashCode & hashTable.hashMask;
             ordinal = readOrdinal(hashTable, bucket);
             while(ordinal != -1) {
-                if(keyDeriver.keyMatches(key, ordinal, 0))
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key, ordinal, 0))
                     break;
 
                 bucket++;
@@ -210,7 +289,7 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
             int bucket = hashCode & hashTable.hashMask;
             ordinal = readOrdinal(hashTable, bucket);
             while(ordinal != -1) {
-                if(keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
                     break;
 
                 bucket++;
@@ -248,7 +327,7 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
             int bucket = hashCode & hashTable.hashMask;
             ordinal = readOrdinal(hashTable, bucket);
             while(ordinal != -1) {
-                if(keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1) && keyDeriver.keyMatches(key3, ordinal, 2))
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1) && keyDeriver.keyMatches(key3, ordinal, 2))
                     break;
 
                 bucket++;
@@ -284,7 +363,169 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
             int bucket = hashCode & hashTable.hashMask;
             ordinal = readOrdinal(hashTable, bucket);
             while(ordinal != -1) {
-                if(keyDeriver.keyMatches(ordinal, keys))
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(ordinal, keys))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with a single INT, LONG or REFERENCE key field, without boxing or otherwise allocating the key.
+     * <p>
+     * INT, LONG and REFERENCE fields are matched directly, the key for a REFERENCE field being the referenced ordinal.
+     * Other field types fall back to {@link #getMatchingOrdinal(Object)}.
+     *
+     * @param key the field key
+     * @return the matching ordinal for the key, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinalForLong(long key) {
+        if(fieldPathIndexes.length != 1)
+            return -1;
+        if(!isIntegral(0))
+            return getMatchingOrdinal((Object)Long.valueOf(key));
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key, 0);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key, ordinal, 0))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with a single STRING key field, without boxing or otherwise allocating the key.
+     * <p>
+     * STRING fields are hashed and compared against the characters of the key directly.
+     * Other field types fall back to {@link #getMatchingOrdinal(Object)}.
+     *
+     * @param key the field key
+     * @return the matching ordinal for the key, otherwise -1 if the key is not present
+     */
+    public int getMatchingOrdinalForString(CharSequence key) {
+        if(fieldPathIndexes.length != 1)
+            return -1;
+        if(!isString(0))
+            return getMatchingOrdinal((Object)key);
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key, 0);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key, ordinal, 0))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with two INT, LONG or REFERENCE key fields, without boxing or otherwise allocating the keys.
+     *
+     * @param key1 the first field key
+     * @param key2 the second field key
+     * @return the matching ordinal for the two keys, otherwise -1 if the key is not present
+     * @see #getMatchingOrdinalForLong(long)
+     */
+    public int getMatchingOrdinalForLongs(long key1, long key2) {
+        if(fieldPathIndexes.length != 2)
+            return -1;
+        if(!isIntegral(0) || !isIntegral(1))
+            return getMatchingOrdinal((Object)Long.valueOf(key1), (Object)Long.valueOf(key2));
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key1, 0);
+        hashCode ^= keyHashCode(key2, 1);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with an INT, LONG or REFERENCE key field followed by a STRING key field, without boxing or
+     * otherwise allocating the keys.
+     *
+     * @param key1 the first field key
+     * @param key2 the second field key
+     * @return the matching ordinal for the two keys, otherwise -1 if the key is not present
+     * @see #getMatchingOrdinalForLong(long)
+     * @see #getMatchingOrdinalForString(CharSequence)
+     */
+    public int getMatchingOrdinalForLongAndString(long key1, CharSequence key2) {
+        if(fieldPathIndexes.length != 2)
+            return -1;
+        if(!isIntegral(0) || !isString(1))
+            return getMatchingOrdinal((Object)Long.valueOf(key1), (Object)key2);
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key1, 0);
+        hashCode ^= keyHashCode(key2, 1);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
                     break;
 
                 bucket++;
@@ -296,8 +537,232 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
         return ordinal;
     }
 
+    /**
+     * Query an index with a STRING key field followed by an INT, LONG or REFERENCE key field, without boxing or
+     * otherwise allocating the keys.
+     *
+     * @param key1 the first field key
+     * @param key2 the second field key
+     * @return the matching ordinal for the two keys, otherwise -1 if the key is not present
+     * @see #getMatchingOrdinalForLong(long)
+     * @see #getMatchingOrdinalForString(CharSequence)
+     */
+    public int getMatchingOrdinalForStringAndLong(CharSequence key1, long key2) {
+        if(fieldPathIndexes.length != 2)
+            return -1;
+        if(!isString(0) || !isIntegral(1))
+            return getMatchingOrdinal((Object)key1, (Object)Long.valueOf(key2));
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key1, 0);
+        hashCode ^= keyHashCode(key2, 1);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with two STRING key fields, without allocating the keys.
+     *
+     * @param key1 the first field key
+     * @param key2 the second field key
+     * @return the matching ordinal for the two keys, otherwise -1 if the key is not present
+     * @see #getMatchingOrdinalForString(CharSequence)
+     */
+    public int getMatchingOrdinalForStrings(CharSequence key1, CharSequence key2) {
+        if(fieldPathIndexes.length != 2)
+            return -1;
+        if(!isString(0) || !isString(1))
+            return getMatchingOrdinal((Object)key1, (Object)key2);
+
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        if(hashTable.bitsPerElement == 0)
+            return -1;
+
+        int hashCode = keyHashCode(key1, 0);
+        hashCode ^= keyHashCode(key2, 1);
+
+        int ordinal = -1;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            int bucket = hashCode & hashTable.hashMask;
+            ordinal = readOrdinal(hashTable, bucket);
+            while(ordinal != -1) {
+                if(fingerprintMatches(hashTable, bucket, hashCode) && keyDeriver.keyMatches(key1, ordinal, 0) && keyDeriver.keyMatches(key2, ordinal, 1))
+                    break;
+
+                bucket++;
+                bucket &= hashTable.hashMask;
+                ordinal = readOrdinal(hashTable, bucket);
+            }
+        } while(hashTableVolatile != hashTable);
+
+        return ordinal;
+    }
+
+    /**
+     * Query an index with a single specified field for many keys at once.  The ordinal of the record matching
+     * {@code keys[i]} is written to {@code ordinals[i]}, or -1 if the key is not present.
+     * <p>
+     * All keys are hashed up front and probed against a single, consistent snapshot of the index, in bucket order
+     * rather than key order, so that probes for keys hashing close together touch the same region of the table.
+     *
+     * @param keys the field keys
+     * @param ordinals the array to fill with the matching ordinals, at least as long as {@code keys}
+     * @throws IllegalArgumentException if {@code ordinals} is shorter than {@code keys}
+     */
+    public void getMatchingOrdinals(Object[] keys, int[] ordinals) {
+        checkBatchLength(keys.length, ordinals);
+        if(fieldPathIndexes.length != 1) {
+            Arrays.fill(ordinals, 0, keys.length, -1);
+            return;
+        }
+
+        int[] hashCodes = new int[keys.length];
+        for(int i=0;i<keys.length;i++)
+            hashCodes[i] = keyHashCode(keys[i], 0);
+
+        getMatchingOrdinals(hashCodes, (keyIdx, ordinal) -> keyDeriver.keyMatches(keys[keyIdx], ordinal, 0), ordinals);
+    }
+
+    /**
+     * Query an index with a single INT, LONG or REFERENCE field for many keys at once, without boxing the keys.
+     *
+     * @param keys the field keys
+     * @param ordinals the array to fill with the matching ordinals, at least as long as {@code keys}
+     * @throws IllegalArgumentException if {@code ordinals} is shorter than {@code keys}
+     * @see #getMatchingOrdinals(Object[], int[])
+     */
+    public void getMatchingOrdinals(long[] keys, int[] ordinals) {
+        checkBatchLength(keys.length, ordinals);
+        if(fieldPathIndexes.length != 1) {
+            Arrays.fill(ordinals, 0, keys.length, -1);
+            return;
+        }
+        if(!isIntegral(0)) {
+            Object[] boxed = new Object[keys.length];
+            for(int i=0;i<keys.length;i++)
+                boxed[i] = Long.valueOf(keys[i]);
+            getMatchingOrdinals(boxed, ordinals);
+            return;
+        }
+
+        int[] hashCodes = new int[keys.length];
+        for(int i=0;i<keys.length;i++)
+            hashCodes[i] = keyHashCode(keys[i], 0);
+
+        getMatchingOrdinals(hashCodes, (keyIdx, ordinal) -> keyDeriver.keyMatches(keys[keyIdx], ordinal, 0), ordinals);
+    }
+
+    /**
+     * Query an index with any number of specified fields for many keys at once.  {@code keys[i]} holds the field
+     * keys of the i-th query, in field order.  The ordinal of the matching record is written to {@code ordinals[i]},
+     * or -1 if the key is not present.
+     *
+     * @param keys the field keys of each query
+     * @param ordinals the array to fill with the matching ordinals, at least as long as {@code keys}
+     * @throws IllegalArgumentException if {@code ordinals} is shorter than {@code keys}
+     * @see #getMatchingOrdinals(Object[], int[])
+     */
+    public void getMatchingOrdinals(Object[][] keys, int[] ordinals) {
+        checkBatchLength(keys.length, ordinals);
+
+        int[] hashCodes = new int[keys.length];
+        for(int i=0;i<keys.length;i++) {
+            if(keys[i].length != fieldPathIndexes.length)
+                continue;
+            for(int j=0;j<keys[i].length;j++)
+                hashCodes[i] ^= keyHashCode(keys[i][j], j);
+        }
+
+        getMatchingOrdinals(hashCodes, (keyIdx, ordinal) -> keys[keyIdx].length == fieldPathIndexes.length && keyDeriver.keyMatches(ordinal, keys[keyIdx]), ordinals);
+    }
+
+    private void getMatchingOrdinals(int[] hashCodes, BatchKeyMatcher matcher, int[] ordinals) {
+        int numKeys = hashCodes.length;
+        long[] probes = new long[numKeys];
+        PrimaryKeyIndexHashTable hashTable;
+
+        do {
+            hashTable = this.hashTableVolatile;
+            if(hashTable.bitsPerElement == 0) {
+                Arrays.fill(ordinals, 0, numKeys, -1);
+                continue;
+            }
+
+            /// sort the probes by bucket, keeping the key index in the low bits
+            for(int i=0;i<numKeys;i++)
+                probes[i] = ((long)(hashCodes[i] & hashTable.hashMask) << 32) | i;
+            Arrays.sort(probes);
+
+            for(int i=0;i<numKeys;i++) {
+                int keyIdx = (int)probes[i];
+                int bucket = (int)(probes[i] >>> 32);
+                int ordinal = readOrdinal(hashTable, bucket);
+                while(ordinal != -1) {
+                    if(fingerprintMatches(hashTable, bucket, hashCodes[keyIdx]) && matcher.matches(keyIdx, ordinal))
+                        break;
+
+                    bucket++;
+                    bucket &= hashTable.hashMask;
+                    ordinal = readOrdinal(hashTable, bucket);
+                }
+                ordinals[keyIdx] = ordinal;
+            }
+        } while(hashTableVolatile != hashTable);
+    }
+
+    private static void checkBatchLength(int numKeys, int[] ordinals) {
+        if(ordinals.length < numKeys)
+            throw new IllegalArgumentException("ordinals array is too small; numKeys=" + numKeys + ", ordinals.length=" + ordinals.length);
+    }
+
+    private interface BatchKeyMatcher {
+        boolean matches(int keyIdx, int ordinal);
+    }
+
     private int readOrdinal(PrimaryKeyIndexHashTable hashTable, int bucket) {
-        return (int)hashTable.hashTable.getElementValue((long)hashTable.bitsPerElement * (long)bucket, hashTable.bitsPerElement) - 1;
+        return (int)hashTable.hashTable.getElementValue((long)hashTable.bitsPerElement * (long)bucket, hashTable.bitsPerOrdinal) - 1;
+    }
+
+    private boolean fingerprintMatches(PrimaryKeyIndexHashTable hashTable, int bucket, int hashCode) {
+        if(hashTable.bitsPerFingerprint == 0)
+            return true;
+        return readFingerprint(hashTable, bucket) == fingerprint(hashCode, hashTable.bitsPerFingerprint);
+    }
+
+    private long readFingerprint(PrimaryKeyIndexHashTable hashTable, int bucket) {
+        if(hashTable.bitsPerFingerprint == 0)
+            return 0;
+        return hashTable.hashTable.getElementValue((long)hashTable.bitsPerElement * (long)bucket + hashTable.bitsPerOrdinal, hashTable.bitsPerFingerprint);
+    }
+
+    /// the fingerprint is taken from the high bits of the hash, which are the last to be used for bucket selection
+    private static long fingerprint(int hashCode, int bitsPerFingerprint) {
+        return bitsPerFingerprint == 0 ? 0 : hashCode >>> (32 - bitsPerFingerprint);
+    }
+
+    private static long bucketValue(int ordinal, int hashCode, int bitsPerOrdinal, int bitsPerFingerprint) {
+        return (fingerprint(hashCode, bitsPerFingerprint) << bitsPerOrdinal) | (ordinal + 1);
     }
 
     private int keyHashCode(Object key, int fieldIdx) {
@@ -323,6 +788,40 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
         throw new IllegalArgumentException("I don't know how to hash a " + fieldTypes[fieldIdx]);
     }
 
+    private boolean isIntegral(int fieldIdx) {
+        switch(fieldTypes[fieldIdx]) {
+            case INT:
+            case LONG:
+            case REFERENCE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isString(int fieldIdx) {
+        return fieldTypes[fieldIdx] == FieldType.STRING;
+    }
+
+    private int keyHashCode(long key, int fieldIdx) {
+        switch(fieldTypes[fieldIdx]) {
+            case INT:
+                return HashCodes.hashInt(HollowReadFieldUtils.intHashCode((int)key));
+            case LONG:
+                return HashCodes.hashInt(HollowReadFieldUtils.longHashCode(key));
+            case REFERENCE:
+                return HashCodes.hashInt((int)key);
+            default:
+                throw new IllegalArgumentException("I don't know how to hash a " + fieldTypes[fieldIdx] + " from a long");
+        }
+    }
+
+    private int keyHashCode(CharSequence key, int fieldIdx) {
+        if(fieldTypes[fieldIdx] != FieldType.STRING)
+            throw new IllegalArgumentException("I don't know how to hash a " + fieldTypes[fieldIdx] + " from a CharSequence");
+        return HashCodes.hashCode(key);
+    }
+
     private void setHashTable(PrimaryKeyIndexHashTable hashTable) {
         this.hashTableVolatile = hashTable;
     }
@@ -345,17 +844,18 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
         List<Object[]> duplicateKeys = new ArrayList<Object[]>();
 
         for(int i=0;i<hashTable.hashTableSize;i++) {
-            int ordinal = (int)hashTable.hashTable.getElementValue((long)i * (long)hashTable.bitsPerElement, hashTable.bitsPerElement) - 1;
+            int ordinal = readOrdinal(hashTable, i);
 
             if(ordinal != -1) {
+                long fingerprint = readFingerprint(hashTable, i);
                 int compareBucket = (i+1) & hashTable.hashMask;
-                int compareOrdinal = (int)hashTable.hashTable.getElementValue((long)compareBucket * (long)hashTable.bitsPerElement, hashTable.bitsPerElement) - 1;
+                int compareOrdinal = readOrdinal(hashTable, compareBucket);
                 while(compareOrdinal != -1) {
-                    if(recordsHaveEqualKeys(ordinal, compareOrdinal))
+                    if(fingerprint == readFingerprint(hashTable, compareBucket) && recordsHaveEqualKeys(ordinal, compareOrdinal))
                         duplicateKeys.add(keyDeriver.getRecordKey(ordinal));
 
                     compareBucket = (compareBucket + 1) & hashTable.hashMask;
-                    compareOrdinal = (int)hashTable.hashTable.getElementValue((long)compareBucket * (long)hashTable.bitsPerElement, hashTable.bitsPerElement) - 1;
+                    compareOrdinal = readOrdinal(hashTable, compareBucket);
                 }
             }
         }
@@ -377,18 +877,25 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
         BitSet ordinals = typeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
         int hashTableSize = HashCodes.hashTableSize(ordinals.cardinality());
-        int bitsPerElement = (32 - Integer.numberOfLeadingZeros(typeState.maxOrdinal() + 1));
+        int bitsPerOrdinal = (32 - Integer.numberOfLeadingZeros(typeState.maxOrdinal() + 1));
 
         PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
         if(hashTableSize == hashTable.hashTableSize
-                && bitsPerElement == hashTable.bitsPerElement
+                && bitsPerOrdinal == hashTable.bitsPerOrdinal
                 && shouldPerformDeltaUpdate()) {
-            deltaUpdate(hashTableSize, bitsPerElement);
+            deltaUpdate(hashTableSize, bitsPerOrdinal);
         } else {
             reindex();
         }
     }
 
+    /**
+     * @return the approximate number of bytes allocated to this index's hash table
+     */
+    public long getApproximateHeapFootprintInBytes() {
+        return hashTableVolatile.hashTable.getApproximateFootprintInBytes();
+    }
+
     public void destroy() {
         PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
         if(hashTable != null)
@@ -396,12 +903,6 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
     }
 
     private synchronized void reindex() {
-        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
-        // Could be null on first reindex
-        if(hashTable != null) {
-            hashTable.hashTable.destroy(memoryRecycler);
-        }
-
         BitSet ordinals = specificOrdinalsToIndex;
 
         if(ordinals == null) {
@@ -410,7 +911,9 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
         }
 
         int hashTableSize = HashCodes.hashTableSize(ordinals.cardinality());
-        int bitsPerElement = (32 - Integer.numberOfLeadingZeros(typeState.maxOrdinal() + 1));
+        int bitsPerOrdinal = (32 - Integer.numberOfLeadingZeros(typeState.maxOrdinal() + 1));
+        int bitsPerFingerprint = bitsPerOrdinal == 0 ? 0 : this.bitsPerFingerprint;
+        int bitsPerElement = bitsPerOrdinal + bitsPerFingerprint;
 
         FixedLengthElementArray hashedArray = new FixedLengthElementArray(memoryRecycler, (long)hashTableSize * (long)bitsPerElement);
 
@@ -424,20 +927,29 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
             while(hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerElement) != 0)
                 bucket = (bucket + 1) & hashMask;
 
-            hashedArray.setElementValue((long)bucket * (long)bitsPerElement, bitsPerElement, ordinal + 1);
+            hashedArray.setElementValue((long)bucket * (long)bitsPerElement, bitsPerElement, bucketValue(ordinal, hashCode, bitsPerOrdinal, bitsPerFingerprint));
 
             ordinal = ordinals.nextSetBit(ordinal + 1);
         }
 
-        setHashTable(new PrimaryKeyIndexHashTable(hashedArray, hashTableSize, hashMask, bitsPerElement));
+        PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
+        setHashTable(new PrimaryKeyIndexHashTable(hashedArray, hashTableSize, hashMask, bitsPerOrdinal, bitsPerFingerprint));
+
+        /// the previous table is recycled only once it has been replaced -- the pool may be shared with other
+        /// indexes and read states, so its segments may be handed out as soon as any of them calls swap().
+        // Could be null on first reindex
+        if(hashTable != null) {
+            hashTable.hashTable.destroy(memoryRecycler);
+        }
 
         memoryRecycler.swap();
     }
 
-    private void deltaUpdate(int hashTableSize, int bitsPerElement) {
+    private void deltaUpdate(int hashTableSize, int bitsPerOrdinal) {
         // For a delta update hashTableVolatile cannot be null
         PrimaryKeyIndexHashTable hashTable = hashTableVolatile;
-        hashTable.hashTable.destroy(memoryRecycler);
+        int bitsPerFingerprint = hashTable.bitsPerFingerprint;
+        int bitsPerElement = hashTable.bitsPerElement;
 
         PopulatedOrdinalListener listener = typeState.getListener(PopulatedOrdinalListener.class);
         BitSet prevOrdinals = listener.getPreviousOrdinals();
@@ -456,27 +968,27 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
                 int hashCode = recordHash(prevOrdinal);
                 int bucket = hashCode & hashMask;
 
-                while(hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerElement) != prevOrdinal + 1)
+                while(hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerOrdinal) != prevOrdinal + 1)
                     bucket = (bucket + 1) & hashMask;
 
                 hashedArray.clearElementValue((long)bucket * (long)bitsPerElement, bitsPerElement);
                 int emptyBucket = bucket;
                 bucket = (bucket + 1) & hashMask;
-                int moveOrdinal = (int)hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerElement) - 1;
+                int moveOrdinal = (int)hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerOrdinal) - 1;
 
                 while(moveOrdinal != ORDINAL_NONE) {
                     int naturalHash = recordHash(moveOrdinal);
                     int naturalBucket = naturalHash & hashMask;
 
                     if(!bucketInRange(emptyBucket, bucket, naturalBucket)) {
-                        hashedArray.setElementValue((long)emptyBucket * (long)bitsPerElement, bitsPerElement, moveOrdinal + 1);
+                        hashedArray.setElementValue((long)emptyBucket * (long)bitsPerElement, bitsPerElement, bucketValue(moveOrdinal, naturalHash, bitsPerOrdinal, bitsPerFingerprint));
                         hashedArray.clearElementValue((long)bucket * (long)bitsPerElement, bitsPerElement);
                         emptyBucket = bucket;
                     }
 
 
                     bucket = (bucket + 1) & hashMask;
-                    moveOrdinal = (int)hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerElement) - 1;
+                    moveOrdinal = (int)hashedArray.getElementValue((long)bucket * (long)bitsPerElement, bitsPerOrdinal) - 1;
                 }
 
             }
@@ -495,13 +1007,14 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
                     bucket = (bucket + 1) & hashMask;
                 }
 
-                hashedArray.setElementValue((long)bucket * (long)bitsPerElement, bitsPerElement, ordinal + 1);
+                hashedArray.setElementValue((long)bucket * (long)bitsPerElement, bitsPerElement, bucketValue(ordinal, hashCode, bitsPerOrdinal, bitsPerFingerprint));
             }
 
             ordinal = ordinals.nextSetBit(ordinal + 1);
         }
 
-        setHashTable(new PrimaryKeyIndexHashTable(hashedArray, hashTableSize, hashMask, bitsPerElement));
+        setHashTable(new PrimaryKeyIndexHashTable(hashedArray, hashTableSize, hashMask, bitsPerOrdinal, bitsPerFingerprint));
+        hashTable.hashTable.destroy(memoryRecycler);
 
         memoryRecycler.swap();
     }
@@ -604,12 +1117,16 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener {
         private final int hashTableSize;
         private final int hashMask;
         private final int bitsPerElement;
+        private final int bitsPerOrdinal;
+        private final int bitsPerFingerprint;
 
-        public PrimaryKeyIndexHashTable(FixedLengthElementArray hashTable, int hashTableSize, int hashMask, int bitsPerElement) {
+        public PrimaryKeyIndexHashTable(FixedLengthElementArray hashTable, int hashTableSize, int hashMask, int bitsPerOrdinal, int bitsPerFingerprint) {
             this.hashTable = hashTable;
             this.hashTableSize = hashTableSize;
             this.hashMask = hashMask;
-            this.bitsPerElement = bitsPerElement;
+            this.bitsPerElement = bitsPerOrdinal + bitsPerFingerprint;
+            this.bitsPerOrdinal = bitsPerOrdinal;
+            this.bitsPerFingerprint = bitsPerFingerprint;
         }
     }
 }
@@ -19,7 +19,6 @@ package com.netflix.hollow.core.index.key;
 import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
-import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import java.util.Arrays;
 
@@ -31,6 +30,7 @@ public class HollowPrimaryKeyValueDeriver {
     private final HollowObjectTypeReadState typeState;
     private final int[][] fieldPathIndexes;
     private final FieldType[] fieldTypes;
+    private final HollowObjectTypeReadState[] leafTypeStates;
 
     /**
      * Create a new deriver.
@@ -48,12 +48,14 @@ public class HollowPrimaryKeyValueDeriver {
         }
         
         this.typeState = (HollowObjectTypeReadState) stateEngine.getTypeState(primaryKey.getType());
+        this.leafTypeStates = new HollowObjectTypeReadState[fieldPathIndexes.length];
     }
     
     public HollowPrimaryKeyValueDeriver(HollowObjectTypeReadState typeState, int[][] fieldPathIndexes, FieldType[] fieldTypes) {
         this.typeState = typeState;
         this.fieldPathIndexes = fieldPathIndexes;
         this.fieldTypes = fieldTypes;
+        this.leafTypeStates = new HollowObjectTypeReadState[fieldPathIndexes.length];
     }
 
     /**
@@ -76,18 +78,9 @@ public class HollowPrimaryKeyValueDeriver {
     }
     
     public boolean keyMatches(Object key, int ordinal, int fieldIdx) {
-        HollowObjectTypeReadState typeState = this.typeState;
-        HollowObjectSchema schema = typeState.getSchema();
-
-        int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
-        for(int i=0;i<lastFieldPath;i++) {
-            int fieldPosition = fieldPathIndexes[fieldIdx][i];
-            ordinal = typeState.readOrdinal(ordinal, fieldPosition);
-            typeState = (HollowObjectTypeReadState) schema.getReferencedTypeState(fieldPosition);
-            schema = typeState.getSchema();
-        }
-
-        int lastFieldIdx = fieldPathIndexes[fieldIdx][lastFieldPath];
+        HollowObjectTypeReadState typeState = leafTypeState(fieldIdx);
+        ordinal = leafOrdinal(ordinal, fieldIdx);
+        int lastFieldIdx = fieldPathIndexes[fieldIdx][fieldPathIndexes[fieldIdx].length - 1];
 
         switch(fieldTypes[fieldIdx]) {
             case BOOLEAN:
@@ -115,6 +108,50 @@ public class HollowPrimaryKeyValueDeriver {
 
         throw new IllegalArgumentException("I don't know how to compare a " + fieldTypes[fieldIdx]);
     }
+
+    /**
+     * Determine whether the specified ordinal has the provided value for an INT, LONG or REFERENCE key field,
+     * without boxing the value.
+     *
+     * @param key the key value; the ordinal of the referenced record for a REFERENCE field
+     * @param ordinal the ordinal
+     * @param fieldIdx the index of the key field
+     * @return true if the ordinal has the key value
+     */
+    public boolean keyMatches(long key, int ordinal, int fieldIdx) {
+        HollowObjectTypeReadState typeState = leafTypeState(fieldIdx);
+        ordinal = leafOrdinal(ordinal, fieldIdx);
+        int lastFieldIdx = fieldPathIndexes[fieldIdx][fieldPathIndexes[fieldIdx].length - 1];
+
+        switch(fieldTypes[fieldIdx]) {
+            case INT:
+                return typeState.readInt(ordinal, lastFieldIdx) == key;
+            case LONG:
+                return typeState.readLong(ordinal, lastFieldIdx) == key;
+            case REFERENCE:
+                return typeState.readOrdinal(ordinal, lastFieldIdx) == key;
+            default:
+                throw new IllegalArgumentException("I don't know how to compare a " + fieldTypes[fieldIdx] + " to a long");
+        }
+    }
+
+    /**
+     * Determine whether the specified ordinal has the provided value for a STRING key field, without
+     * creating a String.
+     *
+     * @param key the key value
+     * @param ordinal the ordinal
+     * @param fieldIdx the index of the key field
+     * @return true if the ordinal has the key value
+     */
+    public boolean keyMatches(CharSequence key, int ordinal, int fieldIdx) {
+        if(fieldTypes[fieldIdx] != FieldType.STRING)
+            throw new IllegalArgumentException("I don't know how to compare a " + fieldTypes[fieldIdx] + " to a CharSequence");
+
+        HollowObjectTypeReadState typeState = leafTypeState(fieldIdx);
+        ordinal = leafOrdinal(ordinal, fieldIdx);
+        return typeState.isStringFieldEqual(ordinal, fieldPathIndexes[fieldIdx][fieldPathIndexes[fieldIdx].length - 1], key);
+    }
     
     /**
      * Retrieve the primary key value for the specified ordinal.
@@ -132,18 +169,45 @@ public class HollowPrimaryKeyValueDeriver {
     }
 
     private Object readValue(int ordinal, int fieldIdx) {
+        HollowObjectTypeReadState typeState = leafTypeState(fieldIdx);
+        ordinal = leafOrdinal(ordinal, fieldIdx);
+
+        return HollowReadFieldUtils.fieldValueObject(typeState, ordinal, fieldPathIndexes[fieldIdx][fieldPathIndexes[fieldIdx].length - 1]);
+    }
+
+    /**
+     * Follow the references along the field path of the specified key field, returning the ordinal of the record
+     * which holds the key field's value.
+     */
+    private int leafOrdinal(int ordinal, int fieldIdx) {
         HollowObjectTypeReadState typeState = this.typeState;
-        HollowObjectSchema schema = typeState.getSchema();
 
         int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
-        for (int i = 0; i < lastFieldPath; i++) {
+        for(int i=0;i<lastFieldPath;i++) {
             int fieldPosition = fieldPathIndexes[fieldIdx][i];
             ordinal = typeState.readOrdinal(ordinal, fieldPosition);
-            typeState = (HollowObjectTypeReadState) schema.getReferencedTypeState(fieldPosition);
-            schema = typeState.getSchema();
+            typeState = (HollowObjectTypeReadState) typeState.getSchema().getReferencedTypeState(fieldPosition);
         }
 
-        return HollowReadFieldUtils.fieldValueObject(typeState, ordinal, fieldPathIndexes[fieldIdx][lastFieldPath]);
+        return ordinal;
+    }
+
+    /**
+     * Find the type state of the records which hold the value of the specified key field.  The type states along a
+     * field path do not change, so each is resolved once.
+     */
+    private HollowObjectTypeReadState leafTypeState(int fieldIdx) {
+        HollowObjectTypeReadState typeState = leafTypeStates[fieldIdx];
+        if(typeState != null)
+            return typeState;
+
+        typeState = this.typeState;
+        int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
+        for(int i=0;i<lastFieldPath;i++)
+            typeState = (HollowObjectTypeReadState) typeState.getSchema().getReferencedTypeState(fieldPathIndexes[fieldIdx][i]);
+
+        leafTypeStates[fieldIdx] = typeState;
+        return typeState;
     }
     
     public int[][] getFieldPathIndexes() {
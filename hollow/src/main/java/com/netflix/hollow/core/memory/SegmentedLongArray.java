@@ -18,6 +18,7 @@ package com.netflix.hollow.core.memory;
 
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.OffHeapArraySegmentRecycler;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -30,7 +31,11 @@ import sun.misc.Unsafe;
  *
  * Conceptually this can be thought of as a single long array of undefined length.  The currently allocated buffer will always be
  * a multiple of the size of the segments.  The buffer will grow automatically when a byte is written to an index greater than the
- * currently allocated buffer.
+ * currently allocated buffer.<p>
+ *
+ * Segments are addressed through Unsafe as a base object and an offset.  Segments on the heap are <code>long[]</code>
+ * arrays addressed relative to the array base offset.  If the {@link ArraySegmentRecycler} is an
+ * {@link OffHeapArraySegmentRecycler}, segments have no base object and their offset is an absolute memory address.
  *
  * @author dkoszewnik
  *
@@ -40,26 +45,39 @@ public class SegmentedLongArray {
 
     private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
 
-    protected final long[][] segments;
+    protected final Object[] segments;
+    protected final long[] segmentOffsets;
     protected final int log2OfSegmentSize;
     protected final int bitmask;
 
+    /// holds on to an off-heap recycler, which owns the memory regions backing the segments
+    private final OffHeapArraySegmentRecycler offHeapRecycler;
+
     public SegmentedLongArray(ArraySegmentRecycler memoryRecycler, long numLongs) {
         this.log2OfSegmentSize = memoryRecycler.getLog2OfLongSegmentSize();
         int numSegments = (int)((numLongs - 1) >>> log2OfSegmentSize) + 1;
-        long[][] segments = new long[numSegments][];
+        this.offHeapRecycler = memoryRecycler instanceof OffHeapArraySegmentRecycler ? (OffHeapArraySegmentRecycler)memoryRecycler : null;
+        /// segments on the heap are held in a long[][], so that get() can index them without Unsafe
+        Object[] segments = offHeapRecycler != null ? new Object[numSegments] : new long[numSegments][];
+        long[] segmentOffsets = new long[numSegments];
         this.bitmask = (1 << log2OfSegmentSize) - 1;
 
         for(int i=0;i<segments.length;i++) {
-            segments[i] = memoryRecycler.getLongArray();
+            if(offHeapRecycler != null) {
+                segmentOffsets[i] = offHeapRecycler.getLongSegmentAddress();
+            } else {
+                segments[i] = memoryRecycler.getLongArray();
+                segmentOffsets[i] = Unsafe.ARRAY_LONG_BASE_OFFSET;
+            }
         }
 
-        /// The following assignment is purposefully placed *after* the population of all segments.
+        /// The following assignments are purposefully placed *after* the population of all segments.
         /// The final assignment after the initialization of the array guarantees that no thread
         /// will see any of the array elements before assignment.
         /// We can't risk the segment values being visible as null to any thread, because
         /// FixedLengthElementArray uses Unsafe to access these values, which would cause the
         /// JVM to crash with a segmentation fault.
+        this.segmentOffsets = segmentOffsets;
         this.segments = segments;
     }
 
@@ -72,11 +90,11 @@ public class SegmentedLongArray {
     public void set(long index, long value) {
         int segmentIndex = (int)(index >> log2OfSegmentSize);
         int longInSegment = (int)(index & bitmask);
-        unsafe.putOrderedLong(segments[segmentIndex], (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (8 * longInSegment), value);
+        unsafe.putOrderedLong(segments[segmentIndex], segmentOffsets[segmentIndex] + (8 * longInSegment), value);
 
         /// duplicate the longs here so that we can read faster.
         if(longInSegment == 0 && segmentIndex != 0)
-            unsafe.putOrderedLong(segments[segmentIndex - 1], (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (8 * (1 << log2OfSegmentSize)), value);
+            unsafe.putOrderedLong(segments[segmentIndex - 1], segmentOffsets[segmentIndex - 1] + (8 * (1 << log2OfSegmentSize)), value);
     }
 
     /**
@@ -87,13 +105,23 @@ public class SegmentedLongArray {
      */
     public long get(long index) {
         int segmentIndex = (int)(index >>> log2OfSegmentSize);
-        return segments[segmentIndex][(int)(index & bitmask)];
+        if(offHeapRecycler == null)
+            return ((long[])segments[segmentIndex])[(int)(index & bitmask)];
+        return unsafe.getLong(null, segmentOffsets[segmentIndex] + (8 * (index & bitmask)));
+    }
+
+    /**
+     * @return the number of bytes allocated to this array's segments, whether on or off the heap
+     */
+    public long getApproximateFootprintInBytes() {
+        return (long)segments.length * ((1L << log2OfSegmentSize) + 1) * 8;
     }
 
     public void fill(long value) {
+        int segmentLength = (1 << log2OfSegmentSize) + 1;
         for(int i=0;i<segments.length;i++) {
-            long offset = Unsafe.ARRAY_LONG_BASE_OFFSET;
-            for(int j=0;j<segments[i].length;j++) {
+            long offset = segmentOffsets[i];
+            for(int j=0;j<segmentLength;j++) {
                 unsafe.putOrderedLong(segments[i], offset, value);
                 offset += 8;
             }
@@ -110,8 +138,10 @@ public class SegmentedLongArray {
 
     public void destroy(ArraySegmentRecycler memoryRecycler) {
         for(int i=0;i<segments.length;i++) {
-            if(segments[i] != null)
-                memoryRecycler.recycleLongArray(segments[i]);
+            if(offHeapRecycler != null)
+                offHeapRecycler.recycleLongSegmentAddress(segmentOffsets[i]);
+            else if(segments[i] != null)
+                memoryRecycler.recycleLongArray((long[])segments[i]);
         }
     }
 
@@ -137,18 +167,18 @@ public class SegmentedLongArray {
         while(numLongs > 0) {
             long longsToCopy = Math.min(segmentSize, numLongs);
 
-            unsafe.putOrderedLong(segments[segment], (long)Unsafe.ARRAY_LONG_BASE_OFFSET, fencepostLong);
+            unsafe.putOrderedLong(segments[segment], segmentOffsets[segment], fencepostLong);
 
             int longsCopied = 1;
 
             while(longsCopied < longsToCopy) {
                 long l = dis.readLong();
-                unsafe.putOrderedLong(segments[segment], (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (8 * longsCopied++), l);
+                unsafe.putOrderedLong(segments[segment], segmentOffsets[segment] + (8 * longsCopied++), l);
             }
 
             if(numLongs > longsCopied) {
-                unsafe.putOrderedLong(segments[segment], (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (8 * longsCopied), dis.readLong());
-                fencepostLong = segments[segment][longsCopied];
+                unsafe.putOrderedLong(segments[segment], segmentOffsets[segment] + (8 * longsCopied), dis.readLong());
+                fencepostLong = unsafe.getLong(segments[segment], segmentOffsets[segment] + (8 * longsCopied));
             }
 
             segment++;
@@ -129,8 +129,11 @@ public class FixedLengthElementArray extends SegmentedLongArray {
 
         int whichSegment = (int) (whichByte >>> log2OfSegmentSizeInBytes);
 
-        long[] segment = segments[whichSegment];
-        long elementByteOffset = (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (whichByte & byteBitmask);
+        /// segments on the heap share a constant base offset; only off-heap segments, which have no base object,
+        /// need their address looked up
+        Object segment = segments[whichSegment];
+        long segmentOffset = segment != null ? Unsafe.ARRAY_LONG_BASE_OFFSET : segmentOffsets[whichSegment];
+        long elementByteOffset = segmentOffset + (whichByte & byteBitmask);
         long l = unsafe.getLong(segment, elementByteOffset) >>> whichBit;
 
         return l & mask;
@@ -228,17 +231,18 @@ public class FixedLengthElementArray extends SegmentedLongArray {
 
         int whichSegment = (int) (whichByte >>> log2OfSegmentSizeInBytes);
 
-        long[] segment = segments[whichSegment];
-        long elementByteOffset = (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (whichByte & byteBitmask);
+        Object segment = segments[whichSegment];
+        long segmentOffset = segment != null ? Unsafe.ARRAY_LONG_BASE_OFFSET : segmentOffsets[whichSegment];
+        long elementByteOffset = segmentOffset + (whichByte & byteBitmask);
         long l = unsafe.getLong(segment, elementByteOffset);
 
         unsafe.putOrderedLong(segment, elementByteOffset, l + (increment << whichBit));
 
         /// update the fencepost longs
         if((whichByte & byteBitmask) > bitmask * 8 && (whichSegment + 1) < segments.length)
-            unsafe.putOrderedLong(segments[whichSegment + 1], (long)Unsafe.ARRAY_LONG_BASE_OFFSET, segments[whichSegment][bitmask + 1]);
+            unsafe.putOrderedLong(segments[whichSegment + 1], segmentOffsets[whichSegment + 1], unsafe.getLong(segment, segmentOffset + (8 * (bitmask + 1))));
         if((whichByte & byteBitmask) < 8 && whichSegment > 0)
-            unsafe.putOrderedLong(segments[whichSegment - 1], (long)Unsafe.ARRAY_LONG_BASE_OFFSET + (8 * (bitmask + 1)), segments[whichSegment][0]);
+            unsafe.putOrderedLong(segments[whichSegment - 1], segmentOffsets[whichSegment - 1] + (8 * (bitmask + 1)), unsafe.getLong(segment, segmentOffset));
     }
 
 
@@ -261,6 +265,14 @@ public class FixedLengthElementArray extends SegmentedLongArray {
         }
     }
 
+    /**
+     * @param numBits a number of bits
+     * @return the number of longs required to hold the bits, for example when serializing them with {@link #writeTo}
+     */
+    public static long longsRequiredToRepresentBits(long numBits) {
+        return numBits == 0 ? 0 : ((numBits - 1) >>> 6) + 1;
+    }
+
     public static int bitsRequiredToRepresentValue(long value) {
         if(value == 0)
             return 1;
@@ -17,6 +17,9 @@
 package com.netflix.hollow.core.memory.encoding;
 
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.LongStream;
@@ -62,6 +65,18 @@ public class FixedLengthMultipleOccurrenceElementArray {
         this.maxElementsPerNode = maxElementsPerNodeEstimate;
     }
 
+    private FixedLengthMultipleOccurrenceElementArray(ArraySegmentRecycler memoryRecycler,
+            long numNodes, int bitsPerElement, int maxElementsPerNode,
+            FixedLengthElementArray nodesWithOrdinalZero, FixedLengthElementArray storage) {
+        this.nodesWithOrdinalZero = nodesWithOrdinalZero;
+        this.storage = storage;
+        this.memoryRecycler = memoryRecycler;
+        this.bitsPerElement = bitsPerElement;
+        this.elementMask = (1L << bitsPerElement) - 1;
+        this.numNodes = numNodes;
+        this.maxElementsPerNode = maxElementsPerNode;
+    }
+
     /**
      * This method adds an element at nodeIndex. Note that this does not check for duplicates; if
      * the element already exists, another instance of it will be added.
@@ -131,6 +146,13 @@ public class FixedLengthMultipleOccurrenceElementArray {
         return ret;
     }
 
+    /**
+     * @return the approximate number of bytes held by this array
+     */
+    public long getApproximateHeapFootprintInBytes() {
+        return nodesWithOrdinalZero.getApproximateFootprintInBytes() + storage.getApproximateFootprintInBytes();
+    }
+
     /**
      * A destructor function - call to free up the underlying memory.
      */
@@ -138,6 +160,40 @@ public class FixedLengthMultipleOccurrenceElementArray {
         storage.destroy(memoryRecycler);
     }
 
+    /**
+     * Write the contents of this array, so that it may be recreated with {@link #deserializeFrom}.
+     * This method is not thread-safe with respect to {@link #addElement}.
+     *
+     * @param dos the stream to write to
+     * @throws IOException if the stream could not be written to
+     */
+    public void writeTo(DataOutputStream dos) throws IOException {
+        VarInt.writeVLong(dos, numNodes);
+        VarInt.writeVInt(dos, bitsPerElement);
+        VarInt.writeVInt(dos, maxElementsPerNode);
+        nodesWithOrdinalZero.writeTo(dos, FixedLengthElementArray.longsRequiredToRepresentBits(numNodes));
+        storage.writeTo(dos, FixedLengthElementArray.longsRequiredToRepresentBits(numNodes * bitsPerElement * maxElementsPerNode));
+    }
+
+    /**
+     * Recreate an array written by {@link #writeTo}.
+     *
+     * @param dis the stream to read from
+     * @param memoryRecycler the memory recycler to allocate the array from
+     * @return the array
+     * @throws IOException if the stream could not be read from
+     */
+    public static FixedLengthMultipleOccurrenceElementArray deserializeFrom(DataInputStream dis,
+            ArraySegmentRecycler memoryRecycler) throws IOException {
+        long numNodes = VarInt.readVLong(dis);
+        int bitsPerElement = VarInt.readVInt(dis);
+        int maxElementsPerNode = VarInt.readVInt(dis);
+        FixedLengthElementArray nodesWithOrdinalZero = FixedLengthElementArray.deserializeFrom(dis, memoryRecycler);
+        FixedLengthElementArray storage = FixedLengthElementArray.deserializeFrom(dis, memoryRecycler);
+        return new FixedLengthMultipleOccurrenceElementArray(memoryRecycler, numNodes, bitsPerElement,
+                maxElementsPerNode, nodesWithOrdinalZero, storage);
+    }
+
     /**
      * Resize the underlying storage to a multiple of what it currently is. This method is not
      * thread-safe.
@@ -0,0 +1,243 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An EpochReclaimingRecycler is an {@link ArraySegmentRecycler} which wraps another recycler and defers the reuse
+ * of released segments until no reader can still observe them.
+ * <p>
+ * By default, a read of a type state optimistically reads the current data, and then re-reads it if an update
+ * replaced the data during the read, since the superseded data's segments may already have been handed out again
+ * and overwritten.  When a {@link com.netflix.hollow.core.read.engine.HollowReadStateEngine} is constructed with an
+ * EpochReclaimingRecycler, every read must instead be made inside a read epoch:
+ * <pre>{@code
+ *     try(ReadEpoch epoch = recycler.enterReadEpoch()) {
+ *         ... read from the state engine or a generated API ...
+ *     }
+ * }</pre>
+ * Segments released by an update are held back, tagged with the epoch in which they were released, and are only
+ * passed to the wrapped recycler once every read epoch which was entered before the release has been exited.
+ * Reads inside an epoch are therefore never retried, and they pay for one epoch entry per request instead of a
+ * fence and a re-check of the current data on every field access.
+ * <p>
+ * Releasing segments never waits for readers.  If a reader holds an epoch open across an update, the segments
+ * released by that update are simply retained until a later {@link #swap()} finds them safe to reuse.
+ * <p>
+ * To wrap an {@link OffHeapArraySegmentRecycler}, use an {@link OffHeapEpochReclaimingRecycler}.
+ * <p>
+ * Each thread which enters a read epoch registers one {@link ReadEpoch} with this recycler.  The recycler only
+ * references registered epochs weakly, so the epoch of a thread which has terminated is dropped at a later swap.
+ */
+public class EpochReclaimingRecycler implements ArraySegmentRecycler {
+
+    private static final long INACTIVE = 0;
+
+    private final ArraySegmentRecycler delegate;
+    private final AtomicLong currentEpoch;
+    private final List<WeakReference<ReadEpoch>> readEpochs;
+    private final ReferenceQueue<ReadEpoch> collectedReadEpochs;
+    private final ThreadLocal<ReadEpoch> threadReadEpoch;
+
+    private final Deque<Retired> retired;
+    private Retired pending;
+
+    public EpochReclaimingRecycler(ArraySegmentRecycler delegate) {
+        this.delegate = delegate;
+        this.currentEpoch = new AtomicLong(1);
+        this.readEpochs = new CopyOnWriteArrayList<>();
+        this.collectedReadEpochs = new ReferenceQueue<>();
+        this.threadReadEpoch = ThreadLocal.withInitial(this::registerReadEpoch);
+        this.retired = new ArrayDeque<>();
+        this.pending = new Retired();
+    }
+
+    /**
+     * Enter a read epoch on the calling thread.  Read epochs may be nested, in which case segments are protected
+     * until the outermost epoch is exited.
+     *
+     * @return the calling thread's read epoch, which must be closed on the same thread
+     */
+    public ReadEpoch enterReadEpoch() {
+        ReadEpoch epoch = threadReadEpoch.get();
+        if(epoch.depth++ == 0)
+            epoch.epoch = currentEpoch.get();
+        return epoch;
+    }
+
+    /*
+     * The calling thread's ThreadLocal entry holds the only strong reference to its epoch, so the epoch becomes
+     * collectable when the thread terminates.  A terminated thread cannot be reading, so a collected epoch never
+     * protects any segments.
+     */
+    private ReadEpoch registerReadEpoch() {
+        ReadEpoch epoch = new ReadEpoch();
+        readEpochs.add(new WeakReference<>(epoch, collectedReadEpochs));
+        return epoch;
+    }
+
+    /**
+     * @return the number of read epochs registered by threads which have not yet been found to be terminated
+     */
+    int getRegisteredReadEpochCount() {
+        return readEpochs.size();
+    }
+
+    public ArraySegmentRecycler getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of released segments not yet passed to the wrapped recycler
+     */
+    public synchronized long getRetainedSegmentCount() {
+        long count = pending.size();
+        for(Retired r : retired)
+            count += r.size();
+        return count;
+    }
+
+    @Override
+    public int getLog2OfByteSegmentSize() {
+        return delegate.getLog2OfByteSegmentSize();
+    }
+
+    @Override
+    public int getLog2OfLongSegmentSize() {
+        return delegate.getLog2OfLongSegmentSize();
+    }
+
+    @Override
+    public long[] getLongArray() {
+        return delegate.getLongArray();
+    }
+
+    @Override
+    public synchronized void recycleLongArray(long[] arr) {
+        pending.longArrays.add(arr);
+    }
+
+    @Override
+    public byte[] getByteArray() {
+        return delegate.getByteArray();
+    }
+
+    @Override
+    public synchronized void recycleByteArray(byte[] arr) {
+        pending.byteArrays.add(arr);
+    }
+
+    synchronized void retireLongSegmentAddress(long address) {
+        pending.addAddress(address);
+    }
+
+    /**
+     * Tag the segments released since the last swap with the current epoch and advance the epoch, then pass every
+     * retained batch which no open read epoch can observe to the wrapped recycler.
+     * <p>
+     * The data which referenced the released segments has already been replaced when a swap is requested, so a
+     * reader entering the advanced epoch can only observe the replacement data.
+     */
+    @Override
+    public synchronized void swap() {
+        if(pending.size() > 0) {
+            pending.epoch = currentEpoch.getAndIncrement();
+            retired.addLast(pending);
+            pending = new Retired();
+        }
+
+        Reference<? extends ReadEpoch> collected;
+        while((collected = collectedReadEpochs.poll()) != null)
+            readEpochs.remove(collected);
+
+        long oldestObservableEpoch = oldestOpenEpoch();
+        while(!retired.isEmpty() && retired.peekFirst().epoch < oldestObservableEpoch)
+            retired.removeFirst().releaseTo(delegate);
+
+        delegate.swap();
+    }
+
+    private long oldestOpenEpoch() {
+        long oldest = Long.MAX_VALUE;
+        for(WeakReference<ReadEpoch> ref : readEpochs) {
+            ReadEpoch readEpoch = ref.get();
+            if(readEpoch == null)
+                continue;
+            long epoch = readEpoch.epoch;
+            if(epoch != INACTIVE && epoch < oldest)
+                oldest = epoch;
+        }
+        return oldest;
+    }
+
+    /**
+     * A thread's registration with an {@link EpochReclaimingRecycler}.  Closing it exits the read epoch entered by
+     * the matching call to {@link EpochReclaimingRecycler#enterReadEpoch()}.
+     */
+    public static final class ReadEpoch implements AutoCloseable {
+        private volatile long epoch = INACTIVE;
+        private int depth;
+
+        private ReadEpoch() { }
+
+        @Override
+        public void close() {
+            if(depth == 0)
+                throw new IllegalStateException("read epoch is not open on this thread");
+            if(--depth == 0)
+                epoch = INACTIVE;
+        }
+    }
+
+    private static class Retired {
+        private final List<long[]> longArrays = new ArrayList<>();
+        private final List<byte[]> byteArrays = new ArrayList<>();
+        private long[] addresses = new long[0];
+        private int numAddresses;
+        private long epoch;
+
+        void addAddress(long address) {
+            if(numAddresses == addresses.length)
+                addresses = Arrays.copyOf(addresses, Math.max(16, addresses.length * 2));
+            addresses[numAddresses++] = address;
+        }
+
+        int size() {
+            return longArrays.size() + byteArrays.size() + numAddresses;
+        }
+
+        void releaseTo(ArraySegmentRecycler recycler) {
+            for(long[] arr : longArrays)
+                recycler.recycleLongArray(arr);
+            for(byte[] arr : byteArrays)
+                recycler.recycleByteArray(arr);
+            /// addresses are only retired by an OffHeapEpochReclaimingRecycler, which wraps an off-heap recycler
+            for(int i=0;i<numAddresses;i++)
+                ((OffHeapArraySegmentRecycler)recycler).recycleLongSegmentAddress(addresses[i]);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A HollowMemoryPool is a bounded, thread-safe {@link ArraySegmentRecycler} which may be shared by read states,
+ * indexes and write states.
+ * <p>
+ * No component uses a pool by default -- it must be supplied through the recycler-taking constructors of
+ * {@link com.netflix.hollow.core.read.engine.HollowReadStateEngine} and
+ * {@link com.netflix.hollow.core.index.HollowPrimaryKeyIndex}, or through
+ * {@link com.netflix.hollow.core.write.HollowWriteStateEngine#setMemoryRecycler(ArraySegmentRecycler)}.
+ * Since any component calling {@link #swap()} makes every recycled segment available again, a pool should
+ * only be shared by components which are updated together, for example a consumer's state engine and the
+ * indexes which are rebuilt on the same refresh thread.
+ * <p>
+ * Segments are pooled in two size classes, one for long segments and one for byte segments.  As with the
+ * {@link RecyclingRecycler}, a recycled segment is not handed out again until the next call to {@link #swap()},
+ * so that a segment released by a delta application or an index rebuild is never reused while the update which
+ * released it is still in progress.
+ * <p>
+ * The pool never retains more than <code>maxPooledBytes</code> across both size classes.  Segments recycled
+ * beyond that bound are left to the garbage collector.  Segments handed out by the pool are always zeroed.
+ * <p>
+ * Each size class tracks how many segments were allocated, reused, recycled and discarded, so that the
+ * effectiveness of the pool may be monitored.
+ */
+public class HollowMemoryPool implements ArraySegmentRecycler {
+
+    public static final long DEFAULT_MAX_POOLED_BYTES = 128L * 1024 * 1024;
+
+    private final int log2OfByteSegmentSize;
+    private final int log2OfLongSegmentSize;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes;
+
+    private final SizeClass<long[]> longSegments;
+    private final SizeClass<byte[]> byteSegments;
+
+    public HollowMemoryPool() {
+        this(11, 8, DEFAULT_MAX_POOLED_BYTES);
+    }
+
+    public HollowMemoryPool(int log2OfByteSegmentSize, int log2OfLongSegmentSize, long maxPooledBytes) {
+        if(maxPooledBytes < 0)
+            throw new IllegalArgumentException("maxPooledBytes must be non-negative");
+
+        this.log2OfByteSegmentSize = log2OfByteSegmentSize;
+        this.log2OfLongSegmentSize = log2OfLongSegmentSize;
+        this.maxPooledBytes = maxPooledBytes;
+        this.pooledBytes = new AtomicLong();
+
+        // Allocated size is increased by 1, see JavaDoc of FixedLengthElementArray for details
+        final int longSegmentLength = (1 << log2OfLongSegmentSize) + 1;
+        final int byteSegmentLength = 1 << log2OfByteSegmentSize;
+        this.longSegments = new SizeClass<long[]>(8L * longSegmentLength) {
+            long[] create() { return new long[longSegmentLength]; }
+            void clear(long[] segment) { Arrays.fill(segment, 0); }
+        };
+        this.byteSegments = new SizeClass<byte[]>(byteSegmentLength) {
+            byte[] create() { return new byte[byteSegmentLength]; }
+            void clear(byte[] segment) { Arrays.fill(segment, (byte)0); }
+        };
+    }
+
+    @Override
+    public int getLog2OfByteSegmentSize() {
+        return log2OfByteSegmentSize;
+    }
+
+    @Override
+    public int getLog2OfLongSegmentSize() {
+        return log2OfLongSegmentSize;
+    }
+
+    @Override
+    public long[] getLongArray() {
+        return longSegments.get();
+    }
+
+    @Override
+    public void recycleLongArray(long[] arr) {
+        longSegments.recycle(arr);
+    }
+
+    @Override
+    public byte[] getByteArray() {
+        return byteSegments.get();
+    }
+
+    @Override
+    public void recycleByteArray(byte[] arr) {
+        byteSegments.recycle(arr);
+    }
+
+    @Override
+    public void swap() {
+        longSegments.swap();
+        byteSegments.swap();
+    }
+
+    public long getMaxPooledBytes() {
+        return maxPooledBytes;
+    }
+
+    /**
+     * @return the number of bytes currently retained by this pool, including segments awaiting the next {@link #swap()}
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    public SizeClass<long[]> getLongSegmentSizeClass() {
+        return longSegments;
+    }
+
+    public SizeClass<byte[]> getByteSegmentSizeClass() {
+        return byteSegments;
+    }
+
+    /**
+     * Pools the segments of a single length.
+     */
+    public abstract class SizeClass<T> {
+        private final long segmentSizeInBytes;
+        private ArrayDeque<T> available = new ArrayDeque<>();
+        private ArrayDeque<T> pending = new ArrayDeque<>();
+
+        private final AtomicLong numAllocated = new AtomicLong();
+        private final AtomicLong numReused = new AtomicLong();
+        private final AtomicLong numRecycled = new AtomicLong();
+        private final AtomicLong numDiscarded = new AtomicLong();
+
+        SizeClass(long segmentSizeInBytes) {
+            this.segmentSizeInBytes = segmentSizeInBytes;
+        }
+
+        abstract T create();
+
+        abstract void clear(T segment);
+
+        T get() {
+            T segment;
+            synchronized(this) {
+                segment = available.pollFirst();
+            }
+
+            if(segment == null) {
+                numAllocated.incrementAndGet();
+                return create();
+            }
+
+            pooledBytes.addAndGet(-segmentSizeInBytes);
+            numReused.incrementAndGet();
+            clear(segment);
+            return segment;
+        }
+
+        void recycle(T segment) {
+            if(pooledBytes.addAndGet(segmentSizeInBytes) > maxPooledBytes) {
+                pooledBytes.addAndGet(-segmentSizeInBytes);
+                numDiscarded.incrementAndGet();
+                return;
+            }
+
+            numRecycled.incrementAndGet();
+            synchronized(this) {
+                pending.addLast(segment);
+            }
+        }
+
+        synchronized void swap() {
+            // Swap the deque references to reduce addition and clearing cost
+            if(pending.size() > available.size()) {
+                ArrayDeque<T> tmp = pending;
+                pending = available;
+                available = tmp;
+            }
+
+            available.addAll(pending);
+            pending.clear();
+        }
+
+        public long getSegmentSizeInBytes() {
+            return segmentSizeInBytes;
+        }
+
+        /**
+         * @return the number of segments which had to be allocated because none were available in the pool
+         */
+        public long getNumAllocated() {
+            return numAllocated.get();
+        }
+
+        /**
+         * @return the number of segments which were served from the pool
+         */
+        public long getNumReused() {
+            return numReused.get();
+        }
+
+        /**
+         * @return the number of segments which were returned to the pool
+         */
+        public long getNumRecycled() {
+            return numRecycled.get();
+        }
+
+        /**
+         * @return the number of returned segments which were left to the garbage collector because the pool was full
+         */
+        public long getNumDiscarded() {
+            return numDiscarded.get();
+        }
+
+        /**
+         * @return the number of segments currently retained by the pool, including those awaiting the next swap
+         */
+        public synchronized int getNumPooled() {
+            return available.size() + pending.size();
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import com.netflix.hollow.core.memory.SegmentedLongArray;
+
+/**
+ * An OffHeapArraySegmentRecycler is an {@link ArraySegmentRecycler} which can also provide long segments outside
+ * of the heap.
+ * <p>
+ * A {@link SegmentedLongArray} allocated from an OffHeapArraySegmentRecycler obtains its segments from
+ * {@link #getLongSegmentAddress()} rather than {@link #getLongArray()}.
+ */
+public interface OffHeapArraySegmentRecycler extends ArraySegmentRecycler {
+
+    /**
+     * Get a zeroed long segment outside of the heap.  The segment has the same length as the arrays returned by
+     * {@link #getLongArray()}, including the trailing fencepost long.
+     *
+     * @return the memory address of the segment
+     */
+    public long getLongSegmentAddress();
+
+    /**
+     * Return a segment obtained from {@link #getLongSegmentAddress()}.
+     *
+     * @param address the memory address of the segment
+     */
+    public void recycleLongSegmentAddress(long address);
+
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+/**
+ * An {@link EpochReclaimingRecycler} which wraps an {@link OffHeapArraySegmentRecycler}.  Off-heap long segments
+ * released by an update are held back in the same way as segments on the heap.
+ */
+public class OffHeapEpochReclaimingRecycler extends EpochReclaimingRecycler implements OffHeapArraySegmentRecycler {
+
+    private final OffHeapArraySegmentRecycler offHeapDelegate;
+
+    public OffHeapEpochReclaimingRecycler(OffHeapArraySegmentRecycler delegate) {
+        super(delegate);
+        this.offHeapDelegate = delegate;
+    }
+
+    @Override
+    public long getLongSegmentAddress() {
+        return offHeapDelegate.getLongSegmentAddress();
+    }
+
+    @Override
+    public void recycleLongSegmentAddress(long address) {
+        retireLongSegmentAddress(address);
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import sun.misc.Unsafe;
+
+/**
+ * An OffHeapRecycler is an {@link OffHeapArraySegmentRecycler} which keeps long segments outside of the GC-managed heap.
+ * <p>
+ * Long segments, which back all fixed length data, pointers and hash tables, are carved out of large regions
+ * which are either direct buffers or memory mapped from a temporary file which is deleted as soon as it has been
+ * mapped.  Released segments are pooled and reused with the same semantics as the {@link RecyclingRecycler}, and
+ * regions are only released once this recycler and every array which was allocated from it are unreachable.
+ * <p>
+ * Byte segments, and long arrays requested directly through {@link #getLongArray()}, remain on the heap and are
+ * pooled by a {@link HollowMemoryPool}.
+ * <p>
+ * Use with {@link com.netflix.hollow.api.consumer.HollowConsumer.Builder#withMemoryRecycler(ArraySegmentRecycler)}
+ * or {@link com.netflix.hollow.core.write.HollowWriteStateEngine#setMemoryRecycler(ArraySegmentRecycler)}.
+ */
+@SuppressWarnings("restriction")
+public class OffHeapRecycler implements OffHeapArraySegmentRecycler {
+
+    public enum Mode {
+        /// regions are allocated with ByteBuffer.allocateDirect
+        DIRECT,
+        /// regions are memory mapped from a deleted temporary file
+        MAPPED
+    }
+
+    public static final long DEFAULT_REGION_SIZE_IN_BYTES = 64L * 1024 * 1024;
+
+    private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+    private static final long BUFFER_ADDRESS_FIELD_OFFSET;
+
+    static {
+        try {
+            BUFFER_ADDRESS_FIELD_OFFSET = unsafe.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Mode mode;
+    private final File mappedFileDirectory;
+    private final int log2OfLongSegmentSize;
+    private final long longSegmentSizeInBytes;
+    private final int segmentsPerRegion;
+    private final long regionSizeInBytes;
+    private final HollowMemoryPool heapPool;
+
+    private final List<ByteBuffer> regions;
+    private long nextUnusedSegmentAddress;
+    private int unusedSegmentsInRegion;
+    private long numSegmentsCarved;
+
+    private long availableSegments[];
+    private int numAvailableSegments;
+    private long pendingSegments[];
+    private int numPendingSegments;
+
+    public OffHeapRecycler(Mode mode) {
+        this(mode, null, DEFAULT_REGION_SIZE_IN_BYTES, 11, 8);
+    }
+
+    /**
+     * @param mode whether regions are direct buffers or memory mapped
+     * @param mappedFileDirectory the directory in which temporary files are created for {@link Mode#MAPPED} regions,
+     *                            or null for the default temporary file directory
+     * @param regionSizeInBytes the size of each region
+     * @param log2OfByteSegmentSize the log2 of the size of on-heap byte segments
+     * @param log2OfLongSegmentSize the log2 of the number of longs in each off-heap long segment
+     */
+    public OffHeapRecycler(Mode mode, File mappedFileDirectory, long regionSizeInBytes, int log2OfByteSegmentSize, int log2OfLongSegmentSize) {
+        this.mode = mode;
+        this.mappedFileDirectory = mappedFileDirectory;
+        this.log2OfLongSegmentSize = log2OfLongSegmentSize;
+        // Allocated size is increased by 1, see JavaDoc of FixedLengthElementArray for details
+        this.longSegmentSizeInBytes = 8L * ((1 << log2OfLongSegmentSize) + 1);
+        if(regionSizeInBytes < longSegmentSizeInBytes || regionSizeInBytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("regionSizeInBytes must be between " + longSegmentSizeInBytes + " and " + Integer.MAX_VALUE);
+        this.segmentsPerRegion = (int)(regionSizeInBytes / longSegmentSizeInBytes);
+        this.regionSizeInBytes = segmentsPerRegion * longSegmentSizeInBytes;
+        this.heapPool = new HollowMemoryPool(log2OfByteSegmentSize, log2OfLongSegmentSize, HollowMemoryPool.DEFAULT_MAX_POOLED_BYTES);
+
+        this.regions = new ArrayList<>();
+        this.availableSegments = new long[64];
+        this.pendingSegments = new long[64];
+    }
+
+    @Override
+    public synchronized long getLongSegmentAddress() {
+        long address;
+        if(numAvailableSegments > 0) {
+            address = availableSegments[--numAvailableSegments];
+            unsafe.setMemory(address, longSegmentSizeInBytes, (byte)0);
+        } else {
+            if(unusedSegmentsInRegion == 0)
+                allocateRegion();
+            /// new regions are already zeroed
+            address = nextUnusedSegmentAddress;
+            nextUnusedSegmentAddress += longSegmentSizeInBytes;
+            unusedSegmentsInRegion--;
+            numSegmentsCarved++;
+        }
+        return address;
+    }
+
+    @Override
+    public synchronized void recycleLongSegmentAddress(long address) {
+        if(numPendingSegments == pendingSegments.length)
+            pendingSegments = Arrays.copyOf(pendingSegments, pendingSegments.length * 2);
+        pendingSegments[numPendingSegments++] = address;
+    }
+
+    @Override
+    public int getLog2OfByteSegmentSize() {
+        return heapPool.getLog2OfByteSegmentSize();
+    }
+
+    @Override
+    public int getLog2OfLongSegmentSize() {
+        return log2OfLongSegmentSize;
+    }
+
+    @Override
+    public long[] getLongArray() {
+        return heapPool.getLongArray();
+    }
+
+    @Override
+    public void recycleLongArray(long[] arr) {
+        heapPool.recycleLongArray(arr);
+    }
+
+    @Override
+    public byte[] getByteArray() {
+        return heapPool.getByteArray();
+    }
+
+    @Override
+    public void recycleByteArray(byte[] arr) {
+        heapPool.recycleByteArray(arr);
+    }
+
+    @Override
+    public void swap() {
+        synchronized(this) {
+            if(numAvailableSegments + numPendingSegments > availableSegments.length)
+                availableSegments = Arrays.copyOf(availableSegments, numAvailableSegments + numPendingSegments);
+            System.arraycopy(pendingSegments, 0, availableSegments, numAvailableSegments, numPendingSegments);
+            numAvailableSegments += numPendingSegments;
+            numPendingSegments = 0;
+        }
+        heapPool.swap();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the number of bytes reserved outside of the heap
+     */
+    public synchronized long getOffHeapBytesReserved() {
+        return regions.size() * regionSizeInBytes;
+    }
+
+    /**
+     * @return the number of long segments which are currently allocated from this recycler
+     */
+    public synchronized long getNumLongSegmentsInUse() {
+        return numSegmentsCarved - numAvailableSegments - numPendingSegments;
+    }
+
+    /**
+     * @return the pool which holds this recycler's on-heap segments
+     */
+    public HollowMemoryPool getHeapPool() {
+        return heapPool;
+    }
+
+    private void allocateRegion() {
+        ByteBuffer region = mode == Mode.MAPPED ? mapRegion() : ByteBuffer.allocateDirect((int)regionSizeInBytes);
+        long address = unsafe.getLong(region, BUFFER_ADDRESS_FIELD_OFFSET);
+        /// segments are accessed as longs, so keep them 8-byte aligned
+        long alignedAddress = (address + 7) & ~7L;
+        regions.add(region);
+        nextUnusedSegmentAddress = alignedAddress;
+        unusedSegmentsInRegion = alignedAddress == address ? segmentsPerRegion : segmentsPerRegion - 1;
+    }
+
+    private ByteBuffer mapRegion() {
+        try {
+            File file = File.createTempFile("hollow-offheap-", ".bin", mappedFileDirectory);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(regionSizeInBytes);
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, regionSizeInBytes);
+            } finally {
+                /// the mapping remains valid after the file is deleted
+                file.delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map an off-heap region", e);
+        }
+    }
+
+}
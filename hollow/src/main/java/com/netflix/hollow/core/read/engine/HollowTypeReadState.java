@@ -19,6 +19,7 @@ package com.netflix.hollow.core.read.engine;
 import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.EpochReclaimingRecycler;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -47,6 +48,14 @@ public abstract class HollowTypeReadState implements HollowTypeDataAccess {
         this.stateListeners = EMPTY_LISTENERS;
     }
 
+    /**
+     * @return true if the state engine defers reuse of released segments with an {@link EpochReclaimingRecycler},
+     * so that reads made inside a read epoch never need to be retried
+     */
+    protected boolean readsAreEpochProtected() {
+        return stateEngine != null && stateEngine.getMemoryRecycler() instanceof EpochReclaimingRecycler;
+    }
+
     /**
      * Add a {@link HollowTypeStateListener} to this type.
      * @param listener the listener to add
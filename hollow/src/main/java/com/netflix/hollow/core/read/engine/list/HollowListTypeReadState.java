@@ -62,7 +62,7 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
         
         HollowListTypeReadStateShard shards[] = new HollowListTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowListTypeReadStateShard();
+            shards[i] = new HollowListTypeReadStateShard(readsAreEpochProtected());
         
         this.shards = shards;
     }
@@ -26,6 +26,12 @@ class HollowListTypeReadStateShard {
 
     private volatile HollowListTypeDataElements currentDataVolatile;
 
+    private final boolean epochProtected;
+
+    HollowListTypeReadStateShard(boolean epochProtected) {
+        this.epochProtected = epochProtected;
+    }
+
     public int getElementOrdinal(int ordinal, int listIndex) {
         HollowListTypeDataElements currentData;
         int elementOrdinal;
@@ -89,6 +95,9 @@ class HollowListTypeReadStateShard {
     }
 
     private boolean readWasUnsafe(HollowListTypeDataElements data) {
+        if(epochProtected)
+            return false;
+
         HollowUnsafeHandle.getUnsafe().loadFence();
         return data != currentDataVolatile;
     }
@@ -68,7 +68,7 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         
         HollowMapTypeReadStateShard shards[] = new HollowMapTypeReadStateShard[numShards];
         for(int i=0; i<shards.length; i++)
-            shards[i] = new HollowMapTypeReadStateShard();
+            shards[i] = new HollowMapTypeReadStateShard(readsAreEpochProtected());
         
         this.shards = shards;
         
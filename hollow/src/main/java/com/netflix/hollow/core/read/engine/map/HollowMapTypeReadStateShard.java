@@ -29,8 +29,14 @@ class HollowMapTypeReadStateShard {
     
     private volatile HollowMapTypeDataElements currentDataVolatile;
 
+    private final boolean epochProtected;
+
     private HollowPrimaryKeyValueDeriver keyDeriver;
 
+    HollowMapTypeReadStateShard(boolean epochProtected) {
+        this.epochProtected = epochProtected;
+    }
+
     public int size(int ordinal) {
         HollowMapTypeDataElements currentData;
         int size;
@@ -200,6 +206,9 @@ class HollowMapTypeReadStateShard {
     }
 
     private boolean readWasUnsafe(HollowMapTypeDataElements data) {
+        if(epochProtected)
+            return false;
+
         HollowUnsafeHandle.getUnsafe().loadFence();
         return data != currentDataVolatile;
     }
@@ -64,7 +64,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         
         HollowObjectTypeReadStateShard shards[] = new HollowObjectTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowObjectTypeReadStateShard(schema);
+            shards[i] = new HollowObjectTypeReadStateShard(schema, readsAreEpochProtected());
         
         this.shards = shards;
     }
@@ -192,6 +192,19 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return shards[ordinal & shardNumberMask].isStringFieldEqual(ordinal >> shardOrdinalShift, fieldIndex, testValue);
     }
 
+    /**
+     * Test whether a STRING field is equal to the characters of a CharSequence, without creating a String.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param testValue the characters to compare, or null to test whether the field is null
+     * @return whether the field is equal to the test value
+     */
+    public boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
+        sampler.recordFieldAccess(fieldIndex);
+        return shards[ordinal & shardNumberMask].isStringFieldEqual(ordinal >> shardOrdinalShift, fieldIndex, testValue);
+    }
+
     @Override
     public int findVarLengthFieldHashCode(int ordinal, int fieldIndex) {
         sampler.recordFieldAccess(fieldIndex);
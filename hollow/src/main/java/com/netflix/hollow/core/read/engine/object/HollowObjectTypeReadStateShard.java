@@ -36,10 +36,15 @@ class HollowObjectTypeReadStateShard {
 
     private volatile HollowObjectTypeDataElements currentDataVolatile;
 
+    /// true if segments released by an update are not reused while a read epoch may observe them,
+    /// in which case a read of superseded data is still consistent and need not be retried
+    private final boolean epochProtected;
+
     private final HollowObjectSchema schema;
     
-    HollowObjectTypeReadStateShard(HollowObjectSchema schema) {
+    HollowObjectTypeReadStateShard(HollowObjectSchema schema, boolean epochProtected) {
         this.schema = schema;
+        this.epochProtected = epochProtected;
     }
 
     public boolean isNull(int ordinal, int fieldIndex) {
@@ -231,7 +236,7 @@ class HollowObjectTypeReadStateShard {
         return result;
     }
 
-    public boolean isStringFieldEqual(int ordinal, int fieldIndex, String testValue) {
+    public boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
         HollowObjectTypeDataElements currentData;
         boolean result;
 
@@ -336,7 +341,7 @@ class HollowObjectTypeReadStateShard {
         return new String(chararr, 0, count);
     }
 
-    private boolean testStringEquality(ByteData data, long position, int length, String testValue) {
+    private boolean testStringEquality(ByteData data, long position, int length, CharSequence testValue) {
         if(length < testValue.length()) // can't check exact length here; the length argument is in bytes, which is equal to or greater than the number of characters.
             return false;
 
@@ -373,6 +378,9 @@ class HollowObjectTypeReadStateShard {
     }
 
     private boolean readWasUnsafe(HollowObjectTypeDataElements data) {
+        if(epochProtected)
+            return false;
+
         // Use a load (acquire) fence to constrain the compiler reordering prior plain loads so
         // that they cannot "float down" below the volatile load of currentDataVolatile.
         // This ensures data is checked against currentData *after* optimistic calculations
@@ -69,7 +69,7 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
         
         HollowSetTypeReadStateShard shards[] = new HollowSetTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowSetTypeReadStateShard();
+            shards[i] = new HollowSetTypeReadStateShard(readsAreEpochProtected());
         
         this.shards = shards;
 
@@ -29,8 +29,14 @@ class HollowSetTypeReadStateShard {
 
     private volatile HollowSetTypeDataElements currentDataVolatile;
 
+    private final boolean epochProtected;
+
     private HollowPrimaryKeyValueDeriver keyDeriver;
 
+    HollowSetTypeReadStateShard(boolean epochProtected) {
+        this.epochProtected = epochProtected;
+    }
+
     public int size(int ordinal) {
         HollowSetTypeDataElements currentData;
         int size;
@@ -156,6 +162,9 @@ class HollowSetTypeReadStateShard {
     }
 
     private boolean readWasUnsafe(HollowSetTypeDataElements data) {
+        if(epochProtected)
+            return false;
+
         HollowUnsafeHandle.getUnsafe().loadFence();
         return data != currentDataVolatile;
     }
@@ -35,11 +35,24 @@ public class HollowBlobWriter {
     private final HollowWriteStateEngine stateEngine;
     private final HollowBlobHeaderWriter headerWriter;
 
+    private boolean flushAtTypeBoundaries;
+
     public HollowBlobWriter(HollowWriteStateEngine stateEngine) {
         this.stateEngine = stateEngine;
         this.headerWriter = new HollowBlobHeaderWriter();
     }
 
+    /**
+     * Set whether the output stream is flushed after each type is written, for example so that a block-oriented
+     * compressor starts a new block with each type.  By default the output stream is only flushed once the blob has
+     * been written, so that buffered streams keep their buffering.
+     *
+     * @param flushAtTypeBoundaries whether to flush the output stream after each type
+     */
+    public void setFlushAtTypeBoundaries(boolean flushAtTypeBoundaries) {
+        this.flushAtTypeBoundaries = flushAtTypeBoundaries;
+    }
+
     /**
      * Write the current state as a snapshot blob.
      * @param os the output stream to write the snapshot blob
@@ -76,6 +89,8 @@ public class HollowBlobWriter {
             writeNumShards(dos, typeState.getNumShards());
 
             typeState.writeSnapshot(dos);
+            if(flushAtTypeBoundaries)
+                dos.flush();
         }
         os.flush();
     }
@@ -129,6 +144,8 @@ public class HollowBlobWriter {
                 writeNumShards(dos, typeState.getNumShards());
 
                 typeState.writeDelta(dos);
+                if(flushAtTypeBoundaries)
+                    dos.flush();
             }
         }
         os.flush();
@@ -183,6 +200,8 @@ public class HollowBlobWriter {
                 writeNumShards(dos, typeState.getNumShards());
 
                 typeState.writeReverseDelta(dos);
+                if(flushAtTypeBoundaries)
+                    dos.flush();
             }
         }
         os.flush();
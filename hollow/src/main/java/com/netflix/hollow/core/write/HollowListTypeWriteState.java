@@ -21,7 +21,6 @@ import com.netflix.hollow.core.memory.ByteDataBuffer;
 import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.VarInt;
-import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowListSchema;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -146,6 +145,15 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
             numShards *= 2;
     }
     
+    @Override
+    public HollowTypeSizeEstimate estimateSize() {
+        long elementBitsPerShard[] = new long[numShards];
+        for(int i=0;i<numShards;i++)
+            elementBitsPerShard[i] = totalOfListSizes[i] * bitsPerElement;
+
+        return estimateSize(maxShardOrdinal, bitsPerListPointer, elementBitsPerShard);
+    }
+
     @Override
     public void calculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
@@ -154,8 +162,8 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
         elementArray = new FixedLengthElementArray[numShards];
 
         for(int i=0;i<numShards;i++) {
-            listPointerArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerListPointer * (maxShardOrdinal[i] + 1));
-            elementArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerElement * totalOfListSizes[i]);
+            listPointerArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)bitsPerListPointer * (maxShardOrdinal[i] + 1));
+            elementArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)bitsPerElement * totalOfListSizes[i]);
         }
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
@@ -202,6 +210,7 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
         /// Populated bits
         currentCyclePopulated.serializeBitsTo(os);
 
+        recycle(listPointerArray, elementArray);
         listPointerArray = null;
         elementArray = null;
     }
@@ -275,10 +284,10 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
         }
         
         for(int i=0;i<numShards;i++) {
-            listPointerArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numListsInDelta[i] * bitsPerListPointer);
-            elementArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, numElementsInDelta[i] * bitsPerElement);
-            deltaAddedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
-            deltaRemovedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
+            listPointerArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)numListsInDelta[i] * bitsPerListPointer);
+            elementArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), numElementsInDelta[i] * bitsPerElement);
+            deltaAddedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
+            deltaRemovedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
         }
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
@@ -331,6 +340,8 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
             }
         }
 
+        recycle(listPointerArray, elementArray);
+        recycle(deltaAddedOrdinals, deltaRemovedOrdinals);
         listPointerArray = null;
         elementArray = null;
         deltaAddedOrdinals = null;
@@ -22,7 +22,6 @@ import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.memory.encoding.VarInt;
-import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowMapSchema;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -190,6 +189,15 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
             numShards *= 2;
     }
 
+    @Override
+    public HollowTypeSizeEstimate estimateSize() {
+        long bucketBitsPerShard[] = new long[numShards];
+        for(int i=0;i<numShards;i++)
+            bucketBitsPerShard[i] = totalOfMapBuckets[i] * (bitsPerKeyElement + bitsPerValueElement);
+
+        return estimateSize(maxShardOrdinal, bitsPerMapSizeValue + bitsPerMapPointer, bucketBitsPerShard);
+    }
+
     @Override
     public void calculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
@@ -200,8 +208,8 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
         entryArray = new FixedLengthElementArray[numShards];
 
         for(int i=0;i<numShards;i++) {
-            mapPointersAndSizesArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerMapFixedLengthPortion * (maxShardOrdinal[i] + 1));
-            entryArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerMapEntry * totalOfMapBuckets[i]);
+            mapPointersAndSizesArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)bitsPerMapFixedLengthPortion * (maxShardOrdinal[i] + 1));
+            entryArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)bitsPerMapEntry * totalOfMapBuckets[i]);
         }
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
@@ -282,6 +290,7 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
         /// Populated bits
         currentCyclePopulated.serializeBitsTo(os);
 
+        recycle(mapPointersAndSizesArray, entryArray);
         mapPointersAndSizesArray = null;
         entryArray = null;
     }
@@ -362,10 +371,10 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
         }
 
         for(int i=0;i<numShards;i++) {
-            mapPointersAndSizesArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numMapsInDelta[i] * bitsPerMapFixedLengthPortion);
-            entryArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, numBucketsInDelta[i] * bitsPerMapEntry);
-            deltaAddedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
-            deltaRemovedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
+            mapPointersAndSizesArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)numMapsInDelta[i] * bitsPerMapFixedLengthPortion);
+            entryArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), numBucketsInDelta[i] * bitsPerMapEntry);
+            deltaAddedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
+            deltaRemovedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
         }
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
@@ -452,6 +461,8 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
             }
         }
         
+        recycle(mapPointersAndSizesArray, entryArray);
+        recycle(deltaAddedOrdinals, deltaRemovedOrdinals);
         mapPointersAndSizesArray = null;
         entryArray = null;
         deltaAddedOrdinals = null;
@@ -21,7 +21,6 @@ import com.netflix.hollow.core.memory.ByteDataBuffer;
 import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.VarInt;
-import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import java.io.DataOutputStream;
@@ -161,6 +160,17 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         fieldStats = null;
     }
 
+    @Override
+    public HollowTypeSizeEstimate estimateSize() {
+        long varLengthBitsPerShard[] = new long[numShards];
+        /// ordinals are assigned round-robin to shards, so var length data is attributed evenly
+        long totalVarLengthBits = fieldStats.getTotalSizeOfAllVarLengthData() * 8;
+        for(int i=0;i<numShards;i++)
+            varLengthBitsPerShard[i] = totalVarLengthBits / numShards;
+
+        return estimateSize(maxShardOrdinal, fieldStats.getNumBitsPerRecord(), varLengthBitsPerShard);
+    }
+
     @Override
     public void calculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
@@ -171,7 +181,7 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         recordBitOffset = new long[numShards];
         
         for(int i=0;i<numShards;i++) {
-            fixedLengthLongArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numBitsPerRecord * (maxShardOrdinal[i] + 1));
+            fixedLengthLongArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)numBitsPerRecord * (maxShardOrdinal[i] + 1));
             varLengthByteArrays[i] = new ByteDataBuffer[getSchema().numFields()];
         }
         
@@ -205,6 +215,8 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         /// Populated bits
         currentCyclePopulated.serializeBitsTo(os);
         
+        recycle(fixedLengthLongArray);
+        recycle(varLengthByteArrays);
         fixedLengthLongArray = null;
         varLengthByteArrays = null;
         recordBitOffset = null;
@@ -277,9 +289,9 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         }
         
         for(int i=0;i<numShards;i++) {
-            fixedLengthLongArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numAddedRecordsInShard[i] * numBitsPerRecord);
-            deltaAddedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
-            deltaRemovedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
+            fixedLengthLongArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)numAddedRecordsInShard[i] * numBitsPerRecord);
+            deltaAddedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
+            deltaRemovedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
             varLengthByteArrays[i] = new ByteDataBuffer[getSchema().numFields()];
         }
 
@@ -315,6 +327,9 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
             }
         }
         
+        recycle(fixedLengthLongArray);
+        recycle(varLengthByteArrays);
+        recycle(deltaAddedOrdinals, deltaRemovedOrdinals);
         fixedLengthLongArray = null;
         varLengthByteArrays = null;
         deltaAddedOrdinals = null;
@@ -437,7 +452,7 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
 
     private ByteDataBuffer getByteArray(ByteDataBuffer buffers[], int index) {
         if(buffers[index] == null) {
-            buffers[index] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
+            buffers[index] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
         }
         return buffers[index];
     }
@@ -22,7 +22,6 @@ import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.memory.encoding.VarInt;
-import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowSetSchema;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -170,6 +169,15 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
             numShards *= 2;
     }
 
+    @Override
+    public HollowTypeSizeEstimate estimateSize() {
+        long bucketBitsPerShard[] = new long[numShards];
+        for(int i=0;i<numShards;i++)
+            bucketBitsPerShard[i] = totalOfSetBuckets[i] * bitsPerElement;
+
+        return estimateSize(maxShardOrdinal, bitsPerSetSizeValue + bitsPerSetPointer, bucketBitsPerShard);
+    }
+
     @Override
     public void calculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
@@ -179,8 +187,8 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
         elementArray = new FixedLengthElementArray[numShards];
         
         for(int i=0;i<numShards;i++) {
-            setPointersAndSizesArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerSetFixedLengthPortion * (maxShardOrdinal[i] + 1));
-            elementArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerElement * totalOfSetBuckets[i]);
+            setPointersAndSizesArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)bitsPerSetFixedLengthPortion * (maxShardOrdinal[i] + 1));
+            elementArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)bitsPerElement * totalOfSetBuckets[i]);
         }
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
@@ -257,6 +265,7 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
         /// Populated bits
         currentCyclePopulated.serializeBitsTo(os);
 
+        recycle(setPointersAndSizesArray, elementArray);
         setPointersAndSizesArray = null;
         elementArray = null;
     }
@@ -334,10 +343,10 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
         }
         
         for(int i=0;i<numShards;i++) {
-            setPointersAndSizesArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numSetsInDelta[i] * bitsPerSetFixedLengthPortion);
-            elementArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numBucketsInDelta[i] * bitsPerElement);
-            deltaAddedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
-            deltaRemovedOrdinals[i] = new ByteDataBuffer(WastefulRecycler.DEFAULT_INSTANCE);
+            setPointersAndSizesArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)numSetsInDelta[i] * bitsPerSetFixedLengthPortion);
+            elementArray[i] = new FixedLengthElementArray(stateEngine.getMemoryRecycler(), (long)numBucketsInDelta[i] * bitsPerElement);
+            deltaAddedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
+            deltaRemovedOrdinals[i] = new ByteDataBuffer(stateEngine.getMemoryRecycler());
         }
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
@@ -419,6 +428,8 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
             }
         }
         
+        recycle(setPointersAndSizesArray, elementArray);
+        recycle(deltaAddedOrdinals, deltaRemovedOrdinals);
         setPointersAndSizesArray = null;
         elementArray = null;
         deltaAddedOrdinals = null;
@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write;
+
+import java.util.Arrays;
+
+/**
+ * A projection, made from the statistics gathered by a {@link HollowTypeWriteState} when it is prepared for write, of
+ * the size of a single type in the blobs produced for the current cycle and of the heap a consumer will require to
+ * hold it.
+ * <p>
+ * Consumer heap footprints are projected in the same terms as
+ * {@link com.netflix.hollow.core.read.engine.HollowTypeReadState#getApproximateHeapFootprintInBytes()}.
+ * Variable length data is attributed evenly across shards, and delta sizes assume that added records are of average
+ * size, so all figures are approximate.
+ */
+public class HollowTypeSizeEstimate {
+
+    private final String typeName;
+    private final long shardHeapFootprintInBytes[];
+    private final long snapshotSizeInBytes;
+    private final long deltaSizeInBytes;
+    private final int numRecords;
+    private final int numAddedRecords;
+    private final int numRemovedRecords;
+
+    public HollowTypeSizeEstimate(String typeName, long shardHeapFootprintInBytes[], long snapshotSizeInBytes,
+            long deltaSizeInBytes, int numRecords, int numAddedRecords, int numRemovedRecords) {
+        this.typeName = typeName;
+        this.shardHeapFootprintInBytes = shardHeapFootprintInBytes;
+        this.snapshotSizeInBytes = snapshotSizeInBytes;
+        this.deltaSizeInBytes = deltaSizeInBytes;
+        this.numRecords = numRecords;
+        this.numAddedRecords = numAddedRecords;
+        this.numRemovedRecords = numRemovedRecords;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public int getNumShards() {
+        return shardHeapFootprintInBytes.length;
+    }
+
+    /**
+     * @param shardNumber the shard
+     * @return the projected consumer heap footprint of the shard, which is also approximately its size in a snapshot
+     */
+    public long getShardHeapFootprintInBytes(int shardNumber) {
+        return shardHeapFootprintInBytes[shardNumber];
+    }
+
+    public long getConsumerHeapFootprintInBytes() {
+        long total = 0;
+        for(long shardFootprint : shardHeapFootprintInBytes)
+            total += shardFootprint;
+        return total;
+    }
+
+    public long getSnapshotSizeInBytes() {
+        return snapshotSizeInBytes;
+    }
+
+    public long getDeltaSizeInBytes() {
+        return deltaSizeInBytes;
+    }
+
+    public int getNumRecords() {
+        return numRecords;
+    }
+
+    public int getNumAddedRecords() {
+        return numAddedRecords;
+    }
+
+    public int getNumRemovedRecords() {
+        return numRemovedRecords;
+    }
+
+    @Override
+    public String toString() {
+        return "HollowTypeSizeEstimate{" +
+                "typeName='" + typeName + '\'' +
+                ", shardHeapFootprintInBytes=" + Arrays.toString(shardHeapFootprintInBytes) +
+                ", snapshotSizeInBytes=" + snapshotSizeInBytes +
+                ", deltaSizeInBytes=" + deltaSizeInBytes +
+                ", numRecords=" + numRecords +
+                ", numAddedRecords=" + numAddedRecords +
+                ", numRemovedRecords=" + numRemovedRecords +
+                '}';
+    }
+}
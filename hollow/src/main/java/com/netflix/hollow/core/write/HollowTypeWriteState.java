@@ -22,6 +22,9 @@ import static com.netflix.hollow.core.write.HollowHashableWriteRecord.HashBehavi
 import com.netflix.hollow.core.memory.ByteArrayOrdinalMap;
 import com.netflix.hollow.core.memory.ByteDataBuffer;
 import com.netflix.hollow.core.memory.ThreadSafeBitSet;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
@@ -302,6 +305,63 @@ public abstract class HollowTypeWriteState {
     public abstract void calculateReverseDelta();
 
     public abstract void writeReverseDelta(DataOutputStream dos) throws IOException;
+
+    /**
+     * Projects the size of this type in the blobs produced for the current cycle, and the heap a consumer will
+     * require to hold it.
+     * <p>
+     * This is only valid once this state has been prepared for write, and before it is prepared for the next cycle.
+     *
+     * @return the size estimate
+     */
+    public abstract HollowTypeSizeEstimate estimateSize();
+
+    /**
+     * Projects a size estimate from the statistics gathered when this state was prepared for write.
+     *
+     * @param maxShardOrdinal the max ordinal of each shard
+     * @param fixedLengthBitsPerRecord the number of bits per ordinal in the fixed length portion of each shard
+     * @param variableLengthBitsPerShard the number of bits in the variable length (or element) portion of each shard
+     * @return the size estimate
+     */
+    protected HollowTypeSizeEstimate estimateSize(int maxShardOrdinal[], long fixedLengthBitsPerRecord, long variableLengthBitsPerShard[]) {
+        long shardHeapFootprintInBytes[] = new long[maxShardOrdinal.length];
+        long totalVariableLengthBits = 0;
+        for(int i=0;i<maxShardOrdinal.length;i++) {
+            shardHeapFootprintInBytes[i] = (((long)maxShardOrdinal[i] + 1) * fixedLengthBitsPerRecord + variableLengthBitsPerShard[i]) / 8;
+            totalVariableLengthBits += variableLengthBitsPerShard[i];
+        }
+
+        /// the populated ordinals are serialized as an int followed by a bit per ordinal
+        long snapshotSizeInBytes = 4 + (((long)ordinalMap.maxOrdinal() + 64) / 64) * 8;
+        for(long shardFootprint : shardHeapFootprintInBytes)
+            snapshotSizeInBytes += shardFootprint;
+
+        int numRecords = currentCyclePopulated.cardinality();
+        int numAddedRecords = currentCyclePopulated.andNot(previousCyclePopulated).cardinality();
+        int numRemovedRecords = previousCyclePopulated.andNot(currentCyclePopulated).cardinality();
+
+        long deltaSizeInBytes = 0;
+        if(numAddedRecords != 0 || numRemovedRecords != 0) {
+            /// the variable length statistics cover the records populated in either the previous or the current cycle
+            int numMeasuredRecords = numRecords + numRemovedRecords;
+            double variableLengthBitsPerRecord = numMeasuredRecords == 0 ? 0 : (double)totalVariableLengthBits / numMeasuredRecords;
+
+            deltaSizeInBytes = (long)(numAddedRecords * (fixedLengthBitsPerRecord + variableLengthBitsPerRecord) / 8);
+            deltaSizeInBytes += estimateGapEncodedOrdinalsSize(numAddedRecords);
+            deltaSizeInBytes += estimateGapEncodedOrdinalsSize(numRemovedRecords);
+        }
+
+        return new HollowTypeSizeEstimate(schema.getName(), shardHeapFootprintInBytes, snapshotSizeInBytes, deltaSizeInBytes,
+                numRecords, numAddedRecords, numRemovedRecords);
+    }
+
+    private long estimateGapEncodedOrdinalsSize(int numOrdinals) {
+        if(numOrdinals == 0)
+            return 0;
+        int averageGap = (ordinalMap.maxOrdinal() + 1) / numOrdinals;
+        return (long)numOrdinals * VarInt.sizeOfVInt(averageGap);
+    }
     
     protected void restoreFrom(HollowTypeReadState readState) {
         if(previousCyclePopulated.cardinality() != 0 || currentCyclePopulated.cardinality() != 0)
@@ -359,6 +419,39 @@ public abstract class HollowTypeWriteState {
         return scratch;
     }
     
+    /**
+     * Return the segments of arrays calculated for a snapshot or delta which has been written to the state
+     * engine's memory recycler, so that they may be reused when the next cycle is calculated.
+     *
+     * @param arrays the arrays, indexed by shard
+     */
+    protected void recycle(FixedLengthElementArray[]... arrays) {
+        ArraySegmentRecycler memoryRecycler = stateEngine.getMemoryRecycler();
+        for(FixedLengthElementArray shardArrays[] : arrays) {
+            for(int i=0;i<shardArrays.length;i++) {
+                if(shardArrays[i] != null)
+                    shardArrays[i].destroy(memoryRecycler);
+            }
+        }
+        memoryRecycler.swap();
+    }
+
+    /**
+     * Return the segments of buffers calculated for a snapshot or delta which has been written to the state
+     * engine's memory recycler, so that they may be reused when the next cycle is calculated.
+     *
+     * @param buffers the buffers, indexed by shard
+     */
+    protected void recycle(ByteDataBuffer[]... buffers) {
+        for(ByteDataBuffer shardBuffers[] : buffers) {
+            for(int i=0;i<shardBuffers.length;i++) {
+                if(shardBuffers[i] != null)
+                    shardBuffers[i].getUnderlyingArray().destroy();
+            }
+        }
+        stateEngine.getMemoryRecycler().swap();
+    }
+
     void setStateEngine(HollowWriteStateEngine writeEngine) {
         this.stateEngine = writeEngine;
     }
@@ -19,6 +19,8 @@ package com.netflix.hollow.core.write;
 import com.netflix.hollow.api.error.HollowWriteStateException;
 import com.netflix.hollow.api.error.SchemaNotFoundException;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -70,6 +72,8 @@ public class HollowWriteStateEngine implements HollowStateEngine {
     //// target a maximum shard size to reduce excess memory pool requirement 
     private long targetMaxTypeShardSize = Long.MAX_VALUE;
 
+    private ArraySegmentRecycler memoryRecycler = WastefulRecycler.DEFAULT_INSTANCE;
+
     private List<String> restoredStates;
     private boolean preparedForNextCycle = true;
     private long previousStateRandomizedTag = -1L;
@@ -205,6 +209,25 @@ public class HollowWriteStateEngine implements HollowStateEngine {
         preparedForNextCycle = false;
     }
 
+    /**
+     * Project the size of the blobs which will be produced for the current cycle, and the heap a consumer will
+     * require to hold the resulting state, without writing anything.
+     * <p>
+     * This transitions the state engine to the "writing" phase of the cycle (see {@link #prepareForWrite()}), so
+     * it should be called once all records have been added.
+     *
+     * @return the size estimate
+     */
+    public HollowWriteStateSizeEstimate estimateSize() {
+        prepareForWrite();
+
+        List<HollowTypeSizeEstimate> typeEstimates = new ArrayList<HollowTypeSizeEstimate>();
+        for(HollowTypeWriteState typeState : getOrderedTypeStates())
+            typeEstimates.add(typeState.estimateSize());
+
+        return new HollowWriteStateSizeEstimate(typeEstimates);
+    }
+
     /**
      * Transition from the "writing" phase of a cycle to the "adding records" phase of the next cycle.
      */
@@ -411,6 +434,20 @@ public class HollowWriteStateEngine implements HollowStateEngine {
     long getTargetMaxTypeShardSize() {
         return targetMaxTypeShardSize;
     }
+
+    /**
+     * Set the memory recycler from which the arrays calculated for each snapshot and delta are allocated, for example
+     * an {@link com.netflix.hollow.core.memory.pool.OffHeapRecycler}.  Defaults to {@link WastefulRecycler#DEFAULT_INSTANCE}.
+     *
+     * @param memoryRecycler the memory recycler
+     */
+    public void setMemoryRecycler(ArraySegmentRecycler memoryRecycler) {
+        this.memoryRecycler = memoryRecycler;
+    }
+
+    public ArraySegmentRecycler getMemoryRecycler() {
+        return memoryRecycler;
+    }
     
     private long mintNewRandomizedStateTag() {
         Random rand = new Random();
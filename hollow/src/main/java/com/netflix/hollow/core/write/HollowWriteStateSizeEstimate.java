@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A projection of the size of the blobs produced by a {@link HollowWriteStateEngine} for the current cycle, and of
+ * the heap a consumer will require to hold the resulting state.  Obtained from
+ * {@link HollowWriteStateEngine#estimateSize()} once all records have been added for the cycle, and before anything
+ * has been written.
+ *
+ * @see HollowTypeSizeEstimate
+ */
+public class HollowWriteStateSizeEstimate {
+
+    private final Map<String, HollowTypeSizeEstimate> typeEstimates;
+
+    public HollowWriteStateSizeEstimate(List<HollowTypeSizeEstimate> typeEstimates) {
+        Map<String, HollowTypeSizeEstimate> map = new LinkedHashMap<String, HollowTypeSizeEstimate>();
+        for(HollowTypeSizeEstimate typeEstimate : typeEstimates)
+            map.put(typeEstimate.getTypeName(), typeEstimate);
+        this.typeEstimates = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return the estimates for each type, in the order the types are written
+     */
+    public Map<String, HollowTypeSizeEstimate> getTypeEstimates() {
+        return typeEstimates;
+    }
+
+    public HollowTypeSizeEstimate getTypeEstimate(String typeName) {
+        return typeEstimates.get(typeName);
+    }
+
+    public long getConsumerHeapFootprintInBytes() {
+        long total = 0;
+        for(HollowTypeSizeEstimate typeEstimate : typeEstimates.values())
+            total += typeEstimate.getConsumerHeapFootprintInBytes();
+        return total;
+    }
+
+    public long getSnapshotSizeInBytes() {
+        long total = 0;
+        for(HollowTypeSizeEstimate typeEstimate : typeEstimates.values())
+            total += typeEstimate.getSnapshotSizeInBytes();
+        return total;
+    }
+
+    public long getDeltaSizeInBytes() {
+        long total = 0;
+        for(HollowTypeSizeEstimate typeEstimate : typeEstimates.values())
+            total += typeEstimate.getDeltaSizeInBytes();
+        return total;
+    }
+
+}
@@ -20,6 +20,7 @@ import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
 import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.memory.ByteArrayOrdinalMap;
 import com.netflix.hollow.core.memory.ByteDataBuffer;
+import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
@@ -39,7 +40,9 @@ import com.netflix.hollow.core.write.HollowWriteRecord;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.copy.HollowRecordCopier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -73,6 +76,7 @@ public class HollowCombiner {
     private final HollowCombinerCopyDirector copyDirector;
 
     private List<PrimaryKey> primaryKeys;
+    private List<HollowPrimaryKeyIndex> suppliedPrimaryKeyIndexes = Collections.emptyList();
 
     private final ThreadLocal<Map<String, HollowCombinerCopier>> copiersPerType;
     private final Map<String, ByteArrayOrdinalMap> hashOrderIndependentOrdinalMaps;
@@ -227,6 +231,20 @@ public class HollowCombiner {
             ignoredTypes.add(typeName);
     }
 
+    /**
+     * Supply primary key indexes over the inputs, to be used rather than building new indexes during
+     * {@link #combine()}.  An index is used for an input if it was built over that input's {@link HollowReadStateEngine}
+     * with one of this combiner's primary keys.
+     * <p>
+     * Indexes which listen for delta updates may be supplied to each combiner created over the same, updated inputs.
+     *
+     * @param indexes the primary key indexes
+     */
+    public void setPrimaryKeyIndexes(HollowPrimaryKeyIndex... indexes) {
+        Objects.requireNonNull(indexes);
+        this.suppliedPrimaryKeyIndexes = Arrays.asList(indexes);
+    }
+
     /**
      * Perform the combine operation.
      */
@@ -237,6 +255,11 @@ public class HollowCombiner {
         createOrdinalRemappers();
         createHashOrderIndependentOrdinalMaps();
 
+        // duplicate keys are identified for all primary keys up front, before any records are copied
+        final Map<String, HollowPrimaryKeyIndex[]> allPrimaryKeyIndexes = createPrimaryKeyIndexes(executor);
+        final HollowCombinerExcludePrimaryKeysCopyDirector primaryKeyCopyDirector = new HollowCombinerExcludePrimaryKeysCopyDirector(copyDirector);
+        excludeDuplicatePrimaryKeys(executor, allPrimaryKeyIndexes, primaryKeyCopyDirector);
+
         final Set<String> processedTypes = new HashSet<>();
         final Set<PrimaryKey> processedPrimaryKeys = new HashSet<>();
         final Set<PrimaryKey> selectedPrimaryKeys = new HashSet<>();
@@ -254,41 +277,13 @@ public class HollowCombiner {
 
             final Set<String> typesToProcessThisIteration = new HashSet<>();
             final Map<String, HollowPrimaryKeyIndex[]> primaryKeyIndexes = new HashMap<>();
-            final HollowCombinerExcludePrimaryKeysCopyDirector primaryKeyCopyDirector = new HollowCombinerExcludePrimaryKeysCopyDirector(copyDirector);
 
             for(HollowSchema schema : output.getSchemas()) {
                 if(!processedTypes.contains(schema.getName()) && !ignoredTypes.contains(schema.getName())) {
                     if(selectedPrimaryKeys.isEmpty() || isAnySelectedPrimaryKeyDependentOn(schema.getName(), selectedPrimaryKeys)) {
                         for(PrimaryKey pk : selectedPrimaryKeys) {
-                            if(pk.getType().equals(schema.getName())) {
-                                HollowPrimaryKeyIndex[] indexes = new HollowPrimaryKeyIndex[inputs.length];
-                                for(int i=0;i<indexes.length;i++) {
-                                    if(inputs[i].getTypeState(pk.getType()) != null)
-                                        indexes[i] = new HollowPrimaryKeyIndex(inputs[i], pk);
-                                }
-
-                                for(int i=0;i<indexes.length;i++) {
-                                    HollowTypeReadState typeState = inputs[i].getTypeState(pk.getType());
-                                    if(typeState != null) {
-                                        BitSet populatedOrdinals = typeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
-    
-                                        int ordinal = populatedOrdinals.nextSetBit(0);
-                                        while(ordinal != -1) {
-                                            if(primaryKeyCopyDirector.shouldCopy(typeState, ordinal)) {
-                                                Object[] recordKey = indexes[i].getRecordKey(ordinal);
-    
-                                                for(int j=i+1;j<indexes.length;j++) {
-                                                    primaryKeyCopyDirector.excludeKey(indexes[j], recordKey);
-                                                }
-                                            }
-    
-                                            ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
-                                        }
-                                    }
-                                }
-
-                                primaryKeyIndexes.put(pk.getType(), indexes);
-                            }
+                            if(pk.getType().equals(schema.getName()))
+                                primaryKeyIndexes.put(pk.getType(), allPrimaryKeyIndexes.get(pk.getType()));
                         }
 
                         typesToProcessThisIteration.add(schema.getName());
@@ -362,6 +357,109 @@ public class HollowCombiner {
         executor.shutdown();
     }
 
+    private Map<String, HollowPrimaryKeyIndex[]> createPrimaryKeyIndexes(SimultaneousExecutor executor) {
+        Map<String, HollowPrimaryKeyIndex[]> primaryKeyIndexes = new HashMap<>();
+
+        for(final PrimaryKey pk : primaryKeys) {
+            if(ignoredTypes.contains(pk.getType()))
+                continue;
+
+            final HollowPrimaryKeyIndex[] indexes = new HollowPrimaryKeyIndex[inputs.length];
+            for(int i=0;i<indexes.length;i++) {
+                if(inputs[i].getTypeState(pk.getType()) != null) {
+                    indexes[i] = findSuppliedPrimaryKeyIndex(inputs[i], pk);
+                    if(indexes[i] == null) {
+                        final int inputIdx = i;
+                        executor.execute(() -> indexes[inputIdx] = new HollowPrimaryKeyIndex(inputs[inputIdx], pk));
+                    }
+                }
+            }
+
+            primaryKeyIndexes.put(pk.getType(), indexes);
+        }
+
+        try {
+            executor.awaitSuccessfulCompletionOfCurrentTasks();
+        } catch(Throwable th) {
+            throw new RuntimeException(th);
+        }
+
+        return primaryKeyIndexes;
+    }
+
+    private HollowPrimaryKeyIndex findSuppliedPrimaryKeyIndex(HollowReadStateEngine input, PrimaryKey pk) {
+        for(HollowPrimaryKeyIndex index : suppliedPrimaryKeyIndexes) {
+            if(index.getTypeState().getStateEngine() == input && index.getPrimaryKey().equals(pk))
+                return index;
+        }
+        return null;
+    }
+
+    /**
+     * Exclude each record which has the same primary key as a record in an input supplied earlier.
+     * <p>
+     * A record only excludes matching records if it is itself copied, but a record which is excluded by an earlier
+     * input would exclude only records which that earlier input already excludes.  So only the base copy director
+     * needs to be consulted, and all inputs can be processed at once, each by all threads.
+     */
+    private void excludeDuplicatePrimaryKeys(SimultaneousExecutor executor, Map<String, HollowPrimaryKeyIndex[]> primaryKeyIndexes, HollowCombinerExcludePrimaryKeysCopyDirector primaryKeyCopyDirector) {
+        final int numThreads = executor.getCorePoolSize();
+        Map<HollowTypeReadState, ThreadSafeBitSet> excludedOrdinals = new HashMap<>();
+
+        for(final HollowPrimaryKeyIndex[] indexes : primaryKeyIndexes.values()) {
+            final ThreadSafeBitSet[] excludedOrdinalsPerInput = new ThreadSafeBitSet[indexes.length];
+            for(int i=1;i<indexes.length;i++) {
+                if(indexes[i] != null) {
+                    excludedOrdinalsPerInput[i] = new ThreadSafeBitSet(ThreadSafeBitSet.DEFAULT_LOG2_SEGMENT_SIZE_IN_BITS, indexes[i].getTypeState().maxOrdinal() + 1);
+                    excludedOrdinals.put(indexes[i].getTypeState(), excludedOrdinalsPerInput[i]);
+                }
+            }
+
+            for(int i=0;i<indexes.length-1;i++) {
+                if(indexes[i] == null)
+                    continue;
+
+                final HollowPrimaryKeyIndex index = indexes[i];
+                final int inputIdx = i;
+                final BitSet populatedOrdinals = index.getTypeState().getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+
+                final int ordinalSpaceLength = populatedOrdinals.length();
+
+                for(int t=0;t<numThreads;t++) {
+                    final int fromOrdinal = (int)((long)ordinalSpaceLength * t / numThreads);
+                    final int toOrdinal = (int)((long)ordinalSpaceLength * (t + 1) / numThreads);
+                    executor.execute(() -> {
+                        int ordinal = populatedOrdinals.nextSetBit(fromOrdinal);
+                        while(ordinal != -1 && ordinal < toOrdinal) {
+                            if(copyDirector.shouldCopy(index.getTypeState(), ordinal)) {
+                                Object[] recordKey = index.getRecordKey(ordinal);
+
+                                for(int j=inputIdx+1;j<indexes.length;j++) {
+                                    if(indexes[j] != null) {
+                                        int matchingOrdinal = indexes[j].getMatchingOrdinal(recordKey);
+                                        if(matchingOrdinal != -1)
+                                            excludedOrdinalsPerInput[j].set(matchingOrdinal);
+                                    }
+                                }
+                            }
+
+                            ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
+                        }
+                    });
+                }
+            }
+        }
+
+        try {
+            executor.awaitSuccessfulCompletionOfCurrentTasks();
+        } catch(Throwable th) {
+            throw new RuntimeException(th);
+        }
+
+        for(Map.Entry<HollowTypeReadState, ThreadSafeBitSet> entry : excludedOrdinals.entrySet())
+            primaryKeyCopyDirector.excludeOrdinals(entry.getKey(), entry.getValue().toBitSet());
+    }
+
     private boolean isAnySelectedPrimaryKeyADependencyOf(String type, Set<PrimaryKey> selectedPrimaryKeys) {
         for(PrimaryKey selectedKey : selectedPrimaryKeys) {
             if(HollowSchemaSorter.typeIsTransitivelyDependent(output, type, selectedKey.getType()))
@@ -75,6 +75,21 @@ public class HollowCombinerExcludePrimaryKeysCopyDirector implements HollowCombi
         }
     }
     
+    /**
+     * Exclude the records with the specified ordinals.
+     *
+     * @param typeState the type state containing the records
+     * @param ordinals the ordinals to exclude
+     */
+    void excludeOrdinals(HollowTypeReadState typeState, BitSet ordinals) {
+        BitSet excludedOrdinals = this.excludedOrdinals.get(typeState);
+
+        if(excludedOrdinals == null)
+            this.excludedOrdinals.put(typeState, ordinals);
+        else
+            excludedOrdinals.or(ordinals);
+    }
+
     /**
      * Exclude any objects which are referenced by excluded objects.
      */
@@ -47,6 +47,9 @@ public class HollowDiff {
     private final HollowReadStateEngine toStateEngine;
 
     private final DiffEqualityMapping equalityMapping;
+    private final boolean isDeltaDiff;
+
+    private int maxRetainedDiffPairsPerField = -1;
 
     private final Map<String, HollowTypeDiff> typeDiffs = new LinkedHashMap<>();
 
@@ -73,14 +76,21 @@ public class HollowDiff {
      * @param isAutoDiscoverTypeDiff If true, all OBJECT types with a defined PrimaryKey will be configured to be diffed.
      */
     public HollowDiff(HollowReadStateEngine from, HollowReadStateEngine to, boolean isAutoDiscoverTypeDiff) {
+        this(from, to, new DiffEqualityMapping(from, to), false, isAutoDiscoverTypeDiff);
+    }
+
+    private HollowDiff(HollowReadStateEngine from, HollowReadStateEngine to, DiffEqualityMapping equalityMapping,
+            boolean isDeltaDiff, boolean isAutoDiscoverTypeDiff) {
         this.fromStateEngine = from;
         this.toStateEngine = to;
-        this.equalityMapping = new DiffEqualityMapping(from, to);
+        this.equalityMapping = equalityMapping;
+        this.isDeltaDiff = isDeltaDiff;
 
         if (isAutoDiscoverTypeDiff) { // Auto Discover TypeDiff from both from and to StateEngine
             List<HollowSchema> schemas = new ArrayList<>();
             schemas.addAll(fromStateEngine.getSchemas());
-            schemas.addAll(toStateEngine.getSchemas());
+            if (toStateEngine != fromStateEngine)
+                schemas.addAll(toStateEngine.getSchemas());
             for (HollowSchema schema : schemas) {
                 if (schema instanceof HollowObjectSchema) {
                     PrimaryKey pKey = ((HollowObjectSchema) schema).getPrimaryKey();
@@ -92,6 +102,40 @@ public class HollowDiff {
         }
     }
 
+    /**
+     * Instantiate a HollowDiff between the state a state engine was in before the most recent delta was applied
+     * to it, and its current state.  By default, all OBJECT types with a defined PrimaryKey will be configured to be
+     * diffed.
+     * <p>
+     * Records removed by a delta remain readable in the state engine until the next delta is applied, so both
+     * states can be read from a single state engine.  Only records which were removed or added by the delta are
+     * matched and traversed, and records referenced from both states are recognized as equal by ordinal, or, where
+     * the delta relocated them, by matching the removed records to the equal added records.  The cost of the diff is
+     * therefore proportional to the size of the delta, and only one copy of the data is held in memory.
+     * <p>
+     * The state engine must not be updated again until the diff has been calculated and inspected.  To diff across
+     * a chain of deltas, diff after each delta is applied.
+     *
+     * @param stateEngine a state engine to which a delta has just been applied
+     * @return the diff
+     */
+    public static HollowDiff forDelta(HollowReadStateEngine stateEngine) {
+        return forDelta(stateEngine, true);
+    }
+
+    /**
+     * Instantiate a HollowDiff between the state a state engine was in before the most recent delta was applied
+     * to it, and its current state.
+     *
+     * @param stateEngine a state engine to which a delta has just been applied
+     * @param isAutoDiscoverTypeDiff If true, all OBJECT types with a defined PrimaryKey will be configured to be diffed.
+     * @return the diff
+     * @see #forDelta(HollowReadStateEngine)
+     */
+    public static HollowDiff forDelta(HollowReadStateEngine stateEngine, boolean isAutoDiscoverTypeDiff) {
+        return new HollowDiff(stateEngine, stateEngine, new DiffEqualityMapping(stateEngine), true, isAutoDiscoverTypeDiff);
+    }
+
     /**
      * Add a type to be included in the diff report
      *
@@ -127,6 +171,37 @@ public class HollowDiff {
         return toStateEngine;
     }
 
+    /**
+     * @return true if this diff was created with {@link #forDelta(HollowReadStateEngine)}, in which case the from
+     * and to state engines are the same state engine
+     */
+    public boolean isDeltaDiff() {
+        return isDeltaDiff;
+    }
+
+    /**
+     * Bound the memory used to report the differences in each field.  Only the given number of highest scoring record
+     * pairs are retained for each field; all other record pairs are streamed through, and contribute only to the
+     * exact number of diffs and total diff score reported for the field.
+     * <p>
+     * Must be called before the diff is calculated.
+     *
+     * @param maxRetainedDiffPairsPerField the maximum number of record pairs to retain per field, or -1 (the default)
+     * to retain all of them
+     */
+    public void setMaxRetainedDiffPairsPerField(int maxRetainedDiffPairsPerField) {
+        if(maxRetainedDiffPairsPerField < -1)
+            throw new IllegalArgumentException("maxRetainedDiffPairsPerField must be -1 or greater");
+        this.maxRetainedDiffPairsPerField = maxRetainedDiffPairsPerField;
+    }
+
+    /**
+     * @return the maximum number of record pairs retained per field, or -1 if all of them are retained
+     */
+    public int getMaxRetainedDiffPairsPerField() {
+        return maxRetainedDiffPairsPerField;
+    }
+
     /**
      * Run the diff
      */
@@ -149,18 +224,22 @@ public class HollowDiff {
     }
 
     private void prepareForDiffCalculation() {
-        SimultaneousExecutor executor = new SimultaneousExecutor(1 + typeDiffs.size(), getClass(), "prepare");
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "prepare");
+        List<HollowTypeDiff> largeTypeDiffs = new ArrayList<HollowTypeDiff>();
 
-        executor.execute(() -> {
-            for(HollowTypeDiff typeDiff : typeDiffs.values()) {
-                equalityMapping.getEqualOrdinalMap(typeDiff.getTypeName());
-            }
-        });
+        executor.execute(() -> equalityMapping.buildEqualOrdinalMaps(typeDiffs.keySet()));
 
         for(final HollowTypeDiff typeDiff : typeDiffs.values()) {
-            executor.execute(typeDiff::calculateMatches);
+            if(typeDiff.calculatesMatchesInParallel())
+                largeTypeDiffs.add(typeDiff);
+            else
+                executor.execute(typeDiff::calculateMatches);
         }
 
+        // large types are matched one at a time, each using all cores, alongside the small types
+        for(HollowTypeDiff typeDiff : largeTypeDiffs)
+            typeDiff.calculateMatches();
+
         try {
             executor.awaitSuccessfulCompletion();
         } catch (InterruptedException | ExecutionException e) {
@@ -17,13 +17,20 @@
 package com.netflix.hollow.tools.diff;
 
 import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.index.key.HollowPrimaryKeyValueDeriver;
+import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.core.util.LongList;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Intended for use in the context of a HollowDiff.
@@ -32,6 +39,11 @@ import java.util.List;
  */
 public class HollowDiffMatcher {
 
+    /**
+     * Types with fewer populated ordinals than this, across both states, are matched on a single thread.
+     */
+    public static final int MIN_ORDINALS_TO_MATCH_IN_PARALLEL = 1 << 16;
+
     private final List<String> matchPaths;
 
     private final HollowObjectTypeReadState fromTypeState;
@@ -44,6 +56,9 @@ public class HollowDiffMatcher {
     private HollowPrimaryKeyIndex fromIdx;
     private HollowPrimaryKeyIndex toIdx;
 
+    private HollowPrimaryKeyValueDeriver keyDeriver;
+    private int numUnchangedMatches;
+
     public HollowDiffMatcher(HollowObjectTypeReadState fromTypeState, HollowObjectTypeReadState toTypeState) {
         this.matchPaths = new ArrayList<String>();
         this.fromTypeState = fromTypeState;
@@ -61,36 +76,170 @@ public class HollowDiffMatcher {
         return matchPaths;
     }
 
+    /**
+     * Match the records of the from and to type states by primary key.
+     * <p>
+     * If the type is large (see {@link #matchesInParallel()}), the primary key indexes for both states are built
+     * concurrently, and the populated ordinals in the to state are then partitioned into contiguous ranges which are
+     * matched in parallel.  The results of each range are appended in ordinal order, so the outcome is the same as
+     * matching sequentially.
+     */
     public void calculateMatches() {
-        fromIdx = new HollowPrimaryKeyIndex(fromTypeState.getStateEngine(), fromTypeState.getSchema().getName(), matchPaths.toArray(new String[matchPaths.size()]));
-        toIdx = new HollowPrimaryKeyIndex(toTypeState.getStateEngine(), toTypeState.getSchema().getName(), matchPaths.toArray(new String[matchPaths.size()]));
+        calculateMatches(matchesInParallel() ? Runtime.getRuntime().availableProcessors() * 4 : 1);
+    }
+
+    /**
+     * @return whether {@link #calculateMatches()} will spread the matching of this type across all cores, which is
+     * only worthwhile for types with at least {@link #MIN_ORDINALS_TO_MATCH_IN_PARALLEL} populated ordinals across
+     * both states
+     */
+    public boolean matchesInParallel() {
+        return numPopulatedOrdinals(fromTypeState) + numPopulatedOrdinals(toTypeState) >= MIN_ORDINALS_TO_MATCH_IN_PARALLEL;
+    }
+
+    void calculateMatches(int numRanges) {
+        final String[] fieldPaths = matchPaths.toArray(new String[matchPaths.size()]);
+        final BitSet toPopulatedOrdinals = toTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+
+        int rangeSize = Math.max(1, (toPopulatedOrdinals.length() + numRanges - 1) / numRanges);
+        final LongList[] rangeMatches = new LongList[numRanges];
+        final IntList[] rangeExtraInTo = new IntList[numRanges];
+
+        if(numRanges == 1) {
+            fromIdx = new HollowPrimaryKeyIndex(fromTypeState.getStateEngine(), fromTypeState.getSchema().getName(), fieldPaths);
+            toIdx = new HollowPrimaryKeyIndex(toTypeState.getStateEngine(), toTypeState.getSchema().getName(), fieldPaths);
+            matchRange(toPopulatedOrdinals, 0, Integer.MAX_VALUE, rangeMatches, rangeExtraInTo, 0);
+        } else {
+            SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "calculate-matches");
+            try {
+                executor.execute(() -> fromIdx = new HollowPrimaryKeyIndex(fromTypeState.getStateEngine(), fromTypeState.getSchema().getName(), fieldPaths));
+                executor.execute(() -> toIdx = new HollowPrimaryKeyIndex(toTypeState.getStateEngine(), toTypeState.getSchema().getName(), fieldPaths));
+                awaitCurrentTasks(executor);
+
+                for(int i=0;i<numRanges;i++) {
+                    final int range = i;
+                    final int fromToOrdinal = i * rangeSize;
+                    final int untilToOrdinal = fromToOrdinal + rangeSize;
+
+                    executor.execute(() -> matchRange(toPopulatedOrdinals, fromToOrdinal, untilToOrdinal, rangeMatches, rangeExtraInTo, range));
+                }
+
+                awaitCurrentTasks(executor);
+            } finally {
+                executor.shutdown();
+            }
+        }
 
         BitSet fromPopulatedOrdinals = fromTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
         BitSet fromUnmatchedOrdinals = new BitSet(fromPopulatedOrdinals.length());
         fromUnmatchedOrdinals.or(fromPopulatedOrdinals);
 
-        BitSet toPopulatedOrdinals = toTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+        for(int i=0;i<numRanges;i++) {
+            LongList matches = rangeMatches[i];
+            for(int j=0;j<matches.size();j++) {
+                matchedOrdinals.add(matches.get(j));
+                fromUnmatchedOrdinals.clear((int)(matches.get(j) >> 32));
+            }
+            extraInTo.addAll(rangeExtraInTo[i]);
+        }
+
+        int unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(0);
+        while(unmatchedFromOrdinal != -1) {
+            extraInFrom.add(unmatchedFromOrdinal);
+            unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(unmatchedFromOrdinal + 1);
+        }
+    }
+
+    /*
+     * Match the populated to ordinals in [fromToOrdinal, untilToOrdinal), recording the results for the given range.
+     */
+    private void matchRange(BitSet toPopulatedOrdinals, int fromToOrdinal, int untilToOrdinal, LongList[] rangeMatches, IntList[] rangeExtraInTo, int range) {
+        LongList matches = new LongList();
+        IntList extra = new IntList();
 
-        int candidateToMatchOrdinal = toPopulatedOrdinals.nextSetBit(0);
-        while(candidateToMatchOrdinal != -1) {
+        int candidateToMatchOrdinal = toPopulatedOrdinals.nextSetBit(fromToOrdinal);
+        while(candidateToMatchOrdinal != -1 && candidateToMatchOrdinal < untilToOrdinal) {
             Object key[] = toIdx.getRecordKey(candidateToMatchOrdinal);
             int matchedOrdinal = fromIdx.getMatchingOrdinal(key);
 
-            if(matchedOrdinal != -1) {
-                matchedOrdinals.add(((long)matchedOrdinal << 32) | candidateToMatchOrdinal);
-                fromUnmatchedOrdinals.clear(matchedOrdinal);
-            } else {
-                extraInTo.add(candidateToMatchOrdinal);
-            }
+            if(matchedOrdinal != -1)
+                matches.add(((long)matchedOrdinal << 32) | candidateToMatchOrdinal);
+            else
+                extra.add(candidateToMatchOrdinal);
 
             candidateToMatchOrdinal = toPopulatedOrdinals.nextSetBit(candidateToMatchOrdinal + 1);
         }
 
-        int unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(0);
-        while(unmatchedFromOrdinal != -1) {
-            extraInFrom.add(unmatchedFromOrdinal);
-            unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(unmatchedFromOrdinal + 1);
+        rangeMatches[range] = matches;
+        rangeExtraInTo[range] = extra;
+    }
+
+    private static int numPopulatedOrdinals(HollowObjectTypeReadState typeState) {
+        if(typeState == null)
+            return 0;
+        return typeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals().cardinality();
+    }
+
+    private static void awaitCurrentTasks(SimultaneousExecutor executor) {
+        try {
+            executor.awaitSuccessfulCompletionOfCurrentTasks();
+        } catch (InterruptedException | ExecutionException e) {
+            executor.shutdownNow();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Match the records of a type state which changed in the delta most recently applied to its state engine.  The
+     * from and to type states must be the same type state.
+     * <p>
+     * Records whose ordinals were populated both before and after the delta are unchanged, and are only counted
+     * (see {@link #getNumUnchangedMatches()}).  Only the removed and added ordinals are keyed and matched, so the
+     * cost of matching is proportional to the size of the delta rather than the size of the type.
+     */
+    public void calculateDeltaMatches() {
+        if(fromTypeState != toTypeState)
+            throw new IllegalStateException("delta matches require the same from and to type state");
+
+        String type = toTypeState.getSchema().getName();
+        keyDeriver = new HollowPrimaryKeyValueDeriver(new PrimaryKey(type, matchPaths.toArray(new String[matchPaths.size()])), toTypeState.getStateEngine());
+
+        PopulatedOrdinalListener listener = toTypeState.getListener(PopulatedOrdinalListener.class);
+        BitSet previousOrdinals = listener.getPreviousOrdinals();
+        BitSet populatedOrdinals = listener.getPopulatedOrdinals();
+
+        BitSet removedOrdinals = (BitSet)previousOrdinals.clone();
+        removedOrdinals.andNot(populatedOrdinals);
+        BitSet addedOrdinals = (BitSet)populatedOrdinals.clone();
+        addedOrdinals.andNot(previousOrdinals);
+
+        numUnchangedMatches = previousOrdinals.cardinality() - removedOrdinals.cardinality();
+
+        Map<RecordKey, Integer> addedOrdinalsByKey = new HashMap<RecordKey, Integer>();
+        for(int ordinal = addedOrdinals.nextSetBit(0); ordinal != -1; ordinal = addedOrdinals.nextSetBit(ordinal + 1))
+            addedOrdinalsByKey.put(new RecordKey(keyDeriver.getRecordKey(ordinal)), ordinal);
+
+        for(int ordinal = removedOrdinals.nextSetBit(0); ordinal != -1; ordinal = removedOrdinals.nextSetBit(ordinal + 1)) {
+            Integer matchedOrdinal = addedOrdinalsByKey.get(new RecordKey(keyDeriver.getRecordKey(ordinal)));
+
+            if(matchedOrdinal != null) {
+                matchedOrdinals.add(((long)ordinal << 32) | matchedOrdinal);
+                addedOrdinals.clear(matchedOrdinal);
+            } else {
+                extraInFrom.add(ordinal);
+            }
         }
+
+        for(int ordinal = addedOrdinals.nextSetBit(0); ordinal != -1; ordinal = addedOrdinals.nextSetBit(ordinal + 1))
+            extraInTo.add(ordinal);
+    }
+
+    /**
+     * @return the number of records which were matched but not listed in {@link #getMatchedOrdinals()}, because
+     * matches were calculated with {@link #calculateDeltaMatches()} and the record was unchanged by the delta
+     */
+    public int getNumUnchangedMatches() {
+        return numUnchangedMatches;
     }
 
     public LongList getMatchedOrdinals() {
@@ -108,7 +257,9 @@ public class HollowDiffMatcher {
     public String getKeyDisplayString(HollowObjectTypeReadState state, int ordinal) {
         Object[] key = null;
 
-        if(state == fromTypeState) {
+        if(keyDeriver != null && state == toTypeState) {
+            key = keyDeriver.getRecordKey(ordinal);
+        } else if(state == fromTypeState) {
             key = fromIdx.getRecordKey(ordinal);
         } else if(state == toTypeState) {
             key = toIdx.getRecordKey(ordinal);
@@ -131,4 +282,24 @@ public class HollowDiffMatcher {
         return sb.toString();
     }
 
+    private static class RecordKey {
+        private final Object[] key;
+        private final int hashCode;
+
+        RecordKey(Object[] key) {
+            this.key = key;
+            this.hashCode = Arrays.deepHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RecordKey && Arrays.deepEquals(key, ((RecordKey)other).key);
+        }
+    }
+
 }
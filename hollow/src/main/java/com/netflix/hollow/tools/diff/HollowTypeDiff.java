@@ -16,6 +16,7 @@
  */
 package com.netflix.hollow.tools.diff;
 
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.core.util.LongList;
@@ -23,7 +24,7 @@ import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.tools.diff.count.HollowDiffCountingNode;
 import com.netflix.hollow.tools.diff.count.HollowDiffObjectCountingNode;
 import com.netflix.hollow.tools.diff.count.HollowFieldDiff;
-import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalLookup;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -32,11 +33,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Obtained via a {@link HollowDiff}, this is a report of the differences in a specific type between two data states.
  */
 public class HollowTypeDiff {
+    private static final int MATCH_BATCH_SIZE = 256;
+
     private final HollowDiff rootDiff;
     private final HollowObjectTypeReadState from;
     private final HollowObjectTypeReadState to;
@@ -106,7 +110,7 @@ public class HollowTypeDiff {
      * @return the total number of matched records (based on primary key)
      */
     public int getTotalNumberOfMatches() {
-        return matcher.getMatchedOrdinals().size();
+        return matcher.getMatchedOrdinals().size() + matcher.getNumUnchangedMatches();
     }
 
     /**
@@ -139,6 +143,8 @@ public class HollowTypeDiff {
      */
     public int getTotalItemsInFromState() {
         if (from == null) return 0;
+        if (rootDiff.isDeltaDiff())
+            return from.getListener(PopulatedOrdinalListener.class).getPreviousOrdinals().cardinality();
         return from.getPopulatedOrdinals().cardinality();
     }
 
@@ -167,7 +173,17 @@ public class HollowTypeDiff {
     }
 
     void calculateMatches() {
-        matcher.calculateMatches();
+        if(rootDiff.isDeltaDiff())
+            matcher.calculateDeltaMatches();
+        else
+            matcher.calculateMatches();
+    }
+
+    /**
+     * @return whether {@link #calculateMatches()} will itself spread its work across all cores
+     */
+    boolean calculatesMatchesInParallel() {
+        return !rootDiff.isDeltaDiff() && matcher.matchesInParallel();
     }
 
     @SuppressWarnings("unchecked")
@@ -180,6 +196,10 @@ public class HollowTypeDiff {
 
         final List<HollowFieldDiff>results[] = new List[numThreads];
 
+        // matched pairs are claimed in batches rather than striped across threads, so that a thread which draws
+        // pairs with deep hierarchies does not hold up the others
+        final AtomicInteger nextBatch = new AtomicInteger();
+
         for(int i=0;i<numThreads;i++) {
             final int threadId = i;
 
@@ -189,21 +209,26 @@ public class HollowTypeDiff {
                     DiffEqualityMapping equalityMapping = rootDiff.getEqualityMapping();
                     HollowDiffCountingNode rootNode = new HollowDiffObjectCountingNode(rootDiff, HollowTypeDiff.this, rootId, from, to);
 
-                    DiffEqualOrdinalMap rootNodeOrdinalMap = equalityMapping.getEqualOrdinalMap(type);
+                    DiffEqualOrdinalLookup rootNodeOrdinalMap = equalityMapping.getEqualOrdinalLookup(type);
                     boolean requiresMissingFieldTraversal = equalityMapping.requiresMissingFieldTraversal(type);
 
                     LongList matches = matcher.getMatchedOrdinals();
-                    for(int i=threadId;i<matches.size();i+=numThreads) {
-                        int fromOrdinal = (int)(matches.get(i) >> 32);
-                        int toOrdinal = (int)matches.get(i);
-
-                        if(rootNodeOrdinalMap.getIdentityFromOrdinal(fromOrdinal) == -1
-                                || rootNodeOrdinalMap.getIdentityFromOrdinal(fromOrdinal) != rootNodeOrdinalMap.getIdentityToOrdinal(toOrdinal)) {
-                            rootNode.prepare(fromOrdinal, toOrdinal);
-                            rootNode.traverseDiffs(fromIntList(fromOrdinal), toIntList(toOrdinal));
-                        } else if(requiresMissingFieldTraversal) {
-                            rootNode.prepare(fromOrdinal, toOrdinal);
-                            rootNode.traverseMissingFields(fromIntList(fromOrdinal), toIntList(toOrdinal));
+                    int batchStart;
+                    while((batchStart = nextBatch.getAndAdd(MATCH_BATCH_SIZE)) < matches.size()) {
+                        int batchEnd = Math.min(batchStart + MATCH_BATCH_SIZE, matches.size());
+
+                        for(int i=batchStart;i<batchEnd;i++) {
+                            int fromOrdinal = (int)(matches.get(i) >> 32);
+                            int toOrdinal = (int)matches.get(i);
+
+                            if(rootNodeOrdinalMap.getIdentityFromOrdinal(fromOrdinal) == -1
+                                    || rootNodeOrdinalMap.getIdentityFromOrdinal(fromOrdinal) != rootNodeOrdinalMap.getIdentityToOrdinal(toOrdinal)) {
+                                rootNode.prepare(fromOrdinal, toOrdinal);
+                                rootNode.traverseDiffs(fromIntList(fromOrdinal), toIntList(toOrdinal));
+                            } else if(requiresMissingFieldTraversal) {
+                                rootNode.prepare(fromOrdinal, toOrdinal);
+                                rootNode.traverseMissingFields(fromIntList(fromOrdinal), toIntList(toOrdinal));
+                            }
                         }
                     }
 
@@ -250,7 +275,10 @@ public class HollowTypeDiff {
         }
 
         List<HollowFieldDiff> combinedResults = new ArrayList<HollowFieldDiff>();
-        combinedResults.addAll(combinedResultsMap.values());
+        for(HollowFieldDiff combinedResult : combinedResultsMap.values()) {
+            combinedResult.finishCounting();
+            combinedResults.add(combinedResult);
+        }
         return combinedResults;
     }
 
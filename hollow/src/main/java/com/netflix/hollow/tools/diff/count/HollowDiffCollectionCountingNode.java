@@ -53,7 +53,7 @@ public class HollowDiffCollectionCountingNode extends HollowDiffCountingNode {
 
         this.elementNode = getHollowDiffCountingNode(refFromState, refToState, "element");
 
-        this.referenceFilter = new DiffEqualOrdinalFilter(equalityMapping.getEqualOrdinalMap(referencedType));
+        this.referenceFilter = new DiffEqualOrdinalFilter(equalityMapping.getEqualOrdinalLookup(referencedType));
         this.requiresTraversalForMissingFields = equalityMapping.requiresMissingFieldTraversal(referencedType);
     }
 
@@ -64,7 +64,7 @@ public class HollowDiffFieldCountingNode extends HollowDiffCountingNode {
         String fieldName = unionSchema.getFieldName(unionFieldIndex);
         this.fromFieldIndex = fromState == null ? -1 : fromState.getSchema().getPosition(fieldName);
         this.toFieldIndex = toState == null ? -1 : toState.getSchema().getPosition(fieldName);
-        this.fieldDiff = new HollowFieldDiff(nodeId);
+        this.fieldDiff = new HollowFieldDiff(nodeId, diff.getMaxRetainedDiffPairsPerField());
 
         this.hashedOrdinals = new int[16];
         this.ordinalHashCodes = new int[16];
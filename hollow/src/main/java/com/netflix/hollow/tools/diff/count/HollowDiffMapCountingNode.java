@@ -62,8 +62,8 @@ public class HollowDiffMapCountingNode extends HollowDiffCountingNode {
         String keyType = fromState != null ? fromState.getSchema().getKeyType() : toState.getSchema().getKeyType();
         String valueType = fromState != null ? fromState.getSchema().getValueType() : toState.getSchema().getValueType();
 
-        this.keyFilter = new DiffEqualOrdinalFilter(equalityMapping.getEqualOrdinalMap(keyType));
-        this.valueFilter = new DiffEqualOrdinalFilter(equalityMapping.getEqualOrdinalMap(valueType));
+        this.keyFilter = new DiffEqualOrdinalFilter(equalityMapping.getEqualOrdinalLookup(keyType));
+        this.valueFilter = new DiffEqualOrdinalFilter(equalityMapping.getEqualOrdinalLookup(valueType));
         this.keyRequiresTraversalForMissingFields = equalityMapping.requiresMissingFieldTraversal(keyType);
         this.valueRequiresTraversalForMissingFields = equalityMapping.requiresMissingFieldTraversal(valueType);
     }
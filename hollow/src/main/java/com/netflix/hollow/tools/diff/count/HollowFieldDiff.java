@@ -20,24 +20,40 @@ import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.tools.diff.HollowDiff;
 import com.netflix.hollow.tools.diff.HollowDiffNodeIdentifier;
 import com.netflix.hollow.tools.diff.HollowTypeDiff;
+import java.util.Arrays;
 
 /**
  * Obtained via a {@link HollowTypeDiff}, this is a report of the differences in a specific field between two data states. 
- * 
+ * <p>
+ * If a maximum number of retained diff pairs was configured (see {@link HollowDiff#setMaxRetainedDiffPairsPerField(int)}),
+ * only the highest scoring record pairs are retained, in descending order of score.  The number of diffs and the
+ * total diff score are always exact.
  */
 public class HollowFieldDiff implements Comparable<HollowFieldDiff> {
     private final HollowDiffNodeIdentifier fieldIdentifier;
     private final IntList diffFromOrdinals;
     private final IntList diffToOrdinals;
     private final IntList diffPairScores;
+    private final int maxRetainedDiffPairs;
 
+    private int numDiffs;
     private long totalDiffScore;
+    private boolean retainedDiffPairsTrimmed = true;
 
     public HollowFieldDiff(HollowDiffNodeIdentifier fieldIdentifier) {
+        this(fieldIdentifier, -1);
+    }
+
+    /**
+     * @param fieldIdentifier the identifier for the field
+     * @param maxRetainedDiffPairs the maximum number of record pairs to retain, or -1 to retain all of them
+     */
+    public HollowFieldDiff(HollowDiffNodeIdentifier fieldIdentifier, int maxRetainedDiffPairs) {
         this.diffFromOrdinals = new IntList();
         this.diffToOrdinals = new IntList();
         this.diffPairScores = new IntList();
         this.fieldIdentifier = fieldIdentifier;
+        this.maxRetainedDiffPairs = maxRetainedDiffPairs;
     }
 
     /**
@@ -52,14 +68,79 @@ public class HollowFieldDiff implements Comparable<HollowFieldDiff> {
             int scoreIdx = diffPairScores.size() - 1;
             diffPairScores.set(scoreIdx, diffPairScores.get(scoreIdx) + score);
         } else {
-            diffFromOrdinals.add(fromOrdinal);
-            diffToOrdinals.add(toOrdinal);
-            diffPairScores.add(score);
+            appendDiffPair(fromOrdinal, toOrdinal, score);
+            numDiffs++;
         }
 
         totalDiffScore += score;
     }
 
+    private void appendDiffPair(int fromOrdinal, int toOrdinal, int score) {
+        if(isBounded() && diffPairScores.size() >= maxRetainedDiffPairs * 2)
+            retainHighestScoringPairs();
+
+        diffFromOrdinals.add(fromOrdinal);
+        diffToOrdinals.add(toOrdinal);
+        diffPairScores.add(score);
+        retainedDiffPairsTrimmed = false;
+    }
+
+    private boolean isBounded() {
+        return maxRetainedDiffPairs >= 0;
+    }
+
+    /**
+     * Discards all but the highest scoring pairs, leaving them in descending order of score.  Up to twice the maximum
+     * number of pairs are buffered between calls, so the cost of discarding is amortized across many additions.
+     * <p>
+     * This is only called before a new pair is added, or once all pairs have been added, so no pair is still
+     * accumulating score when it is considered.
+     */
+    private void retainHighestScoringPairs() {
+        int size = diffPairScores.size();
+        int retain = Math.min(maxRetainedDiffPairs, size);
+
+        long sortKeys[] = new long[size];
+        for(int i=0;i<size;i++) {
+            // within equal scores, pairs which were added earlier are retained first
+            sortKeys[i] = ((long)diffPairScores.get(i) << 32) | (Integer.MAX_VALUE - i);
+        }
+        Arrays.sort(sortKeys);
+
+        int retainedFrom[] = new int[retain];
+        int retainedTo[] = new int[retain];
+        int retainedScores[] = new int[retain];
+        for(int i=0;i<retain;i++) {
+            int idx = Integer.MAX_VALUE - (int)sortKeys[size - 1 - i];
+            retainedFrom[i] = diffFromOrdinals.get(idx);
+            retainedTo[i] = diffToOrdinals.get(idx);
+            retainedScores[i] = diffPairScores.get(idx);
+        }
+
+        diffFromOrdinals.clear();
+        diffToOrdinals.clear();
+        diffPairScores.clear();
+        for(int i=0;i<retain;i++) {
+            diffFromOrdinals.add(retainedFrom[i]);
+            diffToOrdinals.add(retainedTo[i]);
+            diffPairScores.add(retainedScores[i]);
+        }
+
+        retainedDiffPairsTrimmed = true;
+    }
+
+    /**
+     * Should be called exclusively from the {@link HollowDiff}, once all diffs have been added -- not intended for
+     * external consumption.
+     * <p>
+     * Discards all but the highest scoring retained pairs, if a maximum was configured.  The retained pairs are not
+     * modified afterwards, so they may be read concurrently.
+     */
+    public void finishCounting() {
+        if(isBounded() && !retainedDiffPairsTrimmed)
+            retainHighestScoringPairs();
+    }
+
     private boolean isSameDiffAsLastAdd(int fromOrdinal, int toOrdinal) {
         return diffFromOrdinals.size() > 0
                 && diffFromOrdinals.get(diffFromOrdinals.size() - 1) == fromOrdinal
@@ -84,11 +165,20 @@ public class HollowFieldDiff implements Comparable<HollowFieldDiff> {
      * @return the number of records which had at least one diff for this field.
      */
     public int getNumDiffs() {
+        return numDiffs;
+    }
+
+    /**
+     * @return the number of record pairs for which details are retained.  This is the same as {@link #getNumDiffs()},
+     * unless a maximum number of retained diff pairs was configured, in which case the pairs are only trimmed to that
+     * maximum by {@link #finishCounting()}.
+     */
+    public int getNumRetainedDiffs() {
         return diffToOrdinals.size();
     }
 
     /**
-     * @param diffPairIdx a number from 0-n, where n is the value returned from numDiffs
+     * @param diffPairIdx a number from 0-n, where n is the value returned from numRetainedDiffs
      * @return the from ordinal for the (diffPairIdx)th record pair in which there were differences for this field.
      */
     public int getFromOrdinal(int diffPairIdx) {
@@ -96,7 +186,7 @@ public class HollowFieldDiff implements Comparable<HollowFieldDiff> {
     }
 
     /**
-     * @param diffPairIdx a number from 0-n, where n is the value returned from numDiffs
+     * @param diffPairIdx a number from 0-n, where n is the value returned from numRetainedDiffs
      * @return the to ordinal for the (diffPairIdx)th record pair in which there were differences for this field.
      */
     public int getToOrdinal(int diffPairIdx) {
@@ -104,7 +194,7 @@ public class HollowFieldDiff implements Comparable<HollowFieldDiff> {
     }
 
     /**
-     * @param diffPairIdx a number from 0-n, where n is the value returned from numDiffs
+     * @param diffPairIdx a number from 0-n, where n is the value returned from numRetainedDiffs
      * @return the score of the diff for this field in the (diffPairIdx)th record pair in which there were differences for this field.
      */
     public int getPairScore(int diffPairIdx) {
@@ -116,9 +206,15 @@ public class HollowFieldDiff implements Comparable<HollowFieldDiff> {
      * @param otherFieldDiff the field diff to add
      */
     public void addResults(HollowFieldDiff otherFieldDiff) {
-        for(int i=0;i<otherFieldDiff.getNumDiffs();i++) {
-            addDiff(otherFieldDiff.getFromOrdinal(i), otherFieldDiff.getToOrdinal(i), otherFieldDiff.getPairScore(i));
+        otherFieldDiff.finishCounting();
+
+        // record pairs are never split across field diffs, so there is nothing to accumulate into an existing pair
+        for(int i=0;i<otherFieldDiff.getNumRetainedDiffs();i++) {
+            appendDiffPair(otherFieldDiff.getFromOrdinal(i), otherFieldDiff.getToOrdinal(i), otherFieldDiff.getPairScore(i));
         }
+
+        numDiffs += otherFieldDiff.getNumDiffs();
+        totalDiffScore += otherFieldDiff.getTotalDiffScore();
     }
 
     /**
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.diff.exact;
+
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.MatchIterator;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.OrdinalIdentityTranslator;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.SingleMatchIterator;
+
+/**
+ * Not intended for external consumption.
+ * <p>
+ * Maps the ordinals of a type in a single state to which a delta has been applied.  Records removed by the delta
+ * are mapped to the equal records added by the delta, which is how the delta relocates records, for example when a
+ * compaction moves them to lower ordinals.  All other ordinals are mapped to the same ordinal.
+ */
+public final class DiffEqualOrdinalDeltaMap implements DiffEqualOrdinalLookup {
+
+    private final DiffEqualOrdinalMap removedToAddedOrdinalMap;
+
+    private final OrdinalIdentityTranslator fromIdentityTranslator = new OrdinalIdentityTranslator() {
+        public int getIdentityOrdinal(int ordinal) {
+            return getIdentityFromOrdinal(ordinal);
+        }
+    };
+
+    private final OrdinalIdentityTranslator toIdentityTranslator = new OrdinalIdentityTranslator() {
+        public int getIdentityOrdinal(int ordinal) {
+            return getIdentityToOrdinal(ordinal);
+        }
+    };
+
+    /**
+     * @param removedToAddedOrdinalMap the map from the ordinals removed by the delta to the equal ordinals added by it
+     */
+    public DiffEqualOrdinalDeltaMap(DiffEqualOrdinalMap removedToAddedOrdinalMap) {
+        this.removedToAddedOrdinalMap = removedToAddedOrdinalMap;
+    }
+
+    @Override
+    public MatchIterator getEqualOrdinals(int fromOrdinal) {
+        if(removedToAddedOrdinalMap.getIdentityFromOrdinal(fromOrdinal) != -1)
+            return removedToAddedOrdinalMap.getEqualOrdinals(fromOrdinal);
+        return new SingleMatchIterator(fromOrdinal);
+    }
+
+    @Override
+    public int getIdentityFromOrdinal(int fromOrdinal) {
+        int identity = removedToAddedOrdinalMap.getIdentityFromOrdinal(fromOrdinal);
+        return identity == -1 ? fromOrdinal : identity;
+    }
+
+    @Override
+    public int getIdentityToOrdinal(int toOrdinal) {
+        int identity = removedToAddedOrdinalMap.getIdentityToOrdinal(toOrdinal);
+        return identity == -1 ? toOrdinal : identity;
+    }
+
+    @Override
+    public OrdinalIdentityTranslator getFromOrdinalIdentityTranslator() {
+        return fromIdentityTranslator;
+    }
+
+    @Override
+    public OrdinalIdentityTranslator getToOrdinalIdentityTranslator() {
+        return toIdentityTranslator;
+    }
+
+}
@@ -25,7 +25,7 @@ import java.util.Arrays;
  */
 public class DiffEqualOrdinalFilter {
 
-    private final DiffEqualOrdinalMap equalOrdinalMap;
+    private final DiffEqualOrdinalLookup equalOrdinalMap;
     private final IntList matchedFromOrdinals;
     private final IntList matchedToOrdinals;
     private final IntList unmatchedFromOrdinals;
@@ -36,6 +36,10 @@ public class DiffEqualOrdinalFilter {
     private int matchedOrdinalsCounts[];
 
     public DiffEqualOrdinalFilter(DiffEqualOrdinalMap equalityMapping) {
+        this((DiffEqualOrdinalLookup)equalityMapping);
+    }
+
+    public DiffEqualOrdinalFilter(DiffEqualOrdinalLookup equalityMapping) {
         this.equalOrdinalMap = equalityMapping;
         this.matchedFromOrdinals = new IntList();
         this.matchedToOrdinals = new IntList();
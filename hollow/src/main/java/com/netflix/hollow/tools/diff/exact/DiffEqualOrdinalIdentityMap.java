@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.diff.exact;
+
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.MatchIterator;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.OrdinalIdentityTranslator;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.SingleMatchIterator;
+
+/**
+ * Not intended for external consumption.
+ * <p>
+ * Maps each ordinal to the same ordinal, for use when the from and to records are read from a single state.
+ */
+public final class DiffEqualOrdinalIdentityMap implements DiffEqualOrdinalLookup {
+
+    public static final DiffEqualOrdinalIdentityMap INSTANCE = new DiffEqualOrdinalIdentityMap();
+
+    private static final OrdinalIdentityTranslator IDENTITY_TRANSLATOR = new OrdinalIdentityTranslator() {
+        public int getIdentityOrdinal(int ordinal) {
+            return ordinal;
+        }
+    };
+
+    private DiffEqualOrdinalIdentityMap() { }
+
+    @Override
+    public MatchIterator getEqualOrdinals(int fromOrdinal) {
+        return new SingleMatchIterator(fromOrdinal);
+    }
+
+    @Override
+    public int getIdentityFromOrdinal(int fromOrdinal) {
+        return fromOrdinal;
+    }
+
+    @Override
+    public int getIdentityToOrdinal(int toOrdinal) {
+        return toOrdinal;
+    }
+
+    @Override
+    public OrdinalIdentityTranslator getFromOrdinalIdentityTranslator() {
+        return IDENTITY_TRANSLATOR;
+    }
+
+    @Override
+    public OrdinalIdentityTranslator getToOrdinalIdentityTranslator() {
+        return IDENTITY_TRANSLATOR;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.diff.exact;
+
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.MatchIterator;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.OrdinalIdentityTranslator;
+
+/**
+ * Not intended for external consumption.
+ * <p>
+ * The read-only view of the records in a "from" state which are equal to records in a "to" state, for a single type.
+ */
+public interface DiffEqualOrdinalLookup {
+
+    MatchIterator getEqualOrdinals(int fromOrdinal);
+
+    int getIdentityFromOrdinal(int fromOrdinal);
+
+    int getIdentityToOrdinal(int toOrdinal);
+
+    OrdinalIdentityTranslator getFromOrdinalIdentityTranslator();
+
+    OrdinalIdentityTranslator getToOrdinalIdentityTranslator();
+
+}
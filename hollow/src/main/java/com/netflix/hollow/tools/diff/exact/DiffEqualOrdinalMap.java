@@ -23,7 +23,7 @@ import java.util.Arrays;
 /**
  * Not intended for external consumption.
  */
-public class DiffEqualOrdinalMap {
+public class DiffEqualOrdinalMap implements DiffEqualOrdinalLookup {
 
     public static final DiffEqualOrdinalMap EMPTY_MAP = new DiffEqualOrdinalMap(0);
 
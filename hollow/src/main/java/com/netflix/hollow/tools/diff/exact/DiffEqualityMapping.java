@@ -19,19 +19,32 @@ package com.netflix.hollow.tools.diff.exact;
 import com.netflix.hollow.core.read.engine.HollowCollectionTypeReadState;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.read.engine.list.HollowListTypeReadState;
 import com.netflix.hollow.core.read.engine.map.HollowMapTypeReadState;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.schema.HollowCollectionSchema;
+import com.netflix.hollow.core.schema.HollowMapSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSchemaSorter;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.tools.diff.HollowDiff;
 import com.netflix.hollow.tools.diff.exact.mapper.DiffEqualityCollectionMapper;
 import com.netflix.hollow.tools.diff.exact.mapper.DiffEqualityMapMapper;
 import com.netflix.hollow.tools.diff.exact.mapper.DiffEqualityObjectMapper;
 import com.netflix.hollow.tools.diff.exact.mapper.DiffEqualityOrderedListMapper;
 import com.netflix.hollow.tools.diff.exact.mapper.DiffEqualityTypeMapper;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 /**
@@ -44,14 +57,21 @@ import java.util.logging.Logger;
  */
 public class DiffEqualityMapping {
 
+    /**
+     * Types with fewer populated ordinals than this, across both states, are each mapped on a single thread.
+     */
+    private static final int MIN_ORDINALS_TO_MAP_IN_PARALLEL = 1 << 16;
+
     private final Logger log = Logger.getLogger(DiffEqualityMapping.class.getName());
     private final HollowReadStateEngine fromState;
     private final HollowReadStateEngine toState;
     private final boolean oneToOne;
     private final boolean listOrderingIsImportant;
+    private final boolean singleState;
 
-    private final Map<String, DiffEqualOrdinalMap> map = new HashMap<String, DiffEqualOrdinalMap>();
-    private final Set<String> typesWhichRequireMissingFieldTraversal = new HashSet<String>();
+    private final Map<String, DiffEqualOrdinalMap> map = new ConcurrentHashMap<String, DiffEqualOrdinalMap>();
+    private final Map<String, DiffEqualOrdinalLookup> singleStateLookups = new ConcurrentHashMap<String, DiffEqualOrdinalLookup>();
+    private final Set<String> typesWhichRequireMissingFieldTraversal = ConcurrentHashMap.newKeySet();
     
     private boolean isPrepared;
 
@@ -64,23 +84,231 @@ public class DiffEqualityMapping {
         this.toState = toState;
         this.oneToOne = oneToOne;
         this.listOrderingIsImportant = listOrderingIsImportant;
+        this.singleState = false;
+    }
+
+    /**
+     * Create a mapping between the previous and current records of a single state engine, to which a delta has
+     * just been applied.
+     * <p>
+     * Records which were neither removed nor added by the delta are mapped to themselves.  A delta may however
+     * remove records and add exactly equal records at other ordinals, for example when a compaction relocates
+     * records, so for each type with both removed and added ordinals the removed records are mapped to the equal
+     * added records.
+     *
+     * @param stateEngine the state engine
+     * @see #getEqualOrdinalLookup(String)
+     */
+    public DiffEqualityMapping(HollowReadStateEngine stateEngine) {
+        this.fromState = stateEngine;
+        this.toState = stateEngine;
+        this.oneToOne = true;
+        this.listOrderingIsImportant = true;
+        this.singleState = true;
     }
 
     public boolean requiresMissingFieldTraversal(String type) {
         return typesWhichRequireMissingFieldTraversal.contains(type);
     }
 
+    /**
+     * Get the map of equal ordinals for a type.  For a mapping over a single state engine, this only maps the
+     * records removed by the delta to the equal records added by it; use {@link #getEqualOrdinalLookup(String)}
+     * to also map the unchanged records.
+     *
+     * @param type the type name
+     * @return the map of equal ordinals
+     */
     public DiffEqualOrdinalMap getEqualOrdinalMap(String type) {
         DiffEqualOrdinalMap ordinalMap = map.get(type);
         if(ordinalMap != null)
             return ordinalMap;
         return isPrepared ? DiffEqualOrdinalMap.EMPTY_MAP : buildMap(type);
     }
+
+    /**
+     * Get the equal ordinals for a type, including, for a mapping over a single state engine, the records which are
+     * unchanged by the delta.
+     *
+     * @param type the type name
+     * @return the lookup of equal ordinals
+     */
+    public DiffEqualOrdinalLookup getEqualOrdinalLookup(String type) {
+        if(!singleState)
+            return getEqualOrdinalMap(type);
+
+        DiffEqualOrdinalLookup lookup = singleStateLookups.get(type);
+        if(lookup != null)
+            return lookup;
+
+        HollowTypeReadState typeState = fromState.getTypeState(type);
+        if(typeState == null)
+            return DiffEqualOrdinalMap.EMPTY_MAP;
+
+        if(removedOrdinals(typeState).isEmpty() || addedOrdinals(typeState).isEmpty())
+            lookup = DiffEqualOrdinalIdentityMap.INSTANCE;
+        else
+            lookup = new DiffEqualOrdinalDeltaMap(getEqualOrdinalMap(type));
+
+        DiffEqualOrdinalLookup existingLookup = singleStateLookups.putIfAbsent(type, lookup);
+        return existingLookup != null ? existingLookup : lookup;
+    }
     
     public void markPrepared() {
         this.isPrepared = true;
     }
 
+    /**
+     * Build the equal ordinal maps for all types in the from state ahead of time.
+     *
+     * @see #buildEqualOrdinalMaps(Collection)
+     */
+    public void buildEqualOrdinalMaps() {
+        List<String> typeNames = new ArrayList<String>();
+        for(HollowTypeReadState typeState : fromState.getTypeStates())
+            typeNames.add(typeState.getSchema().getName());
+        buildEqualOrdinalMaps(typeNames);
+    }
+
+    /**
+     * Build the equal ordinal maps for the given types, and all of the types they reference, ahead of time.
+     * <p>
+     * Types are mapped in dependency order, so each type is mapped once, after the types it references.  Small
+     * types which do not depend on each other are mapped concurrently, each on a single thread.  Each large type is
+     * mapped by all threads.
+     *
+     * @param typeNames the types to map
+     */
+    public void buildEqualOrdinalMaps(Collection<String> typeNames) {
+        long startTime = System.currentTimeMillis();
+
+        List<List<HollowTypeReadState>> typesByDependencyDepth = typesByDependencyDepth(typeNames);
+
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "build-equal-ordinal-maps");
+        try {
+            for(List<HollowTypeReadState> types : typesByDependencyDepth) {
+                List<HollowTypeReadState> largeTypes = new ArrayList<HollowTypeReadState>();
+
+                for(final HollowTypeReadState fromTypeState : types) {
+                    final HollowTypeReadState toTypeState = toState.getTypeState(fromTypeState.getSchema().getName());
+
+                    if(fromOrdinals(fromTypeState).cardinality() + toOrdinals(toTypeState).cardinality() >= MIN_ORDINALS_TO_MAP_IN_PARALLEL)
+                        largeTypes.add(fromTypeState);
+                    else
+                        executor.execute(() -> buildMap(fromTypeState, toTypeState, false));
+                }
+
+                for(HollowTypeReadState fromTypeState : largeTypes)
+                    buildMap(fromTypeState, toState.getTypeState(fromTypeState.getSchema().getName()), true);
+
+                // types at the next depth reference the maps built at this one
+                executor.awaitSuccessfulCompletionOfCurrentTasks();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+
+        log.info("built equality maps for " + map.size() + " types in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * @return the types present in both states which are not yet mapped, grouped by the length of the longest chain
+     * of references from each type to a type which references no others
+     */
+    private List<List<HollowTypeReadState>> typesByDependencyDepth(Collection<String> typeNames) {
+        Map<String, HollowSchema> schemas = new HashMap<String, HollowSchema>();
+        for(String typeName : typeNames)
+            addSchemaAndReferencedSchemas(typeName, schemas);
+
+        Map<String, Integer> dependencyDepths = new HashMap<String, Integer>();
+        List<List<HollowTypeReadState>> typesByDependencyDepth = new ArrayList<List<HollowTypeReadState>>();
+
+        for(HollowSchema schema : HollowSchemaSorter.dependencyOrderedSchemaList(schemas.values())) {
+            int depth = 0;
+            for(String referencedType : referencedTypes(schema)) {
+                Integer referencedTypeDepth = dependencyDepths.get(referencedType);
+                if(referencedTypeDepth != null)
+                    depth = Math.max(depth, referencedTypeDepth + 1);
+            }
+            dependencyDepths.put(schema.getName(), depth);
+
+            if(toState.getTypeState(schema.getName()) == null || map.containsKey(schema.getName()))
+                continue;
+            if(singleState && (removedOrdinals(fromState.getTypeState(schema.getName())).isEmpty()
+                    || addedOrdinals(fromState.getTypeState(schema.getName())).isEmpty()))
+                continue;
+
+            while(typesByDependencyDepth.size() <= depth)
+                typesByDependencyDepth.add(new ArrayList<HollowTypeReadState>());
+            typesByDependencyDepth.get(depth).add(fromState.getTypeState(schema.getName()));
+        }
+
+        return typesByDependencyDepth;
+    }
+
+    private void addSchemaAndReferencedSchemas(String typeName, Map<String, HollowSchema> schemas) {
+        HollowTypeReadState typeState = fromState.getTypeState(typeName);
+        if(typeState == null || schemas.containsKey(typeName))
+            return;
+
+        schemas.put(typeName, typeState.getSchema());
+        for(String referencedType : referencedTypes(typeState.getSchema()))
+            addSchemaAndReferencedSchemas(referencedType, schemas);
+    }
+
+    private static List<String> referencedTypes(HollowSchema schema) {
+        List<String> referencedTypes = new ArrayList<String>();
+
+        if(schema instanceof HollowCollectionSchema) {
+            referencedTypes.add(((HollowCollectionSchema) schema).getElementType());
+        } else if(schema instanceof HollowMapSchema) {
+            referencedTypes.add(((HollowMapSchema) schema).getKeyType());
+            referencedTypes.add(((HollowMapSchema) schema).getValueType());
+        } else if(schema instanceof HollowObjectSchema) {
+            HollowObjectSchema objectSchema = (HollowObjectSchema) schema;
+            for(int i=0;i<objectSchema.numFields();i++) {
+                if(objectSchema.getFieldType(i) == FieldType.REFERENCE)
+                    referencedTypes.add(objectSchema.getReferencedType(i));
+            }
+        }
+
+        return referencedTypes;
+    }
+
+    /**
+     * @return the ordinals to map in the from state; for a single state, only the records removed by the delta
+     */
+    private BitSet fromOrdinals(HollowTypeReadState fromTypeState) {
+        if(singleState)
+            return removedOrdinals(fromTypeState);
+        return fromTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+    }
+
+    /**
+     * @return the ordinals to map in the to state; for a single state, only the records added by the delta
+     */
+    private BitSet toOrdinals(HollowTypeReadState toTypeState) {
+        if(singleState)
+            return addedOrdinals(toTypeState);
+        return toTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+    }
+
+    private static BitSet removedOrdinals(HollowTypeReadState typeState) {
+        PopulatedOrdinalListener listener = typeState.getListener(PopulatedOrdinalListener.class);
+        BitSet removedOrdinals = (BitSet)listener.getPreviousOrdinals().clone();
+        removedOrdinals.andNot(listener.getPopulatedOrdinals());
+        return removedOrdinals;
+    }
+
+    private static BitSet addedOrdinals(HollowTypeReadState typeState) {
+        PopulatedOrdinalListener listener = typeState.getListener(PopulatedOrdinalListener.class);
+        BitSet addedOrdinals = (BitSet)listener.getPopulatedOrdinals().clone();
+        addedOrdinals.andNot(listener.getPreviousOrdinals());
+        return addedOrdinals;
+    }
+
     private DiffEqualOrdinalMap buildMap(String type) {
         HollowTypeReadState fromTypeState = fromState.getTypeState(type);
         HollowTypeReadState toTypeState = toState.getTypeState(type);
@@ -89,15 +317,15 @@ public class DiffEqualityMapping {
             return DiffEqualOrdinalMap.EMPTY_MAP;
 
         log.info("starting to build equality map for " + type);
-        DiffEqualOrdinalMap map = buildMap(fromTypeState, toTypeState);
+        DiffEqualOrdinalMap map = buildMap(fromTypeState, toTypeState, true);
         log.info("finished building equality map for " + type);
         return map;
     }
 
-    private DiffEqualOrdinalMap buildMap(HollowTypeReadState fromTypeState, HollowTypeReadState toTypeState) {
+    private DiffEqualOrdinalMap buildMap(HollowTypeReadState fromTypeState, HollowTypeReadState toTypeState, boolean parallel) {
         String typeName = fromTypeState.getSchema().getName();
         DiffEqualityTypeMapper mapper = getTypeMapper(fromTypeState, toTypeState);
-        DiffEqualOrdinalMap equalOrdinalMap = mapper.mapEqualObjects();
+        DiffEqualOrdinalMap equalOrdinalMap = mapper.mapEqualObjects(fromOrdinals(fromTypeState), toOrdinals(toTypeState), parallel);
         if(mapper.requiresTraversalForMissingFields())
             typesWhichRequireMissingFieldTraversal.add(fromTypeState.getSchema().getName());
 
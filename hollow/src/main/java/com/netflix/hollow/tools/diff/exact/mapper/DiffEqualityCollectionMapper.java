@@ -21,7 +21,7 @@ import com.netflix.hollow.core.read.engine.HollowCollectionTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
 import com.netflix.hollow.core.schema.HollowCollectionSchema;
 import com.netflix.hollow.core.util.IntList;
-import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalLookup;
 import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.OrdinalIdentityTranslator;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 
@@ -31,7 +31,7 @@ import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 public class DiffEqualityCollectionMapper extends DiffEqualityTypeMapper {
 
     private final boolean requiresTraversalForMissingFields;
-    private final DiffEqualOrdinalMap referencedTypeEqualOrdinalMap;
+    private final DiffEqualOrdinalLookup referencedTypeEqualOrdinalMap;
     private final boolean orderingIsImportant;
 
     public DiffEqualityCollectionMapper(DiffEqualityMapping mapping, HollowCollectionTypeReadState fromState, HollowCollectionTypeReadState toState, boolean oneToOne) {
@@ -41,7 +41,7 @@ public class DiffEqualityCollectionMapper extends DiffEqualityTypeMapper {
     public DiffEqualityCollectionMapper(DiffEqualityMapping mapping, HollowCollectionTypeReadState fromState, HollowCollectionTypeReadState toState, boolean oneToOne, boolean orderingIsImportant) {
         super(fromState, toState, oneToOne);
         HollowCollectionSchema schema = fromState.getSchema();
-        this.referencedTypeEqualOrdinalMap = mapping.getEqualOrdinalMap(schema.getElementType());
+        this.referencedTypeEqualOrdinalMap = mapping.getEqualOrdinalLookup(schema.getElementType());
         this.requiresTraversalForMissingFields = mapping.requiresMissingFieldTraversal(schema.getElementType());
         this.orderingIsImportant = orderingIsImportant;
     }
@@ -21,7 +21,7 @@ import com.netflix.hollow.core.read.engine.map.HollowMapTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowMapEntryOrdinalIterator;
 import com.netflix.hollow.core.schema.HollowMapSchema;
 import com.netflix.hollow.core.util.IntList;
-import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalLookup;
 import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.OrdinalIdentityTranslator;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 
@@ -30,8 +30,8 @@ import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
  */
 public class DiffEqualityMapMapper extends DiffEqualityTypeMapper {
 
-    private final DiffEqualOrdinalMap keyEqualOrdinalMap;
-    private final DiffEqualOrdinalMap valueEqualOrdinalMap;
+    private final DiffEqualOrdinalLookup keyEqualOrdinalMap;
+    private final DiffEqualOrdinalLookup valueEqualOrdinalMap;
 
     private final boolean requiresTraversalForMissingFields;
 
@@ -40,8 +40,8 @@ public class DiffEqualityMapMapper extends DiffEqualityTypeMapper {
 
         HollowMapSchema schema = fromState.getSchema();
 
-        this.keyEqualOrdinalMap = mapping.getEqualOrdinalMap(schema.getKeyType());
-        this.valueEqualOrdinalMap = mapping.getEqualOrdinalMap(schema.getValueType());
+        this.keyEqualOrdinalMap = mapping.getEqualOrdinalLookup(schema.getKeyType());
+        this.valueEqualOrdinalMap = mapping.getEqualOrdinalLookup(schema.getValueType());
 
         this.requiresTraversalForMissingFields =
                 mapping.requiresMissingFieldTraversal(schema.getKeyType())
@@ -21,7 +21,7 @@ import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
-import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
+import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalLookup;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 
 /**
@@ -34,17 +34,17 @@ public class DiffEqualityObjectMapper extends DiffEqualityTypeMapper{
     private final int[] fromSchemaCommonFieldMapping;
     private final boolean requiresTraversalForMissingFields;
 
-    private final DiffEqualOrdinalMap[] commonReferenceFieldEqualOrdinalMaps;
+    private final DiffEqualOrdinalLookup[] commonReferenceFieldEqualOrdinalMaps;
 
     public DiffEqualityObjectMapper(DiffEqualityMapping mapping, HollowObjectTypeReadState fromState, HollowObjectTypeReadState toState, boolean oneToOne) {
         super(fromState, toState, oneToOne);
         this.commonSchema = fromState.getSchema().findCommonSchema(toState.getSchema());
 
-        this.commonReferenceFieldEqualOrdinalMaps = new DiffEqualOrdinalMap[commonSchema.numFields()];
+        this.commonReferenceFieldEqualOrdinalMaps = new DiffEqualOrdinalLookup[commonSchema.numFields()];
 
         for(int i=0;i<commonReferenceFieldEqualOrdinalMaps.length;i++) {
             if(commonSchema.getFieldType(i) == FieldType.REFERENCE)
-                this.commonReferenceFieldEqualOrdinalMaps[i] = mapping.getEqualOrdinalMap(commonSchema.getReferencedType(i));
+                this.commonReferenceFieldEqualOrdinalMaps[i] = mapping.getEqualOrdinalLookup(commonSchema.getReferencedType(i));
         }
 
         this.fromSchemaCommonFieldMapping = buildCommonSchemaFieldMapping(fromState);
@@ -43,14 +43,38 @@ public abstract class DiffEqualityTypeMapper {
     }
 
     public DiffEqualOrdinalMap mapEqualObjects() {
-        int toOrdinalsHashed[] = hashToOrdinals();
-        return mapMatchingFromOrdinals(toOrdinalsHashed);
+        return mapEqualObjects(true);
     }
 
-    protected int[] hashToOrdinals() {
+    /**
+     * @param parallel whether to hash and match records on multiple threads; small types are mapped more quickly
+     *                 on the calling thread
+     * @return the map of equal ordinals
+     */
+    public DiffEqualOrdinalMap mapEqualObjects(boolean parallel) {
+        int toOrdinalsHashed[] = hashToOrdinals(parallel);
+        return mapMatchingFromOrdinals(toOrdinalsHashed, parallel);
+    }
+
+    /**
+     * Map only the given records of each state.
+     *
+     * @param fromOrdinals the ordinals to map in the from state
+     * @param toOrdinals the ordinals to map in the to state
+     * @param parallel whether to hash and match records on multiple threads
+     * @return the map of equal ordinals
+     */
+    public DiffEqualOrdinalMap mapEqualObjects(BitSet fromOrdinals, BitSet toOrdinals, boolean parallel) {
+        int toOrdinalsHashed[] = hashToOrdinals(toOrdinals, parallel);
+        return mapMatchingFromOrdinals(fromOrdinals, toOrdinalsHashed, parallel);
+    }
+
+    protected int[] hashToOrdinals(boolean parallel) {
         PopulatedOrdinalListener listener = toState.getListener(PopulatedOrdinalListener.class);
-        final BitSet toPopulatedOrdinals = listener.getPopulatedOrdinals();
-        final int ordinalSpaceLength = toPopulatedOrdinals.length();
+        return hashToOrdinals(listener.getPopulatedOrdinals(), parallel);
+    }
+
+    private int[] hashToOrdinals(final BitSet toPopulatedOrdinals, boolean parallel) {
 
         int hashedOrdinalsLength = 1 << (32 - Integer.numberOfLeadingZeros((toPopulatedOrdinals.cardinality() * 2) - 1));
 
@@ -58,31 +82,22 @@ public abstract class DiffEqualityTypeMapper {
         for(int i=0;i<hashedOrdinalsLength;i++)
             hashedToOrdinals.set(i, -1);
 
-        SimultaneousExecutor executor = new SimultaneousExecutor(1.5d, getClass(), "hash-to-ordinals");
-        final int numThreads = executor.getCorePoolSize();
-
-        for(int i=0;i<numThreads;i++) {
-            final int threadNumber = i;
-
-            executor.execute(() -> {
-                for(int t=threadNumber;t<ordinalSpaceLength;t+=numThreads) {
-                    if(toPopulatedOrdinals.get(t)) {
-                        int hashCode = toRecordHashCode(t);
-                        if(hashCode != -1) {
-                            int bucket = hashCode & (hashedToOrdinals.length() - 1);
-                            while(!hashedToOrdinals.compareAndSet(bucket, -1, t)) {
-                                bucket = (bucket + 1) & (hashedToOrdinals.length() - 1);
-                            }
-                        }
-                    }
-                }
-            });
-        }
+        if(parallel) {
+            SimultaneousExecutor executor = new SimultaneousExecutor(1.5d, getClass(), "hash-to-ordinals");
+            final int numThreads = executor.getCorePoolSize();
+
+            for(int i=0;i<numThreads;i++) {
+                final int threadNumber = i;
+                executor.execute(() -> hashToOrdinals(toPopulatedOrdinals, hashedToOrdinals, threadNumber, numThreads));
+            }
 
-        try {
-            executor.awaitSuccessfulCompletion();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            hashToOrdinals(toPopulatedOrdinals, hashedToOrdinals, 0, 1);
         }
 
         int arr[] = new int[hashedToOrdinals.length()];
@@ -92,42 +107,49 @@ public abstract class DiffEqualityTypeMapper {
         return arr;
     }
 
-    protected DiffEqualOrdinalMap mapMatchingFromOrdinals(final int[] hashedToOrdinals) {
-        PopulatedOrdinalListener listener = fromState.getListener(PopulatedOrdinalListener.class);
-        final BitSet fromPopulatedOrdinals = listener.getPopulatedOrdinals();
-        final int ordinalSpaceLength = fromPopulatedOrdinals.length();
-
-        SimultaneousExecutor executor = new SimultaneousExecutor(1.5d, getClass(), "map-matching-from-ordinals");
-        final int numThreads = executor.getCorePoolSize();
-        final LongList[] matchPairResults = new LongList[numThreads];
-
-        for(int i=0;i<numThreads;i++) {
-            final int threadNumber = i;
-            matchPairResults[threadNumber] = new LongList();
-            executor.execute(() -> {
-                EqualityDeterminer equalityDeterminer = getEqualityDeterminer();
-
-                for(int t=threadNumber;t <ordinalSpaceLength;t+=numThreads) {
-                    if(fromPopulatedOrdinals.get(t)) {
-                        int hashCode = fromRecordHashCode(t);
-                        if(hashCode != -1) {
-                            int bucket = hashCode & (hashedToOrdinals.length - 1);
-                            while(hashedToOrdinals[bucket] != -1) {
-                                if(equalityDeterminer.recordsAreEqual(t, hashedToOrdinals[bucket])) {
-                                    matchPairResults[threadNumber].add(((long) t << 32) | hashedToOrdinals[bucket]);
-                                }
-                                bucket = (bucket + 1) & (hashedToOrdinals.length - 1);
-                            }
-                        }
+    private void hashToOrdinals(BitSet toPopulatedOrdinals, AtomicIntegerArray hashedToOrdinals, int threadNumber, int numThreads) {
+        int ordinalSpaceLength = toPopulatedOrdinals.length();
+
+        for(int t=threadNumber;t<ordinalSpaceLength;t+=numThreads) {
+            if(toPopulatedOrdinals.get(t)) {
+                int hashCode = toRecordHashCode(t);
+                if(hashCode != -1) {
+                    int bucket = hashCode & (hashedToOrdinals.length() - 1);
+                    while(!hashedToOrdinals.compareAndSet(bucket, -1, t)) {
+                        bucket = (bucket + 1) & (hashedToOrdinals.length() - 1);
                     }
                 }
-            });
+            }
         }
+    }
+
+    protected DiffEqualOrdinalMap mapMatchingFromOrdinals(final int[] hashedToOrdinals, boolean parallel) {
+        PopulatedOrdinalListener listener = fromState.getListener(PopulatedOrdinalListener.class);
+        return mapMatchingFromOrdinals(listener.getPopulatedOrdinals(), hashedToOrdinals, parallel);
+    }
+
+    private DiffEqualOrdinalMap mapMatchingFromOrdinals(final BitSet fromPopulatedOrdinals, final int[] hashedToOrdinals, boolean parallel) {
+        final LongList[] matchPairResults;
 
-        try {
-            executor.awaitSuccessfulCompletion();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+        if(parallel) {
+            SimultaneousExecutor executor = new SimultaneousExecutor(1.5d, getClass(), "map-matching-from-ordinals");
+            final int numThreads = executor.getCorePoolSize();
+            matchPairResults = new LongList[numThreads];
+
+            for(int i=0;i<numThreads;i++) {
+                final int threadNumber = i;
+                matchPairResults[threadNumber] = new LongList();
+                executor.execute(() -> mapMatchingFromOrdinals(fromPopulatedOrdinals, hashedToOrdinals, matchPairResults[threadNumber], threadNumber, numThreads));
+            }
+
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            matchPairResults = new LongList[] { new LongList() };
+            mapMatchingFromOrdinals(fromPopulatedOrdinals, hashedToOrdinals, matchPairResults[0], 0, 1);
         }
 
         int numMatches = 0;
@@ -161,6 +183,26 @@ public abstract class DiffEqualityTypeMapper {
         return ordinalMap;
     }
 
+    private void mapMatchingFromOrdinals(BitSet fromPopulatedOrdinals, int[] hashedToOrdinals, LongList matchPairResults, int threadNumber, int numThreads) {
+        EqualityDeterminer equalityDeterminer = getEqualityDeterminer();
+        int ordinalSpaceLength = fromPopulatedOrdinals.length();
+
+        for(int t=threadNumber;t<ordinalSpaceLength;t+=numThreads) {
+            if(fromPopulatedOrdinals.get(t)) {
+                int hashCode = fromRecordHashCode(t);
+                if(hashCode != -1) {
+                    int bucket = hashCode & (hashedToOrdinals.length - 1);
+                    while(hashedToOrdinals[bucket] != -1) {
+                        if(equalityDeterminer.recordsAreEqual(t, hashedToOrdinals[bucket])) {
+                            matchPairResults.add(((long) t << 32) | hashedToOrdinals[bucket]);
+                        }
+                        bucket = (bucket + 1) & (hashedToOrdinals.length - 1);
+                    }
+                }
+            }
+        }
+    }
+
     public abstract boolean requiresTraversalForMissingFields();
 
     protected abstract int fromRecordHashCode(int ordinal);
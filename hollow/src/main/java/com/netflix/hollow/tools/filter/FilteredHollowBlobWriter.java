@@ -22,7 +22,6 @@ import static com.netflix.hollow.core.util.IOUtils.copyVLong;
 import static com.netflix.hollow.tools.filter.FilteredHollowBlobWriterStreamAndFilter.streamsOnly;
 
 import com.netflix.hollow.core.HollowBlobHeader;
-import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
@@ -60,6 +59,10 @@ import java.util.Set;
  * Note that filter functionality is more commonly applied at the consumer at load-time.  Pre-filtering at the producer
  * prior to disseminating to clients is unlikely to be important for performance reasons, but may be desirable e.g. for
  * security reasons.
+ * <p>
+ * Filtering is fully streaming:  fixed-length record data is re-packed field by field in fixed-size chunks and
+ * variable-length data is passed straight through, so memory usage is bounded regardless of the size of the blob.
+ * Only the added ordinals of each delta shard are held in memory.
  *
  */
 public class FilteredHollowBlobWriter {
@@ -231,60 +234,47 @@ public class FilteredHollowBlobWriter {
             for(int i=0;i<schema.numFields();i++)
                 bitsPerField[i] = VarInt.readVInt(is);
     
-            FixedLengthElementArray fixedLengthArraysPerStream[] = new FixedLengthElementArray[os.length];
-            long bitsRequiredPerStream[] = new long[os.length];
+            long bitsPerRecordPerStream[] = new long[os.length];
+            for(int i=0;i<streamAndFilters.length;i++)
+                bitsPerRecordPerStream[i] = writeBitsPerField(schema, bitsPerField, filteredObjectSchemas[i], streamAndFilters[i].getStream());
+
+            FixedLengthArrayReader unfilteredFixedLengthFields = new FixedLengthArrayReader(is);
+
+            FixedLengthArrayWriter fixedLengthArraysPerStream[] = new FixedLengthArrayWriter[os.length];
             List<FixedLengthArrayWriter> fixedLengthArraysPerField[] = (List<FixedLengthArrayWriter>[])new List[schema.numFields()];
             for(int i=0;i<fixedLengthArraysPerField.length;i++)
                 fixedLengthArraysPerField[i] = new ArrayList<FixedLengthArrayWriter>();
     
             for(int i=0;i<streamAndFilters.length;i++) {
-                long bitsPerRecord = writeBitsPerField(schema, bitsPerField, filteredObjectSchemas[i], streamAndFilters[i].getStream());
-    
-                bitsRequiredPerStream[i] = bitsPerRecord * numRecordsToCopy;
-                fixedLengthArraysPerStream[i] = new FixedLengthElementArray(memoryRecycler,  bitsRequiredPerStream[i]);
-                FixedLengthArrayWriter filteredArrayWriter = new FixedLengthArrayWriter(fixedLengthArraysPerStream[i]);
+                long bitsRequired = bitsPerRecordPerStream[i] * numRecordsToCopy;
+                long numLongsRequired = bitsRequired == 0 ? 0 : ((bitsRequired - 1) / 64) + 1;
+                fixedLengthArraysPerStream[i] = new FixedLengthArrayWriter(streamAndFilters[i].getStream(), numLongsRequired);
     
                 for(int j=0;j<schema.numFields();j++) {
                     if(filteredObjectSchemas[i].getPosition(schema.getFieldName(j)) != -1) {
-                        fixedLengthArraysPerField[j].add(filteredArrayWriter);
+                        fixedLengthArraysPerField[j].add(fixedLengthArraysPerStream[i]);
                     }
                 }
             }
             /// END SETUP ///
     
-            /// read the unfiltered long array into memory
-            FixedLengthElementArray unfilteredFixedLengthFields = FixedLengthElementArray.deserializeFrom(is, memoryRecycler);
-    
-            /// populate the filtered arrays (each field just gets written to all FixedLengthArrayWriters assigned to its field index)
-            long bitsPerRecord = 0;
-            for(int fieldBits : bitsPerField)
-                bitsPerRecord += fieldBits;
-    
-            long stopBit = bitsPerRecord * numRecordsToCopy;
-            long bitCursor = 0;
-            int fieldCursor = 0;
-    
-            while(bitCursor < stopBit) {
-                if(!fixedLengthArraysPerField[fieldCursor].isEmpty()) {
-                    long fieldValue = bitsPerField[fieldCursor] > 56 ?
-                            unfilteredFixedLengthFields.getLargeElementValue(bitCursor, bitsPerField[fieldCursor])
-                            : unfilteredFixedLengthFields.getElementValue(bitCursor, bitsPerField[fieldCursor]);
-    
-                            for(int i=0;i<fixedLengthArraysPerField[fieldCursor].size();i++)
-                                fixedLengthArraysPerField[fieldCursor].get(i).writeField(fieldValue, bitsPerField[fieldCursor]);
+            /// stream the unfiltered fixed length data, re-packing each field into the filtered arrays which include it
+            for(int ordinal=0;ordinal<numRecordsToCopy;ordinal++) {
+                for(int fieldIdx=0;fieldIdx<bitsPerField.length;fieldIdx++) {
+                    List<FixedLengthArrayWriter> fieldWriters = fixedLengthArraysPerField[fieldIdx];
+                    if(fieldWriters.isEmpty()) {
+                        unfilteredFixedLengthFields.skipField(bitsPerField[fieldIdx]);
+                    } else {
+                        long fieldValue = unfilteredFixedLengthFields.readField(bitsPerField[fieldIdx]);
+                        for(int i=0;i<fieldWriters.size();i++)
+                            fieldWriters.get(i).writeField(fieldValue, bitsPerField[fieldIdx]);
+                    }
                 }
-    
-                bitCursor += bitsPerField[fieldCursor];
-                if(++fieldCursor == schema.numFields())
-                    fieldCursor = 0;
-    
-            }
-    
-            /// write the filtered arrays
-            for(int i=0;i<os.length;i++) {
-                long numLongsRequired = bitsRequiredPerStream[i] == 0 ? 0 : ((bitsRequiredPerStream[i] - 1) / 64) + 1;
-                fixedLengthArraysPerStream[i].writeTo(os[i], numLongsRequired);
             }
+
+            unfilteredFixedLengthFields.finish();
+            for(int i=0;i<os.length;i++)
+                fixedLengthArraysPerStream[i].finish();
     
             /// copy the var length arrays for populated fields
             for(int i=0;i<schema.numFields();i++) {
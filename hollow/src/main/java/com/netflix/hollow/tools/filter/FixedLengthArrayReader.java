@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.filter;
+
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Reads fixed-length field values sequentially out of a serialized {@code FixedLengthElementArray}, without
+ * materializing the array.  The underlying longs are pulled from the stream one fixed-size chunk at a time.
+ */
+class FixedLengthArrayReader {
+
+    static final int CHUNK_SIZE_LONGS = 1024;
+
+    private final DataInputStream is;
+    private final byte[] chunkBytes;
+    private final long[] chunk;
+    private long longsRemainingInStream;
+    private int longsInChunk;
+    private int chunkCursor;
+
+    private int currentBitOffset;
+
+    public FixedLengthArrayReader(DataInputStream is) throws IOException {
+        this.is = is;
+        this.chunkBytes = new byte[CHUNK_SIZE_LONGS * 8];
+        this.chunk = new long[CHUNK_SIZE_LONGS];
+        this.longsRemainingInStream = VarInt.readVLong(is);
+        this.chunkCursor = -1;
+        this.currentBitOffset = 64;
+    }
+
+    public long readField(int numBits) throws IOException {
+        if(currentBitOffset == 64)
+            nextLong();
+
+        long value = chunk[chunkCursor] >>> currentBitOffset;
+        int bitsRemainingInLong = 64 - currentBitOffset;
+
+        if(numBits > bitsRemainingInLong) {
+            nextLong();
+            value |= chunk[chunkCursor] << bitsRemainingInLong;
+            currentBitOffset = numBits - bitsRemainingInLong;
+        } else {
+            currentBitOffset += numBits;
+        }
+
+        return numBits == 64 ? value : value & ((1L << numBits) - 1);
+    }
+
+    public void skipField(int numBits) throws IOException {
+        long bitsToSkip = numBits;
+        while(bitsToSkip > 0) {
+            if(currentBitOffset == 64)
+                nextLong();
+            int skippedBits = (int)Math.min(bitsToSkip, 64 - currentBitOffset);
+            currentBitOffset += skippedBits;
+            bitsToSkip -= skippedBits;
+        }
+    }
+
+    /**
+     * Consumes any longs of the serialized array which were not read, leaving the stream positioned after the array.
+     *
+     * @throws IOException if the stream cannot be read
+     */
+    public void finish() throws IOException {
+        while(longsRemainingInStream > 0) {
+            int longsToDiscard = (int)Math.min(CHUNK_SIZE_LONGS, longsRemainingInStream);
+            is.readFully(chunkBytes, 0, longsToDiscard * 8);
+            longsRemainingInStream -= longsToDiscard;
+        }
+    }
+
+    private void nextLong() throws IOException {
+        if(++chunkCursor == longsInChunk)
+            readChunk();
+        currentBitOffset = 0;
+    }
+
+    private void readChunk() throws IOException {
+        if(longsRemainingInStream == 0)
+            throw new EOFException("Fixed length data ended before all fields were read");
+
+        longsInChunk = (int)Math.min(CHUNK_SIZE_LONGS, longsRemainingInStream);
+        is.readFully(chunkBytes, 0, longsInChunk * 8);
+
+        int byteCursor = 0;
+        for(int i=0;i<longsInChunk;i++) {
+            chunk[i] = ((long)(chunkBytes[byteCursor++] & 0xFF) << 56)
+                     | ((long)(chunkBytes[byteCursor++] & 0xFF) << 48)
+                     | ((long)(chunkBytes[byteCursor++] & 0xFF) << 40)
+                     | ((long)(chunkBytes[byteCursor++] & 0xFF) << 32)
+                     | ((long)(chunkBytes[byteCursor++] & 0xFF) << 24)
+                     | ((long)(chunkBytes[byteCursor++] & 0xFF) << 16)
+                     | ((long)(chunkBytes[byteCursor++] & 0xFF) << 8)
+                     |  (long)(chunkBytes[byteCursor++] & 0xFF);
+        }
+
+        longsRemainingInStream -= longsInChunk;
+        chunkCursor = 0;
+    }
+
+}
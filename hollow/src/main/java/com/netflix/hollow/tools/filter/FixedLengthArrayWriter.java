@@ -16,20 +16,74 @@
  */
 package com.netflix.hollow.tools.filter;
 
-import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
+/**
+ * Packs fixed-length field values into a serialized {@code FixedLengthElementArray} as they are produced, buffering
+ * at most one chunk of longs at a time.
+ */
 class FixedLengthArrayWriter {
 
-    private final FixedLengthElementArray arr;
-    private long bitCursor;
+    private final DataOutputStream os;
+    private final byte[] chunk;
+    private int chunkByteCursor;
+
+    private long currentLong;
+    private int currentBitOffset;
+
+    public FixedLengthArrayWriter(DataOutputStream os, long numLongs) throws IOException {
+        this.os = os;
+        this.chunk = new byte[FixedLengthArrayReader.CHUNK_SIZE_LONGS * 8];
+        VarInt.writeVLong(os, numLongs);
+    }
+
+    public void writeField(long value, int numBits) throws IOException {
+        currentLong |= value << currentBitOffset;
+        int bitsRemainingInLong = 64 - currentBitOffset;
+
+        if(numBits >= bitsRemainingInLong) {
+            writeLong(currentLong);
+            currentLong = bitsRemainingInLong == 64 ? 0 : value >>> bitsRemainingInLong;
+            currentBitOffset = numBits - bitsRemainingInLong;
+        } else {
+            currentBitOffset += numBits;
+        }
+    }
+
+    /**
+     * Writes any partially populated trailing long, then flushes the buffered chunk.
+     *
+     * @throws IOException if the data cannot be written
+     */
+    public void finish() throws IOException {
+        if(currentBitOffset != 0) {
+            writeLong(currentLong);
+            currentLong = 0;
+            currentBitOffset = 0;
+        }
+
+        flushChunk();
+    }
+
+    private void writeLong(long l) throws IOException {
+        if(chunkByteCursor == chunk.length)
+            flushChunk();
 
-    public FixedLengthArrayWriter(FixedLengthElementArray arr) {
-        this.arr = arr;
+        chunk[chunkByteCursor++] = (byte)(l >>> 56);
+        chunk[chunkByteCursor++] = (byte)(l >>> 48);
+        chunk[chunkByteCursor++] = (byte)(l >>> 40);
+        chunk[chunkByteCursor++] = (byte)(l >>> 32);
+        chunk[chunkByteCursor++] = (byte)(l >>> 24);
+        chunk[chunkByteCursor++] = (byte)(l >>> 16);
+        chunk[chunkByteCursor++] = (byte)(l >>> 8);
+        chunk[chunkByteCursor++] = (byte)l;
     }
 
-    public void writeField(long value, int numBits) {
-        arr.setElementValue(bitCursor, numBits, value);
-        bitCursor += numBits;
+    private void flushChunk() throws IOException {
+        os.write(chunk, 0, chunkByteCursor);
+        chunkByteCursor = 0;
     }
 
 }
@@ -32,7 +32,7 @@ public class HollowHistoricalListDataAccess extends HollowHistoricalTypeDataAcce
 
     @Override
     public HollowListSchema getSchema() {
-        return removedRecords().getSchema();
+        return (HollowListSchema) schema;
     }
 
     @Override
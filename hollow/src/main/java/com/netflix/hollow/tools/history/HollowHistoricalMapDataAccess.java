@@ -37,7 +37,7 @@ public class HollowHistoricalMapDataAccess extends HollowHistoricalTypeDataAcces
     
     @Override
     public HollowMapSchema getSchema() {
-        return (HollowMapSchema) removedRecords.getSchema();
+        return (HollowMapSchema) schema;
     }
 
     @Override
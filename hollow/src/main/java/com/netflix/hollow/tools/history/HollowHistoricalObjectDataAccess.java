@@ -31,7 +31,7 @@ public class HollowHistoricalObjectDataAccess extends HollowHistoricalTypeDataAc
 
     @Override
     public HollowObjectSchema getSchema() {
-        return removedRecords().getSchema();
+        return (HollowObjectSchema) schema;
     }
 
     @Override
@@ -37,7 +37,7 @@ public class HollowHistoricalSetDataAccess extends HollowHistoricalTypeDataAcces
 
     @Override
     public HollowSetSchema getSchema() {
-        return removedRecords().getSchema();
+        return (HollowSetSchema) schema;
     }
 
     @Override
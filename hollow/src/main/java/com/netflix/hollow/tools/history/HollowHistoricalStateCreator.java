@@ -288,25 +288,63 @@ public class HollowHistoricalStateCreator {
 
 
     public HollowHistoricalStateDataAccess copyButRemapOrdinals(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper) {
-        HollowWriteStateEngine writeEngine = HollowWriteStateCreator.createWithSchemas(schemasWithoutKeys(previous.getSchemas()));
+        HollowReadStateEngine remappedRecordCopies = copyButRemapRecords(previous, ordinalRemapper);
+        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), remappedRecordCopies, remapPreviousOrdinalMappings(previous, ordinalRemapper), previous.getSchemaChanges());
+    }
+
+    /**
+     * Create a {@link HollowHistoricalStateDataAccess} equivalent to the one returned by
+     * {@link #copyButRemapOrdinals(HollowHistoricalStateDataAccess, OrdinalRemapper)}, but defer copying the records
+     * of the previous state until the returned state is first accessed.  Only the ordinal lookup maps are remapped
+     * up front.
+     * <p>
+     * Until then, the returned state retains the previous state and the ordinal remapper.
+     *
+     * @param previous the historical state to remap
+     * @param ordinalRemapper the ordinal remapper
+     * @return the data access for a history
+     */
+    public HollowHistoricalStateDataAccess remapOrdinalsOnFirstAccess(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper) {
+        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), previous, ordinalRemapper, this, remapPreviousOrdinalMappings(previous, ordinalRemapper));
+    }
 
+    HollowReadStateEngine copyButRemapRecords(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper) {
+        return roundTripStateEngine(copyRemovedRecords(previous, ordinalRemapper, false));
+    }
+
+    private IntMapOrdinalRemapper remapPreviousOrdinalMappings(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper) {
+        IntMapOrdinalRemapper previousOrdinalMappings = (IntMapOrdinalRemapper) previous.getOrdinalMapping();
         IntMapOrdinalRemapper typeRemovedOrdinalRemapping = new IntMapOrdinalRemapper();
 
         for(String typeName : previous.getAllTypes()) {
-            HollowHistoricalTypeDataAccess typeDataAccess = (HollowHistoricalTypeDataAccess) previous.getTypeDataAccess(typeName);
-            copyRemappedRecords(typeDataAccess.getRemovedRecords(), ordinalRemapper, writeEngine);
-
-            IntMap ordinalLookupMap = remapPreviousOrdinalMapping(typeDataAccess.getOrdinalRemap(), typeName, ordinalRemapper);
+            IntMap ordinalLookupMap = remapPreviousOrdinalMapping(previousOrdinalMappings.getOrdinalRemapping(typeName), typeName, ordinalRemapper);
             typeRemovedOrdinalRemapping.addOrdinalRemapping(typeName, ordinalLookupMap);
         }
 
-        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), roundTripStateEngine(writeEngine), typeRemovedOrdinalRemapping, previous.getSchemaChanges());
+        return typeRemovedOrdinalRemapping;
+    }
+
+    /**
+     * Copy the records retained by a historical state into a new {@link HollowWriteStateEngine}.  Records are
+     * added in ordinal order, so each record retains its ordinal in the new state engine.  Hash keys are removed
+     * from the copied schemas; if hash positions are preserved, SET and MAP records may still be looked up by
+     * hash key in the copies, provided no ordinals are remapped.
+     */
+    HollowWriteStateEngine copyRemovedRecords(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper, boolean preserveHashPositions) {
+        HollowWriteStateEngine writeEngine = HollowWriteStateCreator.createWithSchemas(schemasWithoutKeys(previous.getSchemas()));
+
+        for(String typeName : previous.getAllTypes()) {
+            HollowHistoricalTypeDataAccess typeDataAccess = (HollowHistoricalTypeDataAccess) previous.getTypeDataAccess(typeName);
+            copyRemappedRecords(typeDataAccess.getRemovedRecords(), ordinalRemapper, preserveHashPositions, writeEngine);
+        }
+
+        return writeEngine;
     }
 
-    private void copyRemappedRecords(HollowTypeReadState readTypeState, OrdinalRemapper ordinalRemapper, HollowWriteStateEngine writeEngine) {
+    private void copyRemappedRecords(HollowTypeReadState readTypeState, OrdinalRemapper ordinalRemapper, boolean preserveHashPositions, HollowWriteStateEngine writeEngine) {
         String typeName = readTypeState.getSchema().getName();
         HollowTypeWriteState typeState = writeEngine.getTypeState(typeName);
-        HollowRecordCopier copier = HollowRecordCopier.createCopier(readTypeState, ordinalRemapper, false);  ///NOTE: This will invalidate custom hash codes
+        HollowRecordCopier copier = HollowRecordCopier.createCopier(readTypeState, ordinalRemapper, preserveHashPositions);  ///NOTE: Unless hash positions are preserved, this will invalidate custom hash codes
 
         for(int i=0;i<=readTypeState.maxOrdinal();i++) {
             HollowWriteRecord rec = copier.copy(i);
@@ -26,6 +26,7 @@ import com.netflix.hollow.core.read.missing.MissingDataHandler;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
 import com.netflix.hollow.tools.combine.OrdinalRemapper;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -41,7 +42,17 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
     private final long version;
     private final OrdinalRemapper removedCopyOrdinalMapping;
     private final Map<String, HollowHistoricalSchemaChange> schemaChanges;
-    private final Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap;
+    private final Map<String, HollowSchema> typeSchemas;
+
+    private volatile Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap;
+    private Map<String, HollowHistoricalTypeDataAccess> loadingTypeDataAccessMap;
+    private HollowHistoricalStateStore store;
+    private File storedFile;
+    private HollowHistoricalStateDataAccess remapSource;
+    private OrdinalRemapper remapSourceOrdinalMapping;
+    private HollowHistoricalStateCreator remapCreator;
+    private HollowHistoricalStateStore storeOnceRemapped;
+    private volatile long lastAccessed;
 
     private final HollowObjectHashCodeFinder hashCodeFinder;
     private final MissingDataHandler missingDataHandler;
@@ -63,6 +74,40 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
         this.removedCopyOrdinalMapping = removedCopyOrdinalMappings;
         this.schemaChanges = schemaChanges;
 
+        Map<String, HollowSchema> typeSchemas = new HashMap<String, HollowSchema>();
+        for(HollowTypeReadState typeState : typeStates)
+            typeSchemas.put(typeState.getSchema().getName(), typeState.getSchema());
+        this.typeSchemas = typeSchemas;
+
+        this.typeDataAccessMap = createTypeDataAccessMap(typeStates);
+        buildKeyMatchers(typeDataAccessMap);
+    }
+
+    /**
+     * Create a historical state which copies the records of the remap source, remapping their ordinals, only once this
+     * state is first accessed.
+     */
+    HollowHistoricalStateDataAccess(HollowHistory totalHistory, long version, HollowHistoricalStateDataAccess remapSource, OrdinalRemapper remapSourceOrdinalMapping, HollowHistoricalStateCreator remapCreator, OrdinalRemapper removedCopyOrdinalMappings) {
+        this.totalHistory = totalHistory;
+        this.version = version;
+        this.hashCodeFinder = remapSource.getHashCodeFinder();
+        this.missingDataHandler = remapSource.getMissingDataHandler();
+
+        this.removedCopyOrdinalMapping = removedCopyOrdinalMappings;
+        this.schemaChanges = remapSource.getSchemaChanges();
+
+        // remapped records are copied without hash keys
+        Map<String, HollowSchema> typeSchemas = new HashMap<String, HollowSchema>();
+        for(HollowSchema schema : remapSource.getSchemas())
+            typeSchemas.put(schema.getName(), HollowSchema.withoutKeys(schema));
+        this.typeSchemas = typeSchemas;
+
+        this.remapSource = remapSource;
+        this.remapSourceOrdinalMapping = remapSourceOrdinalMapping;
+        this.remapCreator = remapCreator;
+    }
+
+    private Map<String, HollowHistoricalTypeDataAccess> createTypeDataAccessMap(Collection<HollowTypeReadState> typeStates) {
         Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap = new HashMap<String, HollowHistoricalTypeDataAccess>();
 
         for(HollowTypeReadState typeState : typeStates) {
@@ -84,8 +129,14 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
             }
         }
 
-        this.typeDataAccessMap = typeDataAccessMap;
+        return typeDataAccessMap;
+    }
 
+    /**
+     * Key matchers look up types through this data access, so the map under construction must already be
+     * visible to the building thread.
+     */
+    private void buildKeyMatchers(Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap) {
         for(Map.Entry<String, HollowHistoricalTypeDataAccess> entry : typeDataAccessMap.entrySet()) {
             HollowHistoricalTypeDataAccess typeDataAccess = entry.getValue();
             switch(typeDataAccess.getSchema().getSchemaType()) {
@@ -100,6 +151,139 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
         }
     }
 
+    /**
+     * @return the type data accesses for this state, reading them from disk if this state was stored by a
+     * {@link HollowHistoricalStateStore} and has since been evicted from memory, or copying them from the remap
+     * source if this state has not yet been accessed.
+     */
+    private Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap() {
+        Map<String, HollowHistoricalTypeDataAccess> map = typeDataAccessMap;
+
+        if(map == null) {
+            boolean pagedIn = false;
+            HollowHistoricalStateDataAccess remappedSource = null;
+            HollowHistoricalStateStore storeAfterRemap = null;
+
+            synchronized(this) {
+                map = typeDataAccessMap;
+                if(map == null && loadingTypeDataAccessMap != null)
+                    return loadingTypeDataAccessMap;
+
+                if(map == null) {
+                    HollowReadStateEngine records;
+                    if(remapSource != null) {
+                        records = remapCreator.copyButRemapRecords(remapSource, remapSourceOrdinalMapping);
+                        remappedSource = remapSource;
+                        storeAfterRemap = storeOnceRemapped;
+                    } else {
+                        records = store.read(storedFile);
+                        pagedIn = true;
+                    }
+
+                    loadingTypeDataAccessMap = createTypeDataAccessMap(records.getTypeStates());
+                    buildKeyMatchers(loadingTypeDataAccessMap);
+                    map = loadingTypeDataAccessMap;
+                    typeDataAccessMap = map;
+                    loadingTypeDataAccessMap = null;
+                    lastAccessed = System.nanoTime();
+
+                    remapSource = null;
+                    remapSourceOrdinalMapping = null;
+                    remapCreator = null;
+                    storeOnceRemapped = null;
+                }
+            }
+
+            // outside of the lock on this state, as paging in may evict another state
+            if(pagedIn)
+                store.pagedIn(this);
+
+            if(remappedSource != null) {
+                remappedSource.releaseFromStore();
+                if(storeAfterRemap != null)
+                    storeAfterRemap.store(this);
+            }
+        }
+
+        if(store != null)
+            lastAccessed = System.nanoTime();
+
+        return map;
+    }
+
+    void setStoredFile(HollowHistoricalStateStore store, File storedFile) {
+        this.store = store;
+        this.storedFile = storedFile;
+        this.lastAccessed = System.nanoTime();
+    }
+
+    /**
+     * Stored states are read back with hash keys removed from their schemas, so type data accesses are given
+     * the schemas this state was created with.
+     */
+    HollowSchema getSchemaForType(String typeName) {
+        return typeSchemas.get(typeName);
+    }
+
+    File getStoredFile() {
+        return storedFile;
+    }
+
+    long getLastAccessed() {
+        return lastAccessed;
+    }
+
+    /**
+     * If the records of this state have not yet been copied from its remap source, store them once they are.
+     *
+     * @return false if this state's records have already been copied
+     */
+    synchronized boolean storeOnceRemapped(HollowHistoricalStateStore store) {
+        if(remapSource == null)
+            return false;
+        this.storeOnceRemapped = store;
+        return true;
+    }
+
+    /**
+     * Copy this state's records from its remap source now, if they have not yet been copied.
+     */
+    void remapIfPending() {
+        boolean pending;
+        synchronized(this) {
+            pending = remapSource != null;
+        }
+
+        if(pending)
+            typeDataAccessMap();
+    }
+
+    void releaseFromStore() {
+        HollowHistoricalStateDataAccess remapSource;
+        synchronized(this) {
+            remapSource = this.remapSource;
+            this.storeOnceRemapped = null;
+        }
+
+        if(remapSource != null)
+            remapSource.releaseFromStore();
+        if(store != null)
+            store.release(this);
+    }
+
+    void evict() {
+        if(storedFile != null)
+            this.typeDataAccessMap = null;
+    }
+
+    /**
+     * @return false if this state's records are not currently held in memory, either because they are stored on disk
+     * or because they have not yet been remapped after a double snapshot
+     */
+    public boolean isResident() {
+        return typeDataAccessMap != null;
+    }
+
     public HollowHistory getTotalHistory() {
         return totalHistory;
     }
@@ -128,15 +312,11 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
     public HollowTypeDataAccess getTypeDataAccess(String typeName) {
         HollowDataAccess state = this;
 
-        HollowTypeDataAccess typeDataAccess = typeDataAccessMap.get(typeName);
-        if(typeDataAccess != null)
-            return typeDataAccess;
-
         while(state instanceof HollowHistoricalStateDataAccess) {
             HollowHistoricalStateDataAccess historicalState = (HollowHistoricalStateDataAccess)state;
-            typeDataAccess = historicalState.typeDataAccessMap.get(typeName);
-            if(typeDataAccess != null)
-                return typeDataAccess;
+            // only the state which has the type needs to be resident
+            if(historicalState.typeSchemas.containsKey(typeName))
+                return historicalState.typeDataAccessMap().get(typeName);
             state = historicalState.getNextState();
         }
 
@@ -145,7 +325,7 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
 
     @Override
     public Collection<String> getAllTypes() {
-        return typeDataAccessMap.keySet();
+        return typeSchemas.keySet();
     }
 
     @Override
@@ -174,12 +354,18 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
 
     @Override
     public void resetSampling() {
+        Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap = this.typeDataAccessMap;
+        if(typeDataAccessMap == null)
+            return;
         for(Map.Entry<String, HollowHistoricalTypeDataAccess> entry : typeDataAccessMap.entrySet())
             entry.getValue().getSampler().reset();
     }
 
     @Override
     public boolean hasSampleResults() {
+        Map<String, HollowHistoricalTypeDataAccess> typeDataAccessMap = this.typeDataAccessMap;
+        if(typeDataAccessMap == null)
+            return false;
         for(Map.Entry<String, HollowHistoricalTypeDataAccess> entry : typeDataAccessMap.entrySet())
             if(entry.getValue().getSampler().hasSampleResults())
                 return true;
@@ -195,10 +381,7 @@ public class HollowHistoricalStateDataAccess implements HollowDataAccess {
     }
 
     public List<HollowSchema> getSchemas() {
-        List<HollowSchema> schemas = new ArrayList<HollowSchema>(typeDataAccessMap.size());
-        for(Map.Entry<String, HollowHistoricalTypeDataAccess> entry : typeDataAccessMap.entrySet())
-            schemas.add(entry.getValue().getSchema());
-        return schemas;
+        return new ArrayList<HollowSchema>(typeSchemas.values());
     }
     
     @Override
@@ -0,0 +1,138 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.history;
+
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.tools.combine.IdentityOrdinalRemapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retains the records of {@link HollowHistoricalStateDataAccess}es in snapshot blobs on local disk, and limits the
+ * number of historical states which are resident in memory at any one time.
+ * <p>
+ * A stored historical state is read back from disk when it is next accessed.  Once more than the maximum number of
+ * stored states are resident, the state which was least recently accessed is evicted from memory.
+ * <p>
+ * Not intended for external consumption, see {@link HollowHistory#storeHistoricalStatesOnDisk(File, int)}.
+ */
+class HollowHistoricalStateStore {
+
+    private final File directory;
+    private final int maxResidentStates;
+    private final HollowHistoricalStateCreator creator;
+
+    private final List<HollowHistoricalStateDataAccess> residentStates;
+    private long nextFileId;
+
+    HollowHistoricalStateStore(File directory, int maxResidentStates, HollowHistoricalStateCreator creator) {
+        if(maxResidentStates < 1)
+            throw new IllegalArgumentException("At least one historical state must be resident in memory");
+        if(!directory.isDirectory() && !directory.mkdirs())
+            throw new IllegalArgumentException("Unable to create directory " + directory);
+
+        this.directory = directory;
+        this.maxResidentStates = maxResidentStates;
+        this.creator = creator;
+        this.residentStates = new ArrayList<HollowHistoricalStateDataAccess>();
+    }
+
+    /**
+     * Write the records of a resident historical state to disk, after which the state may be evicted from memory.  A
+     * state whose records have yet to be remapped after a double snapshot is written once it is remapped.
+     *
+     * @param dataAccess the historical state
+     */
+    void store(HollowHistoricalStateDataAccess dataAccess) {
+        if(dataAccess.storeOnceRemapped(this))
+            return;
+
+        File file = nextFile(dataAccess.getVersion());
+        HollowWriteStateEngine writeEngine = creator.copyRemovedRecords(dataAccess, IdentityOrdinalRemapper.INSTANCE, true);
+
+        try(OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+            new HollowBlobWriter(writeEngine).writeSnapshot(os);
+        } catch(IOException e) {
+            file.delete();
+            throw new RuntimeException("Unable to store historical state " + dataAccess.getVersion(), e);
+        }
+
+        dataAccess.setStoredFile(this, file);
+        pagedIn(dataAccess);
+    }
+
+    HollowReadStateEngine read(File file) {
+        HollowReadStateEngine stateEngine = new HollowReadStateEngine();
+        try(InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+            new HollowBlobReader(stateEngine).readSnapshot(is);
+        } catch(IOException e) {
+            throw new RuntimeException("Unable to read historical state from " + file, e);
+        }
+        return stateEngine;
+    }
+
+    /**
+     * Called once a stored historical state is resident in memory.  If this results in too many resident states,
+     * the least recently accessed state is evicted.
+     */
+    synchronized void pagedIn(HollowHistoricalStateDataAccess dataAccess) {
+        residentStates.add(dataAccess);
+
+        while(residentStates.size() > maxResidentStates) {
+            // the state which was just paged in is never the one evicted
+            int lruIdx = 0;
+            for(int i=1;i<residentStates.size()-1;i++) {
+                if(residentStates.get(i).getLastAccessed() < residentStates.get(lruIdx).getLastAccessed())
+                    lruIdx = i;
+            }
+
+            residentStates.remove(lruIdx).evict();
+        }
+    }
+
+    /**
+     * Called once a stored historical state is no longer part of the history.  If it is resident, it remains
+     * usable for as long as it is referenced.
+     */
+    synchronized void release(HollowHistoricalStateDataAccess dataAccess) {
+        residentStates.remove(dataAccess);
+
+        File file = dataAccess.getStoredFile();
+        if(file != null)
+            file.delete();
+    }
+
+    synchronized int getNumResidentStates() {
+        return residentStates.size();
+    }
+
+    private synchronized File nextFile(long version) {
+        return new File(directory, "historical-state-" + version + "-" + (nextFileId++));
+    }
+
+}
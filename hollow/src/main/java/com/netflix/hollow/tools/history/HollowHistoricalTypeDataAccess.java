@@ -29,6 +29,7 @@ public abstract class HollowHistoricalTypeDataAccess implements HollowTypeDataAc
 
     protected final HollowHistoricalStateDataAccess dataAccess;
     protected final HollowTypeReadState removedRecords;
+    protected final HollowSchema schema;
     protected final IntMap ordinalRemap;
 
     protected final HollowSampler sampler;
@@ -41,6 +42,7 @@ public abstract class HollowHistoricalTypeDataAccess implements HollowTypeDataAc
         this.dataAccess = dataAccess;
         this.ordinalRemap = ordinalRemap;
         this.removedRecords = removedRecords;
+        this.schema = dataAccess.getSchemaForType(removedRecords.getSchema().getName());
         this.sampler = sampler;
     }
 
@@ -51,7 +53,7 @@ public abstract class HollowHistoricalTypeDataAccess implements HollowTypeDataAc
 
     @Override
     public HollowSchema getSchema() {
-        return removedRecords.getSchema();
+        return schema;
     }
 
     protected boolean ordinalIsPresent(int ordinal) {
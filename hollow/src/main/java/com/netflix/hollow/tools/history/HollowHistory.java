@@ -16,6 +16,8 @@
  */
 package com.netflix.hollow.tools.history;
 
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
 import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
@@ -31,12 +33,18 @@ import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateTypeKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryKeyIndex;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Retains, in memory, the changes in a dataset over many states.  Indexes data for efficient retrieval from any
@@ -49,6 +57,9 @@ import java.util.concurrent.ExecutionException;
  * <p>
  * Each retained state is accessible via a {@link HollowHistoricalState}, from which a {@link HollowDataAccess} can
  * be obtained and used interchangeably with a (current) {@link HollowReadStateEngine} for many operations.
+ * <p>
+ * If a longer history must be retained than fits in memory, historical states may instead be stored on local disk
+ * and read back on demand, see {@link #storeHistoricalStatesOnDisk(File, int)}.
  *
  */
 public class HollowHistory {
@@ -67,6 +78,11 @@ public class HollowHistory {
 
     private boolean ignoreListOrderingOnDoubleSnapshot = false;
 
+    private HollowHistoricalStateStore stateStore;
+
+    private final Logger log = Logger.getLogger(HollowHistory.class.getName());
+    private final ThreadPoolExecutor remapExecutor;
+
     /**
      * @param initialHollowStateEngine The HollowReadStateEngine at an initial (earliest) state.
      * @param initialVersion The initial version of the HollowReadStateEngine
@@ -91,6 +107,9 @@ public class HollowHistory {
         this.historicalStateLookupMap = new HashMap<Long, HollowHistoricalState>();
         this.maxHistoricalStatesToKeep = maxHistoricalStatesToKeep;
         this.latestVersion = initialVersion;
+        this.remapExecutor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> daemonThread(r, HollowHistory.class, "remap"));
+        this.remapExecutor.allowCoreThreadTimeOut(true);
 
         if (isAutoDiscoverTypeIndex) {
             for (HollowSchema schema : initialHollowStateEngine.getSchemas()) {
@@ -113,6 +132,22 @@ public class HollowHistory {
         this.ignoreListOrderingOnDoubleSnapshot = true;
     }
 
+    /**
+     * Call this method to store the records of historical states in files in the given directory, rather than
+     * retaining them all in memory.  A stored state is read back from disk when it is next accessed, and at most
+     * {@code maxResidentHistoricalStates} stored states are held in memory at any one time; beyond that, the least
+     * recently accessed state is evicted from memory.
+     * <p>
+     * Only historical states created after this method is called are stored on disk.  The {@link HollowHistoryKeyIndex},
+     * and the mappings from key ordinals to the records in each state, are always retained in memory.
+     *
+     * @param directory the directory in which to store historical states; it is created if it does not exist
+     * @param maxResidentHistoricalStates the maximum number of stored historical states to hold in memory
+     */
+    public void storeHistoricalStatesOnDisk(File directory, int maxResidentHistoricalStates) {
+        this.stateStore = new HollowHistoricalStateStore(directory, maxResidentHistoricalStates, creator);
+    }
+
     /**
      * @return The {@link HollowHistoryKeyIndex}, responsible for identifying keyOrdinals.
      */
@@ -162,6 +197,7 @@ public class HollowHistory {
 
         HollowHistoricalStateDataAccess historicalDataAccess = creator.createBasedOnNewDelta(latestVersion, latestHollowReadStateEngine);
         historicalDataAccess.setNextState(latestHollowReadStateEngine);
+        store(historicalDataAccess);
 
         HollowHistoricalStateKeyOrdinalMapping keyOrdinalMapping = createKeyOrdinalMappingFromDelta();
         HollowHistoricalState historicalState = new HollowHistoricalState(newVersion, keyOrdinalMapping, historicalDataAccess, latestHeaderEntries);
@@ -191,9 +227,13 @@ public class HollowHistory {
         HollowHistoricalStateDataAccess historicalDataAccess;
 
         DiffEqualityMapping mapping = new DiffEqualityMapping(latestHollowReadStateEngine, newHollowStateEngine, true, !ignoreListOrderingOnDoubleSnapshot);
+        mapping.buildEqualOrdinalMaps();
+        // the mapping is read concurrently while historical states are remapped in the background
+        mapping.markPrepared();
         DiffEqualityMappingOrdinalRemapper remapper = new DiffEqualityMappingOrdinalRemapper(mapping);
 
         historicalDataAccess = creator.createHistoricalStateFromDoubleSnapshot(latestVersion, latestHollowReadStateEngine, newHollowStateEngine, remapper);
+        store(historicalDataAccess);
 
         HollowHistoricalStateDataAccess nextRemappedDataAccess = historicalDataAccess;
         HollowHistoricalState nextRemappedState = null;
@@ -226,9 +266,20 @@ public class HollowHistory {
         this.latestVersion = newVersion;
         this.latestHollowReadStateEngine = newHollowStateEngine;
         this.latestHeaderEntries = latestHollowReadStateEngine.getHeaderTags();
+
+        for(HollowHistoricalStateDataAccess remappedDataAccess : remappedDataAccesses)
+            remapInBackground(remappedDataAccess);
     }
 
+    /**
+     * The records of each historical state are copied with remapped ordinals after the double snapshot, on a
+     * background thread, or when the state is first accessed if that happens sooner.  Until then, each remapped
+     * state retains the state it replaces, and through it the previous state engine and the equality mapping.
+     */
     private void remapHistoricalStateOrdinals(final DiffEqualityMappingOrdinalRemapper remapper, final HollowHistoricalStateDataAccess[] remappedDataAccesses, final HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings) {
+        if(historicalStates.isEmpty())
+            return;
+
         SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "remap");
         final int numThreads = executor.getCorePoolSize();
 
@@ -237,7 +288,8 @@ public class HollowHistory {
             executor.execute(() -> {
                 for(int t=threadNumber;t<historicalStates.size();t+=numThreads) {
                     HollowHistoricalState historicalStateToRemap = historicalStates.get(t);
-                    remappedDataAccesses[t] = creator.copyButRemapOrdinals(historicalStateToRemap.getDataAccess(), remapper);
+                    remappedDataAccesses[t] = creator.remapOrdinalsOnFirstAccess(historicalStateToRemap.getDataAccess(), remapper);
+                    store(remappedDataAccesses[t]);
                     remappedKeyOrdinalMappings[t] = historicalStateToRemap.getKeyOrdinalMapping().remap(remapper);
                 }
             });
@@ -250,6 +302,32 @@ public class HollowHistory {
         }
     }
 
+    /*
+     * States are remapped one at a time, in the order in which they were replaced, so the states replaced by
+     * successive double snapshots are never chained more deeply than the backlog of this executor.
+     */
+    private void remapInBackground(final HollowHistoricalStateDataAccess dataAccess) {
+        remapExecutor.execute(() -> {
+            try {
+                dataAccess.remapIfPending();
+            } catch (RuntimeException e) {
+                // the state is remapped when it is next accessed instead
+                log.log(Level.WARNING, "Unable to remap historical state " + dataAccess.getVersion(), e);
+            }
+        });
+    }
+
+    /**
+     * Wait until the records of all states replaced by double snapshots so far have been remapped.
+     */
+    void awaitRemapping() {
+        try {
+            remapExecutor.submit(() -> {}).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private HollowHistoricalStateKeyOrdinalMapping createKeyOrdinalMappingFromDelta() {
         HollowHistoricalStateKeyOrdinalMapping keyOrdinalMapping = new HollowHistoricalStateKeyOrdinalMapping(keyIndex);
 
@@ -376,6 +454,16 @@ public class HollowHistory {
         while (n-- > 0) {
             HollowHistoricalState removedState = historicalStates.remove(historicalStates.size() - 1);
             historicalStateLookupMap.remove(removedState.getVersion());
+            release(removedState.getDataAccess());
         }
     }
+
+    private void store(HollowHistoricalStateDataAccess dataAccess) {
+        if(stateStore != null)
+            stateStore.store(dataAccess);
+    }
+
+    private void release(HollowHistoricalStateDataAccess dataAccess) {
+        dataAccess.releaseFromStore();
+    }
 }
@@ -103,19 +103,25 @@ public class HollowHistoryKeyIndex {
     public void update(HollowReadStateEngine latestStateEngine, boolean isDelta) {
         boolean isInitialUpdate = !isInitialized();
 
-        initializeTypeIndexes(latestStateEngine);
-        updateTypeIndexes(latestStateEngine, isDelta && !isInitialUpdate);
-
-        HollowReadStateEngine newReadState = roundTripStateEngine(isInitialUpdate, !isDelta);
-        if (newReadState != readStateEngine) {
-            // New ReadState was created so let's update references to old one
-            readStateEngine = newReadState;
-            for(final Map.Entry<String, HollowHistoryTypeKeyIndex> entry : typeKeyIndexes.entrySet()) {
-                entry.getValue().updateReadStateEngine(readStateEngine);
+        // one pool of threads is used both to write and to hash the keys of each type
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "update");
+        try {
+            initializeTypeIndexes(latestStateEngine);
+            updateTypeIndexes(executor, latestStateEngine, isDelta && !isInitialUpdate);
+
+            HollowReadStateEngine newReadState = roundTripStateEngine(isInitialUpdate, !isDelta);
+            if (newReadState != readStateEngine) {
+                // New ReadState was created so let's update references to old one
+                readStateEngine = newReadState;
+                for(final Map.Entry<String, HollowHistoryTypeKeyIndex> entry : typeKeyIndexes.entrySet()) {
+                    entry.getValue().updateReadStateEngine(readStateEngine);
+                }
             }
-        }
 
-        rehashKeys();
+            rehashKeys(executor);
+        } finally {
+            executor.shutdown();
+        }
     }
 
     public boolean isInitialized() {
@@ -135,9 +141,7 @@ public class HollowHistoryKeyIndex {
         }
     }
 
-    private void updateTypeIndexes(final HollowReadStateEngine latestStateEngine, final boolean isDelta) {
-        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "update-type-indexes");
-
+    private void updateTypeIndexes(SimultaneousExecutor executor, final HollowReadStateEngine latestStateEngine, final boolean isDelta) {
         for(final Map.Entry<String, HollowHistoryTypeKeyIndex> entry : typeKeyIndexes.entrySet()) {
             executor.execute(() -> {
                 HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) latestStateEngine.getTypeState(entry.getKey());
@@ -146,7 +150,7 @@ public class HollowHistoryKeyIndex {
         }
 
         try {
-            executor.awaitSuccessfulCompletion();
+            executor.awaitSuccessfulCompletionOfCurrentTasks();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
         }
@@ -209,15 +213,13 @@ public class HollowHistoryKeyIndex {
         return newReadStateEngine;
     }
 
-    private void rehashKeys() {
-        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "rehash-keys");
-
+    private void rehashKeys(SimultaneousExecutor executor) {
         for(final Map.Entry<String, HollowHistoryTypeKeyIndex> entry : typeKeyIndexes.entrySet()) {
             executor.execute(() -> entry.getValue().hashRecordKeys());
         }
 
         try {
-            executor.awaitSuccessfulCompletion();
+            executor.awaitSuccessfulCompletionOfCurrentTasks();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
         }
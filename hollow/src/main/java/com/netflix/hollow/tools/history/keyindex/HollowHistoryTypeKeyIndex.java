@@ -45,6 +45,10 @@ public class HollowHistoryTypeKeyIndex {
     private int[][] hashedFieldKeys;
     private LongList hashedFieldKeyChains;
 
+    // the hash codes of each indexed key ordinal, so that growing the hash tables does not re-read every key
+    private IntList recordKeyHashCodes;
+    private IntList[] fieldKeyHashCodes;
+
     private int maxIndexedKeyOrdinal = 0;
 
     private final HollowWriteStateEngine writeStateEngine;
@@ -103,13 +107,22 @@ public class HollowHistoryTypeKeyIndex {
 
         int hashTableSize = HashCodes.hashTableSize(keyTypeState.maxOrdinal() + 1);
 
-        if(hashedRecordKeys == null || hashedRecordKeys.length < hashTableSize) {
+        if(hashedRecordKeys == null || !allIndexedFieldsAreHashed()) {
             rehashAllRecordKeys(keyTypeState, hashTableSize);
         } else {
+            if(hashedRecordKeys.length < hashTableSize)
+                growHashTables(hashTableSize);
             hashNewRecordKeys(keyTypeState);
         }
     }
 
+    private boolean allIndexedFieldsAreHashed() {
+        for(int i=0;i<primaryKey.numFields();i++)
+            if(keyFieldIsIndexed[i] && hashedFieldKeys[i] == null)
+                return false;
+        return true;
+    }
+
     private void hashNewRecordKeys(HollowObjectTypeReadState keyTypeState) {
         for(int i=maxIndexedKeyOrdinal+1;i<=keyTypeState.maxOrdinal();i++)
             indexOrdinal(keyTypeState, i, hashedRecordKeys, hashedFieldKeys, hashedFieldKeyChains);
@@ -121,9 +134,15 @@ public class HollowHistoryTypeKeyIndex {
         int[][] hashedFieldKeys = new int[primaryKey.numFields()][];
         LongList hashedFieldKeyChains = new LongList();
 
-        for(int i=0;i<primaryKey.numFields();i++)
-            if(keyFieldIsIndexed[i])
+        this.recordKeyHashCodes = new IntList();
+        this.fieldKeyHashCodes = new IntList[primaryKey.numFields()];
+
+        for(int i=0;i<primaryKey.numFields();i++) {
+            if(keyFieldIsIndexed[i]) {
                 hashedFieldKeys[i] = initializeHashedKeyArray(hashTableSize);
+                fieldKeyHashCodes[i] = new IntList();
+            }
+        }
 
         for(int i=0;i<=keyTypeState.maxOrdinal();i++)
             indexOrdinal(keyTypeState, i, hashedRecordKeys, hashedFieldKeys, hashedFieldKeyChains);
@@ -134,10 +153,50 @@ public class HollowHistoryTypeKeyIndex {
         this.maxIndexedKeyOrdinal = keyTypeState.maxOrdinal();
     }
 
+    /**
+     * Grow the hash tables using the retained hash codes of the already indexed keys.  The field key chains are
+     * unaffected; only the head of each chain is placed in the new field hash tables.
+     */
+    private void growHashTables(int hashTableSize) {
+        int bucketMask = hashTableSize - 1;
+
+        int[] hashedRecordKeys = initializeHashedKeyArray(hashTableSize);
+        for(int ordinal=0;ordinal<=maxIndexedKeyOrdinal;ordinal++) {
+            int bucket = recordKeyHashCodes.get(ordinal) & bucketMask;
+            while(hashedRecordKeys[bucket] != -1)
+                bucket = (bucket + 1) & bucketMask;
+            hashedRecordKeys[bucket] = ordinal;
+        }
+
+        int[][] hashedFieldKeys = new int[primaryKey.numFields()][];
+        for(int i=0;i<primaryKey.numFields();i++) {
+            if(this.hashedFieldKeys[i] == null)
+                continue;
+
+            hashedFieldKeys[i] = initializeHashedKeyArray(hashTableSize);
+            for(int chainIndex : this.hashedFieldKeys[i]) {
+                if(chainIndex == -1)
+                    continue;
+
+                int representativeOrdinal = (int)hashedFieldKeyChains.get(chainIndex);
+                int bucket = fieldKeyHashCodes[i].get(representativeOrdinal) & bucketMask;
+                while(hashedFieldKeys[i][bucket] != -1)
+                    bucket = (bucket + 1) & bucketMask;
+                hashedFieldKeys[i][bucket] = chainIndex;
+            }
+        }
+
+        this.hashedRecordKeys = hashedRecordKeys;
+        this.hashedFieldKeys = hashedFieldKeys;
+    }
+
     private void indexOrdinal(HollowObjectTypeReadState keyTypeState, int ordinal, int[] hashedRecordKeys, int[][] hashedFieldKeys, LongList hashedFieldKeyChains) {
         int bucketMask = hashedRecordKeys.length - 1;
 
-        int bucket = hashKeyRecord(keyTypeState, ordinal) & bucketMask;
+        int recordKeyHashCode = hashKeyRecord(keyTypeState, ordinal);
+        recordKeyHashCodes.add(recordKeyHashCode);
+
+        int bucket = recordKeyHashCode & bucketMask;
         while(hashedRecordKeys[bucket] != -1)
             bucket = (bucket + 1) & bucketMask;
         hashedRecordKeys[bucket] = ordinal;
@@ -145,14 +204,17 @@ public class HollowHistoryTypeKeyIndex {
         indexFields:
         for(int j=0;j<primaryKey.numFields();j++) {
             if(keyFieldIsIndexed[j]) {
-                int fieldBucket = HashCodes.hashInt(HollowReadFieldUtils.fieldHashCode(keyTypeState, ordinal, j)) & bucketMask;
+                int fieldKeyHashCode = HashCodes.hashInt(HollowReadFieldUtils.fieldHashCode(keyTypeState, ordinal, j));
+                fieldKeyHashCodes[j].add(fieldKeyHashCode);
+
+                int fieldBucket = fieldKeyHashCode & bucketMask;
                 int chainStartIndex = hashedFieldKeys[j][fieldBucket];
                 while(chainStartIndex != -1) {
                     int representativeOrdinal = (int)hashedFieldKeyChains.get(chainStartIndex);
                     if(HollowReadFieldUtils.fieldsAreEqual(keyTypeState, ordinal, j, keyTypeState, representativeOrdinal, j)) {
                         hashedFieldKeyChains.add(((long)chainStartIndex << 32) | ordinal);
                         hashedFieldKeys[j][fieldBucket] = hashedFieldKeyChains.size() - 1;
-                        break indexFields;
+                        continue indexFields;
                     }
                     fieldBucket = (fieldBucket + 1) & bucketMask;
                     chainStartIndex = hashedFieldKeys[j][fieldBucket];
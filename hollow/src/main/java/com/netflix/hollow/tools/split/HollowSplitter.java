@@ -20,7 +20,10 @@ import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.util.HollowWriteStateCreator;
 import com.netflix.hollow.core.util.SimultaneousExecutor;
+import com.netflix.hollow.core.write.HollowBlobWriter;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -66,6 +69,52 @@ public class HollowSplitter {
         }
     }
 
+    /**
+     * Split the input, and write a snapshot blob for each output shard to the corresponding output stream.
+     * <p>
+     * Unlike {@link #split()}, the output shards are not retained.  Each shard's records are copied into a state
+     * engine which is discarded once its snapshot is written, and at most maxShardsInMemory shards are copied at any
+     * one time.  Memory usage is therefore bounded by the size of that many shards, rather than the size of the
+     * entire input.
+     * <p>
+     * The supplied output streams are not closed.
+     *
+     * @param maxShardsInMemory the maximum number of shards to hold in memory at once
+     * @param shardSnapshotOutputs the output stream for each shard's snapshot, by shard number
+     */
+    public void writeShardSnapshots(int maxShardsInMemory, final OutputStream... shardSnapshotOutputs) {
+        if(shardSnapshotOutputs.length != getNumberOfShards())
+            throw new IllegalArgumentException("Expected " + getNumberOfShards() + " shard outputs, but got " + shardSnapshotOutputs.length);
+        if(maxShardsInMemory < 1)
+            throw new IllegalArgumentException("At least one shard must be held in memory");
+
+        final List<HollowSchema> schemas = inputStateEngine.getSchemas();
+
+        SimultaneousExecutor executor = new SimultaneousExecutor(Math.min(maxShardsInMemory, getNumberOfShards()), getClass(), "write-shard-snapshots");
+
+        for(int i=0;i<getNumberOfShards();i++) {
+            final int shardNumber = i;
+
+            executor.execute(() -> {
+                HollowWriteStateEngine shardStateEngine = HollowWriteStateCreator.createWithSchemas(schemas);
+                HollowSplitterShardCopier copier = new HollowSplitterShardCopier(inputStateEngine, shardStateEngine, director, shardNumber);
+                copier.copy();
+
+                try {
+                    new HollowBlobWriter(shardStateEngine).writeSnapshot(shardSnapshotOutputs[shardNumber]);
+                } catch(IOException e) {
+                    throw new RuntimeException("Unable to write snapshot for shard " + shardNumber, e);
+                }
+            });
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch(Throwable th) {
+            throw new RuntimeException(th);
+        }
+    }
+
     public HollowReadStateEngine getInputStateEngine() {
         return inputStateEngine;
     }
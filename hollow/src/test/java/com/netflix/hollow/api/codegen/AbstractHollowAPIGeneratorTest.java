@@ -20,6 +20,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.function.UnaryOperator;
 import org.junit.After;
 
@@ -47,6 +49,13 @@ public class AbstractHollowAPIGeneratorTest {
         HollowCodeGenerationCompileUtil.compileSrcFiles(sourceFolder, clazzFolder);
     }
 
+    /**
+     * @return a class loader for the classes compiled from the generated sources
+     */
+    ClassLoader generatedClassLoader() throws IOException {
+        return new URLClassLoader(new URL[] { new File(clazzFolder).toURI().toURL() }, getClass().getClassLoader());
+    }
+
     void assertNonEmptyFileExists(String relativePath) throws IOException {
         if (relativePath.startsWith("/")) {
             throw new IllegalArgumentException("Relative paths should not start with /");
@@ -1,5 +1,17 @@
 package com.netflix.hollow.api.codegen;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 
 public class HollowAPIGeneratorTest extends AbstractHollowAPIGeneratorTest {
@@ -41,6 +53,94 @@ public class HollowAPIGeneratorTest extends AbstractHollowAPIGeneratorTest {
         assertFileDoesNotExist("codegen/api/StringGenerated.java");
     }
 
+    @Test
+    public void testGenerateWithFlyweights() throws Exception {
+        runGenerator("MyClassTestAPI", "codegen.api", MyClass.class,
+                builder -> builder.withPackageGrouping().withFlyweights());
+        assertNonEmptyFileExists("codegen/api/core/MyClassFlyweight.java");
+        assertNonEmptyFileExists("codegen/api/core/StringFlyweight.java");
+    }
+
+    @Test
+    public void testGenerateWithFlyweightsAndPrimitiveTypes() throws Exception {
+        runGenerator("MyClassTestAPI", "codegen.api", MyClass.class,
+                builder -> builder.withPackageGrouping().withFlyweights().withHollowPrimitiveTypes(true));
+        assertNonEmptyFileExists("codegen/api/core/MyClassFlyweight.java");
+        assertFileDoesNotExist("codegen/api/core/StringFlyweight.java");
+    }
+
+    @Test
+    public void testGeneratedFlyweightsReadData() throws Exception {
+        runGenerator("ShowTestAPI", "codegen.flyweight", Show.class,
+                builder -> builder.withPackageGrouping().withFlyweights());
+
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        mapper.add(new Show(1, new Episode(1), Arrays.asList(new Episode(1), new Episode(2))));
+        mapper.add(new Show(2, null, null));
+        HollowReadStateEngine readEngine = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+
+        ClassLoader classLoader = generatedClassLoader();
+        Class<?> apiClass = classLoader.loadClass("codegen.flyweight.ShowTestAPI");
+        Object api = apiClass.getConstructor(HollowDataAccess.class).newInstance(readEngine);
+        Object show = classLoader.loadClass("codegen.flyweight.core.ShowFlyweight").getConstructor(apiClass).newInstance(api);
+        Object episode = classLoader.loadClass("codegen.flyweight.core.EpisodeFlyweight").getConstructor(apiClass).newInstance(api);
+
+        for (int ordinal = 0; ordinal < 2; ordinal++) {
+            invoke(show, "moveTo", ordinal);
+
+            if ((Integer) invoke(show, "getId") == 1) {
+                assertSame(episode, invoke(show, "getPilot", episode));
+                assertEquals(1, invoke(episode, "getNumber"));
+                assertEquals(2, invoke(show, "getEpisodesSize"));
+                assertSame(episode, invoke(show, "getEpisodes", 1, episode));
+                assertEquals(2, invoke(episode, "getNumber"));
+            } else {
+                assertEquals(-1, invoke(show, "getPilotOrdinal"));
+                assertNull(invoke(show, "getPilot", episode));
+                assertEquals(0, invoke(show, "getEpisodesSize"));
+                assertNull(invoke(show, "getEpisodes", 0, episode));
+            }
+        }
+    }
+
+    @Test
+    public void testGenerateWithBoundFieldAccessors() throws Exception {
+        runGenerator("MyClassTestAPI", "codegen.api", MyClass.class,
+                builder -> builder.withPackageGrouping().withBoundFieldAccessors());
+        assertNonEmptyFileExists("codegen/api/core/MyClassTypeAPI.java");
+    }
+
+    private static Object invoke(Object target, String methodName, Object... args) throws Exception {
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == args.length)
+                return method.invoke(target, args);
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Show {
+        int id;
+        Episode pilot;
+        List<Episode> episodes;
+
+        Show(int id, Episode pilot, List<Episode> episodes) {
+            this.id = id;
+            this.pilot = pilot;
+            this.episodes = episodes;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Episode {
+        int number;
+
+        Episode(int number) {
+            this.number = number;
+        }
+    }
+
     @SuppressWarnings("unused")
     private static class MyClass {
         int id;
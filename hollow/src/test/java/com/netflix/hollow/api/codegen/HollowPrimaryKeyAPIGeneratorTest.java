@@ -36,6 +36,42 @@ public class HollowPrimaryKeyAPIGeneratorTest extends AbstractHollowAPIGenerator
                 builder -> builder.withClassPostfix("Generated").withPackageGrouping());
     }
 
+    @Test
+    public void testTypedKeys() throws Exception {
+        String apiClassName = "PrimaryKeyIndexTestAPI";
+        String packageName = "codegen.primarykey";
+        runGenerator(apiClassName, packageName, Show.class,
+                builder -> builder.reservePrimaryKeyIndexForTypeWithPrimaryKey(true));
+    }
+
+    @HollowPrimaryKey(fields = {"id", "name"})
+    static class Show {
+        long id;
+        String name;
+
+        Episode episode;
+        Season season;
+        Title title;
+    }
+
+    @HollowPrimaryKey(fields = {"name", "number"})
+    static class Episode {
+        String name;
+        int number;
+    }
+
+    @HollowPrimaryKey(fields = {"showId", "number"})
+    static class Season {
+        long showId;
+        int number;
+    }
+
+    @HollowPrimaryKey(fields = {"locale", "value"})
+    static class Title {
+        String locale;
+        String value;
+    }
+
     @HollowPrimaryKey(fields = {"id", "hasSubtitles", "actor", "role.id!", "role.rank"})
     static class Movie {
         int id;
@@ -31,11 +31,13 @@ public class InMemoryBlobStore implements BlobRetriever, Publisher {
     private Map<Long, Blob> snapshots;
     private Map<Long, Blob> deltas;
     private Map<Long, Blob> reverseDeltas;
+    private Map<Long, Blob> indexes;
     
     public InMemoryBlobStore() {
         this.snapshots = new HashMap<Long, Blob>();
         this.deltas = new HashMap<Long, Blob>();
         this.reverseDeltas = new HashMap<Long, Blob>();
+        this.indexes = new HashMap<Long, Blob>();
     }
 
     @Override
@@ -64,6 +66,11 @@ public class InMemoryBlobStore implements BlobRetriever, Publisher {
         return reverseDeltas.get(currentVersion);
     }
 
+    @Override
+    public Blob retrieveIndexBlob(long version) {
+        return indexes.get(version);
+    }
+
     
     
     @Override
@@ -85,6 +92,9 @@ public class InMemoryBlobStore implements BlobRetriever, Publisher {
         case REVERSE_DELTA:
             reverseDeltas.put(blob.getFromVersion(), consumerBlob);
             break;
+        case INDEX:
+            indexes.put(blob.getToVersion(), consumerBlob);
+            break;
         }
     }
     
@@ -0,0 +1,297 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.index;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.InMemoryBlobStore;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.index.HollowHashIndex;
+import com.netflix.hollow.core.index.HollowPrefixIndex;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowConsumerIndexRegistryTest {
+    InMemoryBlobStore blobStore;
+    HollowProducer producer;
+    HollowConsumer consumer;
+
+    @Before
+    public void setUp() {
+        blobStore = new InMemoryBlobStore();
+        producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+        long v1 = producer.runCycle(ws -> {
+            ws.add(new DataModel.Producer.TypeA(1, "1"));
+            ws.add(new DataModel.Producer.TypeA(2, "2"));
+        });
+        consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        consumer.triggerRefreshTo(v1);
+    }
+
+    @Test
+    public void indexesAreSharedAndBuiltLazily() {
+        HollowConsumerIndexRegistry registry = consumer.getIndexRegistry();
+        Assert.assertSame(registry, consumer.getIndexRegistry());
+        Assert.assertTrue(registry.getIndexStats().isEmpty());
+
+        HollowPrimaryKeyIndex pki = registry.getPrimaryKeyIndex("TypeA", "i");
+        Assert.assertSame(pki, registry.getPrimaryKeyIndex("TypeA", "i"));
+        Assert.assertNotSame(pki, registry.getPrimaryKeyIndex("TypeA", "i", "s.value"));
+
+        HollowHashIndex hi = registry.getHashIndex("TypeA", "", "i");
+        Assert.assertSame(hi, registry.getHashIndex("TypeA", "", "i"));
+
+        List<HollowConsumerIndexRegistry.IndexStats> stats = registry.getIndexStats();
+        Assert.assertEquals(3, stats.size());
+        for (HollowConsumerIndexRegistry.IndexStats s : stats) {
+            Assert.assertTrue(s.isBuilt());
+            Assert.assertEquals(1, s.getBuildCount());
+            Assert.assertTrue(s.getApproximateHeapFootprintInBytes() > 0);
+        }
+    }
+
+    @Test
+    public void indexesFollowDeltasAndRebuildAfterSnapshots() {
+        HollowConsumerIndexRegistry registry = consumer.getIndexRegistry();
+        HollowPrimaryKeyIndex pki = registry.getPrimaryKeyIndex("TypeA", "i");
+        Assert.assertEquals(-1, pki.getMatchingOrdinal(3));
+
+        long v2 = producer.runCycle(ws -> {
+            ws.add(new DataModel.Producer.TypeA(1, "1"));
+            ws.add(new DataModel.Producer.TypeA(2, "2"));
+            ws.add(new DataModel.Producer.TypeA(3, "3"));
+        });
+        consumer.triggerRefreshTo(v2);
+
+        Assert.assertSame(pki, registry.getPrimaryKeyIndex("TypeA", "i"));
+        Assert.assertNotEquals(-1, pki.getMatchingOrdinal(3));
+
+        long v3 = producer.runCycle(ws -> {
+            ws.add(new DataModel.Producer.TypeA(1, "1"));
+            ws.add(new DataModel.Producer.TypeA(4, "4"));
+        });
+        consumer.forceDoubleSnapshotNextUpdate();
+        consumer.triggerRefreshTo(v3);
+
+        Assert.assertFalse(registry.getIndexStats().get(0).isBuilt());
+        HollowPrimaryKeyIndex rebuilt = registry.getPrimaryKeyIndex("TypeA", "i");
+        Assert.assertNotSame(pki, rebuilt);
+        Assert.assertEquals(-1, rebuilt.getMatchingOrdinal(3));
+        Assert.assertNotEquals(-1, rebuilt.getMatchingOrdinal(4));
+        Assert.assertEquals(2, registry.getIndexStats().get(0).getBuildCount());
+    }
+
+    @Test
+    public void rebuildsInTheBackgroundAfterSnapshots() {
+        HollowConsumerIndexRegistry registry = consumer.getIndexRegistry();
+        registry.setBackgroundBuildExecutor(Runnable::run);
+        HollowPrimaryKeyIndex pki = registry.getPrimaryKeyIndex("TypeA", "i");
+
+        long v2 = producer.runCycle(ws -> ws.add(new DataModel.Producer.TypeA(5, "5")));
+        consumer.forceDoubleSnapshotNextUpdate();
+        consumer.triggerRefreshTo(v2);
+
+        HollowConsumerIndexRegistry.IndexStats stats = registry.getIndexStats().get(0);
+        Assert.assertTrue(stats.isBuilt());
+        Assert.assertEquals(2, stats.getBuildCount());
+        Assert.assertNotEquals(-1, registry.getPrimaryKeyIndex("TypeA", "i").getMatchingOrdinal(5));
+    }
+
+    @Test
+    public void persistedIndexesAreReadAtTheSameVersion() throws IOException {
+        File directory = Files.createTempDirectory("hollow-index-registry").toFile();
+        try {
+            HollowConsumerIndexRegistry registry = consumer.getIndexRegistry();
+            registry.setPersistenceDirectory(directory);
+            registry.getPrimaryKeyIndex("TypeA", "i");
+            registry.getHashIndex("TypeA", "", "s.value");
+            registry.getPrefixIndex("TypeA", "s");
+
+            HollowConsumer restarted = HollowConsumer.withBlobRetriever(blobStore).build();
+            restarted.triggerRefreshTo(consumer.getCurrentVersionId());
+            HollowConsumerIndexRegistry restartedRegistry = restarted.getIndexRegistry();
+            restartedRegistry.setPersistenceDirectory(directory);
+
+            HollowPrimaryKeyIndex pki = restartedRegistry.getPrimaryKeyIndex("TypeA", "i");
+            Assert.assertNotEquals(-1, pki.getMatchingOrdinal(2));
+            Assert.assertEquals(-1, pki.getMatchingOrdinal(3));
+            Assert.assertNotNull(restartedRegistry.getHashIndex("TypeA", "", "s.value").findMatches("1"));
+            HollowPrefixIndex prefixIndex = restartedRegistry.getPrefixIndex("TypeA", "s");
+            Assert.assertTrue(prefixIndex.contains("2"));
+            for (HollowConsumerIndexRegistry.IndexStats stats : restartedRegistry.getIndexStats()) {
+                Assert.assertEquals(0, stats.getBuildCount());
+                Assert.assertEquals(1, stats.getLoadCount());
+            }
+
+            /// indexes updated by deltas are not rewritten on the refresh thread
+            registry.clear();
+            registry.getPrimaryKeyIndex("TypeA", "i");
+            long v2 = producer.runCycle(ws -> {
+                ws.add(new DataModel.Producer.TypeA(1, "1"));
+                ws.add(new DataModel.Producer.TypeA(3, "3"));
+            });
+            consumer.triggerRefreshTo(v2);
+
+            HollowConsumerIndexRegistry v2Registry = registryAt(v2, directory);
+            Assert.assertNotEquals(-1, v2Registry.getPrimaryKeyIndex("TypeA", "i").getMatchingOrdinal(3));
+            Assert.assertEquals(0, v2Registry.getIndexStats().get(0).getLoadCount());
+            Assert.assertEquals(1, v2Registry.getIndexStats().get(0).getBuildCount());
+
+            /// they are rewritten in the background, at most once per persistence interval
+            registry.setBackgroundBuildExecutor(Runnable::run);
+            registry.setPersistenceInterval(0, TimeUnit.MILLISECONDS);
+            long v3 = producer.runCycle(ws -> {
+                ws.add(new DataModel.Producer.TypeA(1, "1"));
+                ws.add(new DataModel.Producer.TypeA(4, "4"));
+            });
+            consumer.triggerRefreshTo(v3);
+
+            HollowConsumerIndexRegistry v3Registry = registryAt(v3, directory);
+            Assert.assertNotEquals(-1, v3Registry.getPrimaryKeyIndex("TypeA", "i").getMatchingOrdinal(4));
+            Assert.assertEquals(1, v3Registry.getIndexStats().get(0).getLoadCount());
+
+            registry.setPersistenceInterval(1, TimeUnit.HOURS);
+            long v4 = producer.runCycle(ws -> ws.add(new DataModel.Producer.TypeA(5, "5")));
+            consumer.triggerRefreshTo(v4);
+
+            HollowConsumerIndexRegistry v4Registry = registryAt(v4, directory);
+            Assert.assertNotEquals(-1, v4Registry.getPrimaryKeyIndex("TypeA", "i").getMatchingOrdinal(5));
+            Assert.assertEquals(1, v4Registry.getIndexStats().get(0).getBuildCount());
+
+            HollowConsumerIndexRegistry otherRegistry = v3Registry;
+            /// persisted indexes of another version are not read
+            Assert.assertTrue(otherRegistry.getHashIndex("TypeA", "", "s.value").findMatches("4") != null);
+            for (HollowConsumerIndexRegistry.IndexStats stats : otherRegistry.getIndexStats()) {
+                if (stats.getDescription().startsWith("HashIndex"))
+                    Assert.assertEquals(1, stats.getBuildCount());
+            }
+        } finally {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    private HollowConsumerIndexRegistry registryAt(long version, File directory) {
+        HollowConsumer other = HollowConsumer.withBlobRetriever(blobStore).build();
+        other.triggerRefreshTo(version);
+        HollowConsumerIndexRegistry otherRegistry = other.getIndexRegistry();
+        otherRegistry.setPersistenceDirectory(directory);
+        return otherRegistry;
+    }
+
+    @Test
+    public void publishedIndexesAreLoadedRatherThanBuilt() {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withPublishedPrimaryKeyIndexes()
+                .withPublishedPrimaryKeyIndex(new PrimaryKey("TypeA", "i"))
+                .withPublishedHashIndex("TypeA", "", "s.value")
+                .build();
+        long v1 = producer.runCycle(ws -> {
+            ws.add(new DataModel.Producer.TypeA(1, "1"));
+            ws.add(new DataModel.Producer.TypeA(2, "2"));
+        });
+        Assert.assertNotNull(blobStore.retrieveIndexBlob(v1));
+        Assert.assertEquals(1, producer.getMetrics().getIndexesCompleted());
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        consumer.triggerRefreshTo(v1);
+        HollowConsumerIndexRegistry registry = consumer.getIndexRegistry();
+
+        HollowPrimaryKeyIndex pki = registry.getPrimaryKeyIndex("TypeA", "i");
+        Assert.assertNotEquals(-1, pki.getMatchingOrdinal(2));
+        Assert.assertEquals(-1, pki.getMatchingOrdinal(3));
+        HollowConsumerIndexRegistry.IndexStats stats = registry.getIndexStats().get(0);
+        Assert.assertEquals(0, stats.getBuildCount());
+        Assert.assertEquals(1, stats.getLoadCount());
+
+        /// a loaded index follows deltas, and indexes first requested after a delta are loaded from that version's blob
+        long v2 = producer.runCycle(ws -> {
+            ws.add(new DataModel.Producer.TypeA(1, "1"));
+            ws.add(new DataModel.Producer.TypeA(3, "3"));
+        });
+        consumer.triggerRefreshTo(v2);
+
+        Assert.assertSame(pki, registry.getPrimaryKeyIndex("TypeA", "i"));
+        Assert.assertNotEquals(-1, pki.getMatchingOrdinal(3));
+        Assert.assertEquals(-1, pki.getMatchingOrdinal(2));
+        Assert.assertNotNull(registry.getHashIndex("TypeA", "", "s.value").findMatches("3"));
+        Assert.assertNull(registry.getHashIndex("TypeA", "", "s.value").findMatches("2"));
+
+        /// indexes which were not published are built
+        registry.getPrimaryKeyIndex("TypeA", "s.value");
+        for (HollowConsumerIndexRegistry.IndexStats s : registry.getIndexStats()) {
+            boolean published = !s.getDescription().equals("PrimaryKeyIndex(TypeA, [s.value])");
+            Assert.assertEquals(s.getDescription(), published ? 0 : 1, s.getBuildCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void publishingIndexesRequiresAStagerWhichSupportsIndexBlobs() {
+        HollowInMemoryBlobStager stager = new HollowInMemoryBlobStager();
+        HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowProducer.BlobStager() {
+                    @Override
+                    public HollowProducer.Blob openSnapshot(long version) {
+                        return stager.openSnapshot(version);
+                    }
+
+                    @Override
+                    public HollowProducer.Blob openDelta(long fromVersion, long toVersion) {
+                        return stager.openDelta(fromVersion, toVersion);
+                    }
+
+                    @Override
+                    public HollowProducer.Blob openReverseDelta(long fromVersion, long toVersion) {
+                        return stager.openReverseDelta(fromVersion, toVersion);
+                    }
+                })
+                .withPublishedPrimaryKeyIndexes()
+                .build();
+    }
+
+    @Test
+    public void indexesAreUnavailableBeforeTheFirstRefresh() {
+        HollowConsumer notRefreshed = HollowConsumer.withBlobRetriever(blobStore).build();
+        HollowConsumerIndexRegistry registry = notRefreshed.getIndexRegistry();
+        try {
+            registry.getPrimaryKeyIndex("TypeA", "i");
+            Assert.fail("expected an IllegalStateException before the first refresh");
+        } catch (IllegalStateException expected) {
+        }
+
+        notRefreshed.triggerRefreshTo(consumer.getCurrentVersionId());
+        Assert.assertNotEquals(-1, registry.getPrimaryKeyIndex("TypeA", "i").getMatchingOrdinal(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownTypesAreRejected() {
+        consumer.getIndexRegistry().getPrimaryKeyIndex("Unknown", "i");
+    }
+}
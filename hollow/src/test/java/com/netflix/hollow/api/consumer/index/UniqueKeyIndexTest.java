@@ -554,6 +554,27 @@ public class UniqueKeyIndexTest {
             Assert.assertEquals(0, match.getOrdinal());
         }
 
+        @Test
+        public void testFindMatches() {
+            UniqueKeyIndex<DataModel.Consumer.TypeWithPrimaryKey, KeyTypeSameOrder> pki = UniqueKeyIndex
+                    .from(consumer, DataModel.Consumer.TypeWithPrimaryKey.class)
+                    .bindToPrimaryKey()
+                    .usingBean(KeyTypeSameOrder.class);
+
+            List<DataModel.Consumer.TypeWithPrimaryKey> matches = pki.findMatches(Arrays.asList(
+                    new KeyTypeSameOrder(1, "1", 2), new KeyTypeSameOrder(1, "2", 2), new KeyTypeSameOrder(1, "1", 2)));
+            Assert.assertEquals(3, matches.size());
+            Assert.assertEquals(0, matches.get(0).getOrdinal());
+            Assert.assertNull(matches.get(1));
+            Assert.assertEquals(0, matches.get(2).getOrdinal());
+
+            List<DataModel.Consumer.TypeWithPrimaryKey> streamedMatches = pki.findMatches(Stream.of(
+                    new KeyTypeSameOrder(1, "2", 2), new KeyTypeSameOrder(1, "1", 2)));
+            Assert.assertEquals(2, streamedMatches.size());
+            Assert.assertNull(streamedMatches.get(0));
+            Assert.assertEquals(0, streamedMatches.get(1).getOrdinal());
+        }
+
         @Test
         public void testSameOrder() {
             test(KeyTypeSameOrder.class, new KeyTypeSameOrder(1, "1", 2));
@@ -0,0 +1,228 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.objects.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.api.custom.HollowTypeAPI;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowObjectBoundedCacheProviderTest {
+    HollowWriteStateEngine writeStateEngine;
+    HollowReadStateEngine readStateEngine;
+    HollowObjectMapper mapper;
+    CountingFactory factory;
+
+    @Before
+    public void before() throws IOException {
+        writeStateEngine = new HollowWriteStateEngine();
+        readStateEngine = new HollowReadStateEngine();
+        mapper = new HollowObjectMapper(writeStateEngine);
+        factory = new CountingFactory();
+
+        for (int i = 0; i < 100; i++)
+            mapper.add(new TypeA(i));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+    }
+
+    @Test
+    public void objectsAreCreatedLazilyAndCached() {
+        HollowObjectBoundedCacheProvider<Object> subject = new HollowObjectBoundedCacheProvider<>(typeState(), null, factory, 1000);
+        assertEquals(0, factory.created);
+
+        Object a = subject.getHollowObject(5);
+        assertSame(a, subject.getHollowObject(5));
+        assertEquals(1, factory.created);
+        assertEquals(1024, subject.getCapacity());
+    }
+
+    @Test
+    public void cacheIsBounded() {
+        HollowObjectBoundedCacheProvider<Object> subject = new HollowObjectBoundedCacheProvider<>(typeState(), null, factory, 3);
+        assertEquals(4, subject.getCapacity());
+
+        Object[] objects = new Object[100];
+        for (int i = 0; i < 100; i++)
+            objects[i] = subject.getHollowObject(i);
+
+        int hits = 0;
+        for (int i = 0; i < 100; i++) {
+            if (objects[i] == subject.getHollowObject(i))
+                hits++;
+        }
+        assertTrue(hits <= subject.getCapacity());
+    }
+
+    @Test
+    public void deltasInvalidateRemovedOrdinals() throws IOException {
+        HollowObjectBoundedCacheProvider<Object> subject = new HollowObjectBoundedCacheProvider<>(typeState(), null, factory, 1000);
+        int removedOrdinal = ordinalOf(1);
+        int keptOrdinal = ordinalOf(2);
+        Object removed = subject.getHollowObject(removedOrdinal);
+        Object kept = subject.getHollowObject(keptOrdinal);
+
+        for (int i = 0; i < 100; i++) {
+            if (i != 1)
+                mapper.add(new TypeA(i));
+        }
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+        assertSame(kept, subject.getHollowObject(keptOrdinal));
+        assertNotSame(removed, subject.getHollowObject(removedOrdinal));
+
+        /// the next cycle's provider carries over the objects which are still valid
+        HollowObjectBoundedCacheProvider<Object> next = new HollowObjectBoundedCacheProvider<>(typeState(), null, factory, 1000, subject);
+        subject.detach();
+        assertSame(kept, next.getHollowObject(keptOrdinal));
+    }
+
+    @Test
+    public void detachedProvidersDoNotCache() {
+        HollowObjectBoundedCacheProvider<Object> subject = new HollowObjectBoundedCacheProvider<>(typeState(), null, factory, 1000);
+        Object a = subject.getHollowObject(5);
+        subject.detach();
+
+        Object b = subject.getHollowObject(5);
+        assertNotSame(a, b);
+        assertNotSame(b, subject.getHollowObject(5));
+    }
+
+    @Test
+    public void objectsCreatedWhileInvalidatedAreNotCached() throws Exception {
+        BlockingFactory blockingFactory = new BlockingFactory();
+        HollowObjectBoundedCacheProvider<Object> subject = new HollowObjectBoundedCacheProvider<>(typeState(), null, blockingFactory, 1000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> stale = executor.submit(() -> subject.getHollowObject(5));
+            blockingFactory.creating.await();
+
+            /// the ordinal is invalidated between the miss and the creation of its object
+            subject.removedOrdinal(5);
+            subject.addedOrdinal(5);
+            blockingFactory.proceed.countDown();
+
+            assertNotSame(stale.get(), subject.getHollowObject(5));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentReadsAndInvalidationsReturnObjectsForTheRequestedOrdinal() throws Exception {
+        OrdinalFactory ordinalFactory = new OrdinalFactory();
+        HollowObjectBoundedCacheProvider<Integer> subject = new HollowObjectBoundedCacheProvider<>(typeState(), null, ordinalFactory, 8);
+
+        int numThreads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100000; i++) {
+                        int ordinal = (i * 7 + thread) % 100;
+                        assertEquals(ordinal, subject.getHollowObject(ordinal).intValue());
+                        if (i % 5 == thread)
+                            subject.removedOrdinal(ordinal);
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        new HollowObjectBoundedCacheProvider<>(typeState(), null, factory, 0);
+    }
+
+    private HollowTypeReadState typeState() {
+        return readStateEngine.getTypeState("TypeA");
+    }
+
+    private int ordinalOf(int id) {
+        HollowTypeReadState typeState = typeState();
+        for (int ordinal = typeState.getPopulatedOrdinals().nextSetBit(0); ordinal != -1; ordinal = typeState.getPopulatedOrdinals().nextSetBit(ordinal + 1)) {
+            if (((HollowObjectTypeReadState) typeState).readInt(ordinal, 0) == id)
+                return ordinal;
+        }
+        return -1;
+    }
+
+    static class CountingFactory extends HollowFactory<Object> {
+        int created;
+
+        @Override
+        public Object newHollowObject(HollowTypeDataAccess dataAccess, HollowTypeAPI typeAPI, int ordinal) {
+            created++;
+            return new Object();
+        }
+    }
+
+    static class BlockingFactory extends HollowFactory<Object> {
+        final CountDownLatch creating = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+
+        @Override
+        public Object newHollowObject(HollowTypeDataAccess dataAccess, HollowTypeAPI typeAPI, int ordinal) {
+            creating.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return new Object();
+        }
+    }
+
+    static class OrdinalFactory extends HollowFactory<Integer> {
+        @Override
+        public Integer newHollowObject(HollowTypeDataAccess dataAccess, HollowTypeAPI typeAPI, int ordinal) {
+            return Integer.valueOf(ordinal);
+        }
+    }
+
+    static class TypeA {
+        final int id;
+
+        TypeA(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowBlockCompressorTest {
+
+    private final HollowBlockCompressor compressor = new HollowBlockCompressor(4096, Deflater.BEST_SPEED, 4);
+
+    @Test
+    public void roundTripsSnapshotBlob() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<10000;i++)
+            mapper.add(new TypeA(i, "value" + (i % 100)));
+
+        ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(uncompressed);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(OutputStream os = compressor.compress(compressed)) {
+            HollowBlobWriter writer = new HollowBlobWriter(writeEngine);
+            writer.setFlushAtTypeBoundaries(compressor.requiresFlushAtTypeBoundaries());
+            writer.writeSnapshot(os);
+        }
+
+        Assert.assertTrue(compressed.size() < uncompressed.size());
+
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        try(InputStream is = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()))) {
+            new HollowBlobReader(readEngine).readSnapshot(is);
+        }
+
+        for(int i=0;i<10000;i++) {
+            GenericHollowObject obj = new GenericHollowObject(readEngine, "TypeA", i);
+            Assert.assertEquals(i, obj.getInt("id"));
+            Assert.assertEquals("value" + (i % 100), obj.getObject("value").getString("value"));
+        }
+    }
+
+    @Test
+    public void roundTripsIncompressibleAndPartiallyFlushedData() throws IOException {
+        byte[] data = new byte[100000];
+        new Random(42).nextBytes(data);
+        for(int i=50000;i<data.length;i++)
+            data[i] = (byte)(i % 7);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(OutputStream os = compressor.compress(compressed)) {
+            os.write(data, 0, 1000);
+            os.flush();
+            os.write(data[1000]);
+            os.write(data, 1001, data.length - 1001);
+        }
+
+        InputStream is = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()));
+        byte[] roundTripped = new byte[data.length];
+        roundTripped[0] = (byte)is.read();
+        int offset = 1;
+        int n;
+        while(offset < roundTripped.length && (n = is.read(roundTripped, offset, roundTripped.length - offset)) != -1)
+            offset += n;
+
+        Assert.assertEquals(data.length, offset);
+        Assert.assertEquals(-1, is.read());
+        Assert.assertArrayEquals(data, roundTripped);
+    }
+
+    @Test
+    public void roundTripsEmptyStream() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressor.compress(compressed).close();
+
+        Assert.assertEquals(-1, compressor.decompress(new ByteArrayInputStream(compressed.toByteArray())).read());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsStreamsNotCompressedByCodec() throws IOException {
+        compressor.decompress(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6 })).read();
+    }
+
+    @Test
+    public void decompressesRetrievedBlobs() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(OutputStream os = compressor.compress(compressed)) {
+            os.write(new byte[] { 1, 2, 3 });
+        }
+
+        HollowConsumer.BlobRetriever retriever = compressor.decompressingRetriever(new HollowConsumer.BlobRetriever() {
+            @Override
+            public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+                return new HollowConsumer.Blob(desiredVersion) {
+                    @Override
+                    public InputStream getInputStream() {
+                        return new ByteArrayInputStream(compressed.toByteArray());
+                    }
+                };
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+                return null;
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+                return null;
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveIndexBlob(long version) {
+                return retrieveSnapshotBlob(version);
+            }
+        });
+
+        HollowConsumer.Blob blob = retriever.retrieveSnapshotBlob(10L);
+        Assert.assertEquals(10L, blob.getToVersion());
+        InputStream is = blob.getInputStream();
+        Assert.assertEquals(1, is.read());
+        Assert.assertEquals(2, is.read());
+        Assert.assertEquals(3, is.read());
+        Assert.assertEquals(-1, is.read());
+        Assert.assertNull(retriever.retrieveDeltaBlob(10L));
+
+        HollowConsumer.Blob indexBlob = retriever.retrieveIndexBlob(10L);
+        Assert.assertEquals(10L, indexBlob.getToVersion());
+        is = indexBlob.getInputStream();
+        Assert.assertEquals(1, is.read());
+        Assert.assertEquals(2, is.read());
+        Assert.assertEquals(3, is.read());
+        Assert.assertEquals(-1, is.read());
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String value;
+
+        TypeA(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+}
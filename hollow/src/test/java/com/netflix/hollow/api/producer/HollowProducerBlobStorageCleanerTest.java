@@ -79,6 +79,25 @@ public class HollowProducerBlobStorageCleanerTest {
         Assert.assertNotEquals(fileNamesAfterCleanup, fileNames);
     }
 
+    @Test
+    public void cleanIndexesWithDefaultValue() {
+        HollowProducer.Publisher publisher = new HollowFilesystemPublisher(publishDir.toPath());
+        HollowProducer.BlobStorageCleaner blobStorageCleaner = new HollowFilesystemBlobStorageCleaner(publishDir);
+        HollowProducer producer = HollowProducer.withPublisher(publisher)
+                                                .withBlobStorageCleaner(blobStorageCleaner)
+                                                .withVersionMinter(new TestVersionMinter())
+                                                .withPublishedPrimaryKeyIndexes()
+                                                .build();
+
+        for(int i = 1; i <= 7; i++) {
+            final int id = i;
+            producer.runCycle(state -> state.add(new TypeA(id, "one", id)));
+        }
+
+        Assert.assertEquals(5, listFiles(HollowProducer.Blob.Type.INDEX.prefix).length);
+        Assert.assertEquals(7, producer.getMetrics().getIndexesCompleted());
+    }
+
     @SuppressWarnings("unused")
     @HollowPrimaryKey(fields = { "id1", "id2" })
     private static class TypeA {
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer.validation;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.InMemoryAnnouncement;
+import com.netflix.hollow.api.consumer.InMemoryBlobStore;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConsumerHeapBudgetValidatorTests {
+    private InMemoryBlobStore blobStore;
+
+    @Before
+    public void setUp() {
+        blobStore = new InMemoryBlobStore();
+    }
+
+    @Test
+    public void passesWithinBudgetAndRecordsMetrics() {
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager()).build();
+        producer.addListener(new ConsumerHeapBudgetValidator(producer.getMetrics(), 1024 * 1024));
+
+        producer.runCycle(newState -> {
+            for (int i = 0; i < 100; i++)
+                newState.add(new TypeA(i, "value" + i));
+        });
+
+        Assert.assertTrue(producer.getMetrics().getEstimatedHeapFootprint() > 0);
+        Assert.assertTrue(producer.getMetrics().getEstimatedSnapshotSize() > producer.getMetrics().getEstimatedHeapFootprint());
+        Assert.assertTrue(producer.getMetrics().getTypeEstimatedHeapFootprint().containsKey("TypeA"));
+    }
+
+    @Test
+    public void skipsEstimatesUnlessRequested() {
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager()).build();
+
+        producer.runCycle(newState -> newState.add(new TypeA(1, "one")));
+
+        Assert.assertNull(producer.getMetrics().getSizeEstimate());
+        Assert.assertEquals(0L, producer.getMetrics().getEstimatedHeapFootprint());
+    }
+
+    @Test
+    public void failsCycleExceedingTypeBudget() {
+        InMemoryAnnouncement announcement = new InMemoryAnnouncement();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withAnnouncer(announcement)
+                .withBlobStager(new HollowInMemoryBlobStager()).build();
+        producer.addListener(new ConsumerHeapBudgetValidator(producer.getMetrics(), "String", 512));
+
+        long version = producer.runCycle(newState -> newState.add(new TypeA(1, "one")));
+
+        try {
+            producer.runCycle(newState -> {
+                for (int i = 0; i < 1000; i++)
+                    newState.add(new TypeA(i, "value" + i));
+            });
+            Assert.fail();
+        } catch (ValidationStatusException expected) {
+            Assert.assertEquals(1, expected.getValidationStatus().getResults().size());
+            Assert.assertTrue(expected.getValidationStatus().getResults().get(0).getMessage()
+                    .startsWith("Projected consumer heap footprint"));
+        }
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withAnnouncementWatcher(announcement).build();
+        consumer.triggerRefresh();
+        Assert.assertEquals(version, consumer.getCurrentVersionId());
+    }
+
+    static class TypeA {
+        int id;
+        String value;
+
+        TypeA(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
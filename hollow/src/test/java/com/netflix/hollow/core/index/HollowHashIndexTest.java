@@ -20,6 +20,10 @@ import com.netflix.hollow.core.AbstractStateEngineTest;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
 import com.netflix.hollow.core.write.objectmapper.HollowInline;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -63,6 +67,54 @@ public class HollowHashIndexTest extends AbstractStateEngineTest {
 
     }
 
+    @Test
+    public void testPersistedIndexRoundTrip() throws Exception {
+        mapper.add(new TypeA(1, 1.1d, new TypeB("one")));
+        mapper.add(new TypeA(2, 2.2d, new TypeB("two"), new TypeB("twenty"), new TypeB("two hundred")));
+        mapper.add(new TypeA(4, 4.4d, new TypeB("four")));
+        mapper.add(new TypeA(4, 4.5d, new TypeB("four"), new TypeB("forty")));
+
+        roundTripSnapshot();
+
+        String[] matchFields = new String[]{"a1", "ab.element.b1.value"};
+        HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeA", "a1", matchFields);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(baos));
+        HollowHashIndex restored = HollowHashIndex.readFrom(readStateEngine, "TypeA", "a1", matchFields,
+                new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+
+        Assert.assertNull(restored.findMatches(0, "notfound"));
+        assertIteratorContainsAll(restored.findMatches(1, "one").iterator(), 0);
+        assertIteratorContainsAll(restored.findMatches(2, "twenty").iterator(), 1);
+        assertIteratorContainsAll(restored.findMatches(4, "four").iterator(), 2, 3);
+        assertIteratorContainsAll(restored.findMatches(4, "forty").iterator(), 3);
+    }
+
+    @Test
+    public void testBatchFindMatches() throws Exception {
+        mapper.add(new TypeA(1, 1.1d, new TypeB("one")));
+        mapper.add(new TypeA(2, 2.2d, new TypeB("two"), new TypeB("twenty")));
+        mapper.add(new TypeA(4, 4.4d, new TypeB("four")));
+        mapper.add(new TypeA(4, 4.5d, new TypeB("four"), new TypeB("forty")));
+
+        roundTripSnapshot();
+
+        HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeA", "a1", new String[]{"a1", "ab.element.b1.value"});
+
+        Object[][] queries = new Object[][] {
+                { 4, "four" }, { 0, "notfound" }, { 2, "twenty" }, { 1, "one" }, { 4, "forty" }
+        };
+        HollowHashIndexResult[] results = new HollowHashIndexResult[queries.length];
+        index.findMatches(queries, results);
+
+        assertIteratorContainsAll(results[0].iterator(), 2, 3);
+        Assert.assertNull(results[1]);
+        assertIteratorContainsAll(results[2].iterator(), 1);
+        assertIteratorContainsAll(results[3].iterator(), 0);
+        assertIteratorContainsAll(results[4].iterator(), 3);
+    }
+
     @Test
     public void testIndexingStringTypeFieldWithNullValues() throws Exception {
         mapper.add(new TypeB(null));
@@ -23,6 +23,10 @@ import com.netflix.hollow.core.util.StateEngineRoundTripper;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.HollowInline;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -154,6 +158,38 @@ public class HollowPrefixIndexTest {
 
     }
 
+    @Test
+    public void testPersistedIndexRoundTrip() throws Exception {
+        List<Movie> movies = getSimpleList();
+        for (Movie movie : movies) {
+            objectMapper.add(movie);
+        }
+
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+        HollowPrefixIndex prefixIndex = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        prefixIndex.writeTo(new DataOutputStream(baos));
+        HollowPrefixIndex restored = HollowPrefixIndex.readFrom(readStateEngine, "SimpleMovie", "name", 4,
+                new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        restored.listenForDeltaUpdates();
+
+        Assert.assertEquals(toSet(prefixIndex.findKeysWithPrefix("r")), toSet(restored.findKeysWithPrefix("r")));
+        Assert.assertEquals(toSet(prefixIndex.findKeysWithPrefix("the")), toSet(restored.findKeysWithPrefix("the")));
+        Assert.assertTrue(restored.findKeysWithPrefix("as good").next() == HollowOrdinalIterator.NO_MORE_ORDINALS);
+
+        // the restored index follows deltas like a built index
+        movies.add(new SimpleMovie(5, "As Good as It Gets", 1997));
+        for (Movie movie : movies) {
+            objectMapper.add(movie);
+        }
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+        Set<String> movieNames = getMovieNames(toSet(restored.findKeysWithPrefix("as good")), "SimpleMovie", "name");
+        Assert.assertEquals(Collections.singleton("As Good as It Gets"), movieNames);
+        restored.detachFromDeltaUpdates();
+    }
+
     @Test
     public void testListReference() throws Exception {
         MovieListReference movieListReference = new MovieListReference(1, 1999, "The Matrix", Arrays.asList("Keanu Reeves", "Laurence Fishburne", "Carrie-Anne Moss"));
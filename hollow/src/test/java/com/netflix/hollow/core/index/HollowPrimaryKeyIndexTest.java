@@ -17,6 +17,8 @@
 package com.netflix.hollow.core.index;
 
 import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
@@ -24,6 +26,10 @@ import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
 import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -283,6 +289,192 @@ public class HollowPrimaryKeyIndexTest extends AbstractStateEngineTest {
         }
     }
 
+    @Test
+    public void testPrimitiveAndCharSequenceKeys() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for(int i=0;i<100;i++)
+            mapper.add(new TypeC(i, i * 1000000000L, "id" + i));
+
+        roundTripSnapshot();
+
+        HollowPrimaryKeyIndex intIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c1");
+        HollowPrimaryKeyIndex longIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c2");
+        HollowPrimaryKeyIndex stringIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c3.value");
+        HollowPrimaryKeyIndex refIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c3!");
+        HollowPrimaryKeyIndex pairIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c1", "c3.value");
+        HollowPrimaryKeyIndex stringPairIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c3.value", "c2");
+
+        for(int i=0;i<100;i++) {
+            int ordinal = intIdx.getMatchingOrdinal(Integer.valueOf(i));
+            Assert.assertNotEquals(-1, ordinal);
+            Assert.assertEquals(ordinal, intIdx.getMatchingOrdinal(i));
+            Assert.assertEquals(ordinal, intIdx.getMatchingOrdinalForLong(i));
+            Assert.assertEquals(ordinal, longIdx.getMatchingOrdinalForLong(i * 1000000000L));
+            Assert.assertEquals(ordinal, longIdx.getMatchingOrdinal(Long.valueOf(i * 1000000000L)));
+            Assert.assertEquals(ordinal, stringIdx.getMatchingOrdinal("id" + i));
+            Assert.assertEquals(ordinal, stringIdx.getMatchingOrdinalForString(new StringBuilder("id").append(i)));
+            Assert.assertEquals(ordinal, stringIdx.getMatchingOrdinalForString("id" + i));
+            Assert.assertEquals(ordinal, pairIdx.getMatchingOrdinal(i, "id" + i));
+            Assert.assertEquals(ordinal, pairIdx.getMatchingOrdinalForLongAndString(i, "id" + i));
+            Assert.assertEquals(ordinal, pairIdx.getMatchingOrdinal((Object)i, (Object)("id" + i)));
+            Assert.assertEquals(ordinal, stringPairIdx.getMatchingOrdinalForStringAndLong(new StringBuilder("id" + i), i * 1000000000L));
+
+            int refOrdinal = stringIdx.getTypeState().readOrdinal(ordinal, stringIdx.getTypeState().getSchema().getPosition("c3"));
+            Assert.assertEquals(ordinal, refIdx.getMatchingOrdinal(refOrdinal));
+            Assert.assertEquals(ordinal, refIdx.getMatchingOrdinalForLong(refOrdinal));
+        }
+
+        Assert.assertEquals(-1, intIdx.getMatchingOrdinal(100));
+        Assert.assertEquals(-1, intIdx.getMatchingOrdinalForLong(1L << 32));
+        Assert.assertEquals(-1, longIdx.getMatchingOrdinalForLong(1L));
+        Assert.assertEquals(-1, stringIdx.getMatchingOrdinalForString(new StringBuilder("id100")));
+        Assert.assertEquals(-1, pairIdx.getMatchingOrdinalForLongAndString(1, "id2"));
+        Assert.assertEquals(-1, pairIdx.getMatchingOrdinal(1));
+        Assert.assertEquals(-1, pairIdx.getMatchingOrdinalForLong(1));
+        Assert.assertEquals(-1, intIdx.getMatchingOrdinal(1, 1));
+        Assert.assertEquals(-1, intIdx.getMatchingOrdinalForLongs(1, 1));
+    }
+
+    @Test
+    public void testBatchLookups() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for(int i=0;i<1000;i++)
+            mapper.add(new TypeC(i, i * 1000000000L, "id" + i));
+
+        roundTripSnapshot();
+
+        HollowPrimaryKeyIndex intIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c1");
+        HollowPrimaryKeyIndex stringIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c3.value");
+        HollowPrimaryKeyIndex pairIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeC", "c1", "c3.value");
+
+        int numKeys = 1200;
+        long[] longKeys = new long[numKeys];
+        Object[] stringKeys = new Object[numKeys];
+        Object[][] pairKeys = new Object[numKeys][];
+        for(int i=0;i<numKeys;i++) {
+            int id = (i * 7919) % numKeys;
+            longKeys[i] = id;
+            stringKeys[i] = "id" + id;
+            pairKeys[i] = new Object[] { id, i % 10 == 0 ? "mismatch" : "id" + id };
+        }
+
+        int[] intOrdinals = new int[numKeys];
+        int[] stringOrdinals = new int[numKeys];
+        int[] pairOrdinals = new int[numKeys];
+        intIdx.getMatchingOrdinals(longKeys, intOrdinals);
+        stringIdx.getMatchingOrdinals(stringKeys, stringOrdinals);
+        pairIdx.getMatchingOrdinals(pairKeys, pairOrdinals);
+
+        for(int i=0;i<numKeys;i++) {
+            int expected = intIdx.getMatchingOrdinalForLong(longKeys[i]);
+            Assert.assertEquals(longKeys[i] < 1000, expected != -1);
+            Assert.assertEquals(expected, intOrdinals[i]);
+            Assert.assertEquals(expected, stringOrdinals[i]);
+            Assert.assertEquals(i % 10 == 0 ? -1 : expected, pairOrdinals[i]);
+        }
+
+        int[] wrongArity = new int[1];
+        intIdx.getMatchingOrdinals(new Object[][] { { 1, "id1" } }, wrongArity);
+        Assert.assertEquals(-1, wrongArity[0]);
+
+        try {
+            intIdx.getMatchingOrdinals(longKeys, new int[1]);
+            Assert.fail("expected an IllegalArgumentException for an undersized ordinals array");
+        } catch(IllegalArgumentException expected) { }
+    }
+
+    @Test
+    public void testFingerprintsAcrossDeltas() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for(int i=0;i<1000;i++)
+            mapper.add(new TypeC(i, i, "id" + i));
+
+        roundTripSnapshot();
+
+        PrimaryKey key = new PrimaryKey("TypeC", "c3.value", "c2");
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(readStateEngine, key, WastefulRecycler.DEFAULT_INSTANCE, null, 12);
+        HollowPrimaryKeyIndex plainIdx = new HollowPrimaryKeyIndex(readStateEngine, key, WastefulRecycler.DEFAULT_INSTANCE, null, 0);
+        idx.listenForDeltaUpdates();
+        plainIdx.listenForDeltaUpdates();
+
+        for(int i=0;i<1000;i++) {
+            Assert.assertNotEquals(-1, idx.getMatchingOrdinal("id" + i, (long)i));
+            Assert.assertEquals(plainIdx.getMatchingOrdinal("id" + i, (long)i), idx.getMatchingOrdinal("id" + i, (long)i));
+        }
+
+        /// remove a few records (a delta update of the index) and add a duplicate key
+        for(int i=0;i<1000;i++) {
+            if(i % 50 != 0)
+                mapper.add(new TypeC(i, i, "id" + i));
+        }
+        mapper.add(new TypeC(2000, 1, "id1"));
+
+        roundTripDelta();
+
+        for(int i=0;i<1000;i++) {
+            int ordinal = idx.getMatchingOrdinal("id" + i, (long)i);
+            Assert.assertEquals(i % 50 == 0, ordinal == -1);
+            if(i != 1)
+                Assert.assertEquals(plainIdx.getMatchingOrdinal("id" + i, (long)i), ordinal);
+        }
+        Assert.assertEquals(1, idx.getDuplicateKeys().size());
+        Assert.assertEquals(plainIdx.getDuplicateKeys().size(), idx.getDuplicateKeys().size());
+
+        try {
+            new HollowPrimaryKeyIndex(readStateEngine, key, WastefulRecycler.DEFAULT_INSTANCE, null, HollowPrimaryKeyIndex.MAX_BITS_PER_FINGERPRINT + 1);
+            Assert.fail("expected an IllegalArgumentException for too many fingerprint bits");
+        } catch(IllegalArgumentException expected) { }
+    }
+
+    @Test
+    public void testPersistedIndexRoundTrip() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for(int i=0;i<1000;i++)
+            mapper.add(new TypeC(i, i, "id" + i));
+
+        roundTripSnapshot();
+
+        PrimaryKey key = new PrimaryKey("TypeC", "c3.value", "c2");
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(readStateEngine, key, WastefulRecycler.DEFAULT_INSTANCE, null, 8);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        idx.writeTo(new DataOutputStream(baos));
+        HollowPrimaryKeyIndex restored = HollowPrimaryKeyIndex.readFrom(readStateEngine, key, WastefulRecycler.DEFAULT_INSTANCE,
+                new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        restored.listenForDeltaUpdates();
+
+        for(int i=0;i<1000;i++)
+            Assert.assertEquals(idx.getMatchingOrdinal("id" + i, (long)i), restored.getMatchingOrdinal("id" + i, (long)i));
+        Assert.assertEquals(-1, restored.getMatchingOrdinal("id1000", 1000L));
+
+        /// the restored index follows deltas like a built index
+        for(int i=0;i<1001;i++)
+            mapper.add(new TypeC(i, i, "id" + i));
+
+        roundTripDelta();
+
+        Assert.assertNotEquals(-1, restored.getMatchingOrdinal("id1000", 1000L));
+        Assert.assertNotEquals(-1, restored.getMatchingOrdinal("id999", 999L));
+    }
+
+    @Test
+    public void testPrimitiveKeysFallBackForOtherFieldTypes() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        mapper.add(new TypeA(1, 1.1d, new TypeB("one")));
+
+        roundTripSnapshot();
+
+        HollowPrimaryKeyIndex idx = new HollowPrimaryKeyIndex(readStateEngine, "TypeA", "ab.b1.value", "a1");
+        Assert.assertEquals(0, idx.getMatchingOrdinal("one", 1));
+        Assert.assertEquals(0, idx.getMatchingOrdinalForStringAndLong("one", 1));
+
+        HollowPrimaryKeyIndex doubleIdx = new HollowPrimaryKeyIndex(readStateEngine, "TypeA", "a2");
+        try {
+            doubleIdx.getMatchingOrdinalForLong(1L);
+            Assert.fail("expected a ClassCastException for a long key on a DOUBLE field");
+        } catch(ClassCastException expected) { }
+    }
+
     private static void addDataForDupTesting(HollowWriteStateEngine writeStateEngine, int a1Start, double a2, int size) {
         TypeB typeB = new TypeB("commonTypeB");
         HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
@@ -328,6 +520,18 @@ public class HollowPrimaryKeyIndexTest extends AbstractStateEngineTest {
         }
     }
 
+    private static class TypeC {
+        private final int c1;
+        private final long c2;
+        private final String c3;
+
+        public TypeC(int c1, long c2, String c3) {
+            this.c1 = c1;
+            this.c2 = c2;
+            this.c3 = c3;
+        }
+    }
+
     @Override
     protected void initializeTypeStates() { }
 
@@ -0,0 +1,166 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import com.netflix.hollow.core.memory.pool.EpochReclaimingRecycler.ReadEpoch;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EpochReclaimingRecyclerTest {
+
+    @Test
+    public void segmentsAreReleasedWhenNoEpochIsOpen() {
+        HollowMemoryPool pool = new HollowMemoryPool(5, 2, 1024);
+        EpochReclaimingRecycler recycler = new EpochReclaimingRecycler(pool);
+
+        long[] longs = recycler.getLongArray();
+        recycler.recycleLongArray(longs);
+        Assert.assertEquals(1, recycler.getRetainedSegmentCount());
+
+        recycler.swap();
+        Assert.assertEquals(0, recycler.getRetainedSegmentCount());
+        Assert.assertSame(longs, recycler.getLongArray());
+    }
+
+    @Test
+    public void segmentsAreRetainedWhileAnEarlierEpochIsOpen() {
+        HollowMemoryPool pool = new HollowMemoryPool(5, 2, 1024);
+        EpochReclaimingRecycler recycler = new EpochReclaimingRecycler(pool);
+
+        byte[] bytes = recycler.getByteArray();
+
+        ReadEpoch epoch = recycler.enterReadEpoch();
+        recycler.recycleByteArray(bytes);
+        recycler.swap();
+        Assert.assertEquals(1, recycler.getRetainedSegmentCount());
+        Assert.assertNotSame(bytes, recycler.getByteArray());
+
+        // a nested epoch keeps the outer epoch open
+        recycler.enterReadEpoch().close();
+        recycler.swap();
+        Assert.assertEquals(1, recycler.getRetainedSegmentCount());
+
+        epoch.close();
+        recycler.swap();
+        Assert.assertEquals(0, recycler.getRetainedSegmentCount());
+        Assert.assertSame(bytes, recycler.getByteArray());
+    }
+
+    @Test
+    public void onlySegmentsReleasedDuringAnOpenEpochAreRetained() {
+        HollowMemoryPool pool = new HollowMemoryPool(5, 2, 1024);
+        EpochReclaimingRecycler recycler = new EpochReclaimingRecycler(pool);
+
+        long[] longs = recycler.getLongArray();
+        recycler.recycleLongArray(longs);
+        recycler.swap();
+
+        try(ReadEpoch epoch = recycler.enterReadEpoch()) {
+            Assert.assertEquals(0, recycler.getRetainedSegmentCount());
+        }
+
+        try(ReadEpoch epoch = recycler.enterReadEpoch()) {
+            recycler.recycleLongArray(recycler.getLongArray());
+            recycler.swap();
+            Assert.assertEquals(1, recycler.getRetainedSegmentCount());
+        }
+    }
+
+    @Test
+    public void epochsOfTerminatedThreadsAreDropped() throws InterruptedException {
+        EpochReclaimingRecycler recycler = new EpochReclaimingRecycler(new HollowMemoryPool());
+        recycler.enterReadEpoch().close();
+
+        for(int i=0;i<10;i++) {
+            Thread thread = new Thread(() -> recycler.enterReadEpoch().close());
+            thread.start();
+            thread.join();
+        }
+        Assert.assertEquals(11, recycler.getRegisteredReadEpochCount());
+
+        for(int i=0;i<100 && recycler.getRegisteredReadEpochCount() > 1;i++) {
+            System.gc();
+            Thread.sleep(10);
+            recycler.swap();
+        }
+        Assert.assertEquals(1, recycler.getRegisteredReadEpochCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closingAnUnopenedEpochFails() {
+        EpochReclaimingRecycler recycler = new EpochReclaimingRecycler(new HollowMemoryPool());
+        ReadEpoch epoch = recycler.enterReadEpoch();
+        epoch.close();
+        epoch.close();
+    }
+
+    @Test
+    public void readsInsideEpochsObserveDeltas() throws IOException {
+        EpochReclaimingRecycler recycler = new EpochReclaimingRecycler(new HollowMemoryPool());
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        HollowBlobWriter writer = new HollowBlobWriter(writeEngine);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        for(int i=0;i<1000;i++)
+            mapper.add(new TypeA(i, i));
+        writer.writeSnapshot(baos);
+
+        HollowReadStateEngine readEngine = new HollowReadStateEngine(true, recycler);
+        HollowBlobReader reader = new HollowBlobReader(readEngine);
+        reader.readSnapshot(new ByteArrayInputStream(baos.toByteArray()));
+
+        for(int cycle=1;cycle<=3;cycle++) {
+            writeEngine.prepareForNextCycle();
+            for(int i=0;i<1000;i++)
+                mapper.add(new TypeA(i, i + cycle));
+            baos.reset();
+            writer.writeDelta(baos);
+            reader.applyDelta(new ByteArrayInputStream(baos.toByteArray()));
+
+            HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readEngine.getTypeState("TypeA");
+            try(ReadEpoch epoch = recycler.enterReadEpoch()) {
+                int ordinal = typeState.getPopulatedOrdinals().nextSetBit(0);
+                int id = typeState.readInt(ordinal, 0);
+                Assert.assertEquals(id + cycle, typeState.readInt(ordinal, 1));
+            }
+        }
+
+        Assert.assertEquals(0, recycler.getRetainedSegmentCount());
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        int value;
+
+        TypeA(int id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+}
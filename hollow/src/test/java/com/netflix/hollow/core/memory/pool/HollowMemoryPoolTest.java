@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowMemoryPoolTest {
+
+    @Test
+    public void recycledSegmentsAreReusedOnlyAfterSwap() {
+        HollowMemoryPool pool = new HollowMemoryPool(5, 2, 1024);
+
+        long[] longs = pool.getLongArray();
+        Assert.assertEquals(5, longs.length);
+        longs[3] = 100;
+        pool.recycleLongArray(longs);
+
+        Assert.assertNotSame(longs, pool.getLongArray());
+
+        pool.swap();
+        long[] reused = pool.getLongArray();
+        Assert.assertSame(longs, reused);
+        Assert.assertEquals(0, reused[3]);
+
+        byte[] bytes = pool.getByteArray();
+        bytes[7] = 1;
+        pool.recycleByteArray(bytes);
+        pool.swap();
+        Assert.assertSame(bytes, pool.getByteArray());
+        Assert.assertEquals(0, bytes[7]);
+
+        Assert.assertEquals(2, pool.getLongSegmentSizeClass().getNumAllocated());
+        Assert.assertEquals(1, pool.getLongSegmentSizeClass().getNumReused());
+        Assert.assertEquals(1, pool.getByteSegmentSizeClass().getNumReused());
+        Assert.assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void poolIsBounded() {
+        HollowMemoryPool pool = new HollowMemoryPool(5, 2, 64);
+
+        for(int i=0;i<4;i++)
+            pool.recycleByteArray(new byte[32]);
+
+        Assert.assertEquals(2, pool.getByteSegmentSizeClass().getNumPooled());
+        Assert.assertEquals(2, pool.getByteSegmentSizeClass().getNumDiscarded());
+        Assert.assertEquals(64, pool.getPooledBytes());
+
+        pool.recycleLongArray(new long[5]);
+        Assert.assertEquals(1, pool.getLongSegmentSizeClass().getNumDiscarded());
+    }
+
+    @Test
+    public void deltaApplicationReusesSegments() throws IOException {
+        HollowMemoryPool pool = new HollowMemoryPool();
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        HollowBlobWriter writer = new HollowBlobWriter(writeEngine);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        for(int i=0;i<10000;i++)
+            mapper.add(new TypeA(i, i));
+        writer.writeSnapshot(baos);
+
+        HollowReadStateEngine readEngine = new HollowReadStateEngine(true, pool);
+        HollowBlobReader reader = new HollowBlobReader(readEngine);
+        reader.readSnapshot(new ByteArrayInputStream(baos.toByteArray()));
+
+        long allocatedAfterSnapshot = pool.getLongSegmentSizeClass().getNumAllocated();
+
+        for(int cycle=1;cycle<=5;cycle++) {
+            writeEngine.prepareForNextCycle();
+            for(int i=0;i<10000;i++)
+                mapper.add(new TypeA(i, i + cycle));
+            baos.reset();
+            writer.writeDelta(baos);
+            reader.applyDelta(new ByteArrayInputStream(baos.toByteArray()));
+        }
+
+        long allocatedByDeltas = pool.getLongSegmentSizeClass().getNumAllocated() - allocatedAfterSnapshot;
+        Assert.assertTrue(pool.getLongSegmentSizeClass().getNumReused() > allocatedByDeltas);
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        int value;
+
+        TypeA(int id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+}
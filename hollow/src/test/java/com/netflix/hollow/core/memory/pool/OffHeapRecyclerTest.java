@@ -0,0 +1,158 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.InMemoryBlobStore;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.memory.SegmentedLongArray;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapRecyclerTest {
+
+    @Test
+    public void fixedLengthElementArrayOffHeap() {
+        OffHeapRecycler recycler = new OffHeapRecycler(OffHeapRecycler.Mode.DIRECT, null, 64 * 1024, 11, 8);
+        testFixedLengthElementArray(recycler);
+    }
+
+    @Test
+    public void fixedLengthElementArrayMapped() {
+        OffHeapRecycler recycler = new OffHeapRecycler(OffHeapRecycler.Mode.MAPPED, null, 64 * 1024, 11, 8);
+        testFixedLengthElementArray(recycler);
+    }
+
+    private void testFixedLengthElementArray(OffHeapRecycler recycler) {
+        Random rand = new Random(42);
+        int bitsPerElement = 41;
+        int numElements = 100000;
+        long values[] = new long[numElements];
+
+        FixedLengthElementArray arr = new FixedLengthElementArray(recycler, (long)bitsPerElement * numElements);
+        for(int i=0;i<numElements;i++) {
+            values[i] = rand.nextLong() & ((1L << bitsPerElement) - 1);
+            arr.setElementValue((long)i * bitsPerElement, bitsPerElement, values[i]);
+        }
+
+        for(int i=0;i<numElements;i++) {
+            Assert.assertEquals(values[i], arr.getElementValue((long)i * bitsPerElement, bitsPerElement));
+            Assert.assertEquals(values[i], arr.getLargeElementValue((long)i * bitsPerElement, bitsPerElement));
+        }
+
+        long segmentsInUse = recycler.getNumLongSegmentsInUse();
+        Assert.assertTrue(segmentsInUse > 0);
+        Assert.assertTrue(recycler.getOffHeapBytesReserved() > 0);
+
+        arr.destroy(recycler);
+        recycler.swap();
+        Assert.assertEquals(0, recycler.getNumLongSegmentsInUse());
+
+        long reserved = recycler.getOffHeapBytesReserved();
+        FixedLengthElementArray reused = new FixedLengthElementArray(recycler, (long)bitsPerElement * numElements);
+        Assert.assertEquals(reserved, recycler.getOffHeapBytesReserved());
+        for(int i=0;i<numElements;i++)
+            Assert.assertEquals(0, reused.getElementValue((long)i * bitsPerElement, bitsPerElement));
+    }
+
+    @Test
+    public void epochReclaimingOffHeap() {
+        OffHeapRecycler offHeap = new OffHeapRecycler(OffHeapRecycler.Mode.DIRECT, null, 64 * 1024, 11, 8);
+        OffHeapEpochReclaimingRecycler recycler = new OffHeapEpochReclaimingRecycler(offHeap);
+
+        FixedLengthElementArray arr = new FixedLengthElementArray(recycler, 64 * 1024);
+        arr.setElementValue(100, 20, 12345);
+        long segmentsInUse = offHeap.getNumLongSegmentsInUse();
+        Assert.assertTrue(segmentsInUse > 0);
+
+        EpochReclaimingRecycler.ReadEpoch epoch = recycler.enterReadEpoch();
+        arr.destroy(recycler);
+        recycler.swap();
+        /// an open read epoch may still observe the array
+        Assert.assertEquals(segmentsInUse, offHeap.getNumLongSegmentsInUse());
+        Assert.assertEquals(12345, arr.getElementValue(100, 20));
+
+        epoch.close();
+        recycler.swap();
+        recycler.swap();
+        Assert.assertEquals(0, offHeap.getNumLongSegmentsInUse());
+    }
+
+    @Test
+    public void heapSegmentsAreBoundsChecked() {
+        SegmentedLongArray arr = new SegmentedLongArray(WastefulRecycler.SMALL_ARRAY_RECYCLER, 10);
+        try {
+            arr.get(1L << 20);
+            Assert.fail();
+        } catch(ArrayIndexOutOfBoundsException expected) { }
+    }
+
+    @Test
+    public void producerAndConsumerOffHeap() {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager()).build();
+        producer.getWriteEngine().setMemoryRecycler(new OffHeapRecycler(OffHeapRecycler.Mode.DIRECT));
+
+        OffHeapRecycler consumerRecycler = new OffHeapRecycler(OffHeapRecycler.Mode.MAPPED);
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withMemoryRecycler(consumerRecycler)
+                .build();
+
+        for(int cycle=0;cycle<3;cycle++) {
+            final int c = cycle;
+            long version = producer.runCycle(state -> {
+                for(int i=0;i<5000;i++)
+                    state.add(new TypeA(i, (long)i * c, "value" + (i % 100)));
+            });
+            consumer.triggerRefreshTo(version);
+
+            HollowReadStateEngine readEngine = consumer.getStateEngine();
+            Assert.assertSame(consumerRecycler, readEngine.getMemoryRecycler());
+            BitSet populated = readEngine.getTypeState("TypeA").getPopulatedOrdinals();
+            Assert.assertEquals(5000, populated.cardinality());
+            for(int ordinal = populated.nextSetBit(0);ordinal != -1;ordinal = populated.nextSetBit(ordinal + 1)) {
+                GenericHollowObject obj = new GenericHollowObject(readEngine, "TypeA", ordinal);
+                int id = obj.getInt("id");
+                Assert.assertEquals((long)id * c, obj.getLong("value"));
+                Assert.assertEquals("value" + (id % 100), obj.getObject("name").getString("value"));
+            }
+        }
+
+        Assert.assertTrue(consumerRecycler.getNumLongSegmentsInUse() > 0);
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        long value;
+        String name;
+
+        TypeA(int id, long value, String name) {
+            this.id = id;
+            this.value = value;
+            this.name = name;
+        }
+    }
+
+}
@@ -45,6 +45,17 @@ public class HashCodesTest {
         }
     }
 
+    @Test
+    public void testCharSequenceHashCode() {
+        for(int i=0;i<10000;i++) {
+            String str = buildRandomString(i % 2 == 0, i % 30);
+            Assert.assertEquals(accurateStringHashCode(str), HashCodes.hashCode(new StringBuilder(str)));
+        }
+
+        Assert.assertEquals(HashCodes.hashCode(""), HashCodes.hashCode(new StringBuilder()));
+        Assert.assertEquals(-1, HashCodes.hashCode((CharSequence)null));
+    }
+
     @Test
     public void testHashTableSize() {
         // Current load factor is 10 / 7. If load factor calculation is changed, this test should be updated
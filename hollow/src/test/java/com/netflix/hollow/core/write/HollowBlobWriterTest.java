@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write;
+
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowBlobWriterTest {
+
+    @Test
+    public void flushesAtTypeBoundariesOnlyWhenRequested() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<10;i++)
+            mapper.add(new TypeA(i, "value" + i));
+        int numTypes = writeEngine.getOrderedTypeStates().size();
+
+        FlushCountingOutputStream os = new FlushCountingOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(os);
+        Assert.assertEquals(1, os.flushes);
+
+        os = new FlushCountingOutputStream();
+        HollowBlobWriter writer = new HollowBlobWriter(writeEngine);
+        writer.setFlushAtTypeBoundaries(true);
+        writer.writeSnapshot(os);
+        Assert.assertEquals(numTypes + 1, os.flushes);
+    }
+
+    private static class FlushCountingOutputStream extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String value;
+
+        TypeA(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write;
+
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowWriteStateSizeEstimateTest {
+
+    @Test
+    public void projectsSnapshotSizeAndConsumerHeapFootprint() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(32 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<5000;i++)
+            mapper.add(new TypeA(i, "value" + i, i % 10));
+
+        HollowWriteStateSizeEstimate estimate = writeEngine.estimateSize();
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(snapshot);
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        new HollowBlobReader(readEngine).readSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        for(HollowTypeReadState typeState : readEngine.getTypeStates()) {
+            HollowTypeSizeEstimate typeEstimate = estimate.getTypeEstimate(typeState.getSchema().getName());
+            Assert.assertEquals(typeState.numShards(), typeEstimate.getNumShards());
+            Assert.assertEquals(typeState.getPopulatedOrdinals().cardinality(), typeEstimate.getNumRecords());
+            assertWithin(typeState.getApproximateHeapFootprintInBytes(), typeEstimate.getConsumerHeapFootprintInBytes(), 0.05);
+        }
+
+        Assert.assertTrue(estimate.getTypeEstimate("TypeA").getNumShards() > 1);
+        assertWithin(snapshot.size(), estimate.getSnapshotSizeInBytes(), 0.1);
+        Assert.assertEquals(5000, estimate.getTypeEstimate("TypeA").getNumAddedRecords());
+    }
+
+    @Test
+    public void projectsDeltaSize() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<5000;i++)
+            mapper.add(new TypeA(i, "value" + i, i % 10));
+        new HollowBlobWriter(writeEngine).writeSnapshot(new ByteArrayOutputStream());
+
+        writeEngine.prepareForNextCycle();
+        for(int i=500;i<5500;i++)
+            mapper.add(new TypeA(i, "value" + i, i % 10));
+
+        HollowWriteStateSizeEstimate estimate = writeEngine.estimateSize();
+        HollowTypeSizeEstimate typeEstimate = estimate.getTypeEstimate("TypeA");
+        Assert.assertEquals(5000, typeEstimate.getNumRecords());
+        Assert.assertEquals(500, typeEstimate.getNumAddedRecords());
+        Assert.assertEquals(500, typeEstimate.getNumRemovedRecords());
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeDelta(delta);
+
+        assertWithin(delta.size(), estimate.getDeltaSizeInBytes(), 0.25);
+        Assert.assertTrue(estimate.getDeltaSizeInBytes() < estimate.getSnapshotSizeInBytes() / 4);
+    }
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        Assert.assertTrue("expected " + expected + " but estimated " + actual,
+                Math.abs(expected - actual) <= Math.max(64, expected * tolerance));
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String value;
+        List<Integer> list;
+        Set<Integer> set;
+        Map<Integer, Integer> map;
+
+        TypeA(int id, String value, int numElements) {
+            this.id = id;
+            this.value = value;
+            Integer elements[] = new Integer[numElements];
+            for(int i=0;i<numElements;i++)
+                elements[i] = id + i;
+            this.list = Arrays.asList(elements);
+            this.set = new HashSet<Integer>(list);
+            this.map = new HashMap<Integer, Integer>();
+            for(Integer e : elements)
+                map.put(e, e * 2);
+        }
+    }
+
+}
@@ -84,6 +84,34 @@ public class HollowCombinerPrimaryKeyTests {
         assertObject(output, 10,3, 4, 2, 4, 2);
     }
     
+    @Test
+    public void testSuppliedPrimaryKeyIndexes() throws IOException {
+        PrimaryKey bKey = new PrimaryKey("TypeB", "key");
+        PrimaryKey cKey = new PrimaryKey("TypeC", "key");
+
+        HollowCombiner combiner = new HollowCombiner(input1, input2, input3);
+        combiner.setPrimaryKeys(bKey, cKey);
+        combiner.setPrimaryKeyIndexes(
+                new HollowPrimaryKeyIndex(input1, bKey),
+                new HollowPrimaryKeyIndex(input3, bKey),
+                new HollowPrimaryKeyIndex(input2, cKey));
+
+        combiner.combine();
+
+        HollowReadStateEngine output = StateEngineRoundTripper.roundTripSnapshot(combiner.getCombinedStateEngine());
+
+        assertObject(output, 1, 1, 1, 1, 1, 1);
+        assertObject(output, 2, 1, 2, 1, 2, 1);
+        assertObject(output, 3, 1, 3, 1, 3, 1);
+        assertObject(output, 4, 2, 2, 1, 2, 1);
+        assertObject(output, 5, 2, 4, 2, 4, 2);
+        assertObject(output, 6, 2, 6, 2, 6, 2);
+        assertObject(output, 7, 3, 2, 1, 2, 1);
+        assertObject(output, 8, 3, 7, 3, 6, 2);
+        assertObject(output, 9, 3, 8, 3, 8, 3);
+        assertObject(output, 10,3, 4, 2, 4, 2);
+    }
+
     @Test
     public void testCompoundKeys() throws IOException {
         HollowCombiner combiner = new HollowCombiner(input1, input2, input3);
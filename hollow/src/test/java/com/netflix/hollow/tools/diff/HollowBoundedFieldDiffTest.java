@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.diff;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.tools.diff.count.HollowFieldDiff;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowBoundedFieldDiffTest {
+
+    @Test
+    public void retainsHighestScoringPairs() {
+        HollowFieldDiff fieldDiff = new HollowFieldDiff(new HollowDiffNodeIdentifier("Test"), 3);
+
+        for(int i=0;i<100;i++) {
+            fieldDiff.addDiff(i, i + 1000, i % 10 + 1);
+            if(i == 42) {
+                // repeated additions for the same pair accumulate into it
+                fieldDiff.addDiff(i, i + 1000, 20);
+            }
+        }
+        fieldDiff.finishCounting();
+
+        Assert.assertEquals(100, fieldDiff.getNumDiffs());
+        Assert.assertEquals(100 * 5.5 + 20, fieldDiff.getTotalDiffScore(), 0);
+        Assert.assertEquals(3, fieldDiff.getNumRetainedDiffs());
+
+        Assert.assertEquals(42, fieldDiff.getFromOrdinal(0));
+        Assert.assertEquals(1042, fieldDiff.getToOrdinal(0));
+        Assert.assertEquals(23, fieldDiff.getPairScore(0));
+        // ties are broken in favor of the earliest pairs
+        Assert.assertEquals(9, fieldDiff.getFromOrdinal(1));
+        Assert.assertEquals(10, fieldDiff.getPairScore(1));
+        Assert.assertEquals(19, fieldDiff.getFromOrdinal(2));
+        Assert.assertEquals(10, fieldDiff.getPairScore(2));
+    }
+
+    @Test
+    public void unboundedRetainsAllPairsInOrder() {
+        HollowFieldDiff fieldDiff = new HollowFieldDiff(new HollowDiffNodeIdentifier("Test"));
+
+        for(int i=0;i<100;i++)
+            fieldDiff.addDiff(i, i, i % 10 + 1);
+        fieldDiff.finishCounting();
+
+        Assert.assertEquals(100, fieldDiff.getNumDiffs());
+        Assert.assertEquals(100, fieldDiff.getNumRetainedDiffs());
+        for(int i=0;i<100;i++)
+            Assert.assertEquals(i, fieldDiff.getFromOrdinal(i));
+    }
+
+    @Test
+    public void boundedDiffReportsExactCountsAndTopPairs() throws IOException {
+        HollowWriteStateEngine fromEngine = new HollowWriteStateEngine();
+        HollowWriteStateEngine toEngine = new HollowWriteStateEngine();
+        HollowObjectMapper fromMapper = new HollowObjectMapper(fromEngine);
+        HollowObjectMapper toMapper = new HollowObjectMapper(toEngine);
+
+        for(int i=0;i<5000;i++) {
+            fromMapper.add(new TypeA(i, i, 0));
+            toMapper.add(new TypeA(i, i % 7 == 0 ? i : i + 1, i % 13));
+        }
+
+        HollowReadStateEngine from = StateEngineRoundTripper.roundTripSnapshot(fromEngine);
+        HollowReadStateEngine to = StateEngineRoundTripper.roundTripSnapshot(toEngine);
+
+        HollowDiff fullDiff = new HollowDiff(from, to);
+        fullDiff.calculateDiffs();
+
+        HollowDiff boundedDiff = new HollowDiff(from, to);
+        boundedDiff.setMaxRetainedDiffPairsPerField(10);
+        boundedDiff.calculateDiffs();
+
+        List<HollowFieldDiff> fullFieldDiffs = fullDiff.getTypeDiff("TypeA").getFieldDiffs();
+        List<HollowFieldDiff> boundedFieldDiffs = boundedDiff.getTypeDiff("TypeA").getFieldDiffs();
+        Assert.assertEquals(fullFieldDiffs.size(), boundedFieldDiffs.size());
+
+        for(int i=0;i<fullFieldDiffs.size();i++) {
+            HollowFieldDiff full = fullFieldDiffs.get(i);
+            HollowFieldDiff bounded = boundedFieldDiffs.get(i);
+
+            Assert.assertEquals(full.getFieldIdentifier(), bounded.getFieldIdentifier());
+            Assert.assertEquals(full.getNumDiffs(), bounded.getNumDiffs());
+            Assert.assertEquals(full.getTotalDiffScore(), bounded.getTotalDiffScore());
+            Assert.assertEquals(Math.min(10, full.getNumDiffs()), bounded.getNumRetainedDiffs());
+
+            List<Integer> fullScores = new ArrayList<>();
+            for(int j=0;j<full.getNumRetainedDiffs();j++)
+                fullScores.add(full.getPairScore(j));
+            Collections.sort(fullScores, Collections.<Integer>reverseOrder());
+
+            for(int j=0;j<bounded.getNumRetainedDiffs();j++)
+                Assert.assertEquals((int)fullScores.get(j), bounded.getPairScore(j));
+        }
+    }
+
+    @HollowPrimaryKey(fields="id")
+    private static class TypeA {
+        int id;
+        int b;
+        List<Integer> c;
+
+        TypeA(int id, int b, int cSize) {
+            this.id = id;
+            this.b = b;
+            this.c = new ArrayList<>();
+            for(int i=0;i<cSize;i++)
+                c.add(id + i);
+        }
+    }
+}
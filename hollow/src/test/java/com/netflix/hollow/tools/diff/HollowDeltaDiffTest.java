@@ -0,0 +1,138 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.diff;
+
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.diff.count.HollowFieldDiff;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowDeltaDiffTest {
+
+    @Test
+    public void deltaDiffMatchesFullDiff() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        HollowBlobWriter writer = new HollowBlobWriter(writeEngine);
+
+        for(int i=0;i<100;i++)
+            mapper.add(movie(i, "title" + i, i % 50));
+        ByteArrayOutputStream fromSnapshot = new ByteArrayOutputStream();
+        writer.writeSnapshot(fromSnapshot);
+        writeEngine.prepareForNextCycle();
+
+        for(int i=0;i<100;i++) {
+            if(i == 7)
+                continue;
+            if(i == 3)
+                mapper.add(movie(i, "changed title", i % 50));
+            else if(i == 5)
+                mapper.add(movie(i, "title" + i, 99));
+            else
+                mapper.add(movie(i, "title" + i, i % 50));
+        }
+        mapper.add(movie(200, "title200", 1));
+
+        ByteArrayOutputStream toSnapshot = new ByteArrayOutputStream();
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        writer.writeSnapshot(toSnapshot);
+        writer.writeDelta(delta);
+
+        HollowReadStateEngine fromEngine = readSnapshot(fromSnapshot);
+        HollowReadStateEngine toEngine = readSnapshot(toSnapshot);
+        HollowReadStateEngine deltaEngine = readSnapshot(fromSnapshot);
+        new HollowBlobReader(deltaEngine).applyDelta(new ByteArrayInputStream(delta.toByteArray()));
+
+        HollowDiff fullDiff = new HollowDiff(fromEngine, toEngine);
+        fullDiff.calculateDiffs();
+        HollowDiff deltaDiff = HollowDiff.forDelta(deltaEngine);
+        deltaDiff.calculateDiffs();
+
+        Assert.assertTrue(deltaDiff.isDeltaDiff());
+
+        HollowTypeDiff fullTypeDiff = fullDiff.getTypeDiff("Movie");
+        HollowTypeDiff deltaTypeDiff = deltaDiff.getTypeDiff("Movie");
+
+        Assert.assertEquals(2, deltaTypeDiff.getMatcher().getMatchedOrdinals().size());
+        Assert.assertEquals(fullTypeDiff.getTotalNumberOfMatches(), deltaTypeDiff.getTotalNumberOfMatches());
+        Assert.assertEquals(fullTypeDiff.getTotalItemsInFromState(), deltaTypeDiff.getTotalItemsInFromState());
+        Assert.assertEquals(fullTypeDiff.getTotalItemsInToState(), deltaTypeDiff.getTotalItemsInToState());
+        Assert.assertEquals(1, deltaTypeDiff.getUnmatchedOrdinalsInFrom().size());
+        Assert.assertEquals(1, deltaTypeDiff.getUnmatchedOrdinalsInTo().size());
+        Assert.assertEquals("7", deltaTypeDiff.getMatcher().getKeyDisplayString(deltaTypeDiff.getFromTypeState(), deltaTypeDiff.getUnmatchedOrdinalsInFrom().get(0)));
+        Assert.assertEquals("200", deltaTypeDiff.getMatcher().getKeyDisplayString(deltaTypeDiff.getToTypeState(), deltaTypeDiff.getUnmatchedOrdinalsInTo().get(0)));
+
+        Assert.assertTrue(deltaTypeDiff.getTotalDiffScore() > 0);
+        Assert.assertEquals(fullTypeDiff.getTotalDiffScore(), deltaTypeDiff.getTotalDiffScore());
+        Assert.assertEquals(scoresByField(fullTypeDiff.getFieldDiffs()), scoresByField(deltaTypeDiff.getFieldDiffs()));
+    }
+
+    private static Map<String, Long> scoresByField(List<HollowFieldDiff> fieldDiffs) {
+        Map<String, Long> scores = new HashMap<>();
+        for(HollowFieldDiff fieldDiff : fieldDiffs)
+            scores.put(fieldDiff.getFieldIdentifier().toString(), fieldDiff.getTotalDiffScore());
+        return scores;
+    }
+
+    private static HollowReadStateEngine readSnapshot(ByteArrayOutputStream snapshot) throws IOException {
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        new HollowBlobReader(readEngine).readSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+        return readEngine;
+    }
+
+    private static Movie movie(int id, String title, int actorAge) {
+        return new Movie(id, title, Arrays.asList(new Actor("actor" + id, actorAge), new Actor("shared", 1)));
+    }
+
+    @SuppressWarnings("unused")
+    @HollowPrimaryKey(fields = "id")
+    private static class Movie {
+        int id;
+        String title;
+        List<Actor> actors;
+
+        Movie(int id, String title, List<Actor> actors) {
+            this.id = id;
+            this.title = title;
+            this.actors = actors;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Actor {
+        String name;
+        int age;
+
+        Actor(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+
+}
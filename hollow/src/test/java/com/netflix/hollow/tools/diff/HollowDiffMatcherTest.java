@@ -137,6 +137,40 @@ public class HollowDiffMatcherTest {
         Assert.assertEquals("4.4 four", matcher.getKeyDisplayString(toState, to4));
     }
     
+    @Test
+    public void matchingInParallelRangesIsTheSameAsMatchingSequentially() throws IOException {
+        for(int i=0;i<100;i++) {
+            if(i % 3 != 0)
+                addFromRecord(i, "rec" + i, i, i);
+            if(i % 5 != 0)
+                addToRecord("rec" + (i * 7 % 100), i * 7 % 100, i * 7 % 100);
+        }
+
+        HollowObjectTypeReadState fromState = roundTripAndGetTypeState(fromStateEngine);
+        HollowObjectTypeReadState toState = roundTripAndGetTypeState(toStateEngine);
+
+        HollowDiffMatcher sequential = new HollowDiffMatcher(fromState, toState);
+        sequential.addMatchPath("ref.double");
+        sequential.addMatchPath("str");
+        sequential.calculateMatches(1);
+
+        // more ranges than populated ordinals, so many of the ranges are empty
+        for(int numRanges : new int[] { 2, 7, 64, 500 }) {
+            HollowDiffMatcher parallel = new HollowDiffMatcher(fromState, toState);
+            parallel.addMatchPath("ref.double");
+            parallel.addMatchPath("str");
+            parallel.calculateMatches(numRanges);
+
+            Assert.assertEquals(sequential.getMatchedOrdinals(), parallel.getMatchedOrdinals());
+            Assert.assertEquals(sequential.getExtraInFrom(), parallel.getExtraInFrom());
+            Assert.assertEquals(sequential.getExtraInTo(), parallel.getExtraInTo());
+        }
+
+        Assert.assertTrue(sequential.getMatchedOrdinals().size() > 0);
+        Assert.assertTrue(sequential.getExtraInFrom().size() > 0);
+        Assert.assertTrue(sequential.getExtraInTo().size() > 0);
+    }
+
     private HollowObjectTypeReadState roundTripAndGetTypeState(HollowWriteStateEngine stateEngine) throws IOException {
         HollowBlobWriter writer = new HollowBlobWriter(stateEngine);
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -0,0 +1,185 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.diff.exact;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.compact.HollowCompactor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DiffEqualityMappingTest {
+
+    @Test
+    public void buildsSameMapsAsOnDemand() throws IOException {
+        HollowReadStateEngine from = createStateEngine(0, 70000);
+        HollowReadStateEngine to = createStateEngine(35000, 105000);
+
+        DiffEqualityMapping prebuiltMapping = new DiffEqualityMapping(from, to);
+        prebuiltMapping.buildEqualOrdinalMaps(Arrays.asList("TypeA"));
+        prebuiltMapping.markPrepared();
+
+        DiffEqualityMapping onDemandMapping = new DiffEqualityMapping(from, to);
+
+        for(HollowTypeReadState typeState : from.getTypeStates()) {
+            String typeName = typeState.getSchema().getName();
+            DiffEqualOrdinalMap prebuiltMap = prebuiltMapping.getEqualOrdinalMap(typeName);
+            DiffEqualOrdinalMap onDemandMap = onDemandMapping.getEqualOrdinalMap(typeName);
+
+            Assert.assertTrue(typeName, prebuiltMap != DiffEqualOrdinalMap.EMPTY_MAP);
+            for(int i=0;i<=typeState.maxOrdinal();i++)
+                Assert.assertEquals(typeName, onDemandMap.getIdentityFromOrdinal(i), prebuiltMap.getIdentityFromOrdinal(i));
+            for(int i=0;i<=to.getTypeState(typeName).maxOrdinal();i++)
+                Assert.assertEquals(typeName, onDemandMap.getIdentityToOrdinal(i), prebuiltMap.getIdentityToOrdinal(i));
+        }
+    }
+
+    @Test
+    public void mapsEqualRecordsThroughReferences() throws IOException {
+        HollowReadStateEngine from = createStateEngine(0, 10);
+        HollowReadStateEngine to = createStateEngine(5, 15);
+
+        DiffEqualityMapping mapping = new DiffEqualityMapping(from, to);
+        mapping.buildEqualOrdinalMaps();
+        mapping.markPrepared();
+
+        DiffEqualOrdinalMap map = mapping.getEqualOrdinalMap("TypeA");
+        HollowTypeReadState fromTypeState = from.getTypeState("TypeA");
+
+        int numMatched = 0;
+        for(int i=0;i<=fromTypeState.maxOrdinal();i++) {
+            if(map.getIdentityFromOrdinal(i) != -1)
+                numMatched++;
+        }
+
+        Assert.assertEquals(5, numMatched);
+    }
+
+    @Test
+    public void mapsEachRecordToItselfWithinASingleState() throws IOException {
+        HollowReadStateEngine state = createStateEngine(0, 10);
+
+        DiffEqualityMapping mapping = new DiffEqualityMapping(state);
+
+        DiffEqualOrdinalLookup map = mapping.getEqualOrdinalLookup("TypeA");
+        Assert.assertSame(DiffEqualOrdinalIdentityMap.INSTANCE, map);
+        for(int i=0;i<=state.getTypeState("TypeA").maxOrdinal();i++) {
+            Assert.assertEquals(i, map.getIdentityFromOrdinal(i));
+            Assert.assertEquals(i, map.getToOrdinalIdentityTranslator().getIdentityOrdinal(i));
+            DiffEqualOrdinalMap.MatchIterator matches = map.getEqualOrdinals(i);
+            Assert.assertEquals(i, matches.next());
+            Assert.assertFalse(matches.hasNext());
+        }
+        Assert.assertSame(DiffEqualOrdinalMap.EMPTY_MAP, mapping.getEqualOrdinalLookup("Unknown"));
+    }
+
+    @Test
+    public void mapsRecordsRelocatedByACompactionWithinASingleState() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<100;i++)
+            mapper.add(new TypeA(i));
+        HollowReadStateEngine state = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+
+        writeEngine.prepareForNextCycle();
+        for(int i=50;i<100;i++)
+            mapper.add(new TypeA(i));
+        StateEngineRoundTripper.roundTripDelta(writeEngine, state);
+
+        writeEngine.prepareForNextCycle();
+        HollowCompactor compactor = new HollowCompactor(writeEngine, state, 0L, 0);
+        Assert.assertTrue(compactor.needsCompaction());
+        compactor.compact();
+        StateEngineRoundTripper.roundTripDelta(writeEngine, state);
+
+        DiffEqualityMapping mapping = new DiffEqualityMapping(state);
+        mapping.buildEqualOrdinalMaps();
+        mapping.markPrepared();
+
+        int numRelocated = 0;
+        for(HollowTypeReadState typeState : state.getTypeStates()) {
+            String typeName = typeState.getSchema().getName();
+            PopulatedOrdinalListener listener = typeState.getListener(PopulatedOrdinalListener.class);
+            BitSet previousOrdinals = listener.getPreviousOrdinals();
+            BitSet currentOrdinals = listener.getPopulatedOrdinals();
+            DiffEqualOrdinalLookup lookup = mapping.getEqualOrdinalLookup(typeName);
+
+            for(int ordinal = previousOrdinals.nextSetBit(0); ordinal != -1; ordinal = previousOrdinals.nextSetBit(ordinal + 1)) {
+                int identity = lookup.getIdentityFromOrdinal(ordinal);
+                Assert.assertTrue(typeName, currentOrdinals.get(identity));
+                Assert.assertEquals(typeName, identity, lookup.getIdentityToOrdinal(identity));
+                if(identity != ordinal)
+                    numRelocated++;
+
+                if(typeName.equals("TypeA")) {
+                    HollowObjectTypeReadState typeAState = (HollowObjectTypeReadState)typeState;
+                    int idField = typeAState.getSchema().getPosition("id");
+                    Assert.assertEquals(typeAState.readInt(ordinal, idField), typeAState.readInt(identity, idField));
+                }
+            }
+        }
+
+        Assert.assertTrue(numRelocated > 0);
+    }
+
+    private HollowReadStateEngine createStateEngine(int fromId, int toId) throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=fromId;i<toId;i++)
+            mapper.add(new TypeA(i));
+
+        return StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String name;
+        TypeB b;
+        List<TypeB> bs;
+
+        TypeA(int id) {
+            this.id = id;
+            this.name = "a" + (id % 100);
+            this.b = new TypeB(id % 1000);
+            this.bs = new ArrayList<TypeB>();
+            for(int i=0;i<id % 4;i++)
+                bs.add(new TypeB(id % 10 + i));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeB {
+        int value;
+
+        TypeB(int value) {
+            this.value = value;
+        }
+    }
+
+}
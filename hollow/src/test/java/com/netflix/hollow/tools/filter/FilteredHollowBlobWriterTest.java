@@ -130,6 +130,52 @@ public class FilteredHollowBlobWriterTest {
         Assert.assertEquals(2, readEngine.getTypeState("TypeB").getPopulatedOrdinals().cardinality());
     }
 
+    @Test
+    public void streamsLargeShardedStateToMultipleOutputs() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(16 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=0;i<20000;i++)
+            mapper.add(new TypeC(i, Long.MAX_VALUE - i, i * 1.5d, "value" + i));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+
+        HollowFilterConfig excludeStringConfig = new HollowFilterConfig(true);
+        excludeStringConfig.addField("TypeC", "str");
+        excludeStringConfig.addType("String");
+
+        HollowFilterConfig excludeNumbersConfig = new HollowFilterConfig(true);
+        excludeNumbersConfig.addField("TypeC", "bigValue");
+        excludeNumbersConfig.addField("TypeC", "dValue");
+
+        FilteredHollowBlobWriter blobWriter = new FilteredHollowBlobWriter(excludeStringConfig, excludeNumbersConfig);
+        ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        blobWriter.filterSnapshot(new ByteArrayInputStream(baos.toByteArray()), out1, out2);
+
+        HollowReadStateEngine readEngine1 = new HollowReadStateEngine();
+        new HollowBlobReader(readEngine1).readSnapshot(new ByteArrayInputStream(out1.toByteArray()));
+        HollowReadStateEngine readEngine2 = new HollowReadStateEngine();
+        new HollowBlobReader(readEngine2).readSnapshot(new ByteArrayInputStream(out2.toByteArray()));
+
+        Assert.assertTrue(readEngine1.getTypeState("TypeC").numShards() > 1);
+        Assert.assertEquals(3, ((HollowObjectSchema)readEngine1.getSchema("TypeC")).numFields());
+        Assert.assertEquals(2, ((HollowObjectSchema)readEngine2.getSchema("TypeC")).numFields());
+
+        for(int i=0;i<20000;i++) {
+            GenericHollowObject obj1 = new GenericHollowObject(readEngine1, "TypeC", i);
+            Assert.assertEquals(i, obj1.getInt("id"));
+            Assert.assertEquals(Long.MAX_VALUE - i, obj1.getLong("bigValue"));
+            Assert.assertEquals(i * 1.5d, obj1.getDouble("dValue"), 0);
+
+            GenericHollowObject obj2 = new GenericHollowObject(readEngine2, "TypeC", i);
+            Assert.assertEquals(i, obj2.getInt("id"));
+            Assert.assertEquals("value" + i, obj2.getObject("str").getString("value"));
+        }
+    }
+
     @SuppressWarnings("unused")
     private static class TypeA {
         int id;
@@ -151,5 +197,20 @@ public class FilteredHollowBlobWriterTest {
             this.value = value;
         }
     }
+    
+    @SuppressWarnings("unused")
+    private static class TypeC {
+        int id;
+        long bigValue;
+        double dValue;
+        String str;
+
+        public TypeC(int id, long bigValue, double dValue, String str) {
+            this.id = id;
+            this.bigValue = bigValue;
+            this.dValue = dValue;
+            this.str = str;
+        }
+    }
 
 }
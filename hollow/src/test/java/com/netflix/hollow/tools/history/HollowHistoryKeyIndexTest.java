@@ -126,6 +126,46 @@ public class HollowHistoryKeyIndexTest extends AbstractStateEngineTest {
         assertResults(keyIdx, "B", "five!", 3);
     }
 
+    @Test
+    public void indexesAllKeyFieldsAsIndexGrows() throws IOException {
+        HollowReadStateEngine readEngine = StateEngineRoundTripper.roundTripSnapshot(writeStateEngine);
+        HollowHistory history = new HollowHistory(readEngine, 1L, 1);
+        HollowHistoryKeyIndex keyIdx = new HollowHistoryKeyIndex(history);
+        keyIdx.addTypeIndex("A", "id", "bRef.id");
+
+        keyIdx.indexTypeField("A", "id");
+        keyIdx.indexTypeField("A", "bRef");
+
+        int numRecords = 4;
+        for(int i=0;i<numRecords;i++)
+            addRecord(i % 2 == 0 ? 1.1F : 2.2F, "key" + i, i, i);
+
+        roundTripSnapshot();
+        keyIdx.update(readStateEngine, false);
+
+        // each delta doubles the number of keys, so the key hash tables are grown
+        for(int cycle=0;cycle<6;cycle++) {
+            numRecords *= 2;
+            for(int i=0;i<numRecords;i++)
+                addRecord(i % 2 == 0 ? 1.1F : 2.2F, "key" + i, i, i);
+
+            roundTripDelta();
+            keyIdx.update(readStateEngine, true);
+        }
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("A");
+        for(int i=0;i<numRecords;i++) {
+            int keyOrdinal = keyIdx.getRecordKeyOrdinal(typeState, i);
+            Assert.assertEquals(typeState.readFloat(i, 0) + ":" + ((HollowObjectTypeReadState)readStateEngine.getTypeState("B")).readString(typeState.readOrdinal(i, 2), 0),
+                    keyIdx.getKeyDisplayString("A", keyOrdinal));
+        }
+
+        for(int i=0;i<numRecords;i++)
+            Assert.assertEquals(1, keyIdx.getTypeKeyIndexes().get("A").queryIndexedFields("key" + i).size());
+        Assert.assertEquals(numRecords / 2, keyIdx.getTypeKeyIndexes().get("A").queryIndexedFields("1.1").size());
+        Assert.assertEquals(numRecords / 2, keyIdx.getTypeKeyIndexes().get("A").queryIndexedFields("2.2").size());
+    }
+
     private void assertResults(HollowHistoryKeyIndex keyIdx, String type, String query, int... expectedResults) {
         IntList actualResults = keyIdx.getTypeKeyIndexes().get(type).queryIndexedFields(query);
 
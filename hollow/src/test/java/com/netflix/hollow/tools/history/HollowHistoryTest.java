@@ -30,7 +30,9 @@ import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryKeyIndex;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryTypeKeyIndex;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
@@ -134,6 +136,124 @@ public class HollowHistoryTest extends AbstractStateEngineTest {
         assertRecord(retrieveAddedRecord  (history, 5L, 3), 3, 4, 7);
     }
 
+    @Test
+    public void testHistoricalStatesStoredOnDisk() throws IOException {
+        File directory = Files.createTempDirectory("hollow-history").toFile();
+
+        addRecord(1, 2, 3);
+        addRecord(2, 3, 4);
+        addRecord(3, 4, 5);
+        addRecord(4, 5, 6);
+
+        roundTripSnapshot();
+
+        HollowHistory history = new HollowHistory(readStateEngine, 1L, 5);
+        history.storeHistoricalStatesOnDisk(directory, 1);
+        history.getKeyIndex().indexTypeField("A", "a1");
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 5);
+        addRecord(4, 5, 6);
+        addRecord(2, 3, 7);
+
+        roundTripDelta();
+        history.deltaOccurred(2L);
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 7);
+        addRecord(4, 5, 6);
+        addRecord(2, 3, 7);
+
+        roundTripSnapshot();
+        history.doubleSnapshotOccurred(readStateEngine, 3L);
+        history.awaitRemapping();
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 7);
+        addRecord(5, 6, 7);
+        addRecord(2, 3, 7);
+
+        roundTripDelta();
+        history.deltaOccurred(4L);
+
+        // a remapped state replaces its prior state's file
+        Assert.assertEquals(3, directory.listFiles().length);
+        Assert.assertTrue(history.getHistoricalState(4L).getDataAccess().isResident());
+        Assert.assertFalse(history.getHistoricalState(2L).getDataAccess().isResident());
+
+        assertRecord(retrieveRemovedRecord(history, 2L, 2), 2, 3, 4);
+        assertRecord(retrieveAddedRecord  (history, 2L, 2), 2, 3, 7);
+        Assert.assertTrue(history.getHistoricalState(2L).getDataAccess().isResident());
+        Assert.assertEquals(3, directory.listFiles().length);
+
+        assertRecord(retrieveRemovedRecord(history, 3L, 3), 3, 4, 5);
+        assertRecord(retrieveAddedRecord  (history, 3L, 3), 3, 4, 7);
+
+        assertRecord(retrieveRemovedRecord(history, 4L, 4), 4, 5, 6);
+        assertRecord(retrieveAddedRecord  (history, 4L, 5), 5, 6, 7);
+
+        assertRecord(retrieveRemovedRecord(history, 2L, 2), 2, 3, 4);
+
+        history.removeHistoricalStates(3);
+        Assert.assertEquals(0, directory.listFiles().length);
+        directory.delete();
+    }
+
+    @Test
+    public void testHistoricalStatesRemappedAfterDoubleSnapshot() throws IOException {
+        addRecord(1, 2, 3);
+        addRecord(2, 3, 4);
+        addRecord(3, 4, 5);
+
+        roundTripSnapshot();
+
+        HollowHistory history = new HollowHistory(readStateEngine, 1L, 5);
+        history.getKeyIndex().indexTypeField("A", "a1");
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 5);
+        addRecord(2, 3, 7);
+
+        roundTripDelta();
+        history.deltaOccurred(2L);
+
+        HollowHistoricalState replacedState = history.getHistoricalState(2L);
+        HollowObject replacedAddedRecord = retrieveAddedRecord(history, 2L, 2);
+
+        addRecord(3, 4, 5);
+        addRecord(2, 3, 7);
+        addRecord(4, 5, 6);
+
+        roundTripSnapshot();
+        history.doubleSnapshotOccurred(readStateEngine, 3L);
+
+        addRecord(3, 4, 8);
+        addRecord(2, 3, 7);
+        addRecord(4, 5, 6);
+
+        roundTripSnapshot();
+        history.doubleSnapshotOccurred(readStateEngine, 4L);
+
+        // possibly remapped twice before being remapped in the background, or accessed
+        assertRecord(retrieveRemovedRecord(history, 2L, 2), 2, 3, 4);
+        assertRecord(retrieveAddedRecord  (history, 2L, 2), 2, 3, 7);
+
+        history.awaitRemapping();
+        Assert.assertTrue(history.getHistoricalState(2L).getDataAccess().isResident());
+        Assert.assertTrue(history.getHistoricalState(3L).getDataAccess().isResident());
+
+        assertRecord(retrieveRemovedRecord(history, 3L, 1), 1, 2, 3);
+        assertRecord(retrieveAddedRecord  (history, 3L, 4), 4, 5, 6);
+
+        assertRecord(retrieveRemovedRecord(history, 4L, 3), 3, 4, 5);
+        assertRecord(retrieveAddedRecord  (history, 4L, 3), 3, 4, 8);
+
+        // states replaced by a double snapshot remain usable by those which still reference them
+        Assert.assertNotSame(replacedState, history.getHistoricalState(2L));
+        Assert.assertNotNull(replacedState.getDataAccess().getNextState());
+        assertRecord(replacedAddedRecord, 2, 3, 7);
+    }
+
     @Test
     public void testNewType() throws IOException {
         addRecord(1, 2, 3);
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.split;
+
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowSplitterTest {
+
+    @Test
+    public void writesSameShardSnapshotsAsSplit() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<100;i++)
+            mapper.add(new TypeA(i));
+        HollowReadStateEngine input = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+
+        HollowSplitter splitter = new HollowSplitter(new HollowSplitterOrdinalCopyDirector(3, "TypeA"), input);
+        splitter.split();
+
+        ByteArrayOutputStream[] shardOutputs = new ByteArrayOutputStream[3];
+        for(int i=0;i<shardOutputs.length;i++)
+            shardOutputs[i] = new ByteArrayOutputStream();
+
+        splitter.writeShardSnapshots(2, shardOutputs);
+
+        int totalRecords = 0;
+        for(int i=0;i<shardOutputs.length;i++) {
+            HollowReadStateEngine expected = StateEngineRoundTripper.roundTripSnapshot(splitter.getOutputShardStateEngine(i));
+            HollowReadStateEngine actual = new HollowReadStateEngine();
+            new HollowBlobReader(actual).readSnapshot(new ByteArrayInputStream(shardOutputs[i].toByteArray()));
+
+            int numRecords = numPopulatedOrdinals(actual, "TypeA");
+            Assert.assertEquals(numPopulatedOrdinals(expected, "TypeA"), numRecords);
+            Assert.assertEquals(numPopulatedOrdinals(expected, "String"), numPopulatedOrdinals(actual, "String"));
+            totalRecords += numRecords;
+        }
+
+        Assert.assertEquals(100, totalRecords);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresOutputForEachShard() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        new HollowObjectMapper(writeEngine).add(new TypeA(1));
+        HollowReadStateEngine input = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+
+        HollowSplitter splitter = new HollowSplitter(new HollowSplitterOrdinalCopyDirector(2, "TypeA"), input);
+        splitter.writeShardSnapshots(1, new ByteArrayOutputStream());
+    }
+
+    private int numPopulatedOrdinals(HollowReadStateEngine stateEngine, String type) {
+        return stateEngine.getTypeState(type).getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals().cardinality();
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String name;
+
+        TypeA(int id) {
+            this.id = id;
+            this.name = "name" + (id % 10);
+        }
+    }
+
+}